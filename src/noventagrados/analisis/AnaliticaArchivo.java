@@ -0,0 +1,114 @@
+package noventagrados.analisis;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+import noventagrados.modelo.Tablero;
+import noventagrados.util.OpcionesLinea;
+
+/**
+ * Analiza un archivo de partidas en paralelo y escribe su resumen con
+ * {@link ResumenArchivo#escribir(Path)}.
+ *
+ * Cada fichero se recorre con un {@link SpliteradorPartidas}, que el marco de
+ * flujos divide en bloques de líneas completas para reproducirlos en varios
+ * hilos; cada hilo acumula en su propio resumen y los resúmenes se combinan al
+ * terminar. Los ficheros se procesan uno tras otro, cada uno en paralelo.
+ *
+ * Uso: {@code AnaliticaArchivo [--tamano=N] [--jugadas=K] [--salida=directorio]
+ * fichero ...}, donde K es el número de jugadas de la secuencia de apertura.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class AnaliticaArchivo {
+    /** Mensaje de uso de la línea de órdenes. */
+    private static final String USO = "Uso: AnaliticaArchivo [--tamano=N] [--jugadas=K] [--salida=directorio]"
+            + " fichero ...";
+
+    private final int tamano;
+    private final int jugadasApertura;
+
+    /**
+     * Crea un analizador.
+     *
+     * @param tamano          tamaño del tablero de las partidas.
+     * @param jugadasApertura jugadas que forman la secuencia de apertura.
+     */
+    public AnaliticaArchivo(int tamano, int jugadasApertura) {
+        this.tamano = tamano;
+        this.jugadasApertura = jugadasApertura;
+    }
+
+    /**
+     * Punto de entrada del analizador.
+     *
+     * @param args opciones y ficheros
+     * @throws IOException si falla la lectura o la escritura
+     */
+    public static void main(String[] args) throws IOException {
+        int tamano;
+        int jugadas;
+        Path salida;
+        List<Path> ficheros = new ArrayList<>();
+        try {
+            OpcionesLinea opciones = new OpcionesLinea(args, "--tamano", "--jugadas", "--salida");
+            tamano = Tablero.comprobarTamano(opciones.consultarEntero("--tamano", Tablero.TAMANO_POR_DEFECTO));
+            jugadas = opciones.consultarEntero("--jugadas", 4);
+            salida = Paths.get(opciones.consultarTexto("--salida", "analitica"));
+            opciones.consultarArgumentos().forEach(fichero -> ficheros.add(Paths.get(fichero)));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USO);
+            return;
+        }
+        if (ficheros.isEmpty()) {
+            System.err.println(USO);
+            return;
+        }
+        long inicio = System.nanoTime();
+        ResumenArchivo resumen = new AnaliticaArchivo(tamano, jugadas).analizar(ficheros);
+        resumen.escribir(salida);
+        System.out.printf("%d partidas, %d errores, resumen en %s, %d ms%n", resumen.consultarPartidas(),
+                resumen.consultarErrores(), salida, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Analiza varios ficheros de partidas.
+     *
+     * @param ficheros los ficheros.
+     * @return el resumen de todas sus partidas.
+     * @throws IOException si falla la lectura.
+     */
+    public ResumenArchivo analizar(List<Path> ficheros) throws IOException {
+        ResumenArchivo total = new ResumenArchivo(tamano, jugadasApertura);
+        for (Path fichero : ficheros) {
+            total.combinar(analizar(fichero));
+        }
+        return total;
+    }
+
+    /**
+     * Analiza en paralelo un fichero de partidas.
+     *
+     * @param fichero el fichero.
+     * @return el resumen de sus partidas.
+     * @throws IOException si falla la lectura.
+     */
+    public ResumenArchivo analizar(Path fichero) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            return StreamSupport.stream(new SpliteradorPartidas(canal), true).collect(
+                    () -> new ResumenArchivo(tamano, jugadasApertura), ResumenArchivo::acumular,
+                    ResumenArchivo::combinar);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
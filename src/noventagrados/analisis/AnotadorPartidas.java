@@ -0,0 +1,268 @@
+package noventagrados.analisis;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import noventagrados.control.Arbitro;
+import noventagrados.control.ReproductorPartida;
+import noventagrados.modelo.Jugada;
+import noventagrados.modelo.Tablero;
+import noventagrados.motor.Buscador;
+import noventagrados.motor.InformeBusqueda;
+import noventagrados.motor.LimitesBusqueda;
+import noventagrados.motor.TablaTransposicionMemoria;
+import noventagrados.util.Color;
+import noventagrados.util.OpcionesLinea;
+
+/**
+ * Señala los errores graves de partidas grabadas volviendo a buscar cada
+ * posición con un número fijo de nodos.
+ *
+ * Si s(i) es la puntuación de la posición anterior a la jugada i para quien la
+ * hace y s(i+1) la de la posición siguiente para su rival, la jugada pierde
+ * s(i) + s(i+1) respecto a la mejor encontrada. Se anotan las jugadas que
+ * pierden más que el umbral y no son la mejor jugada de la búsqueda. Cuando la
+ * partida termina con la jugada, s(i+1) es la del resultado.
+ *
+ * Las partidas se leen por lotes y las posiciones de todas las partidas del
+ * lote se buscan en paralelo una a una, de modo que una partida larga no deja
+ * esperando al resto de hilos. Cada hilo tiene su propio buscador, cuya tabla
+ * de transposición se vacía antes de cada posición para que el resultado no
+ * dependa del reparto entre hilos.
+ *
+ * Las anotaciones de cada fichero se escriben junto a él, en el mismo
+ * directorio y con la extensión {@code .anotaciones} añadida: una línea por
+ * jugada señalada con el número de partida, el número de jugada, la jugada, la
+ * puntuación de la posición, lo que pierde, la mejor jugada y la profundidad
+ * alcanzada. Las partidas con jugadas no válidas se anotan hasta la jugada
+ * errónea con una línea de comentario.
+ *
+ * Uso: {@code AnotadorPartidas [--tamano=N] [--nodos=N] [--umbral=N] fichero ...}.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class AnotadorPartidas {
+    /** Mensaje de uso de la línea de órdenes. */
+    private static final String USO = "Uso: AnotadorPartidas [--tamano=N] [--nodos=N] [--umbral=N] fichero ...";
+
+    /** Partidas que se reproducen y buscan juntas. */
+    private static final int PARTIDAS_POR_LOTE = 1024;
+
+    /** Entradas de la tabla de transposición de cada hilo. */
+    private static final int ENTRADAS_TABLA = 1 << 16;
+
+    private final int tamano;
+    private final LimitesBusqueda limites;
+    private final int umbral;
+    private final ThreadLocal<Buscador> buscadores;
+    private long partidas;
+    private long posiciones;
+    private long anotaciones;
+
+    /**
+     * Crea un anotador.
+     *
+     * @param tamano tamaño del tablero de las partidas.
+     * @param nodos  nodos de la búsqueda de cada posición.
+     * @param umbral pérdida mínima para anotar una jugada.
+     */
+    public AnotadorPartidas(int tamano, long nodos, int umbral) {
+        this.tamano = Tablero.comprobarTamano(tamano);
+        this.limites = LimitesBusqueda.porNodos(nodos);
+        this.umbral = umbral;
+        this.buscadores = ThreadLocal.withInitial(() -> new Buscador(new TablaTransposicionMemoria(ENTRADAS_TABLA)));
+    }
+
+    /**
+     * Punto de entrada del anotador.
+     *
+     * @param args opciones y ficheros
+     * @throws IOException si falla la lectura o la escritura
+     */
+    public static void main(String[] args) throws IOException {
+        int tamano;
+        long nodos;
+        int umbral;
+        List<Path> ficheros = new ArrayList<>();
+        try {
+            OpcionesLinea opciones = new OpcionesLinea(args, "--tamano", "--nodos", "--umbral");
+            tamano = Tablero.comprobarTamano(opciones.consultarEntero("--tamano", Tablero.TAMANO_POR_DEFECTO));
+            nodos = opciones.consultarLargo("--nodos", 20_000);
+            umbral = opciones.consultarEntero("--umbral", 150);
+            opciones.consultarArgumentos().forEach(fichero -> ficheros.add(Paths.get(fichero)));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USO);
+            return;
+        }
+        if (ficheros.isEmpty()) {
+            System.err.println(USO);
+            return;
+        }
+        long inicio = System.nanoTime();
+        AnotadorPartidas anotador = new AnotadorPartidas(tamano, nodos, umbral);
+        for (Path fichero : ficheros) {
+            anotador.anotar(fichero);
+        }
+        System.out.printf("%d partidas, %d posiciones, %d jugadas anotadas, %d ms%n", anotador.partidas,
+                anotador.posiciones, anotador.anotaciones, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Anota las partidas de un fichero en el fichero de anotaciones de al lado.
+     *
+     * @param fichero fichero de partidas.
+     * @return el fichero de anotaciones escrito.
+     * @throws IOException si falla la lectura o la escritura.
+     */
+    public Path anotar(Path fichero) throws IOException {
+        Path destino = fichero.resolveSibling(fichero.getFileName() + ".anotaciones");
+        try (BufferedReader entrada = Files.newBufferedReader(fichero, StandardCharsets.US_ASCII);
+                PrintWriter salida = new PrintWriter(new BufferedWriter(
+                        Files.newBufferedWriter(destino, StandardCharsets.UTF_8)))) {
+            salida.println("#partida\tjugada\tmovimiento\tpuntuacion\tcaida\tmejor\tprofundidad");
+            List<String> lote = new ArrayList<>(PARTIDAS_POR_LOTE);
+            long numero = 0;
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                if (!ReproductorPartida.esPartida(linea)) {
+                    continue;
+                }
+                lote.add(linea);
+                if (lote.size() == PARTIDAS_POR_LOTE) {
+                    anotarLote(lote, numero, salida);
+                    numero += lote.size();
+                    lote.clear();
+                }
+            }
+            anotarLote(lote, numero, salida);
+        }
+        return destino;
+    }
+
+    /**
+     * Reproduce, busca y anota un lote de partidas.
+     *
+     * @param lineas  partidas del lote.
+     * @param primera número de partidas del fichero anteriores al lote.
+     * @param salida  destino de las anotaciones.
+     */
+    private void anotarLote(List<String> lineas, long primera, PrintWriter salida) {
+        List<Partida> lote = lineas.parallelStream().map(this::reproducir).toList();
+        int total = 0;
+        for (Partida partida : lote) {
+            partida.primeraBusqueda = total;
+            total += partida.buscadas.size();
+        }
+        Arbitro[] buscadas = new Arbitro[total];
+        for (Partida partida : lote) {
+            for (int i = 0; i < partida.buscadas.size(); i++) {
+                buscadas[partida.primeraBusqueda + i] = partida.buscadas.get(i);
+            }
+        }
+        InformeBusqueda[] informes = new InformeBusqueda[total];
+        IntStream.range(0, total).parallel().forEach(i -> {
+            Buscador buscador = buscadores.get();
+            buscador.limpiarTabla();
+            informes[i] = buscador.buscar(buscadas[i], limites, null);
+        });
+
+        for (int p = 0; p < lote.size(); p++) {
+            escribir(primera + p + 1, lote.get(p), informes, salida);
+        }
+        partidas += lote.size();
+        posiciones += total;
+    }
+
+    /**
+     * Escribe las anotaciones de una partida.
+     *
+     * @param numero   número de la partida en el fichero.
+     * @param partida  la partida.
+     * @param informes búsquedas de todas las posiciones del lote.
+     * @param salida   destino de las anotaciones.
+     */
+    private void escribir(long numero, Partida partida, InformeBusqueda[] informes, PrintWriter salida) {
+        for (int i = 0; i < partida.jugadas.size(); i++) {
+            InformeBusqueda antes = informes[partida.primeraBusqueda + i];
+            if (antes.profundidad() == 0) {
+                continue;
+            }
+            long despues;
+            if (i + 1 < partida.buscadas.size()) {
+                InformeBusqueda informe = informes[partida.primeraBusqueda + i + 1];
+                if (informe.profundidad() == 0) {
+                    continue;
+                }
+                despues = informe.puntuacion();
+            } else {
+                // La jugada termina la partida: puntuación del resultado para el rival
+                Color ganador = partida.ganador;
+                despues = ganador == null ? 0
+                        : ganador == partida.buscadas.get(i).consultarTurno() ? -Buscador.VICTORIA : Buscador.VICTORIA;
+            }
+            long caida = antes.puntuacion() + despues;
+            String jugada = partida.jugadas.get(i);
+            Jugada mejor = antes.consultarMejorJugada();
+            if (caida > umbral && mejor != null && !mejor.aTexto().equals(jugada)) {
+                salida.printf("%d\t%d\t%s\t%d\t%d\t%s\t%d%n", numero, i + 1, jugada, antes.puntuacion(),
+                        caida, mejor.aTexto(), antes.profundidad());
+                anotaciones++;
+            }
+        }
+        if (partida.error > 0) {
+            salida.printf("# partida %d: jugada %d no válida%n", numero, partida.error);
+        }
+    }
+
+    /**
+     * Reproduce una partida guardando las posiciones que hay que buscar.
+     *
+     * @param linea línea con la partida.
+     * @return la partida reproducida.
+     */
+    private Partida reproducir(String linea) {
+        Partida partida = new Partida();
+        Arbitro arbitro = new Arbitro(new Tablero(tamano));
+        arbitro.colocarPiezasConfiguracionInicial();
+        ReproductorPartida reproductor = new ReproductorPartida(arbitro, linea);
+        Arbitro anterior = arbitro.clonar();
+        while (reproductor.avanzar()) {
+            partida.buscadas.add(anterior);
+            partida.jugadas
+                    .add(linea.substring(reproductor.consultarInicioJugada(), reproductor.consultarFinJugada()));
+            anterior = arbitro.clonar();
+        }
+        if (reproductor.hayError()) {
+            partida.error = reproductor.consultarJugadas() + 1;
+        }
+        if (arbitro.estaFinalizadaPartida()) {
+            partida.ganador = arbitro.consultarTurnoGanador();
+        } else {
+            partida.buscadas.add(arbitro);
+        }
+        return partida;
+    }
+
+    /**
+     * Partida reproducida: posiciones anteriores a cada jugada, más la final si
+     * la partida no ha terminado.
+     */
+    private static final class Partida {
+        private final List<Arbitro> buscadas = new ArrayList<>();
+        private final List<String> jugadas = new ArrayList<>();
+        private Color ganador;
+        private int error;
+        private int primeraBusqueda;
+    }
+}
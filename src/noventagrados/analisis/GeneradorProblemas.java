@@ -0,0 +1,252 @@
+package noventagrados.analisis;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import noventagrados.control.Arbitro;
+import noventagrados.control.ReproductorPartida;
+import noventagrados.datos.LectorPosiciones;
+import noventagrados.modelo.Jugada;
+import noventagrados.modelo.Tablero;
+import noventagrados.motor.ResolutorVictorias;
+import noventagrados.util.OpcionesLinea;
+
+/**
+ * Extrae problemas de partidas grabadas o de posiciones de entrenamiento:
+ * posiciones en las que el jugador con el turno gana a la fuerza en como mucho
+ * N jugadas propias y solo una primera jugada lo consigue.
+ *
+ * Cada posición candidata se examina con un {@link ResolutorVictorias} acotado
+ * por nodos en todo el examen, incluida la construcción de la solución, con
+ * profundidad creciente: en la primera profundidad con alguna jugada
+ * ganadora, la posición es un problema si esa jugada es única y se descarta
+ * si hay dos; la búsqueda deja de contar en cuanto encuentra la segunda. Las posiciones repetidas, también por simetría, se examinan una
+ * sola vez gracias a un conjunto concurrente de claves canónicas, que los
+ * hilos del flujo paralelo consultan sin cerrojo compartido.
+ *
+ * Las fuentes se recorren como flujos paralelos (los archivos de partidas con
+ * {@link SpliteradorPartidas}, los ficheros de posiciones por registros) y
+ * cada problema se escribe en cuanto se encuentra, sin esperar al resto. Cada
+ * línea de la salida tiene la posición (filas separadas por '/', '-' vacía,
+ * mayúsculas blancas y minúsculas negras), el color con el turno, el número de
+ * jugadas propias y la línea de solución, con la defensa más larga.
+ *
+ * Uso: {@code GeneradorProblemas [--tamano=N] [--jugadas=N] [--nodos=N]
+ * [--salida=problemas.txt] [--posiciones=fichero.bin ...] [archivo ...]}.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class GeneradorProblemas {
+    /** Mensaje de uso de la línea de órdenes. */
+    private static final String USO = "Uso: GeneradorProblemas [--tamano=N] [--jugadas=N] [--nodos=N]"
+            + " [--salida=problemas.txt] [--posiciones=fichero.bin ...] [archivo ...]";
+
+    /** Posiciones distintas que se esperan, para dimensionar el conjunto de vistas. */
+    private static final int POSICIONES_ESPERADAS = 1 << 20;
+
+    private final int tamano;
+    private final int jugadas;
+    private final PrintWriter salida;
+    private final Set<Long> vistas;
+    private final ThreadLocal<ResolutorVictorias> resolutores;
+    private final LongAdder candidatas;
+    private long problemas;
+
+    /**
+     * Crea un generador.
+     *
+     * @param tamano  tamaño del tablero.
+     * @param jugadas jugadas propias máximas de la victoria.
+     * @param nodos   nodos máximos del examen de cada posición.
+     * @param salida  destino de los problemas.
+     */
+    public GeneradorProblemas(int tamano, int jugadas, long nodos, PrintWriter salida) {
+        this.tamano = Tablero.comprobarTamano(tamano);
+        this.jugadas = jugadas;
+        this.salida = salida;
+        this.vistas = ConcurrentHashMap.newKeySet(POSICIONES_ESPERADAS);
+        this.candidatas = new LongAdder();
+        this.resolutores = ThreadLocal.withInitial(() -> new ResolutorVictorias(nodos));
+    }
+
+    /**
+     * Punto de entrada del generador.
+     *
+     * @param args opciones y ficheros
+     * @throws IOException si falla la lectura o la escritura
+     */
+    public static void main(String[] args) throws IOException {
+        int tamano;
+        int jugadas;
+        long nodos;
+        Path destino;
+        List<Path> posiciones = new ArrayList<>();
+        List<Path> archivos = new ArrayList<>();
+        try {
+            OpcionesLinea opciones = new OpcionesLinea(args, "--tamano", "--jugadas", "--nodos", "--salida",
+                    "--posiciones");
+            tamano = Tablero.comprobarTamano(opciones.consultarEntero("--tamano", Tablero.TAMANO_POR_DEFECTO));
+            jugadas = opciones.consultarEntero("--jugadas", 3);
+            nodos = opciones.consultarLargo("--nodos", 200_000);
+            destino = Paths.get(opciones.consultarTexto("--salida", "problemas.txt"));
+            opciones.consultarTextos("--posiciones").forEach(fichero -> posiciones.add(Paths.get(fichero)));
+            opciones.consultarArgumentos().forEach(fichero -> archivos.add(Paths.get(fichero)));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USO);
+            return;
+        }
+        if (posiciones.isEmpty() && archivos.isEmpty()) {
+            System.err.println(USO);
+            return;
+        }
+        long inicio = System.nanoTime();
+        try (PrintWriter salida = new PrintWriter(new BufferedWriter(
+                Files.newBufferedWriter(destino, StandardCharsets.UTF_8)))) {
+            GeneradorProblemas generador = new GeneradorProblemas(tamano, jugadas, nodos, salida);
+            for (Path fichero : posiciones) {
+                generador.examinarPosiciones(fichero);
+            }
+            for (Path fichero : archivos) {
+                generador.examinarArchivo(fichero);
+            }
+            System.out.printf("%d posiciones examinadas, %d problemas en %s, %d ms%n", generador.candidatas.sum(),
+                    generador.problemas, destino, (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+
+    /**
+     * Examina todas las posiciones de las partidas de un archivo.
+     *
+     * @param fichero archivo de partidas.
+     * @throws IOException si falla la lectura.
+     */
+    public void examinarArchivo(Path fichero) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            examinar(StreamSupport.stream(new SpliteradorPartidas(canal), true).flatMap(this::reproducir));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Examina las posiciones de un fichero de posiciones de entrenamiento.
+     *
+     * @param fichero fichero en el formato de {@link noventagrados.datos.FormatoPosiciones}.
+     * @throws IOException si falla la lectura o el tamaño no coincide.
+     */
+    public void examinarPosiciones(Path fichero) throws IOException {
+        try (LectorPosiciones lector = new LectorPosiciones(fichero)) {
+            if (lector.consultarTamano() != tamano) {
+                throw new IOException("Tamaño de tablero distinto en " + fichero);
+            }
+            examinar(LongStream.range(0, lector.contarRegistros()).parallel().mapToObj(lector::reconstruir));
+        }
+    }
+
+    /**
+     * Examina un flujo de posiciones y escribe sus problemas.
+     *
+     * @param candidatas posiciones candidatas.
+     */
+    private void examinar(Stream<Arbitro> candidatas) {
+        candidatas.filter(this::esNueva).forEach(this::resolver);
+        salida.flush();
+    }
+
+    /**
+     * Comprueba si una posición sin terminar no se ha examinado ya, y la marca.
+     * Puede invocarse desde varios hilos a la vez.
+     *
+     * @param arbitro la posición.
+     * @return true si hay que examinarla.
+     */
+    private boolean esNueva(Arbitro arbitro) {
+        if (arbitro.estaFinalizadaPartida() || !vistas.add(arbitro.consultarClaveCanonica())) {
+            return false;
+        }
+        candidatas.increment();
+        return true;
+    }
+
+    /**
+     * Examina una posición y escribe el problema si lo es.
+     *
+     * @param arbitro la posición.
+     */
+    private void resolver(Arbitro arbitro) {
+        ResolutorVictorias resolutor = resolutores.get();
+        resolutor.reiniciar();
+        for (int n = 1; n <= jugadas; n++) {
+            List<Jugada> ganadoras = new ArrayList<>(2);
+            int encontradas = resolutor.contarJugadasGanadoras(arbitro, n, 2, ganadoras);
+            if (encontradas == ResolutorVictorias.DESCONOCIDO || encontradas > 1) {
+                return;
+            }
+            if (encontradas == 1) {
+                List<Jugada> solucion = resolutor.construirSolucion(arbitro, ganadoras.get(0), n);
+                if (!solucion.isEmpty()) {
+                    escribir(arbitro, n, solucion);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Escribe un problema.
+     *
+     * @param arbitro  posición del problema.
+     * @param n        jugadas propias de la victoria.
+     * @param solucion línea de solución.
+     */
+    private synchronized void escribir(Arbitro arbitro, int n, List<Jugada> solucion) {
+        StringBuilder sb = new StringBuilder(arbitro.codificarTablero());
+        sb.append(' ').append(arbitro.consultarTurno().toChar()).append(' ').append(n);
+        for (Jugada jugada : solucion) {
+            sb.append(' ').append(jugada.aTexto());
+        }
+        salida.println(sb);
+        problemas++;
+    }
+
+    /**
+     * Reproduce una partida y devuelve las posiciones anteriores a cada jugada
+     * válida.
+     *
+     * @param linea línea con la partida.
+     * @return las posiciones.
+     */
+    private Stream<Arbitro> reproducir(String linea) {
+        if (!ReproductorPartida.esPartida(linea)) {
+            return Stream.empty();
+        }
+        List<Arbitro> posiciones = new ArrayList<>();
+        Arbitro arbitro = new Arbitro(new Tablero(tamano));
+        arbitro.colocarPiezasConfiguracionInicial();
+        ReproductorPartida reproductor = new ReproductorPartida(arbitro, linea);
+        Arbitro anterior = arbitro.clonar();
+        while (reproductor.avanzar()) {
+            posiciones.add(anterior);
+            anterior = arbitro.clonar();
+        }
+        return posiciones.stream();
+    }
+}
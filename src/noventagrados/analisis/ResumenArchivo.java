@@ -0,0 +1,318 @@
+package noventagrados.analisis;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import noventagrados.control.Arbitro;
+import noventagrados.control.ReproductorPartida;
+import noventagrados.modelo.Tablero;
+import noventagrados.util.Color;
+
+/**
+ * Resumen acumulado de las partidas de un archivo: resultados, longitud de las
+ * partidas, forma de las victorias y resultados por primera jugada y por
+ * secuencia de apertura.
+ *
+ * Cada línea es una partida en el formato de {@link noventagrados.textui.ModoLote}:
+ * jugadas "dd-dd" separadas por espacios desde la configuración inicial; se
+ * ignoran las líneas vacías y las que empiezan por {@code #}. Las partidas se
+ * reproducen con el árbitro, de modo que una jugada mal formada o ilegal cuenta
+ * la partida como errónea y no entra en el resto de estadísticas.
+ *
+ * Un resumen no es seguro para varios hilos a la vez: cada hilo acumula en el
+ * suyo y después se combinan con {@link #combinar(ResumenArchivo)}, que es como
+ * lo usa {@link java.util.stream.Stream#collect}.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class ResumenArchivo {
+    /** Índices de los contadores de cada apertura. */
+    private static final int PARTIDAS = 0;
+    private static final int VICTORIAS_BLANCO = 1;
+    private static final int VICTORIAS_NEGRO = 2;
+    private static final int EMPATES = 3;
+    private static final int JUGADAS = 4;
+    private static final int CONTADORES = 5;
+
+    private final int tamano;
+    private final int jugadasApertura;
+
+    private long partidas;
+    private long errores;
+    private long enCurso;
+    private long empates;
+    private long jugadasTerminadas;
+
+    /** Victorias indexadas por color y tipo de victoria. */
+    private final long[][] victorias = new long[Color.values().length][TipoVictoria.values().length];
+
+    /** Contadores por primera jugada. */
+    private final Map<String, long[]> primeras = new HashMap<>();
+
+    /** Contadores por secuencia de las primeras jugadas. */
+    private final Map<String, long[]> aperturas = new HashMap<>();
+
+    /**
+     * Crea un resumen vacío.
+     *
+     * @param tamano          tamaño del tablero de las partidas.
+     * @param jugadasApertura número de jugadas que forman la secuencia de apertura.
+     * @throws IllegalArgumentException si el número de jugadas no es positivo.
+     */
+    public ResumenArchivo(int tamano, int jugadasApertura) {
+        if (jugadasApertura <= 0) {
+            throw new IllegalArgumentException("Jugadas de apertura no válidas: " + jugadasApertura);
+        }
+        this.tamano = Tablero.comprobarTamano(tamano);
+        this.jugadasApertura = jugadasApertura;
+    }
+
+    /**
+     * Reproduce una partida y la añade al resumen.
+     *
+     * @param linea línea del archivo con la partida.
+     */
+    public void acumular(String linea) {
+        if (!ReproductorPartida.esPartida(linea)) {
+            return;
+        }
+        partidas++;
+        Arbitro arbitro = new Arbitro(new Tablero(tamano));
+        arbitro.colocarPiezasConfiguracionInicial();
+        ReproductorPartida reproductor = new ReproductorPartida(arbitro, linea);
+        String primera = null;
+        int inicio = 0;
+        int finApertura = 0;
+        while (reproductor.avanzar()) {
+            int jugadas = reproductor.consultarJugadas();
+            if (jugadas == 1) {
+                inicio = reproductor.consultarInicioJugada();
+                primera = linea.substring(inicio, reproductor.consultarFinJugada());
+            }
+            if (jugadas <= jugadasApertura) {
+                finApertura = reproductor.consultarFinJugada();
+            }
+        }
+        if (reproductor.hayError()) {
+            errores++;
+            return;
+        }
+        int jugadas = reproductor.consultarJugadas();
+        String apertura = jugadas >= jugadasApertura ? normalizar(linea, inicio, finApertura) : null;
+
+        int resultado;
+        if (!arbitro.estaFinalizadaPartida()) {
+            enCurso++;
+            resultado = -1;
+        } else {
+            jugadasTerminadas += jugadas;
+            Color ganador = arbitro.consultarTurnoGanador();
+            if (ganador == null) {
+                empates++;
+                resultado = EMPATES;
+            } else {
+                Color perdedor = ganador.consultarContrario();
+                TipoVictoria tipo = arbitro.consultarCoordenadaReina(perdedor) == null ? TipoVictoria.EXPULSION
+                        : TipoVictoria.CENTRO;
+                victorias[ganador.ordinal()][tipo.ordinal()]++;
+                resultado = ganador == Color.BLANCO ? VICTORIAS_BLANCO : VICTORIAS_NEGRO;
+            }
+        }
+        if (primera != null) {
+            contar(primeras, primera, resultado, jugadas);
+        }
+        if (apertura != null) {
+            contar(aperturas, apertura, resultado, jugadas);
+        }
+    }
+
+    /**
+     * Añade a este resumen los datos de otro de las mismas características.
+     *
+     * @param otro el otro resumen.
+     * @throws IllegalArgumentException si el tamaño o las jugadas de apertura no coinciden.
+     */
+    public void combinar(ResumenArchivo otro) {
+        if (otro.tamano != tamano || otro.jugadasApertura != jugadasApertura) {
+            throw new IllegalArgumentException("Resúmenes no compatibles");
+        }
+        partidas += otro.partidas;
+        errores += otro.errores;
+        enCurso += otro.enCurso;
+        empates += otro.empates;
+        jugadasTerminadas += otro.jugadasTerminadas;
+        for (int c = 0; c < victorias.length; c++) {
+            for (int t = 0; t < victorias[c].length; t++) {
+                victorias[c][t] += otro.victorias[c][t];
+            }
+        }
+        combinar(primeras, otro.primeras);
+        combinar(aperturas, otro.aperturas);
+    }
+
+    /**
+     * Consulta el número de partidas leídas, incluidas las erróneas.
+     *
+     * @return el número de partidas.
+     */
+    public long consultarPartidas() {
+        return partidas;
+    }
+
+    /**
+     * Consulta el número de partidas con jugadas mal formadas o ilegales.
+     *
+     * @return el número de errores.
+     */
+    public long consultarErrores() {
+        return errores;
+    }
+
+    /**
+     * Consulta las victorias de un color de una forma.
+     *
+     * @param color color ganador.
+     * @param tipo  forma de la victoria.
+     * @return el número de victorias.
+     */
+    public long consultarVictorias(Color color, TipoVictoria tipo) {
+        return victorias[color.ordinal()][tipo.ordinal()];
+    }
+
+    /**
+     * Escribe el resumen en un directorio: {@code resumen.txt} con los totales,
+     * {@code primeras.tsv} con los resultados por primera jugada y
+     * {@code aperturas.tsv} con los resultados por secuencia de apertura,
+     * ordenadas de más a menos partidas.
+     *
+     * @param directorio directorio de salida; se crea si no existe.
+     * @throws IOException si falla la escritura.
+     */
+    public void escribir(Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+        try (PrintWriter salida = abrir(directorio.resolve("resumen.txt"))) {
+            long terminadas = partidas - errores - enCurso;
+            salida.printf("tamano %d%n", tamano);
+            salida.printf("partidas %d%n", partidas);
+            salida.printf("errores %d%n", errores);
+            salida.printf("en_curso %d%n", enCurso);
+            salida.printf("terminadas %d%n", terminadas);
+            salida.printf("empates %d%n", empates);
+            for (Color color : Color.values()) {
+                for (TipoVictoria tipo : TipoVictoria.values()) {
+                    salida.printf("victorias %s %s %d%n", color, tipo, victorias[color.ordinal()][tipo.ordinal()]);
+                }
+            }
+            salida.printf("longitud_media %.2f%n", terminadas > 0 ? (double) jugadasTerminadas / terminadas : 0.0);
+        }
+        escribir(directorio.resolve("primeras.tsv"), primeras);
+        escribir(directorio.resolve("aperturas.tsv"), aperturas);
+    }
+
+    /**
+     * Escribe los contadores por jugada o secuencia, de más a menos partidas.
+     *
+     * @param fichero   fichero de salida.
+     * @param contadores contadores por clave.
+     * @throws IOException si falla la escritura.
+     */
+    private static void escribir(Path fichero, Map<String, long[]> contadores) throws IOException {
+        List<Map.Entry<String, long[]>> entradas = new ArrayList<>(contadores.entrySet());
+        entradas.sort((a, b) -> {
+            int orden = Long.compare(b.getValue()[PARTIDAS], a.getValue()[PARTIDAS]);
+            return orden != 0 ? orden : a.getKey().compareTo(b.getKey());
+        });
+        try (PrintWriter salida = abrir(fichero)) {
+            salida.println("#jugadas\tpartidas\tblanco\tnegro\tempates\tpct_blanco\tpct_negro\tlongitud_media");
+            for (Map.Entry<String, long[]> entrada : entradas) {
+                long[] c = entrada.getValue();
+                long terminadas = c[VICTORIAS_BLANCO] + c[VICTORIAS_NEGRO] + c[EMPATES];
+                salida.printf("%s\t%d\t%d\t%d\t%d\t%.1f\t%.1f\t%.1f%n", entrada.getKey(), c[PARTIDAS],
+                        c[VICTORIAS_BLANCO], c[VICTORIAS_NEGRO], c[EMPATES],
+                        terminadas > 0 ? 100.0 * c[VICTORIAS_BLANCO] / terminadas : 0.0,
+                        terminadas > 0 ? 100.0 * c[VICTORIAS_NEGRO] / terminadas : 0.0,
+                        terminadas > 0 ? (double) c[JUGADAS] / terminadas : 0.0);
+            }
+        }
+    }
+
+    /**
+     * Abre un fichero de texto para escribirlo.
+     *
+     * @param fichero el fichero.
+     * @return el escritor.
+     * @throws IOException si no se puede abrir.
+     */
+    private static PrintWriter abrir(Path fichero) throws IOException {
+        BufferedWriter escritor = Files.newBufferedWriter(fichero, StandardCharsets.UTF_8);
+        return new PrintWriter(escritor);
+    }
+
+    /**
+     * Suma una partida a los contadores de una clave.
+     *
+     * @param contadores contadores por clave.
+     * @param clave      jugada o secuencia de apertura.
+     * @param resultado  índice del contador del resultado, o -1 si no ha terminado.
+     * @param jugadas    jugadas de la partida.
+     */
+    private static void contar(Map<String, long[]> contadores, String clave, int resultado, int jugadas) {
+        long[] c = contadores.computeIfAbsent(clave, k -> new long[CONTADORES]);
+        c[PARTIDAS]++;
+        if (resultado >= 0) {
+            c[resultado]++;
+            c[JUGADAS] += jugadas;
+        }
+    }
+
+    /**
+     * Suma los contadores de otro mapa a los de este.
+     *
+     * @param destino mapa que acumula.
+     * @param origen  mapa que se suma.
+     */
+    private static void combinar(Map<String, long[]> destino, Map<String, long[]> origen) {
+        for (Map.Entry<String, long[]> entrada : origen.entrySet()) {
+            long[] c = destino.computeIfAbsent(entrada.getKey(), k -> new long[CONTADORES]);
+            long[] o = entrada.getValue();
+            for (int i = 0; i < CONTADORES; i++) {
+                c[i] += o[i];
+            }
+        }
+    }
+
+    /**
+     * Copia un tramo de la línea con las jugadas separadas por un solo espacio.
+     *
+     * @param linea  la línea.
+     * @param inicio primer carácter del tramo.
+     * @param fin    carácter siguiente al último del tramo.
+     * @return el tramo normalizado.
+     */
+    private static String normalizar(String linea, int inicio, int fin) {
+        StringBuilder sb = new StringBuilder(fin - inicio);
+        boolean separar = false;
+        for (int i = inicio; i < fin; i++) {
+            char c = linea.charAt(i);
+            if (ReproductorPartida.esBlanco(c)) {
+                separar = sb.length() > 0;
+            } else {
+                if (separar) {
+                    sb.append(' ');
+                    separar = false;
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
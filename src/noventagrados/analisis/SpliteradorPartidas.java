@@ -0,0 +1,195 @@
+package noventagrados.analisis;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Recorre las líneas de un bloque de un fichero de partidas y se divide en
+ * bloques más pequeños para recorrerlos en paralelo.
+ *
+ * Cada bloque es un intervalo de bytes del fichero que empieza al principio de
+ * una línea; al dividirse, el corte se lleva al final de la línea que contiene
+ * el punto medio, de modo que cada línea pertenece a un único bloque. Los
+ * bloques se leen con lecturas posicionales sobre el mismo canal, que admite
+ * varios hilos a la vez, y cada uno con su propio búfer.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class SpliteradorPartidas implements Spliterator<String> {
+    /** Bytes mínimos de un bloque para dividirlo. */
+    private static final long MINIMO_DIVISION = 1 << 20;
+
+    /** Bytes del búfer de lectura de cada bloque. */
+    private static final int TAMANO_BUFER = 1 << 16;
+
+    private final FileChannel canal;
+    private long inicio;
+    private final long fin;
+    private ByteBuffer bufer;
+    private byte[] linea = new byte[256];
+    private int longitudLinea;
+
+    /**
+     * Crea el recorrido de todo el fichero.
+     *
+     * @param canal canal del fichero abierto para lectura.
+     * @throws IOException si no se puede consultar su tamaño.
+     */
+    public SpliteradorPartidas(FileChannel canal) throws IOException {
+        this(canal, 0, canal.size());
+    }
+
+    /**
+     * Crea el recorrido de un bloque.
+     *
+     * @param canal  canal del fichero.
+     * @param inicio primer byte del bloque, al principio de una línea.
+     * @param fin    byte siguiente al último del bloque.
+     */
+    private SpliteradorPartidas(FileChannel canal, long inicio, long fin) {
+        this.canal = canal;
+        this.inicio = inicio;
+        this.fin = fin;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> accion) {
+        String siguiente = leerLinea();
+        if (siguiente == null) {
+            return false;
+        }
+        accion.accept(siguiente);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> accion) {
+        String siguiente;
+        while ((siguiente = leerLinea()) != null) {
+            accion.accept(siguiente);
+        }
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        if (bufer != null || fin - inicio < MINIMO_DIVISION) {
+            return null;
+        }
+        long corte = buscarFinDeLinea(inicio + (fin - inicio) / 2);
+        if (corte >= fin) {
+            return null;
+        }
+        SpliteradorPartidas primero = new SpliteradorPartidas(canal, inicio, corte);
+        inicio = corte;
+        return primero;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fin - inicio;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+
+    /**
+     * Lee la siguiente línea del bloque, sin el salto de línea.
+     *
+     * @return la línea, o null si se ha terminado el bloque.
+     */
+    private String leerLinea() {
+        if (bufer == null) {
+            bufer = ByteBuffer.allocate(TAMANO_BUFER);
+            bufer.limit(0);
+        }
+        longitudLinea = 0;
+        boolean leido = false;
+        while (true) {
+            if (!bufer.hasRemaining() && !rellenar()) {
+                return leido ? terminarLinea() : null;
+            }
+            leido = true;
+            byte b = bufer.get();
+            if (b == '\n') {
+                return terminarLinea();
+            }
+            if (longitudLinea == linea.length) {
+                linea = Arrays.copyOf(linea, 2 * linea.length);
+            }
+            linea[longitudLinea++] = b;
+        }
+    }
+
+    /**
+     * Convierte la línea acumulada en cadena, sin el retorno de carro final.
+     *
+     * @return la línea.
+     */
+    private String terminarLinea() {
+        int longitud = longitudLinea > 0 && linea[longitudLinea - 1] == '\r' ? longitudLinea - 1 : longitudLinea;
+        return new String(linea, 0, longitud, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Lee el siguiente trozo del bloque en el búfer.
+     *
+     * @return false si no quedan bytes en el bloque.
+     */
+    private boolean rellenar() {
+        if (inicio >= fin) {
+            return false;
+        }
+        bufer.clear();
+        bufer.limit((int) Math.min(bufer.capacity(), fin - inicio));
+        try {
+            int leidos = canal.read(bufer, inicio);
+            if (leidos <= 0) {
+                return false;
+            }
+            inicio += leidos;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        bufer.flip();
+        return true;
+    }
+
+    /**
+     * Busca el principio de la línea siguiente a una posición del fichero.
+     *
+     * @param desde posición desde la que se busca el salto de línea.
+     * @return la posición siguiente al salto, o el final del bloque si no lo hay.
+     */
+    private long buscarFinDeLinea(long desde) {
+        ByteBuffer trozo = ByteBuffer.allocate(4096);
+        long posicion = desde;
+        try {
+            while (posicion < fin) {
+                trozo.clear();
+                trozo.limit((int) Math.min(trozo.capacity(), fin - posicion));
+                int leidos = canal.read(trozo, posicion);
+                if (leidos <= 0) {
+                    return fin;
+                }
+                for (int i = 0; i < leidos; i++) {
+                    if (trozo.get(i) == '\n') {
+                        return posicion + i + 1;
+                    }
+                }
+                posicion += leidos;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return fin;
+    }
+}
@@ -0,0 +1,16 @@
+package noventagrados.analisis;
+
+/**
+ * Forma en que se gana una partida, según la condición que aplica
+ * {@link noventagrados.control.Arbitro#consultarTurnoGanador()}.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public enum TipoVictoria {
+    /** La reina del ganador ha llegado al centro del tablero. */
+    CENTRO,
+
+    /** La reina del perdedor ha sido expulsada del tablero. */
+    EXPULSION
+}
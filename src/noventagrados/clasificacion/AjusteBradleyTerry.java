@@ -0,0 +1,191 @@
+package noventagrados.clasificacion;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import noventagrados.util.ResultadoPartida;
+
+/**
+ * Ajuste del modelo de Bradley–Terry a un conjunto de resultados: cada jugador
+ * i tiene una fuerza p(i) y gana a j con probabilidad p(i) / (p(i) + p(j)).
+ *
+ * Se usa el algoritmo de minorización-maximización de Hunter: en cada
+ * iteración la fuerza de cada jugador pasa a ser sus victorias divididas por
+ * la suma, en todas sus partidas, de 1 / (p(i) + p(rival)). Las tablas cuentan
+ * como media victoria para cada uno. Para que los jugadores sin victorias o
+ * sin derrotas tengan una fuerza finita, cada uno juega además una victoria y
+ * una derrota virtuales contra un rival de fuerza 1, que fija también la
+ * escala.
+ *
+ * Las partidas se agrupan antes por parejas de jugadores en una estructura de
+ * filas comprimidas (los rivales de cada jugador contiguos, con el número de
+ * partidas entre ambos), ordenando las claves de pareja en paralelo. Cada
+ * iteración calcula todas las fuerzas nuevas en paralelo a partir de las de la
+ * iteración anterior, por lo que el resultado no depende del número de hilos,
+ * y corrige después la escala común de todas ellas. Partiendo de las fuerzas
+ * de un ajuste anterior, añadir unas partidas solo requiere unas pocas
+ * iteraciones.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public final class AjusteBradleyTerry {
+    /** Iteraciones máximas del ajuste. */
+    public static final int MAXIMO_ITERACIONES = 1000;
+
+    /** Cambio relativo máximo de una fuerza para dar el ajuste por terminado. */
+    public static final double TOLERANCIA = 1e-6;
+
+    /** Pasos de Newton máximos del cálculo de la escala en cada iteración. */
+    private static final int PASOS_ESCALA = 8;
+
+    /** Partidas virtuales de cada jugador contra el rival de referencia (una ganada y una perdida). */
+    private static final double PARTIDAS_PREVIAS = 2;
+
+    /** Oculta el constructor. */
+    private AjusteBradleyTerry() {
+    }
+
+    /**
+     * Ajusta las fuerzas de todos los jugadores.
+     *
+     * @param jugadores  número de jugadores; sus índices van de 0 a jugadores - 1.
+     * @param blancas    jugador con blancas de cada partida.
+     * @param negras     jugador con negras de cada partida.
+     * @param resultados resultado de cada partida, codificado con
+     *                   {@link ResultadoPartida#codificar}.
+     * @param partidas   número de partidas de los vectores que se usan.
+     * @param inicial    fuerzas de partida, por ejemplo las del ajuste anterior;
+     *                   null o más corto que el número de jugadores para empezar
+     *                   los que falten en 1.
+     * @return la fuerza de cada jugador.
+     */
+    public static double[] ajustar(int jugadores, int[] blancas, int[] negras, byte[] resultados, int partidas,
+            double[] inicial) {
+        double[] victorias = new double[jugadores];
+        long[] parejas = new long[2 * partidas];
+        int claves = 0;
+        for (int g = 0; g < partidas; g++) {
+            int blanco = blancas[g];
+            int negro = negras[g];
+            if (blanco == negro) {
+                continue;
+            }
+            parejas[claves++] = (long) blanco << 32 | negro;
+            parejas[claves++] = (long) negro << 32 | blanco;
+            switch (resultados[g]) {
+            case ResultadoPartida.GANAN_BLANCAS:
+                victorias[blanco] += 1;
+                break;
+            case ResultadoPartida.GANAN_NEGRAS:
+                victorias[negro] += 1;
+                break;
+            default:
+                victorias[blanco] += 0.5;
+                victorias[negro] += 0.5;
+                break;
+            }
+        }
+        Arrays.parallelSort(parejas, 0, claves);
+
+        // Filas comprimidas: rivales[inicio[i] .. inicio[i + 1]) son los rivales de i
+        int[] inicio = new int[jugadores + 1];
+        int[] rivales = new int[claves];
+        int[] enfrentamientos = new int[claves];
+        int distintas = 0;
+        for (int k = 0; k < claves; k++) {
+            if (k > 0 && parejas[k] == parejas[k - 1]) {
+                enfrentamientos[distintas - 1]++;
+                continue;
+            }
+            inicio[(int) (parejas[k] >>> 32) + 1]++;
+            rivales[distintas] = (int) parejas[k];
+            enfrentamientos[distintas++] = 1;
+        }
+        for (int i = 0; i < jugadores; i++) {
+            inicio[i + 1] += inicio[i];
+        }
+
+        double[] fuerzas = new double[jugadores];
+        Arrays.fill(fuerzas, 1.0);
+        if (inicial != null) {
+            System.arraycopy(inicial, 0, fuerzas, 0, Math.min(inicial.length, jugadores));
+        }
+        double[] nuevas = new double[jugadores];
+        for (int iteracion = 0; iteracion < MAXIMO_ITERACIONES; iteracion++) {
+            double[] actuales = fuerzas;
+            double[] siguientes = nuevas;
+            IntStream.range(0, jugadores).parallel().forEach(i -> {
+                double propia = actuales[i];
+                double denominador = PARTIDAS_PREVIAS / (propia + 1.0);
+                for (int k = inicio[i]; k < inicio[i + 1]; k++) {
+                    denominador += enfrentamientos[k] / (propia + actuales[rivales[k]]);
+                }
+                siguientes[i] = (victorias[i] + PARTIDAS_PREVIAS / 2) / denominador;
+            });
+            double escala = calcularEscala(siguientes);
+            double cambio = IntStream.range(0, jugadores).parallel().mapToDouble(i -> {
+                siguientes[i] *= escala;
+                return Math.abs(siguientes[i] - actuales[i]) / actuales[i];
+            }).max().orElse(0.0);
+            nuevas = fuerzas;
+            fuerzas = siguientes;
+            if (cambio < TOLERANCIA) {
+                break;
+            }
+        }
+        return fuerzas;
+    }
+
+    /**
+     * Calcula el factor por el que hay que multiplicar todas las fuerzas para
+     * que su escala sea la del óptimo.
+     *
+     * Multiplicar todas las fuerzas por un mismo factor no cambia la
+     * verosimilitud de las partidas reales, solo la de las virtuales, que
+     * apenas pesan frente a ellas; por eso las iteraciones corrigen la escala
+     * muy despacio y sin este paso el ajuste tarda cientos de iteraciones más.
+     * El factor c anula la derivada de las partidas virtuales respecto a la
+     * escala, la suma de (1 - c p) / (1 + c p), y se obtiene con unos pasos de
+     * Newton sobre log c.
+     *
+     * Las sumas se hacen en un solo hilo y en orden de jugador: sumadas en
+     * paralelo, el redondeo dependería del reparto entre hilos.
+     *
+     * @param fuerzas fuerzas tras una iteración.
+     * @return el factor de escala.
+     */
+    private static double calcularEscala(double[] fuerzas) {
+        double logaritmo = 0.0;
+        for (int paso = 0; paso < PASOS_ESCALA; paso++) {
+            double c = Math.exp(logaritmo);
+            double derivada = 0.0;
+            double pendiente = 0.0;
+            for (double fuerza : fuerzas) {
+                double escalada = c * fuerza;
+                double denominador = 1.0 + escalada;
+                derivada += (1.0 - escalada) / denominador;
+                pendiente += 2.0 * escalada / (denominador * denominador);
+            }
+            if (pendiente == 0.0) {
+                break;
+            }
+            double correccion = derivada / pendiente;
+            logaritmo += correccion;
+            if (Math.abs(correccion) < TOLERANCIA) {
+                break;
+            }
+        }
+        return Math.exp(logaritmo);
+    }
+
+    /**
+     * Convierte una fuerza a la escala Elo, con la fuerza 1 en 1500 puntos.
+     *
+     * @param fuerza fuerza de Bradley–Terry.
+     * @return la valoración Elo.
+     */
+    public static double aElo(double fuerza) {
+        return 1500.0 + 400.0 * Math.log10(fuerza);
+    }
+}
@@ -0,0 +1,122 @@
+package noventagrados.clasificacion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clasificación inmutable resultado de un ajuste, con los jugadores ordenados
+ * de mayor a menor valoración para responder consultas sin recorrerlos.
+ *
+ * Se construye una vez por ajuste y se publica entera, de modo que las
+ * consultas de cualquier hilo ven siempre una clasificación completa.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public final class Clasificacion {
+    /** Clasificación sin jugadores. */
+    static final Clasificacion VACIA = new Clasificacion(new String[0], new double[0], new int[0]);
+
+    private final String[] nombres;
+    private final double[] valoraciones;
+    private final int[] partidas;
+    private final int[] orden;
+    private final int[] posiciones;
+    private final Map<String, Integer> indices;
+
+    /**
+     * Crea la clasificación y su índice ordenado.
+     *
+     * @param nombres      nombre de cada jugador.
+     * @param valoraciones valoración Elo de cada jugador.
+     * @param partidas     partidas de cada jugador.
+     */
+    Clasificacion(String[] nombres, double[] valoraciones, int[] partidas) {
+        this.nombres = nombres;
+        this.valoraciones = valoraciones;
+        this.partidas = partidas;
+        int jugadores = nombres.length;
+        Integer[] ordenados = new Integer[jugadores];
+        for (int i = 0; i < jugadores; i++) {
+            ordenados[i] = i;
+        }
+        Arrays.parallelSort(ordenados, (a, b) -> {
+            int comparacion = Double.compare(valoraciones[b], valoraciones[a]);
+            return comparacion != 0 ? comparacion : nombres[a].compareTo(nombres[b]);
+        });
+        this.orden = new int[jugadores];
+        this.posiciones = new int[jugadores];
+        this.indices = new HashMap<>(2 * jugadores);
+        for (int p = 0; p < jugadores; p++) {
+            orden[p] = ordenados[p];
+            posiciones[ordenados[p]] = p;
+        }
+        for (int i = 0; i < jugadores; i++) {
+            indices.put(nombres[i], i);
+        }
+    }
+
+    /**
+     * Consulta el número de jugadores clasificados.
+     *
+     * @return el número de jugadores.
+     */
+    public int contarJugadores() {
+        return nombres.length;
+    }
+
+    /**
+     * Consulta los puestos de un tramo de la clasificación.
+     *
+     * @param desde    primera posición, empezando en 1.
+     * @param cantidad número máximo de puestos.
+     * @return los puestos, de mejor a peor.
+     */
+    public List<Puesto> consultarPuestos(int desde, int cantidad) {
+        int primera = Math.max(desde, 1) - 1;
+        int ultima = (int) Math.min((long) primera + Math.max(cantidad, 0), nombres.length);
+        if (primera >= ultima) {
+            return Collections.emptyList();
+        }
+        List<Puesto> puestos = new ArrayList<>(ultima - primera);
+        for (int p = primera; p < ultima; p++) {
+            puestos.add(crearPuesto(orden[p]));
+        }
+        return puestos;
+    }
+
+    /**
+     * Consulta los primeros puestos de la clasificación.
+     *
+     * @param cantidad número máximo de puestos.
+     * @return los puestos, de mejor a peor.
+     */
+    public List<Puesto> consultarPrimeros(int cantidad) {
+        return consultarPuestos(1, cantidad);
+    }
+
+    /**
+     * Consulta el puesto de un jugador.
+     *
+     * @param nombre nombre del jugador.
+     * @return el puesto, o null si no está clasificado.
+     */
+    public Puesto consultarPuesto(String nombre) {
+        Integer indice = indices.get(nombre);
+        return indice == null ? null : crearPuesto(indice);
+    }
+
+    /**
+     * Crea el puesto de un jugador.
+     *
+     * @param indice índice del jugador.
+     * @return su puesto.
+     */
+    private Puesto crearPuesto(int indice) {
+        return new Puesto(posiciones[indice] + 1, nombres[indice], valoraciones[indice], partidas[indice]);
+    }
+}
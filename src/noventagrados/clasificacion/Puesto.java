@@ -0,0 +1,14 @@
+package noventagrados.clasificacion;
+
+/**
+ * Puesto de un jugador en la clasificación.
+ *
+ * @param posicion   posición en la clasificación, empezando en 1.
+ * @param nombre     nombre del jugador.
+ * @param valoracion valoración en la escala Elo.
+ * @param partidas   partidas del jugador usadas en el ajuste.
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public record Puesto(int posicion, String nombre, double valoracion, int partidas) {
+}
@@ -0,0 +1,278 @@
+package noventagrados.clasificacion;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import noventagrados.util.Color;
+import noventagrados.util.ResultadoPartida;
+
+/**
+ * Servicio de clasificación de jugadores: recibe los resultados de las
+ * partidas según terminan y reajusta periódicamente las valoraciones de todos
+ * los jugadores con {@link AjusteBradleyTerry}.
+ *
+ * Los resultados se guardan en vectores de enteros que solo crecen, por lo
+ * que un reajuste trabaja sobre las partidas registradas hasta ese momento sin
+ * copiarlas ni bloquear los registros nuevos. Cada reajuste parte de las
+ * fuerzas del anterior y publica una {@link Clasificacion} nueva, de modo que
+ * las consultas nunca esperan a un ajuste en curso.
+ *
+ * El servicio se guarda en un fichero binario compacto: cabecera con
+ * {@link #MAGIA}, número de jugadores y de partidas; nombre y fuerza de cada
+ * jugador; y blancas, negras y resultado de cada partida (9 bytes). El fichero
+ * se escribe en uno temporal que después sustituye al anterior.
+ *
+ * Es seguro para varios hilos.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class ServicioClasificacion {
+    /** Identificador de los ficheros de clasificación ("NGCLAS01"). */
+    public static final long MAGIA = 0x4E47434C41533031L;
+
+    /** Partidas para las que se reserva espacio al crear el servicio. */
+    private static final int PARTIDAS_INICIALES = 1 << 12;
+
+    // Estado protegido por el cerrojo del objeto
+    private final List<String> nombres;
+    private final Map<String, Integer> indices;
+    private int[] blancas;
+    private int[] negras;
+    private byte[] resultados;
+    private int partidas;
+
+    /** Cerrojo que impide dos reajustes a la vez. */
+    private final Object cerrojoAjuste;
+    private double[] fuerzas;
+    private volatile Clasificacion clasificacion;
+
+    /**
+     * Crea un servicio sin partidas.
+     */
+    public ServicioClasificacion() {
+        this.nombres = new ArrayList<>();
+        this.indices = new HashMap<>();
+        this.blancas = new int[PARTIDAS_INICIALES];
+        this.negras = new int[PARTIDAS_INICIALES];
+        this.resultados = new byte[PARTIDAS_INICIALES];
+        this.cerrojoAjuste = new Object();
+        this.fuerzas = new double[0];
+        this.clasificacion = Clasificacion.VACIA;
+    }
+
+    /**
+     * Registra el resultado de una partida.
+     *
+     * @param nombreBlancas jugador con blancas.
+     * @param nombreNegras  jugador con negras.
+     * @param ganador       color ganador, o null si es empate.
+     */
+    public synchronized void registrar(String nombreBlancas, String nombreNegras, Color ganador) {
+        añadirPartida(buscarOCrear(nombreBlancas), buscarOCrear(nombreNegras),
+                (byte) ResultadoPartida.codificar(ganador));
+    }
+
+    /**
+     * Consulta el número de partidas registradas.
+     *
+     * @return el número de partidas.
+     */
+    public synchronized int contarPartidas() {
+        return partidas;
+    }
+
+    /**
+     * Consulta la clasificación del último reajuste.
+     *
+     * @return la clasificación.
+     */
+    public Clasificacion consultarClasificacion() {
+        return clasificacion;
+    }
+
+    /**
+     * Reajusta las valoraciones con todas las partidas registradas y publica la
+     * clasificación nueva. Si ya hay un reajuste en curso, espera a que termine.
+     *
+     * @return la clasificación nueva.
+     */
+    public Clasificacion reajustar() {
+        synchronized (cerrojoAjuste) {
+            String[] jugadores;
+            int[] vistasBlancas;
+            int[] vistasNegras;
+            byte[] vistosResultados;
+            int vistas;
+            synchronized (this) {
+                // Los vectores solo crecen: las partidas anteriores a "vistas" no cambian
+                jugadores = nombres.toArray(new String[0]);
+                vistasBlancas = blancas;
+                vistasNegras = negras;
+                vistosResultados = resultados;
+                vistas = partidas;
+            }
+            double[] nuevas = AjusteBradleyTerry.ajustar(jugadores.length, vistasBlancas, vistasNegras,
+                    vistosResultados, vistas, fuerzas);
+            int[] partidasJugador = new int[jugadores.length];
+            for (int g = 0; g < vistas; g++) {
+                partidasJugador[vistasBlancas[g]]++;
+                partidasJugador[vistasNegras[g]]++;
+            }
+            fuerzas = nuevas;
+            clasificacion = crearClasificacion(jugadores, nuevas, partidasJugador);
+            return clasificacion;
+        }
+    }
+
+    /**
+     * Guarda los jugadores, sus fuerzas del último reajuste y las partidas.
+     *
+     * @param fichero fichero de destino; se sustituye entero.
+     * @throws IOException si falla la escritura.
+     */
+    public void guardar(Path fichero) throws IOException {
+        String[] jugadores;
+        int[] vistasBlancas;
+        int[] vistasNegras;
+        byte[] vistosResultados;
+        int vistas;
+        double[] vistasFuerzas;
+        synchronized (cerrojoAjuste) {
+            vistasFuerzas = fuerzas;
+        }
+        synchronized (this) {
+            jugadores = nombres.toArray(new String[0]);
+            vistasBlancas = blancas;
+            vistasNegras = negras;
+            vistosResultados = resultados;
+            vistas = partidas;
+        }
+        Path temporal = fichero.resolveSibling(fichero.getFileName() + ".tmp");
+        try (DataOutputStream salida = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporal), 1 << 16))) {
+            salida.writeLong(MAGIA);
+            salida.writeInt(jugadores.length);
+            salida.writeInt(vistas);
+            for (int i = 0; i < jugadores.length; i++) {
+                salida.writeUTF(jugadores[i]);
+                salida.writeDouble(i < vistasFuerzas.length ? vistasFuerzas[i] : 1.0);
+            }
+            for (int g = 0; g < vistas; g++) {
+                salida.writeInt(vistasBlancas[g]);
+                salida.writeInt(vistasNegras[g]);
+                salida.writeByte(vistosResultados[g]);
+            }
+        }
+        Files.move(temporal, fichero, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Carga un servicio guardado con {@link #guardar(Path)}. La clasificación
+     * cargada es la del último reajuste guardado, sin volver a ajustar.
+     *
+     * @param fichero fichero de origen.
+     * @return el servicio.
+     * @throws IOException si falla la lectura o el fichero no tiene el formato esperado.
+     */
+    public static ServicioClasificacion cargar(Path fichero) throws IOException {
+        ServicioClasificacion servicio = new ServicioClasificacion();
+        try (DataInputStream entrada = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(fichero), 1 << 16))) {
+            if (entrada.readLong() != MAGIA) {
+                throw new IOException("No es un fichero de clasificación: " + fichero);
+            }
+            int jugadores = entrada.readInt();
+            int partidas = entrada.readInt();
+            if (jugadores < 0 || partidas < 0) {
+                throw new IOException("Cabecera de clasificación no válida: " + fichero);
+            }
+            double[] fuerzas = new double[jugadores];
+            for (int i = 0; i < jugadores; i++) {
+                servicio.buscarOCrear(entrada.readUTF());
+                fuerzas[i] = entrada.readDouble();
+            }
+            int[] partidasJugador = new int[jugadores];
+            for (int g = 0; g < partidas; g++) {
+                int blanco = entrada.readInt();
+                int negro = entrada.readInt();
+                byte resultado = entrada.readByte();
+                if (blanco < 0 || blanco >= jugadores || negro < 0 || negro >= jugadores) {
+                    throw new IOException("Partida con jugador inexistente en " + fichero);
+                }
+                servicio.añadirPartida(blanco, negro, resultado);
+                partidasJugador[blanco]++;
+                partidasJugador[negro]++;
+            }
+            servicio.fuerzas = fuerzas;
+            servicio.clasificacion = crearClasificacion(servicio.nombres.toArray(new String[0]), fuerzas,
+                    partidasJugador);
+        }
+        return servicio;
+    }
+
+    /**
+     * Devuelve el índice de un jugador, dándolo de alta si es nuevo.
+     * Debe invocarse con el cerrojo del objeto.
+     *
+     * @param nombre nombre del jugador.
+     * @return su índice.
+     */
+    private int buscarOCrear(String nombre) {
+        Integer indice = indices.get(nombre);
+        if (indice == null) {
+            indice = nombres.size();
+            nombres.add(nombre);
+            indices.put(nombre, indice);
+        }
+        return indice;
+    }
+
+    /**
+     * Añade una partida a los vectores, sustituyéndolos por otros más grandes
+     * si están llenos. Debe invocarse con el cerrojo del objeto.
+     *
+     * @param blanco    índice del jugador con blancas.
+     * @param negro     índice del jugador con negras.
+     * @param resultado resultado codificado.
+     */
+    private void añadirPartida(int blanco, int negro, byte resultado) {
+        if (partidas == blancas.length) {
+            int capacidad = 2 * blancas.length;
+            blancas = Arrays.copyOf(blancas, capacidad);
+            negras = Arrays.copyOf(negras, capacidad);
+            resultados = Arrays.copyOf(resultados, capacidad);
+        }
+        blancas[partidas] = blanco;
+        negras[partidas] = negro;
+        resultados[partidas] = resultado;
+        partidas++;
+    }
+
+    /**
+     * Crea la clasificación de unas fuerzas.
+     *
+     * @param jugadores nombres de los jugadores.
+     * @param fuerzas   fuerza de cada jugador.
+     * @param partidas  partidas de cada jugador.
+     * @return la clasificación.
+     */
+    private static Clasificacion crearClasificacion(String[] jugadores, double[] fuerzas, int[] partidas) {
+        double[] valoraciones = new double[jugadores.length];
+        for (int i = 0; i < jugadores.length; i++) {
+            valoraciones[i] = AjusteBradleyTerry.aElo(fuerzas[i]);
+        }
+        return new Clasificacion(jugadores, valoraciones, partidas);
+    }
+}
@@ -1,454 +1,815 @@
-package noventagrados.control;
-
-import noventagrados.modelo.Tablero;
-import noventagrados.modelo.Pieza;
-import noventagrados.util.Color;
-import noventagrados.util.Coordenada;
-import noventagrados.modelo.Celda;
-import noventagrados.modelo.Jugada;
-import noventagrados.util.TipoPieza;
-
-
-/**
- * Clase que gestiona las reglas del juego y supervisa el estado de la partida.
- * 
- * @author Miguel Cuevas Ruiz
- * @version 4.0
- */
-public class Arbitro {
-	private final Tablero tablero;
-	private Color turnoActual;
-	private final Caja cajaPiezasBlancas;
-	private final Caja cajaPiezasNegras;
-	private int contadorJugadas;
-
-	/**
-     * Constructor que inicializa el árbitro con un tablero.
-     *
-     * @param tablero el tablero de juego.
-     */	
-	public Arbitro(Tablero tablero) {
-		this.tablero = tablero;
-		this.cajaPiezasBlancas = new Caja(Color.BLANCO);
-		this.cajaPiezasNegras = new Caja(Color.NEGRO);
-		this.turnoActual = null;
-		this.contadorJugadas = 0;
-
-	}
-	
-	/**
-     * Cambia el turno al siguiente jugador.
-     */
-	public void cambiarTurno() {
-		turnoActual = (turnoActual == Color.BLANCO) ? Color.NEGRO : Color.BLANCO;
-	}
-	
-	/**
-     * Coloca las piezas en el tablero según las coordenadas proporcionadas.
-     *
-     * @param piezas       las piezas a colocar.
-     * @param coordenadas  las coordenadas donde colocar las piezas.
-     * @param turnoActual  el turno actual.
-     */
-	public void colocarPiezas(Pieza[] piezas, Coordenada[] coordenadas, Color turnoActual) {
-		for (int i = 0; i < piezas.length; i++) {
-			tablero.colocar(piezas[i], coordenadas[i]);
-		}
-		this.turnoActual = turnoActual;
-	}
-	
-	/**
-     * Configura las piezas en la posición inicial
-     */
-	public void colocarPiezasConfiguracionInicial() {
-		Pieza reinaBlanca = new Pieza(TipoPieza.REINA, Color.BLANCO);
-		Pieza peonBlanco = new Pieza(TipoPieza.PEON, Color.BLANCO);
-		Pieza reinaNegra = new Pieza(TipoPieza.REINA, Color.NEGRO);
-		Pieza peonNegro = new Pieza(TipoPieza.PEON, Color.NEGRO);
-
-		tablero.colocar(reinaBlanca, new Coordenada(0, 0));
-		tablero.colocar(peonBlanco, new Coordenada(0, 1));
-		tablero.colocar(peonBlanco, new Coordenada(0, 2));
-		tablero.colocar(peonBlanco, new Coordenada(0, 3));
-		tablero.colocar(peonBlanco, new Coordenada(1, 0));
-		tablero.colocar(peonBlanco, new Coordenada(2, 0));
-		tablero.colocar(peonBlanco, new Coordenada(3, 0));
-
-		tablero.colocar(reinaNegra, new Coordenada(6, 6));
-		tablero.colocar(peonNegro, new Coordenada(3, 6));
-		tablero.colocar(peonNegro, new Coordenada(4, 6));
-		tablero.colocar(peonNegro, new Coordenada(5, 6));
-		tablero.colocar(peonNegro, new Coordenada(6, 3));
-		tablero.colocar(peonNegro, new Coordenada(6, 4));
-		tablero.colocar(peonNegro, new Coordenada(6, 5));
-
-		turnoActual = Color.BLANCO;
-	}
-	
-	/**
-     * Consulta la caja de piezas capturadas del color especificado.
-     *
-     * @param color el color de la caja a consultar.
-     * @return la caja correspondiente al color.
-     */
-	public Caja consultarCaja(Color color) {
-		return (color == Color.BLANCO) ? cajaPiezasBlancas : cajaPiezasNegras;
-	}
-	
-	/**
-     * Devuelve el número de jugadas realizadas hasta el momento.
-     *
-     * @return el contador de jugadas.
-     */
-	public int consultarNumeroJugada() {
-
-		return contadorJugadas;
-	}
-	
-	/**
-     * Devuelve una copia del estado actual del tablero.
-     *
-     * @return el tablero clonado.
-     */
-	public Tablero consultarTablero() {
-		return tablero.clonar();
-	}
-	
-	/**
-     * Devuelve el color del jugador que tiene el turno actual.
-     *
-     * @return el color del turno actual.
-     */
-	public Color consultarTurno() {
-		return turnoActual;
-	}
-
-	public Color consultarTurnoGanador() {
-	    TableroConsultor consultor = new TableroConsultor(tablero);
-	    Color ganador = null;
-
-	    if (consultor.buscarCeldaReina(Color.BLANCO) == null && consultor.buscarCeldaReina(Color.NEGRO) != null) {
-	        ganador = Color.NEGRO;
-	    } else if (consultor.buscarCeldaReina(Color.NEGRO) == null && consultor.buscarCeldaReina(Color.BLANCO) != null) {
-	        ganador = Color.BLANCO;
-	    } else if (consultor.estaReinaEnElCentro(Color.BLANCO)) {
-	        ganador = Color.BLANCO;
-	    } else if (consultor.estaReinaEnElCentro(Color.NEGRO)) {
-	        ganador = Color.NEGRO;
-	    }
-
-	    return ganador;
-	}
-
-	/**
-     * Ejecuta una jugada empujando las piezas según las reglas.
-     *
-     * @param jugada la jugada a ejecutar.
-     */
-	public void empujar(Jugada jugada) {
-	    Coordenada origen = jugada.origen().consultarCoordenada();
-	    Coordenada destino = jugada.destino().consultarCoordenada();
-	    Pieza piezaAMover = tablero.consultarCelda(origen).consultarPieza();
-	    if (piezaAMover != null) {
-	        // Crea una instancia de TableroConsultor para el tablero actual
-	        TableroConsultor consultor = new TableroConsultor(tablero);
-
-	        int distanciaHorizontal = consultor.consultarDistanciaEnHorizontal(origen, destino);
-	        int distanciaVertical = consultor.consultarDistanciaEnVertical(origen, destino);
-
-	        if (distanciaHorizontal == -1 && distanciaVertical > 0) {
-	            movimientoVertical(origen, destino);
-	            contadorJugadas++;
-	        } else if (distanciaVertical == -1 && distanciaHorizontal > 0) {
-	            movimientoHorizontal(origen, destino);
-	            contadorJugadas++;
-	        }
-	    }
-	}
-
-	
-	/**
-	 * Mueve las piezas en la dirección vertical desde el origen hasta el destino, empujando otras piezas si es necesario.
-	 *
-	 * @param origen la coordenada de origen.
-	 * @param destino la coordenada de destino.
-	 */
-	private void movimientoVertical(Coordenada origen, Coordenada destino) {
-	    int filaOrigen = origen.fila();
-	    int filaDestino = destino.fila();
-	    int columna = origen.columna();
-	    int direccion = (filaDestino > filaOrigen) ? 1 : -1; 
-	    int distancia = Math.abs(filaDestino - filaOrigen);
-
-	    int casillasVaciasEntre = 0;
-	    boolean sinPiezaEncontrada = true;
-
-	    for (int i = filaOrigen + direccion; i != filaDestino && sinPiezaEncontrada; i += direccion) {
-	        Coordenada posicionActual = new Coordenada(i, columna);
-	        if (tablero.consultarCelda(posicionActual).estaVacia()) {
-	            casillasVaciasEntre++;
-	        } else {
-	            sinPiezaEncontrada = false;
-	        }
-	    }
-	
-		int distanciaEmpuje = distancia - casillasVaciasEntre;
-
-		for (int i = filaOrigen + direccion; i != filaDestino + direccion; i += direccion) {
-			Coordenada posicionActual = new Coordenada(i, columna);
-			Coordenada nuevaPosicion = new Coordenada(i + distanciaEmpuje * direccion, columna);
-			Pieza pieza = tablero.consultarCelda(posicionActual).consultarPieza();
-			
-			if (pieza != null) { //Si hay una pieza en posicionActual la elimina
-				tablero.eliminarPieza(posicionActual);
-
-				if (tablero.estaEnTablero(nuevaPosicion)) { //Verifica si la nueva posición está dentro del tablero
-					tablero.colocar(pieza, nuevaPosicion); //Si la posición está dentro del tablero la colocamos
-				} else { //Si nuevaPosicion está fuera del tablero la almacena en su caja
-					
-					Caja caja = (pieza.consultarColor() == Color.BLANCO) ? cajaPiezasBlancas : cajaPiezasNegras;
-					caja.añadir(pieza);
-					
-					if (pieza.consultarTipoPieza() == TipoPieza.REINA) {
-						System.out.println("¡Victoria para el equipo " + (pieza.consultarColor() == Color.BLANCO ? "Negro" : "Blanco") + "!");
-						return; 
-					}
-				}
-			}
-		}
-
-		Pieza piezaAMover = tablero.consultarCelda(origen).consultarPieza(); //Guardar la pieza que será movida
-		tablero.eliminarPieza(origen); //Asegurar que la celda de origen quede vacía después de mover la pieza
-		tablero.colocar(piezaAMover, destino); //Colocar la pieza en la celda de destino
-	}
-	
-	/**
-	 * Mueve las piezas en la dirección horizontal desde el origen hasta el destino, empujando otras piezas si es necesario.
-	 *
-	 * @param origen la coordenada de origen.
-	 * @param destino la coordenada de destino.
-	 */
-	private void movimientoHorizontal(Coordenada origen, Coordenada destino) {
-		int columnaOrigen = origen.columna();
-		int columnaDestino = destino.columna();
-		int fila = origen.fila();
-		int direccion = (columnaDestino > columnaOrigen) ? 1 : -1;
-		int distancia = Math.abs(columnaDestino - columnaOrigen);
-		int casillasVaciasEntre = 0;
-		boolean sinPiezaEncontrada = true;
-
-	    for (int i = columnaOrigen + direccion; i != columnaDestino && sinPiezaEncontrada; i += direccion) {
-	        Coordenada posicionActual = new Coordenada(fila, i);
-	        if (tablero.consultarCelda(posicionActual).estaVacia()) {
-	            casillasVaciasEntre++;
-	        } else {
-	            sinPiezaEncontrada = false; // Cambia la condición para detener el bucle
-	        }
-		}
-
-		int distanciaEmpuje = distancia - casillasVaciasEntre;
-		for (int i = columnaOrigen + direccion; i != columnaDestino + direccion; i += direccion) {
-			Coordenada posicionActual = new Coordenada(fila, i);
-			Coordenada nuevaPosicion = new Coordenada(fila, i + distanciaEmpuje * direccion);
-			Pieza pieza = tablero.consultarCelda(posicionActual).consultarPieza();
-			
-			if (pieza != null) {
-				tablero.eliminarPieza(posicionActual);
-
-				if (tablero.estaEnTablero(nuevaPosicion)) {
-					tablero.colocar(pieza, nuevaPosicion);
-				} else {
-					// Si la pieza sale del tablero, añadirla a la caja y verificar si es una reina
-					Caja caja = (pieza.consultarColor() == Color.BLANCO) ? cajaPiezasBlancas : cajaPiezasNegras;
-					caja.añadir(pieza);
-					
-					if (pieza.consultarTipoPieza() == TipoPieza.REINA) {
-						System.out.println("¡Victoria para el equipo " + (pieza.consultarColor() == Color.BLANCO ? "Negro" : "Blanco") + "!");
-						return; // Termina el juego si una reina es expulsada
-					}
-				}
-			}
-		}
-
-		Pieza piezaAMover = tablero.consultarCelda(origen).consultarPieza();
-		tablero.eliminarPieza(origen);
-		tablero.colocar(piezaAMover, destino);
-	}
-
-	/**
-	 * Verifica si una jugada es legal según las reglas del juego.
-	 *
-	 * @param jugada la jugada a verificar.
-	 * @return true si la jugada es legal, false en caso contrario.
-	 */
-	public boolean esMovimientoLegal(Jugada jugada) {
-	    boolean movimientoLegal = true;
-
-	    if (estaFinalizadaPartida()) {
-	        movimientoLegal = false;
-	    } else {
-	        Coordenada origen = jugada.origen().consultarCoordenada();
-	        Coordenada destino = jugada.destino().consultarCoordenada();
-
-	        // Verificar si el origen o el destino están fuera del tablero
-	        if (!tablero.estaEnTablero(origen) || !tablero.estaEnTablero(destino)) {
-	            System.out.println("Movimiento ilegal: coordenada fuera del tablero.");
-	            movimientoLegal = false;
-	        } else {
-	            Pieza pieza = tablero.consultarCelda(origen).consultarPieza();
-	            if (pieza == null || pieza.consultarColor() != turnoActual) {
-	                movimientoLegal = false;
-	            } else {
-	                int desplazamientoPermitido = calcularDesplazamientoPermitido(origen, destino);
-	                if (desplazamientoPermitido == 0 || desplazamientoPermitido != calcularDistancia(origen, destino)) {
-	                    movimientoLegal = false;
-	                } else if (verificarRetrocesoInmediato(jugada)) {
-	                    movimientoLegal = false;
-	                }
-	            }
-	        }
-	    }
-
-	    return movimientoLegal;
-	}
-
-	/**
-	 * Calcula la distancia en línea recta entre dos coordenadas.
-	 * Si las coordenadas no están alineadas horizontal o verticalmente, devuelve -1.
-	 *
-	 * @param origen la coordenada de origen.
-	 * @param destino la coordenada de destino.
-	 * @return la distancia en línea recta o -1 si no es válida.
-	 */
-	private int calcularDistancia(Coordenada origen, Coordenada destino) {
-	    int distancia;
-	    TableroConsultor consultor = new TableroConsultor(tablero);
-	    
-	    if (origen.fila() == destino.fila()) {
-	        
-	        distancia = consultor.consultarDistanciaEnHorizontal(origen, destino);
-	    } else if (origen.columna() == destino.columna()) {
-	        
-	        distancia = consultor.consultarDistanciaEnVertical(origen, destino);
-	        
-	    } else {
-	    	
-	        // No es un movimiento en línea recta (horizontal o vertical), devuelve -1
-	        distancia = -1;
-	    }
-
-	    return distancia;
-	}
-
-	private Jugada ultimaJugada; // Jugada previa del oponente
-
-	/**
-	 * Verifica si un movimiento intenta retroceder inmediatamente la última jugada.
-	 *
-	 * @param jugadaActual la jugada que el jugador intenta realizar.
-	 * @return true si la jugada intenta un retroceso inmediato, false en caso contrario.
-	 */
-	private boolean verificarRetrocesoInmediato(Jugada jugadaActual) {
-		if (ultimaJugada == null) {
-			// No hay una jugada previa registrada, por lo que no se puede verificar
-			// retroceso
-			return false;
-		}
-
-		Coordenada origenActual = jugadaActual.origen().consultarCoordenada();
-		Coordenada destinoActual = jugadaActual.destino().consultarCoordenada();
-
-		Coordenada origenUltima = ultimaJugada.origen().consultarCoordenada();
-		Coordenada destinoUltima = ultimaJugada.destino().consultarCoordenada();
-
-		// Verificar si el destino de la jugada actual coincide con el origen de la
-		// última jugada
-		// y si el origen de la jugada actual coincide con el destino de la última
-		// jugada.
-		return origenActual.equals(destinoUltima) && destinoActual.equals(origenUltima);
-	}
-	
-	/**
-	 * Calcula el desplazamiento permitido para un movimiento entre dos coordenadas.
-	 *
-	 * @param origen la coordenada de origen.
-	 * @param destino la coordenada de destino.
-	 * @return el desplazamiento permitido o 0 si no es válido.
-	 */
-	private int calcularDesplazamientoPermitido(Coordenada origen, Coordenada destino) {
-		// Verifica si el movimiento es horizontal o vertical
-		if (origen.fila() == destino.fila()) {
-			// Movimiento horizontal: cuenta piezas en la columna de la fila de origen
-			return contarPiezasEnColumna(origen.columna());
-		} else if (origen.columna() == destino.columna()) {
-			// Movimiento vertical: cuenta piezas en la fila de la columna de origen
-			return contarPiezasEnFila(origen.fila());
-		}
-		// Si no es un movimiento horizontal o vertical, devuelve 0 (no permitido)
-		return 0;
-	}
-	
-	/**
-     * Determina si la partida ha finalizado según las condiciones actuales.
-     *
-     * @return true si la partida está finalizada, false en caso contrario.
-     */
-	public boolean estaFinalizadaPartida() {
-		
-		TableroConsultor consultor = new TableroConsultor(tablero);
-		Celda celdaReinaBlanca = consultor.buscarCeldaReina(Color.BLANCO);
-	    Celda celdaReinaNegra = consultor.buscarCeldaReina(Color.NEGRO);
-		Coordenada centro = new Coordenada(3, 3);
-
-		// Verificar si alguna de las reinas está en el centro del tablero
-		boolean reinaBlancaEnCentro = celdaReinaBlanca != null && celdaReinaBlanca.consultarCoordenada().equals(centro);
-		boolean reinaNegraEnCentro = celdaReinaNegra != null && celdaReinaNegra.consultarCoordenada().equals(centro);
-
-		// Verificar si alguna de las reinas ha sido expulsada del tablero (es decir, no está en ninguna celda)
-		boolean reinaBlancaExpulsada = (celdaReinaBlanca == null);
-		boolean reinaNegraExpulsada = (celdaReinaNegra == null);
-
-		// La partida está finalizada si alguna reina está en el centro o si alguna ha sido expulsada
-		return reinaBlancaEnCentro || reinaNegraEnCentro || reinaBlancaExpulsada || reinaNegraExpulsada;
-	}
-	
-	/**
-	 * Cuenta el número de piezas presentes en una columna específica del tablero.
-	 *
-	 * @param columna la columna del tablero que se desea analizar.
-	 * @return el número de piezas en la columna indicada.
-	 */
-	private int contarPiezasEnColumna(int columna) {
-		int count = 0;
-		for (int fila = 0; fila < tablero.consultarNumeroFilas(); fila++) {
-			if (!tablero.consultarCelda(new Coordenada(fila, columna)).estaVacia()) {
-				count++;
-			}
-		}
-		return count;
-	}
-
-	/**
-	 * Cuenta el número de piezas presentes en una fila específica del tablero.
-	 *
-	 * @param fila la fila del tablero que se desea analizar.
-	 * @return el número de piezas en la fila indicada.
-	 */
-	private int contarPiezasEnFila(int fila) {
-		int count = 0;
-		for (int columna = 0; columna < tablero.consultarNumeroColumnas(); columna++) {
-			if (!tablero.consultarCelda(new Coordenada(fila, columna)).estaVacia()) {
-				count++;
-			}
-		}
-		return count;
-	}
-
-	
-	@Override
-	public String toString() {
-		return "Arbitro [tablero=" + tablero + ", turnoActual=" + turnoActual + ", cajaPiezasBlancas="
-				+ cajaPiezasBlancas + ", cajaPiezasNegras=" + cajaPiezasNegras + ", contadorJugadas=" + contadorJugadas
-				+ ", ultimaJugada=" + ultimaJugada + "]";
-	}
-}
+package noventagrados.control;
+
+import noventagrados.modelo.Tablero;
+import noventagrados.motor.Analisis;
+import noventagrados.motor.OyenteAnalisis;
+import noventagrados.modelo.Pieza;
+import noventagrados.util.Color;
+import noventagrados.util.Coordenada;
+import noventagrados.util.Simetria;
+import noventagrados.modelo.Celda;
+import noventagrados.modelo.Jugada;
+import noventagrados.modelo.JugadaCompacta;
+import noventagrados.metricas.MetricasArbitro;
+import noventagrados.util.TipoPieza;
+
+import java.util.Arrays;
+
+
+/**
+ * Clase que gestiona las reglas del juego y supervisa el estado de la partida.
+ * 
+ * @author Miguel Cuevas Ruiz
+ * @version 4.0
+ */
+public class Arbitro {
+	/** Clave que se combina con la del tablero cuando el turno es de las negras. */
+	private static final long CLAVE_TURNO_NEGRO = 0x9E3779B97F4A7C15L;
+
+	private final Tablero tablero;
+	private Color turnoActual;
+	private final Caja cajaPiezasBlancas;
+	private final Caja cajaPiezasNegras;
+	private int contadorJugadas;
+
+	/** Array vacío compartido para árbitros sin oyentes. */
+	private static final OyenteArbitro[] SIN_OYENTES = new OyenteArbitro[0];
+
+	/** Oyentes registrados; se sustituye el array completo al registrar o eliminar. */
+	private OyenteArbitro[] oyentes = SIN_OYENTES;
+
+	/**
+     * Constructor que inicializa el árbitro con un tablero.
+     *
+     * @param tablero el tablero de juego.
+     */	
+	public Arbitro(Tablero tablero) {
+		this.tablero = tablero;
+		// Cada color tiene tantas piezas como filas el tablero
+		this.cajaPiezasBlancas = new Caja(Color.BLANCO, tablero.consultarNumeroFilas());
+		this.cajaPiezasNegras = new Caja(Color.NEGRO, tablero.consultarNumeroFilas());
+		this.turnoActual = null;
+		this.contadorJugadas = 0;
+
+	}
+
+	/**
+	 * Constructor usado al clonar, con cajas ya creadas.
+	 *
+	 * @param tablero            el tablero de juego.
+	 * @param cajaPiezasBlancas  la caja de piezas blancas.
+	 * @param cajaPiezasNegras   la caja de piezas negras.
+	 */
+	private Arbitro(Tablero tablero, Caja cajaPiezasBlancas, Caja cajaPiezasNegras) {
+		this.tablero = tablero;
+		this.cajaPiezasBlancas = cajaPiezasBlancas;
+		this.cajaPiezasNegras = cajaPiezasNegras;
+	}
+	
+	/**
+	 * Crea una copia profunda del estado de la partida (tablero, cajas, turno,
+	 * contador y última jugada). Los oyentes no se copian.
+	 *
+	 * @return un nuevo árbitro con una copia del estado.
+	 */
+	public Arbitro clonar() {
+		Arbitro clon = new Arbitro(tablero.clonar(), cajaPiezasBlancas.clonar(), cajaPiezasNegras.clonar());
+		clon.turnoActual = turnoActual;
+		clon.contadorJugadas = contadorJugadas;
+		clon.ultimaJugada = ultimaJugada;
+		return clon;
+	}
+
+	/**
+	 * Registra un oyente que recibirá los sucesos de la partida.
+	 *
+	 * @param oyente el oyente a registrar.
+	 */
+	public void registrarOyente(OyenteArbitro oyente) {
+		if (oyente != null) {
+			OyenteArbitro[] nuevos = Arrays.copyOf(oyentes, oyentes.length + 1);
+			nuevos[oyentes.length] = oyente;
+			oyentes = nuevos;
+		}
+	}
+
+	/**
+	 * Elimina un oyente registrado previamente.
+	 *
+	 * @param oyente el oyente a eliminar.
+	 */
+	public void eliminarOyente(OyenteArbitro oyente) {
+		for (int i = 0; i < oyentes.length; i++) {
+			if (oyentes[i] == oyente) {
+				OyenteArbitro[] nuevos = new OyenteArbitro[oyentes.length - 1];
+				System.arraycopy(oyentes, 0, nuevos, 0, i);
+				System.arraycopy(oyentes, i + 1, nuevos, i, nuevos.length - i);
+				oyentes = nuevos.length == 0 ? SIN_OYENTES : nuevos;
+				return;
+			}
+		}
+	}
+
+	/**
+     * Cambia el turno al siguiente jugador.
+     */
+	public void cambiarTurno() {
+		turnoActual = (turnoActual == Color.BLANCO) ? Color.NEGRO : Color.BLANCO;
+	}
+	
+	/**
+     * Coloca las piezas en el tablero según las coordenadas proporcionadas.
+     *
+     * @param piezas       las piezas a colocar.
+     * @param coordenadas  las coordenadas donde colocar las piezas.
+     * @param turnoActual  el turno actual.
+     */
+	public void colocarPiezas(Pieza[] piezas, Coordenada[] coordenadas, Color turnoActual) {
+		for (int i = 0; i < piezas.length; i++) {
+			tablero.colocar(piezas[i], coordenadas[i]);
+		}
+		this.turnoActual = turnoActual;
+	}
+	
+	/**
+     * Configura las piezas en la posición inicial.
+     *
+     * Cada reina ocupa una esquina y sus peones cubren la fila y la columna de esa
+     * esquina hasta la línea central del tablero (en 7x7, de la reina blanca en 00
+     * hasta 03 y 30; de la reina negra en 66 hasta 36 y 63).
+     */
+	public void colocarPiezasConfiguracionInicial() {
+		Pieza reinaBlanca = new Pieza(TipoPieza.REINA, Color.BLANCO);
+		Pieza peonBlanco = new Pieza(TipoPieza.PEON, Color.BLANCO);
+		Pieza reinaNegra = new Pieza(TipoPieza.REINA, Color.NEGRO);
+		Pieza peonNegro = new Pieza(TipoPieza.PEON, Color.NEGRO);
+		int ultima = tablero.consultarNumeroFilas() - 1;
+		int mitad = ultima / 2;
+
+		tablero.colocar(reinaBlanca, new Coordenada(0, 0));
+		for (int i = 1; i <= mitad; i++) {
+			tablero.colocar(peonBlanco, new Coordenada(0, i));
+			tablero.colocar(peonBlanco, new Coordenada(i, 0));
+		}
+
+		tablero.colocar(reinaNegra, new Coordenada(ultima, ultima));
+		for (int i = mitad; i < ultima; i++) {
+			tablero.colocar(peonNegro, new Coordenada(i, ultima));
+			tablero.colocar(peonNegro, new Coordenada(ultima, i));
+		}
+
+		turnoActual = Color.BLANCO;
+	}
+	
+	/**
+     * Consulta la caja de piezas capturadas del color especificado.
+     *
+     * @param color el color de la caja a consultar.
+     * @return la caja correspondiente al color.
+     */
+	public Caja consultarCaja(Color color) {
+		return (color == Color.BLANCO) ? cajaPiezasBlancas : cajaPiezasNegras;
+	}
+	
+	/**
+     * Devuelve el número de jugadas realizadas hasta el momento.
+     *
+     * @return el contador de jugadas.
+     */
+	public int consultarNumeroJugada() {
+
+		return contadorJugadas;
+	}
+	
+	/**
+	 * Devuelve la última jugada registrada para impedir su retroceso inmediato.
+	 *
+	 * @return la jugada, o null si no hay.
+	 */
+	Jugada consultarUltimaJugada() {
+		return ultimaJugada;
+	}
+
+	/**
+	 * Restaura el contador de jugadas y la última jugada, al reconstruir una
+	 * partida desde un {@link EstadoCompacto}.
+	 *
+	 * @param contadorJugadas número de jugadas realizadas.
+	 * @param ultimaJugada    última jugada, o null.
+	 */
+	void restaurar(int contadorJugadas, Jugada ultimaJugada) {
+		this.contadorJugadas = contadorJugadas;
+		this.ultimaJugada = ultimaJugada;
+	}
+
+	/**
+     * Devuelve una copia del estado actual del tablero.
+     *
+     * @return el tablero clonado.
+     */
+	public Tablero consultarTablero() {
+		return tablero.clonar();
+	}
+
+	/**
+	 * Codifica el tablero actual en una línea, sin clonarlo.
+	 *
+	 * @return el tablero codificado con {@link Tablero#codificar()}.
+	 */
+	public String codificarTablero() {
+		return tablero.codificar();
+	}
+	
+	/**
+	 * Analiza la posición actual en segundo plano y devuelve las {@code variantes}
+	 * mejores jugadas con su puntuación y su variante principal. Las variantes se
+	 * entregan al oyente cada vez que el análisis profundiza una media jugada más,
+	 * hasta que se detiene con {@link Analisis#detener()}.
+	 *
+	 * El análisis trabaja sobre una copia: la partida puede seguir mientras tanto.
+	 *
+	 * @param variantes número de jugadas a analizar.
+	 * @param oyente    receptor de las variantes de cada iteración.
+	 * @return el análisis en curso.
+	 */
+	public Analisis analizar(int variantes, OyenteAnalisis oyente) {
+		return new Analisis(this, variantes, oyente);
+	}
+
+	/**
+	 * Devuelve el número de filas (y de columnas) del tablero.
+	 *
+	 * @return el tamaño del tablero.
+	 */
+	public int consultarTamano() {
+		return tablero.consultarNumeroFilas();
+	}
+
+	/**
+	 * Devuelve la coordenada de la reina de un color sin clonar el tablero.
+	 *
+	 * @param color el color de la reina.
+	 * @return la coordenada, o null si no está en el tablero.
+	 */
+	public Coordenada consultarCoordenadaReina(Color color) {
+		return tablero.consultarCoordenadaReina(color);
+	}
+
+	/**
+	 * Devuelve el mapa de bits de las piezas de un color en una fila sin clonar el tablero.
+	 *
+	 * @param fila  la fila a consultar.
+	 * @param color el color de las piezas.
+	 * @return los bits de ocupación (bit j = columna j).
+	 */
+	public long consultarOcupacionFila(int fila, Color color) {
+		return tablero.consultarOcupacionFila(fila, color);
+	}
+
+	/**
+	 * Devuelve el mapa de bits de las piezas de un color en una columna sin clonar el tablero.
+	 *
+	 * @param columna la columna a consultar.
+	 * @param color   el color de las piezas.
+	 * @return los bits de ocupación (bit i = fila i).
+	 */
+	public long consultarOcupacionColumna(int columna, Color color) {
+		return tablero.consultarOcupacionColumna(columna, color);
+	}
+
+	/**
+	 * Devuelve una copia de una celda del tablero, sin clonar el tablero completo.
+	 *
+	 * @param coordenada la coordenada de la celda.
+	 * @return la celda clonada o null si está fuera del tablero.
+	 */
+	public Celda consultarCelda(Coordenada coordenada) {
+		return tablero.consultarCelda(coordenada);
+	}
+
+	/**
+	 * Crea una jugada entre dos coordenadas con las celdas del tablero actual,
+	 * sin clonar el tablero completo.
+	 *
+	 * @param origen  la coordenada de origen.
+	 * @param destino la coordenada de destino.
+	 * @return la jugada, con celdas vacías para coordenadas fuera del tablero.
+	 */
+	public Jugada crearJugada(Coordenada origen, Coordenada destino) {
+		Celda celdaOrigen = tablero.estaEnTablero(origen) ? tablero.consultarCelda(origen) : new Celda(origen);
+		Celda celdaDestino = tablero.estaEnTablero(destino) ? tablero.consultarCelda(destino) : new Celda(destino);
+		return new Jugada(celdaOrigen, celdaDestino);
+	}
+
+	/**
+	 * Crea la jugada correspondiente a una jugada empaquetada con las celdas
+	 * del tablero actual.
+	 *
+	 * @param jugada jugada empaquetada con {@link JugadaCompacta}.
+	 * @return la jugada, con celdas vacías para coordenadas fuera del tablero.
+	 */
+	public Jugada crearJugada(int jugada) {
+		return crearJugada(JugadaCompacta.consultarOrigen(jugada), JugadaCompacta.consultarDestino(jugada));
+	}
+
+	/**
+     * Devuelve el color del jugador que tiene el turno actual.
+     *
+     * @return el color del turno actual.
+     */
+	public Color consultarTurno() {
+		return turnoActual;
+	}
+
+	/**
+	 * Devuelve una clave de 64 bits que identifica la posición: la disposición
+	 * de las piezas y el turno. Se mantiene de forma incremental, por lo que su
+	 * consulta no recorre el tablero.
+	 *
+	 * @return la clave de la posición.
+	 */
+	public long consultarClave() {
+		return turnoActual == Color.NEGRO ? tablero.consultarClave() ^ CLAVE_TURNO_NEGRO : tablero.consultarClave();
+	}
+
+	/**
+	 * Devuelve la clave que tendría la posición transformada por una simetría,
+	 * sin transformarla.
+	 *
+	 * @param simetria la simetría.
+	 * @return la clave de la posición transformada.
+	 */
+	public long consultarClave(Simetria simetria) {
+		long clave = tablero.consultarClave(simetria);
+		return simetria.transformar(turnoActual) == Color.NEGRO ? clave ^ CLAVE_TURNO_NEGRO : clave;
+	}
+
+	/**
+	 * Devuelve la simetría que lleva esta posición a su representante canónica:
+	 * la de menor clave entre todas sus transformadas. Las posiciones simétricas
+	 * entre sí tienen la misma representante.
+	 *
+	 * @return la simetría canónica.
+	 */
+	public Simetria consultarSimetriaCanonica() {
+		Simetria canonica = Simetria.IDENTIDAD;
+		long menor = consultarClave(canonica);
+		for (Simetria simetria : Simetria.values()) {
+			long clave = consultarClave(simetria);
+			if (Long.compareUnsigned(clave, menor) < 0) {
+				menor = clave;
+				canonica = simetria;
+			}
+		}
+		return canonica;
+	}
+
+	/**
+	 * Devuelve la clave de la representante canónica de la posición, común a
+	 * todas las posiciones simétricas entre sí.
+	 *
+	 * @return la clave canónica.
+	 */
+	public long consultarClaveCanonica() {
+		return consultarClave(consultarSimetriaCanonica());
+	}
+
+	public Color consultarTurnoGanador() {
+	    TableroConsultor consultor = new TableroConsultor(tablero);
+	    Color ganador = null;
+
+	    if (consultor.buscarCeldaReina(Color.BLANCO) == null && consultor.buscarCeldaReina(Color.NEGRO) != null) {
+	        ganador = Color.NEGRO;
+	    } else if (consultor.buscarCeldaReina(Color.NEGRO) == null && consultor.buscarCeldaReina(Color.BLANCO) != null) {
+	        ganador = Color.BLANCO;
+	    } else if (consultor.estaReinaEnElCentro(Color.BLANCO)) {
+	        ganador = Color.BLANCO;
+	    } else if (consultor.estaReinaEnElCentro(Color.NEGRO)) {
+	        ganador = Color.NEGRO;
+	    }
+
+	    return ganador;
+	}
+
+	/**
+     * Ejecuta una jugada empujando las piezas según las reglas.
+     *
+     * @param jugada la jugada a ejecutar.
+     */
+	public void empujar(Jugada jugada) {
+	    long inicio = MetricasArbitro.ACTIVAS ? System.nanoTime() : 0L;
+	    if (mover(jugada.origen().consultarCoordenada(), jugada.destino().consultarCoordenada())) {
+	        notificarJugadaAplicada(jugada, inicio);
+	    }
+	}
+
+	/**
+	 * Ejecuta una jugada empaquetada. Sin métricas ni oyentes no crea la
+	 * {@link Jugada} con sus celdas.
+	 *
+	 * @param jugada jugada empaquetada con {@link JugadaCompacta}.
+	 */
+	public void empujar(int jugada) {
+		if (MetricasArbitro.ACTIVAS || oyentes.length != 0) {
+			empujar(crearJugada(jugada));
+		} else {
+			mover(JugadaCompacta.consultarOrigen(jugada), JugadaCompacta.consultarDestino(jugada));
+		}
+	}
+
+	/**
+	 * Mueve la pieza del origen al destino empujando las piezas intermedias, si
+	 * el desplazamiento es horizontal o vertical, y cuenta la jugada.
+	 *
+	 * @param origen  la coordenada de origen.
+	 * @param destino la coordenada de destino.
+	 * @return true si se ha movido la pieza.
+	 */
+	private boolean mover(Coordenada origen, Coordenada destino) {
+	    Pieza piezaAMover = tablero.consultarCelda(origen).consultarPieza();
+	    if (piezaAMover != null) {
+	        // Crea una instancia de TableroConsultor para el tablero actual
+	        TableroConsultor consultor = new TableroConsultor(tablero);
+
+	        int distanciaHorizontal = consultor.consultarDistanciaEnHorizontal(origen, destino);
+	        int distanciaVertical = consultor.consultarDistanciaEnVertical(origen, destino);
+
+	        if (distanciaHorizontal == -1 && distanciaVertical > 0) {
+	            movimientoVertical(origen, destino);
+	            contadorJugadas++;
+	            return true;
+	        } else if (distanciaVertical == -1 && distanciaHorizontal > 0) {
+	            movimientoHorizontal(origen, destino);
+	            contadorJugadas++;
+	            return true;
+	        }
+	    }
+	    return false;
+	}
+
+	/**
+	 * Notifica a las métricas y a los oyentes la jugada aplicada y, si procede, el final de la partida.
+	 * Sin métricas ni oyentes no realiza ninguna comprobación adicional.
+	 *
+	 * @param jugada la jugada aplicada.
+	 * @param inicio instante de inicio del empuje, solo significativo con métricas activas.
+	 */
+	private void notificarJugadaAplicada(Jugada jugada, long inicio) {
+		if (MetricasArbitro.ACTIVAS) {
+			MetricasArbitro.INSTANCIA.registrarEmpuje(inicio, jugada, contadorJugadas);
+			if (estaFinalizadaPartida()) {
+				MetricasArbitro.INSTANCIA.registrarFinPartida(consultarTurnoGanador(), contadorJugadas);
+			}
+		}
+		if (oyentes.length != 0) {
+			for (OyenteArbitro oyente : oyentes) {
+				oyente.alAplicarJugada(jugada, contadorJugadas);
+			}
+			if (estaFinalizadaPartida()) {
+				Color ganador = consultarTurnoGanador();
+				for (OyenteArbitro oyente : oyentes) {
+					oyente.alFinalizarPartida(ganador);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Guarda en su caja una pieza empujada fuera del tablero y lo notifica a los oyentes.
+	 *
+	 * @param pieza la pieza expulsada.
+	 */
+	private void guardarEnCaja(Pieza pieza) {
+		Caja caja = (pieza.consultarColor() == Color.BLANCO) ? cajaPiezasBlancas : cajaPiezasNegras;
+		caja.añadir(pieza);
+		if (oyentes.length != 0) {
+			for (OyenteArbitro oyente : oyentes) {
+				oyente.alGuardarEnCaja(pieza);
+				if (pieza.consultarTipoPieza() == TipoPieza.REINA) {
+					oyente.alExpulsarReina(pieza.consultarColor());
+				}
+			}
+		}
+	}
+
+	
+	/**
+	 * Mueve las piezas en la dirección vertical desde el origen hasta el destino, empujando otras piezas si es necesario.
+	 *
+	 * @param origen la coordenada de origen.
+	 * @param destino la coordenada de destino.
+	 */
+	private void movimientoVertical(Coordenada origen, Coordenada destino) {
+	    int filaOrigen = origen.fila();
+	    int filaDestino = destino.fila();
+	    int columna = origen.columna();
+	    int direccion = (filaDestino > filaOrigen) ? 1 : -1; 
+	    int distancia = Math.abs(filaDestino - filaOrigen);
+
+	    int casillasVaciasEntre = 0;
+	    boolean sinPiezaEncontrada = true;
+
+	    for (int i = filaOrigen + direccion; i != filaDestino && sinPiezaEncontrada; i += direccion) {
+	        if (!tablero.estaOcupada(i, columna)) {
+	            casillasVaciasEntre++;
+	        } else {
+	            sinPiezaEncontrada = false;
+	        }
+	    }
+	
+		int distanciaEmpuje = distancia - casillasVaciasEntre;
+
+		for (int i = filaOrigen + direccion; i != filaDestino + direccion; i += direccion) {
+			if (tablero.estaOcupada(i, columna)) { //Si hay una pieza en posicionActual la elimina
+				Coordenada posicionActual = new Coordenada(i, columna);
+				Coordenada nuevaPosicion = new Coordenada(i + distanciaEmpuje * direccion, columna);
+				Pieza pieza = tablero.consultarCelda(posicionActual).consultarPieza();
+				tablero.eliminarPieza(posicionActual);
+
+				if (tablero.estaEnTablero(nuevaPosicion)) { //Verifica si la nueva posición está dentro del tablero
+					tablero.colocar(pieza, nuevaPosicion); //Si la posición está dentro del tablero la colocamos
+				} else { //Si nuevaPosicion está fuera del tablero la almacena en su caja
+					
+					guardarEnCaja(pieza);
+					
+					if (pieza.consultarTipoPieza() == TipoPieza.REINA) {
+						return; 
+					}
+				}
+			}
+		}
+
+		Pieza piezaAMover = tablero.consultarCelda(origen).consultarPieza(); //Guardar la pieza que será movida
+		tablero.eliminarPieza(origen); //Asegurar que la celda de origen quede vacía después de mover la pieza
+		tablero.colocar(piezaAMover, destino); //Colocar la pieza en la celda de destino
+	}
+	
+	/**
+	 * Mueve las piezas en la dirección horizontal desde el origen hasta el destino, empujando otras piezas si es necesario.
+	 *
+	 * @param origen la coordenada de origen.
+	 * @param destino la coordenada de destino.
+	 */
+	private void movimientoHorizontal(Coordenada origen, Coordenada destino) {
+		int columnaOrigen = origen.columna();
+		int columnaDestino = destino.columna();
+		int fila = origen.fila();
+		int direccion = (columnaDestino > columnaOrigen) ? 1 : -1;
+		int distancia = Math.abs(columnaDestino - columnaOrigen);
+		int casillasVaciasEntre = 0;
+		boolean sinPiezaEncontrada = true;
+
+	    for (int i = columnaOrigen + direccion; i != columnaDestino && sinPiezaEncontrada; i += direccion) {
+	        if (!tablero.estaOcupada(fila, i)) {
+	            casillasVaciasEntre++;
+	        } else {
+	            sinPiezaEncontrada = false; // Cambia la condición para detener el bucle
+	        }
+		}
+
+		int distanciaEmpuje = distancia - casillasVaciasEntre;
+		for (int i = columnaOrigen + direccion; i != columnaDestino + direccion; i += direccion) {
+			if (tablero.estaOcupada(fila, i)) {
+				Coordenada posicionActual = new Coordenada(fila, i);
+				Coordenada nuevaPosicion = new Coordenada(fila, i + distanciaEmpuje * direccion);
+				Pieza pieza = tablero.consultarCelda(posicionActual).consultarPieza();
+				tablero.eliminarPieza(posicionActual);
+
+				if (tablero.estaEnTablero(nuevaPosicion)) {
+					tablero.colocar(pieza, nuevaPosicion);
+				} else {
+					// Si la pieza sale del tablero, añadirla a la caja y verificar si es una reina
+					guardarEnCaja(pieza);
+					
+					if (pieza.consultarTipoPieza() == TipoPieza.REINA) {
+						return; // Termina el juego si una reina es expulsada
+					}
+				}
+			}
+		}
+
+		Pieza piezaAMover = tablero.consultarCelda(origen).consultarPieza();
+		tablero.eliminarPieza(origen);
+		tablero.colocar(piezaAMover, destino);
+	}
+
+	/**
+	 * Verifica si una jugada es legal según las reglas del juego.
+	 *
+	 * @param jugada la jugada a verificar.
+	 * @return true si la jugada es legal, false en caso contrario.
+	 */
+	public boolean esMovimientoLegal(Jugada jugada) {
+	    return comprobarJugada(jugada) == null;
+	}
+
+	/**
+	 * Comprueba una jugada como {@link #esMovimientoLegal(Jugada)}, registrando
+	 * las métricas y avisando a los oyentes si es ilegal, pero devolviendo el
+	 * motivo para no tener que calcularlo de nuevo.
+	 *
+	 * @param jugada la jugada a verificar.
+	 * @return el motivo de ilegalidad o {@code null} si la jugada es legal.
+	 */
+	public MotivoIlegalidad comprobarJugada(Jugada jugada) {
+	    long inicio = MetricasArbitro.ACTIVAS ? System.nanoTime() : 0L;
+	    MotivoIlegalidad motivo = consultarMotivoIlegalidad(jugada);
+
+	    if (MetricasArbitro.ACTIVAS) {
+	        MetricasArbitro.INSTANCIA.registrarLegalidad(inicio, motivo == null);
+	    }
+
+	    if (motivo != null && oyentes.length != 0) {
+	        for (OyenteArbitro oyente : oyentes) {
+	            oyente.alRechazarJugada(jugada, motivo);
+	        }
+	    }
+
+	    return motivo;
+	}
+
+	/**
+	 * Consulta por qué una jugada es ilegal, sin notificar a los oyentes.
+	 *
+	 * @param jugada la jugada a verificar.
+	 * @return el motivo de ilegalidad o {@code null} si la jugada es legal.
+	 */
+	public MotivoIlegalidad consultarMotivoIlegalidad(Jugada jugada) {
+	    return consultarMotivoIlegalidad(jugada.origen().consultarCoordenada(), jugada.destino().consultarCoordenada());
+	}
+
+	/**
+	 * Consulta por qué una jugada empaquetada es ilegal, sin notificar a los
+	 * oyentes ni crear la {@link Jugada}.
+	 *
+	 * @param jugada jugada empaquetada con {@link JugadaCompacta}.
+	 * @return el motivo de ilegalidad o {@code null} si la jugada es legal.
+	 */
+	public MotivoIlegalidad consultarMotivoIlegalidad(int jugada) {
+		return consultarMotivoIlegalidad(JugadaCompacta.consultarOrigen(jugada), JugadaCompacta.consultarDestino(jugada));
+	}
+
+	/**
+	 * Consulta por qué una jugada entre dos coordenadas es ilegal.
+	 *
+	 * @param origen  la coordenada de origen.
+	 * @param destino la coordenada de destino.
+	 * @return el motivo de ilegalidad o {@code null} si la jugada es legal.
+	 */
+	private MotivoIlegalidad consultarMotivoIlegalidad(Coordenada origen, Coordenada destino) {
+	    MotivoIlegalidad motivo = null;
+
+	    if (estaFinalizadaPartida()) {
+	        motivo = MotivoIlegalidad.PARTIDA_FINALIZADA;
+	    } else {
+	        // Verificar si el origen o el destino están fuera del tablero
+	        if (!tablero.estaEnTablero(origen) || !tablero.estaEnTablero(destino)) {
+	            motivo = MotivoIlegalidad.FUERA_DE_TABLERO;
+	        } else {
+	            Pieza pieza = tablero.consultarCelda(origen).consultarPieza();
+	            if (pieza == null || pieza.consultarColor() != turnoActual) {
+	                motivo = MotivoIlegalidad.SIN_PIEZA_PROPIA;
+	            } else {
+	                int desplazamientoPermitido = calcularDesplazamientoPermitido(origen, destino);
+	                if (desplazamientoPermitido == 0 || desplazamientoPermitido != calcularDistancia(origen, destino)) {
+	                    motivo = MotivoIlegalidad.DISTANCIA_INCORRECTA;
+	                } else if (verificarRetrocesoInmediato(origen, destino)) {
+	                    motivo = MotivoIlegalidad.RETROCESO_INMEDIATO;
+	                }
+	            }
+	        }
+	    }
+
+	    return motivo;
+	}
+
+	/**
+	 * Calcula la distancia en línea recta entre dos coordenadas.
+	 * Si las coordenadas no están alineadas horizontal o verticalmente, devuelve -1.
+	 *
+	 * @param origen la coordenada de origen.
+	 * @param destino la coordenada de destino.
+	 * @return la distancia en línea recta o -1 si no es válida.
+	 */
+	private int calcularDistancia(Coordenada origen, Coordenada destino) {
+	    int distancia;
+	    TableroConsultor consultor = new TableroConsultor(tablero);
+	    
+	    if (origen.fila() == destino.fila()) {
+	        
+	        distancia = consultor.consultarDistanciaEnHorizontal(origen, destino);
+	    } else if (origen.columna() == destino.columna()) {
+	        
+	        distancia = consultor.consultarDistanciaEnVertical(origen, destino);
+	        
+	    } else {
+	    	
+	        // No es un movimiento en línea recta (horizontal o vertical), devuelve -1
+	        distancia = -1;
+	    }
+
+	    return distancia;
+	}
+
+	private Jugada ultimaJugada; // Jugada previa del oponente
+
+	/**
+	 * Verifica si un movimiento intenta retroceder inmediatamente la última jugada.
+	 *
+	 * @param origenActual  origen de la jugada que el jugador intenta realizar.
+	 * @param destinoActual destino de la jugada que el jugador intenta realizar.
+	 * @return true si la jugada intenta un retroceso inmediato, false en caso contrario.
+	 */
+	private boolean verificarRetrocesoInmediato(Coordenada origenActual, Coordenada destinoActual) {
+		if (ultimaJugada == null) {
+			// No hay una jugada previa registrada, por lo que no se puede verificar
+			// retroceso
+			return false;
+		}
+
+		Coordenada origenUltima = ultimaJugada.origen().consultarCoordenada();
+		Coordenada destinoUltima = ultimaJugada.destino().consultarCoordenada();
+
+		// Verificar si el destino de la jugada actual coincide con el origen de la
+		// última jugada
+		// y si el origen de la jugada actual coincide con el destino de la última
+		// jugada.
+		return origenActual.equals(destinoUltima) && destinoActual.equals(origenUltima);
+	}
+	
+	/**
+	 * Calcula el desplazamiento permitido para un movimiento entre dos coordenadas.
+	 *
+	 * @param origen la coordenada de origen.
+	 * @param destino la coordenada de destino.
+	 * @return el desplazamiento permitido o 0 si no es válido.
+	 */
+	private int calcularDesplazamientoPermitido(Coordenada origen, Coordenada destino) {
+		// Verifica si el movimiento es horizontal o vertical
+		if (origen.fila() == destino.fila()) {
+			// Movimiento horizontal: cuenta piezas en la columna de la fila de origen
+			return contarPiezasEnColumna(origen.columna());
+		} else if (origen.columna() == destino.columna()) {
+			// Movimiento vertical: cuenta piezas en la fila de la columna de origen
+			return contarPiezasEnFila(origen.fila());
+		}
+		// Si no es un movimiento horizontal o vertical, devuelve 0 (no permitido)
+		return 0;
+	}
+	
+	/**
+     * Determina si la partida ha finalizado según las condiciones actuales.
+     *
+     * @return true si la partida está finalizada, false en caso contrario.
+     */
+	public boolean estaFinalizadaPartida() {
+		long inicio = MetricasArbitro.ACTIVAS ? System.nanoTime() : 0L;
+		Coordenada reinaBlanca = tablero.consultarCoordenadaReina(Color.BLANCO);
+		Coordenada reinaNegra = tablero.consultarCoordenadaReina(Color.NEGRO);
+		Coordenada centro = tablero.consultarCentro();
+
+		// Verificar si alguna de las reinas está en el centro del tablero
+		boolean reinaBlancaEnCentro = reinaBlanca != null && reinaBlanca.equals(centro);
+		boolean reinaNegraEnCentro = reinaNegra != null && reinaNegra.equals(centro);
+
+		// Verificar si alguna de las reinas ha sido expulsada del tablero (es decir, no está en ninguna celda)
+		boolean reinaBlancaExpulsada = (reinaBlanca == null);
+		boolean reinaNegraExpulsada = (reinaNegra == null);
+
+		// La partida está finalizada si alguna reina está en el centro o si alguna ha sido expulsada
+		boolean finalizada = reinaBlancaEnCentro || reinaNegraEnCentro || reinaBlancaExpulsada || reinaNegraExpulsada;
+
+		if (MetricasArbitro.ACTIVAS) {
+			MetricasArbitro.INSTANCIA.registrarFinalizacion(inicio);
+		}
+		return finalizada;
+	}
+	
+	/**
+	 * Cuenta el número de piezas presentes en una columna específica del tablero.
+	 *
+	 * @param columna la columna del tablero que se desea analizar.
+	 * @return el número de piezas en la columna indicada.
+	 */
+	private int contarPiezasEnColumna(int columna) {
+		return tablero.contarPiezasEnColumna(columna);
+	}
+
+	/**
+	 * Cuenta el número de piezas presentes en una fila específica del tablero.
+	 *
+	 * @param fila la fila del tablero que se desea analizar.
+	 * @return el número de piezas en la fila indicada.
+	 */
+	private int contarPiezasEnFila(int fila) {
+		return tablero.contarPiezasEnFila(fila);
+	}
+
+	
+	@Override
+	public String toString() {
+		return "Arbitro [tablero=" + tablero + ", turnoActual=" + turnoActual + ", cajaPiezasBlancas="
+				+ cajaPiezasBlancas + ", cajaPiezasNegras=" + cajaPiezasNegras + ", contadorJugadas=" + contadorJugadas
+				+ ", ultimaJugada=" + ultimaJugada + "]";
+	}
+}
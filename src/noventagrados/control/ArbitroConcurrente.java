@@ -0,0 +1,252 @@
+package noventagrados.control;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import noventagrados.modelo.Jugada;
+import noventagrados.modelo.Tablero;
+import noventagrados.util.Color;
+
+/**
+ * Árbitro para partidas compartidas entre varios hilos: un escritor que aplica
+ * jugadas y cualquier número de lectores (espectadores, bots...).
+ *
+ * Las operaciones de escritura se serializan y, al terminar, publican una
+ * instantánea inmutable del estado en un campo {@code volatile}. Las consultas
+ * leen siempre de la última instantánea publicada, por lo que nunca se bloquean
+ * ni bloquean al escritor y nunca observan un empuje a medio aplicar.
+ *
+ * Es una API independiente para quien comparta una partida entre hilos. El
+ * servidor de partidas no la necesita: cada partida la modifica y consulta solo
+ * su actor, y los espectadores reciben los cambios como sucesos.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class ArbitroConcurrente {
+	private final Arbitro arbitro;
+	private final ReentrantLock cerrojoEscritura;
+	private volatile Instantanea instantanea;
+
+	/**
+	 * Estado completo de la partida en un momento dado. Ningún objeto de la
+	 * instantánea se modifica después de publicarla: el tablero y las cajas son
+	 * mutables, por lo que sus consultas devuelven copias y nunca los objetos
+	 * compartidos por todos los lectores.
+	 *
+	 * @param version      número de versión, creciente con cada escritura.
+	 * @param tablero      copia del tablero.
+	 * @param turno        color con el turno.
+	 * @param cajaBlancas  copia de la caja de piezas blancas.
+	 * @param cajaNegras   copia de la caja de piezas negras.
+	 * @param numeroJugada número de jugadas realizadas.
+	 * @param finalizada   si la partida ha finalizado.
+	 * @param ganador      color ganador o null.
+	 */
+	public record Instantanea(long version, Tablero tablero, Color turno, Caja cajaBlancas, Caja cajaNegras,
+			int numeroJugada, boolean finalizada, Color ganador) {
+
+		/**
+		 * Devuelve una copia del tablero.
+		 *
+		 * @return el tablero clonado.
+		 */
+		@Override
+		public Tablero tablero() {
+			return tablero.clonar();
+		}
+
+		/**
+		 * Devuelve una copia de la caja de piezas blancas.
+		 *
+		 * @return la caja clonada.
+		 */
+		@Override
+		public Caja cajaBlancas() {
+			return cajaBlancas.clonar();
+		}
+
+		/**
+		 * Devuelve una copia de la caja de piezas negras.
+		 *
+		 * @return la caja clonada.
+		 */
+		@Override
+		public Caja cajaNegras() {
+			return cajaNegras.clonar();
+		}
+	}
+
+	/**
+	 * Crea un árbitro concurrente sobre un árbitro existente. A partir de este
+	 * momento el árbitro envuelto solo debe usarse a través de esta clase.
+	 *
+	 * @param arbitro el árbitro envuelto.
+	 */
+	public ArbitroConcurrente(Arbitro arbitro) {
+		this.arbitro = arbitro;
+		this.cerrojoEscritura = new ReentrantLock();
+		publicar(0);
+	}
+
+	/**
+	 * Configura las piezas en la posición inicial y publica el nuevo estado.
+	 */
+	public void colocarPiezasConfiguracionInicial() {
+		cerrojoEscritura.lock();
+		try {
+			arbitro.colocarPiezasConfiguracionInicial();
+			publicar(instantanea.version() + 1);
+		} finally {
+			cerrojoEscritura.unlock();
+		}
+	}
+
+	/**
+	 * Ejecuta una jugada y publica el nuevo estado.
+	 *
+	 * @param jugada la jugada a ejecutar.
+	 */
+	public void empujar(Jugada jugada) {
+		cerrojoEscritura.lock();
+		try {
+			arbitro.empujar(jugada);
+			publicar(instantanea.version() + 1);
+		} finally {
+			cerrojoEscritura.unlock();
+		}
+	}
+
+	/**
+	 * Cambia el turno y publica el nuevo estado.
+	 */
+	public void cambiarTurno() {
+		cerrojoEscritura.lock();
+		try {
+			arbitro.cambiarTurno();
+			publicar(instantanea.version() + 1);
+		} finally {
+			cerrojoEscritura.unlock();
+		}
+	}
+
+	/**
+	 * Comprueba la legalidad de una jugada, aplica el empuje y cambia el turno
+	 * si la partida no ha terminado, todo ello como una única escritura.
+	 *
+	 * @param jugada la jugada a realizar.
+	 * @return null si la jugada se ha aplicado, o el motivo por el que es ilegal.
+	 */
+	public MotivoIlegalidad jugar(Jugada jugada) {
+		cerrojoEscritura.lock();
+		try {
+			MotivoIlegalidad motivo = arbitro.comprobarJugada(jugada);
+			if (motivo == null) {
+				arbitro.empujar(jugada);
+				if (!arbitro.estaFinalizadaPartida()) {
+					arbitro.cambiarTurno();
+				}
+				publicar(instantanea.version() + 1);
+			}
+			return motivo;
+		} finally {
+			cerrojoEscritura.unlock();
+		}
+	}
+
+	/**
+	 * Verifica si una jugada es legal en el estado actual.
+	 *
+	 * @param jugada la jugada a verificar.
+	 * @return true si la jugada es legal, false en caso contrario.
+	 */
+	public boolean esMovimientoLegal(Jugada jugada) {
+		cerrojoEscritura.lock();
+		try {
+			return arbitro.esMovimientoLegal(jugada);
+		} finally {
+			cerrojoEscritura.unlock();
+		}
+	}
+
+	/**
+	 * Devuelve la última instantánea publicada.
+	 *
+	 * @return la instantánea actual.
+	 */
+	public Instantanea consultarInstantanea() {
+		return instantanea;
+	}
+
+	/**
+	 * Devuelve una copia del tablero de la última instantánea.
+	 *
+	 * @return el tablero clonado.
+	 */
+	public Tablero consultarTablero() {
+		return instantanea.tablero();
+	}
+
+	/**
+	 * Devuelve el color del jugador con el turno en la última instantánea.
+	 *
+	 * @return el color del turno actual.
+	 */
+	public Color consultarTurno() {
+		return instantanea.turno();
+	}
+
+	/**
+	 * Devuelve una copia de la caja del color indicado en la última instantánea.
+	 *
+	 * @param color el color de la caja a consultar.
+	 * @return la caja clonada.
+	 */
+	public Caja consultarCaja(Color color) {
+		Instantanea actual = instantanea;
+		return color == Color.BLANCO ? actual.cajaBlancas() : actual.cajaNegras();
+	}
+
+	/**
+	 * Devuelve el número de jugadas realizadas en la última instantánea.
+	 *
+	 * @return el contador de jugadas.
+	 */
+	public int consultarNumeroJugada() {
+		return instantanea.numeroJugada();
+	}
+
+	/**
+	 * Determina si la partida estaba finalizada en la última instantánea.
+	 *
+	 * @return true si la partida está finalizada, false en caso contrario.
+	 */
+	public boolean estaFinalizadaPartida() {
+		return instantanea.finalizada();
+	}
+
+	/**
+	 * Devuelve el ganador en la última instantánea.
+	 *
+	 * @return el color ganador o null.
+	 */
+	public Color consultarTurnoGanador() {
+		return instantanea.ganador();
+	}
+
+	/**
+	 * Crea y publica la instantánea del estado actual. Solo se invoca con el
+	 * cerrojo de escritura adquirido (o desde el constructor).
+	 *
+	 * @param version número de versión de la nueva instantánea.
+	 */
+	private void publicar(long version) {
+		instantanea = new Instantanea(version, arbitro.consultarTablero(), arbitro.consultarTurno(),
+				arbitro.consultarCaja(Color.BLANCO).clonar(), arbitro.consultarCaja(Color.NEGRO).clonar(),
+				arbitro.consultarNumeroJugada(), arbitro.estaFinalizadaPartida(), arbitro.consultarTurnoGanador());
+	}
+
+	@Override
+	public String toString() {
+		return "ArbitroConcurrente [instantanea=" + instantanea + "]";
+	}
+}
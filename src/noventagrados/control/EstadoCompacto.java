@@ -0,0 +1,275 @@
+package noventagrados.control;
+
+import noventagrados.modelo.Jugada;
+import noventagrados.modelo.Pieza;
+import noventagrados.modelo.Tablero;
+import noventagrados.util.Color;
+import noventagrados.util.Coordenada;
+import noventagrados.util.TipoPieza;
+
+/**
+ * Estado completo de una partida empaquetado en tres enteros largos, para
+ * guardarlo en cachés, colas y ficheros ocupando una fracción de lo que ocupa
+ * un {@link Arbitro}.
+ *
+ * Solo admite tableros de hasta 8x8 (en la práctica 5x5 y 7x7): la celda
+ * (fila, columna) es el bit {@code fila * 8 + columna}.
+ * <ul>
+ * <li>{@code blancas}: celdas ocupadas por piezas blancas.</li>
+ * <li>{@code negras}: celdas ocupadas por piezas negras.</li>
+ * <li>{@code datos}, de menor a mayor bit: celda de la reina blanca y de la
+ * negra (7 bits cada una, {@value #SIN_CELDA} si no está en el tablero);
+ * peones blancos y negros en su caja (4 bits cada uno); reina blanca y negra
+ * en su caja (1 bit cada una); turno (2 bits: ninguno, blancas o negras);
+ * origen y destino de la última jugada (7 bits cada uno); tamaño (1 bit: 5 o
+ * 7); y contador de jugadas (23 bits).</li>
+ * </ul>
+ * Las piezas que no son reinas son peones, por lo que no hace falta guardar el
+ * tipo de cada celda. De las cajas se guarda cuántas piezas hay de cada tipo,
+ * no el orden en que entraron, que el juego no usa.
+ *
+ * Como registro, la igualdad compara los tres valores sin crear objetos.
+ *
+ * @param blancas celdas ocupadas por piezas blancas.
+ * @param negras  celdas ocupadas por piezas negras.
+ * @param datos   reinas, cajas, turno, última jugada, tamaño y contador.
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public record EstadoCompacto(long blancas, long negras, long datos) {
+    /** Tamaño máximo de tablero representable. */
+    public static final int TAMANO_MAXIMO = 8;
+
+    /** Valor de una celda ausente: reina fuera del tablero o sin última jugada. */
+    static final int SIN_CELDA = 0x7F;
+
+    private static final int BITS_CELDA = 7;
+    private static final int BITS_PEONES = 4;
+    private static final int BITS_CONTADOR = 23;
+
+    private static final int DESPLAZAMIENTO_REINA_BLANCA = 0;
+    private static final int DESPLAZAMIENTO_REINA_NEGRA = 7;
+    private static final int DESPLAZAMIENTO_PEONES_BLANCOS = 14;
+    private static final int DESPLAZAMIENTO_PEONES_NEGROS = 18;
+    private static final int DESPLAZAMIENTO_REINA_CAJA_BLANCA = 22;
+    private static final int DESPLAZAMIENTO_REINA_CAJA_NEGRA = 23;
+    private static final int DESPLAZAMIENTO_TURNO = 24;
+    private static final int DESPLAZAMIENTO_ORIGEN = 26;
+    private static final int DESPLAZAMIENTO_DESTINO = 33;
+    private static final int DESPLAZAMIENTO_TAMANO = 40;
+    private static final int DESPLAZAMIENTO_CONTADOR = 41;
+
+    /** Contador de jugadas máximo representable. */
+    public static final int CONTADOR_MAXIMO = (1 << BITS_CONTADOR) - 1;
+
+    /**
+     * Empaqueta el estado de una partida.
+     *
+     * @param arbitro la partida.
+     * @return el estado empaquetado.
+     * @throws IllegalArgumentException si el tablero es mayor de 8x8, las cajas
+     *                                  tienen más de 15 peones o el contador no cabe.
+     */
+    public static EstadoCompacto desde(Arbitro arbitro) {
+        int tamano = arbitro.consultarTamano();
+        if (tamano > TAMANO_MAXIMO) {
+            throw new IllegalArgumentException("Tablero demasiado grande para el estado compacto: " + tamano);
+        }
+        long blancas = 0;
+        long negras = 0;
+        for (int fila = 0; fila < tamano; fila++) {
+            blancas |= arbitro.consultarOcupacionFila(fila, Color.BLANCO) << (fila * TAMANO_MAXIMO);
+            negras |= arbitro.consultarOcupacionFila(fila, Color.NEGRO) << (fila * TAMANO_MAXIMO);
+        }
+        Caja cajaBlanca = arbitro.consultarCaja(Color.BLANCO);
+        Caja cajaNegra = arbitro.consultarCaja(Color.NEGRO);
+        int contador = arbitro.consultarNumeroJugada();
+        if (contador < 0 || contador > CONTADOR_MAXIMO) {
+            throw new IllegalArgumentException("Contador de jugadas fuera de rango: " + contador);
+        }
+        Color turno = arbitro.consultarTurno();
+        Jugada ultima = arbitro.consultarUltimaJugada();
+        long datos = (long) codificarCelda(arbitro.consultarCoordenadaReina(Color.BLANCO)) << DESPLAZAMIENTO_REINA_BLANCA
+                | (long) codificarCelda(arbitro.consultarCoordenadaReina(Color.NEGRO)) << DESPLAZAMIENTO_REINA_NEGRA
+                | (long) codificarPeones(cajaBlanca) << DESPLAZAMIENTO_PEONES_BLANCOS
+                | (long) codificarPeones(cajaNegra) << DESPLAZAMIENTO_PEONES_NEGROS
+                | (long) Math.min(cajaBlanca.contarPiezas(TipoPieza.REINA), 1) << DESPLAZAMIENTO_REINA_CAJA_BLANCA
+                | (long) Math.min(cajaNegra.contarPiezas(TipoPieza.REINA), 1) << DESPLAZAMIENTO_REINA_CAJA_NEGRA
+                | (long) (turno == null ? 0 : turno.ordinal() + 1) << DESPLAZAMIENTO_TURNO
+                | (long) codificarCelda(ultima == null ? null : ultima.origen().consultarCoordenada())
+                        << DESPLAZAMIENTO_ORIGEN
+                | (long) codificarCelda(ultima == null ? null : ultima.destino().consultarCoordenada())
+                        << DESPLAZAMIENTO_DESTINO
+                | (long) (tamano == Tablero.TAMANO_MINIMO ? 0 : 1) << DESPLAZAMIENTO_TAMANO
+                | (long) contador << DESPLAZAMIENTO_CONTADOR;
+        return new EstadoCompacto(blancas, negras, datos);
+    }
+
+    /**
+     * Reconstruye la partida empaquetada, sin oyentes.
+     *
+     * @return un árbitro nuevo con el estado.
+     */
+    public Arbitro aArbitro() {
+        int tamano = consultarTamano();
+        Arbitro arbitro = new Arbitro(new Tablero(tamano));
+        int piezas = Long.bitCount(blancas) + Long.bitCount(negras);
+        Pieza[] colocadas = new Pieza[piezas];
+        Coordenada[] coordenadas = new Coordenada[piezas];
+        int i = 0;
+        Coordenada reinaBlanca = consultarCoordenadaReina(Color.BLANCO);
+        Coordenada reinaNegra = consultarCoordenadaReina(Color.NEGRO);
+        for (long resto = blancas; resto != 0; resto &= resto - 1) {
+            Coordenada coordenada = decodificarCelda(Long.numberOfTrailingZeros(resto));
+            colocadas[i] = new Pieza(coordenada.equals(reinaBlanca) ? TipoPieza.REINA : TipoPieza.PEON, Color.BLANCO);
+            coordenadas[i++] = coordenada;
+        }
+        for (long resto = negras; resto != 0; resto &= resto - 1) {
+            Coordenada coordenada = decodificarCelda(Long.numberOfTrailingZeros(resto));
+            colocadas[i] = new Pieza(coordenada.equals(reinaNegra) ? TipoPieza.REINA : TipoPieza.PEON, Color.NEGRO);
+            coordenadas[i++] = coordenada;
+        }
+        arbitro.colocarPiezas(colocadas, coordenadas, consultarTurno());
+        for (Color color : Color.values()) {
+            Caja caja = arbitro.consultarCaja(color);
+            for (int p = contarPiezasCaja(color, TipoPieza.PEON); p > 0; p--) {
+                caja.añadir(new Pieza(TipoPieza.PEON, color));
+            }
+            if (contarPiezasCaja(color, TipoPieza.REINA) > 0) {
+                caja.añadir(new Pieza(TipoPieza.REINA, color));
+            }
+        }
+        int origen = leer(DESPLAZAMIENTO_ORIGEN, BITS_CELDA);
+        int destino = leer(DESPLAZAMIENTO_DESTINO, BITS_CELDA);
+        Jugada ultima = origen == SIN_CELDA ? null
+                : arbitro.crearJugada(decodificarCelda(origen), decodificarCelda(destino));
+        arbitro.restaurar(consultarContadorJugadas(), ultima);
+        return arbitro;
+    }
+
+    /**
+     * Consulta el tamaño del tablero.
+     *
+     * @return el tamaño.
+     */
+    public int consultarTamano() {
+        return leer(DESPLAZAMIENTO_TAMANO, 1) == 0 ? Tablero.TAMANO_MINIMO : Tablero.TAMANO_POR_DEFECTO;
+    }
+
+    /**
+     * Consulta el color con el turno.
+     *
+     * @return el color, o null si no se ha asignado turno.
+     */
+    public Color consultarTurno() {
+        int turno = leer(DESPLAZAMIENTO_TURNO, 2);
+        return turno == 0 ? null : Color.values()[turno - 1];
+    }
+
+    /**
+     * Consulta el número de jugadas realizadas.
+     *
+     * @return el contador de jugadas.
+     */
+    public int consultarContadorJugadas() {
+        return leer(DESPLAZAMIENTO_CONTADOR, BITS_CONTADOR);
+    }
+
+    /**
+     * Consulta la coordenada de una reina.
+     *
+     * @param color color de la reina.
+     * @return la coordenada, o null si no está en el tablero.
+     */
+    public Coordenada consultarCoordenadaReina(Color color) {
+        int celda = leer(color == Color.BLANCO ? DESPLAZAMIENTO_REINA_BLANCA : DESPLAZAMIENTO_REINA_NEGRA, BITS_CELDA);
+        return celda == SIN_CELDA ? null : decodificarCelda(celda);
+    }
+
+    /**
+     * Cuenta las piezas de un tipo en la caja de un color.
+     *
+     * @param color color de la caja.
+     * @param tipo  tipo de pieza.
+     * @return el número de piezas.
+     */
+    public int contarPiezasCaja(Color color, TipoPieza tipo) {
+        if (tipo == TipoPieza.REINA) {
+            return leer(color == Color.BLANCO ? DESPLAZAMIENTO_REINA_CAJA_BLANCA : DESPLAZAMIENTO_REINA_CAJA_NEGRA, 1);
+        }
+        return leer(color == Color.BLANCO ? DESPLAZAMIENTO_PEONES_BLANCOS : DESPLAZAMIENTO_PEONES_NEGROS, BITS_PEONES);
+    }
+
+    /**
+     * Consulta la ocupación de las celdas por un color.
+     *
+     * @param color el color.
+     * @return el mapa de bits de sus celdas (bit fila * 8 + columna).
+     */
+    public long consultarOcupacion(Color color) {
+        return color == Color.BLANCO ? blancas : negras;
+    }
+
+    /**
+     * Mezcla los tres valores para que estados parecidos no coincidan en las
+     * tablas hash.
+     *
+     * @return el código hash.
+     */
+    @Override
+    public int hashCode() {
+        long h = (blancas * 0x9E3779B97F4A7C15L + negras) * 0x9E3779B97F4A7C15L + datos;
+        h *= 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Lee un campo de los datos.
+     *
+     * @param desplazamiento primer bit del campo.
+     * @param bits           ancho del campo.
+     * @return el valor del campo.
+     */
+    private int leer(int desplazamiento, int bits) {
+        return (int) (datos >>> desplazamiento) & ((1 << bits) - 1);
+    }
+
+    /**
+     * Codifica el número de peones de una caja.
+     *
+     * @param caja la caja.
+     * @return el número de peones.
+     * @throws IllegalArgumentException si no cabe en el campo.
+     */
+    private static int codificarPeones(Caja caja) {
+        int peones = caja.contarPiezas(TipoPieza.PEON);
+        if (peones >= 1 << BITS_PEONES) {
+            throw new IllegalArgumentException("Demasiados peones en la caja: " + peones);
+        }
+        return peones;
+    }
+
+    /**
+     * Codifica una coordenada como índice de celda.
+     *
+     * @param coordenada la coordenada, o null.
+     * @return el índice, o {@link #SIN_CELDA} si es null o está fuera del tablero.
+     */
+    private static int codificarCelda(Coordenada coordenada) {
+        if (coordenada == null || coordenada.fila() < 0 || coordenada.fila() >= TAMANO_MAXIMO
+                || coordenada.columna() < 0 || coordenada.columna() >= TAMANO_MAXIMO) {
+            return SIN_CELDA;
+        }
+        return coordenada.fila() * TAMANO_MAXIMO + coordenada.columna();
+    }
+
+    /**
+     * Decodifica un índice de celda.
+     *
+     * @param celda el índice.
+     * @return la coordenada.
+     */
+    private static Coordenada decodificarCelda(int celda) {
+        return new Coordenada(celda / TAMANO_MAXIMO, celda % TAMANO_MAXIMO);
+    }
+}
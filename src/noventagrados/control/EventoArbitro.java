@@ -0,0 +1,41 @@
+package noventagrados.control;
+
+import noventagrados.modelo.Jugada;
+import noventagrados.modelo.Pieza;
+import noventagrados.util.Color;
+
+/**
+ * Suceso del árbitro tal y como lo almacena {@link SumideroEventosAsincrono}.
+ *
+ * Solo se rellenan los campos que tienen sentido para cada tipo de suceso; el
+ * resto quedan a {@code null} (o a cero en el caso del número de jugada).
+ *
+ * @param tipo         tipo de suceso.
+ * @param instante     marca de tiempo en nanosegundos ({@link System#nanoTime()}).
+ * @param jugada       jugada aplicada o rechazada.
+ * @param numeroJugada número de jugadas realizadas tras aplicar la jugada.
+ * @param pieza        pieza guardada en la caja.
+ * @param color        color de la reina expulsada o color ganador.
+ * @param motivo       motivo de rechazo de la jugada.
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public record EventoArbitro(Tipo tipo, long instante, Jugada jugada, int numeroJugada, Pieza pieza, Color color,
+        MotivoIlegalidad motivo) {
+
+    /**
+     * Tipos de suceso, uno por cada método de {@link OyenteArbitro}.
+     */
+    public enum Tipo {
+        /** Jugada aplicada. */
+        JUGADA_APLICADA,
+        /** Pieza guardada en la caja. */
+        PIEZA_EN_CAJA,
+        /** Reina expulsada del tablero. */
+        REINA_EXPULSADA,
+        /** Partida finalizada. */
+        PARTIDA_FINALIZADA,
+        /** Jugada rechazada. */
+        JUGADA_RECHAZADA
+    }
+}
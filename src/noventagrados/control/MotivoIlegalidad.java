@@ -0,0 +1,57 @@
+package noventagrados.control;
+
+/**
+ * Motivos por los que el árbitro rechaza una jugada.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public enum MotivoIlegalidad {
+    /**
+     * La partida ya ha finalizado.
+     */
+    PARTIDA_FINALIZADA("la partida ya ha finalizado"),
+
+    /**
+     * El origen o el destino están fuera del tablero.
+     */
+    FUERA_DE_TABLERO("coordenada fuera del tablero"),
+
+    /**
+     * En el origen no hay una pieza del jugador con el turno.
+     */
+    SIN_PIEZA_PROPIA("no hay una pieza propia en el origen"),
+
+    /**
+     * El desplazamiento no es en línea recta o no coincide con el número de piezas de la línea.
+     */
+    DISTANCIA_INCORRECTA("el desplazamiento no coincide con las piezas de la línea"),
+
+    /**
+     * La jugada deshace inmediatamente la última jugada.
+     */
+    RETROCESO_INMEDIATO("la jugada deshace la última jugada");
+
+    /**
+     * Descripción legible del motivo.
+     */
+    private final String descripcion;
+
+    /**
+     * Constructor que asigna la descripción al motivo.
+     *
+     * @param descripcion descripción legible del motivo
+     */
+    private MotivoIlegalidad(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Devuelve la descripción legible del motivo.
+     *
+     * @return la descripción del motivo
+     */
+    public String consultarDescripcion() {
+        return descripcion;
+    }
+}
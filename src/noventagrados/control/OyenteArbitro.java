@@ -0,0 +1,61 @@
+package noventagrados.control;
+
+import noventagrados.modelo.Jugada;
+import noventagrados.modelo.Pieza;
+import noventagrados.util.Color;
+
+/**
+ * Recibe los sucesos que ocurren durante el arbitraje de una partida.
+ *
+ * Todos los métodos tienen una implementación vacía por defecto, de forma que
+ * cada oyente solo sobrescribe los sucesos que le interesan. Los métodos se
+ * invocan en el mismo hilo que modifica el árbitro, por lo que deben ser breves;
+ * para trabajos costosos se puede usar {@link SumideroEventosAsincrono}.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public interface OyenteArbitro {
+
+    /**
+     * Se invoca después de aplicar una jugada en el tablero.
+     *
+     * @param jugada       la jugada aplicada.
+     * @param numeroJugada número de jugadas realizadas tras aplicarla.
+     */
+    default void alAplicarJugada(Jugada jugada, int numeroJugada) {
+    }
+
+    /**
+     * Se invoca cuando una pieza es empujada fuera del tablero y se guarda en su caja.
+     *
+     * @param pieza la pieza guardada.
+     */
+    default void alGuardarEnCaja(Pieza pieza) {
+    }
+
+    /**
+     * Se invoca cuando la reina de un color es expulsada del tablero.
+     *
+     * @param color el color de la reina expulsada.
+     */
+    default void alExpulsarReina(Color color) {
+    }
+
+    /**
+     * Se invoca cuando una jugada deja la partida finalizada.
+     *
+     * @param ganador el color ganador o {@code null} si no hay ganador.
+     */
+    default void alFinalizarPartida(Color ganador) {
+    }
+
+    /**
+     * Se invoca cuando el árbitro rechaza una jugada por ilegal.
+     *
+     * @param jugada la jugada rechazada.
+     * @param motivo el motivo del rechazo.
+     */
+    default void alRechazarJugada(Jugada jugada, MotivoIlegalidad motivo) {
+    }
+}
@@ -0,0 +1,174 @@
+package noventagrados.control;
+
+import noventagrados.modelo.JugadaCompacta;
+import noventagrados.util.NotacionJugada;
+
+/**
+ * Reproducción de una partida grabada en una línea de texto: jugadas en
+ * notación "dd-dd" separadas por espacios o tabuladores, aplicadas en orden a
+ * un árbitro. Es el formato de los archivos de partidas de
+ * {@link noventagrados.textui.ModoLote} y de las herramientas de análisis.
+ *
+ * Las jugadas se leen sobre la propia línea, sin crear subcadenas. La
+ * reproducción se detiene en la primera jugada mal formada o ilegal, incluida
+ * cualquier jugada posterior al final de la partida.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public final class ReproductorPartida {
+    private final Arbitro arbitro;
+    private final CharSequence linea;
+    private int posicion;
+    private int inicioJugada;
+    private int finJugada;
+    private int jugadas;
+    private boolean error;
+
+    /**
+     * Prepara la reproducción de una línea sobre un árbitro.
+     *
+     * @param arbitro partida a la que se aplican las jugadas, normalmente en la
+     *                configuración inicial.
+     * @param linea   línea con las jugadas.
+     */
+    public ReproductorPartida(Arbitro arbitro, CharSequence linea) {
+        this.arbitro = arbitro;
+        this.linea = linea;
+    }
+
+    /**
+     * Comprueba si una línea de un archivo contiene una partida: no está vacía
+     * ni es un comentario (empieza por {@code #}).
+     *
+     * @param linea la línea.
+     * @return true si hay que reproducirla.
+     */
+    public static boolean esPartida(CharSequence linea) {
+        int inicio = saltarBlancos(linea, 0);
+        return inicio < linea.length() && linea.charAt(inicio) != '#';
+    }
+
+    /**
+     * Comprueba si un tramo de texto es exactamente una jugada bien formada.
+     *
+     * @param texto  texto que contiene la jugada.
+     * @param inicio primer carácter del tramo.
+     * @param fin    carácter siguiente al último del tramo.
+     * @param tamano tamaño del tablero.
+     * @return true si el tramo es una jugada en notación "dd-dd" dentro del tablero.
+     */
+    public static boolean esJugada(CharSequence texto, int inicio, int fin, int tamano) {
+        return fin - inicio == NotacionJugada.TAMANO_JUGADA && NotacionJugada.esValida(texto, inicio, tamano);
+    }
+
+    /**
+     * Aplica una jugada si es legal y, si la partida no termina con ella, cambia el turno.
+     *
+     * @param arbitro la partida.
+     * @param jugada  jugada empaquetada con {@link JugadaCompacta}.
+     * @return null si se ha aplicado, o el motivo por el que es ilegal.
+     */
+    public static MotivoIlegalidad jugar(Arbitro arbitro, int jugada) {
+        MotivoIlegalidad motivo = arbitro.consultarMotivoIlegalidad(jugada);
+        if (motivo == null) {
+            arbitro.empujar(jugada);
+            if (!arbitro.estaFinalizadaPartida()) {
+                arbitro.cambiarTurno();
+            }
+        }
+        return motivo;
+    }
+
+    /**
+     * Lee y aplica la siguiente jugada de la línea.
+     *
+     * @return true si se ha aplicado una jugada; false si no quedan más o si la
+     *         siguiente no es válida, lo que indica {@link #hayError()}.
+     */
+    public boolean avanzar() {
+        if (error) {
+            return false;
+        }
+        int inicio = saltarBlancos(linea, posicion);
+        if (inicio == linea.length()) {
+            posicion = inicio;
+            return false;
+        }
+        int fin = inicio;
+        while (fin < linea.length() && !esBlanco(linea.charAt(fin))) {
+            fin++;
+        }
+        if (!esJugada(linea, inicio, fin, arbitro.consultarTamano())
+                || jugar(arbitro, JugadaCompacta.desdeTexto(linea, inicio)) != null) {
+            error = true;
+            return false;
+        }
+        inicioJugada = inicio;
+        finJugada = fin;
+        posicion = fin;
+        jugadas++;
+        return true;
+    }
+
+    /**
+     * Indica si la reproducción se ha detenido en una jugada no válida.
+     *
+     * @return true si hay una jugada mal formada o ilegal.
+     */
+    public boolean hayError() {
+        return error;
+    }
+
+    /**
+     * Consulta el número de jugadas aplicadas.
+     *
+     * @return las jugadas aplicadas.
+     */
+    public int consultarJugadas() {
+        return jugadas;
+    }
+
+    /**
+     * Consulta dónde empieza en la línea la última jugada aplicada.
+     *
+     * @return la posición de su primer carácter.
+     */
+    public int consultarInicioJugada() {
+        return inicioJugada;
+    }
+
+    /**
+     * Consulta dónde termina en la línea la última jugada aplicada.
+     *
+     * @return la posición siguiente a su último carácter.
+     */
+    public int consultarFinJugada() {
+        return finJugada;
+    }
+
+    /**
+     * Avanza hasta el siguiente carácter que no es un espacio o tabulador.
+     *
+     * @param linea  la línea.
+     * @param inicio posición desde la que se avanza.
+     * @return la posición del carácter o la longitud de la línea.
+     */
+    public static int saltarBlancos(CharSequence linea, int inicio) {
+        int i = inicio;
+        while (i < linea.length() && esBlanco(linea.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Comprueba si un carácter separa jugadas.
+     *
+     * @param c el carácter.
+     * @return true si es un espacio o tabulador.
+     */
+    public static boolean esBlanco(char c) {
+        return c == ' ' || c == '\t';
+    }
+}
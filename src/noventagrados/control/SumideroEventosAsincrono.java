@@ -0,0 +1,181 @@
+package noventagrados.control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import noventagrados.modelo.Jugada;
+import noventagrados.modelo.Pieza;
+import noventagrados.util.Color;
+
+/**
+ * Oyente que encola los sucesos del árbitro y los entrega por lotes a un
+ * consumidor desde un hilo propio, sin bloquear nunca al árbitro.
+ *
+ * La cola es acotada: si el consumidor no da abasto, los sucesos que no caben
+ * se descartan y se contabilizan en {@link #consultarDescartados()}, igual que
+ * los que llegan después de cerrar el sumidero.
+ *
+ * Un error del consumidor con un lote se informa por la salida de errores y
+ * la entrega continúa con el siguiente. Al cerrar se espera a que terminen los
+ * encolados en curso y se encola una marca de fin detrás de los sucesos
+ * pendientes, de modo que todo suceso aceptado se entrega antes de que el hilo
+ * termine y ninguno queda olvidado en la cola.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class SumideroEventosAsincrono implements OyenteArbitro, AutoCloseable {
+    /** Marca de fin que detiene el hilo de entrega; se compara por identidad. */
+    private static final EventoArbitro FIN = new EventoArbitro(null, 0, null, 0, null, null, null);
+
+    private final BlockingQueue<EventoArbitro> cola;
+    private final Consumer<List<EventoArbitro>> consumidor;
+    private final int tamanoLote;
+    private final LongAdder descartados;
+
+    /** Llamadas a {@link #encolar(EventoArbitro)} en curso, que {@link #close()} espera. */
+    private final AtomicInteger encolando;
+    private final Thread hilo;
+    private volatile boolean cerrado;
+
+    /**
+     * Crea el sumidero y arranca su hilo de entrega.
+     *
+     * @param capacidad  número máximo de sucesos pendientes.
+     * @param tamanoLote número máximo de sucesos entregados en cada lote.
+     * @param consumidor destino de los lotes; la lista solo es válida durante la llamada.
+     */
+    public SumideroEventosAsincrono(int capacidad, int tamanoLote, Consumer<List<EventoArbitro>> consumidor) {
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.consumidor = consumidor;
+        this.tamanoLote = tamanoLote;
+        this.descartados = new LongAdder();
+        this.encolando = new AtomicInteger();
+        this.hilo = new Thread(this::entregar, "sumidero-eventos-arbitro");
+        this.hilo.setDaemon(true);
+        this.hilo.start();
+    }
+
+    @Override
+    public void alAplicarJugada(Jugada jugada, int numeroJugada) {
+        encolar(new EventoArbitro(EventoArbitro.Tipo.JUGADA_APLICADA, System.nanoTime(), jugada, numeroJugada, null,
+                null, null));
+    }
+
+    @Override
+    public void alGuardarEnCaja(Pieza pieza) {
+        encolar(new EventoArbitro(EventoArbitro.Tipo.PIEZA_EN_CAJA, System.nanoTime(), null, 0, pieza, null, null));
+    }
+
+    @Override
+    public void alExpulsarReina(Color color) {
+        encolar(new EventoArbitro(EventoArbitro.Tipo.REINA_EXPULSADA, System.nanoTime(), null, 0, null, color, null));
+    }
+
+    @Override
+    public void alFinalizarPartida(Color ganador) {
+        encolar(new EventoArbitro(EventoArbitro.Tipo.PARTIDA_FINALIZADA, System.nanoTime(), null, 0, null, ganador,
+                null));
+    }
+
+    @Override
+    public void alRechazarJugada(Jugada jugada, MotivoIlegalidad motivo) {
+        encolar(new EventoArbitro(EventoArbitro.Tipo.JUGADA_RECHAZADA, System.nanoTime(), jugada, 0, null, null,
+                motivo));
+    }
+
+    /**
+     * Consulta el número de sucesos descartados por tener la cola llena o por
+     * llegar después de cerrar el sumidero.
+     *
+     * @return el número de sucesos descartados.
+     */
+    public long consultarDescartados() {
+        return descartados.sum();
+    }
+
+    /**
+     * Entrega los sucesos pendientes y detiene el hilo de entrega, esperando a
+     * que termine. Los sucesos posteriores se descartan y se contabilizan en
+     * {@link #consultarDescartados()}.
+     */
+    @Override
+    public synchronized void close() {
+        if (cerrado) {
+            return;
+        }
+        cerrado = true;
+        // Un encolado que no ha visto el cierre debe quedar delante de la marca de fin
+        while (encolando.get() > 0) {
+            Thread.onSpinWait();
+        }
+        boolean interrumpido = false;
+        while (true) {
+            try {
+                cola.put(FIN);
+                break;
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        while (hilo.isAlive()) {
+            try {
+                hilo.join();
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Encola un suceso sin esperar; si no cabe o el sumidero está cerrado, lo
+     * descarta.
+     *
+     * @param evento el suceso a encolar.
+     */
+    private void encolar(EventoArbitro evento) {
+        encolando.incrementAndGet();
+        try {
+            if (cerrado || !cola.offer(evento)) {
+                descartados.increment();
+            }
+        } finally {
+            encolando.decrementAndGet();
+        }
+    }
+
+    /**
+     * Bucle del hilo de entrega: espera al primer suceso y entrega juntos todos
+     * los que haya pendientes, hasta encontrar la marca de fin.
+     */
+    private void entregar() {
+        List<EventoArbitro> lote = new ArrayList<>(tamanoLote);
+        boolean fin = false;
+        while (!fin) {
+            try {
+                lote.add(cola.take());
+            } catch (InterruptedException e) {
+                // Solo se termina con la marca de fin, para no perder sucesos
+                continue;
+            }
+            cola.drainTo(lote, tamanoLote - lote.size());
+            fin = lote.removeIf(evento -> evento == FIN);
+            if (!lote.isEmpty()) {
+                try {
+                    consumidor.accept(lote);
+                } catch (RuntimeException e) {
+                    System.err.println("Error entregando " + lote.size() + " sucesos del árbitro: " + e);
+                }
+                lote.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package noventagrados.datos;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import noventagrados.motor.Evaluador;
+import noventagrados.motor.LotePosiciones;
+import noventagrados.motor.PesosEvaluacion;
+import noventagrados.util.OpcionesLinea;
+
+/**
+ * Ajuste de los pesos del {@link Evaluador} al estilo Texel: minimiza el error
+ * cuadrático entre el resultado final de cada posición y la probabilidad de
+ * victoria que predice la evaluación, {@code 1 / (1 + 10^(-k * e / 400))}.
+ *
+ * Primero se calculan en paralelo y por lotes las características de todas
+ * las posiciones, sin reconstruir cada una, y se escriben en un fichero
+ * temporal proyectado en memoria (unos pocos bytes por posición); después se ajusta la escala {@code k} con los pesos actuales
+ * y se optimizan los pesos por descenso de gradiente (Adam), calculando cada
+ * gradiente en paralelo por bloques. Ni las posiciones ni sus características
+ * se cargan en el montículo.
+ *
+ * Uso: {@code AjustadorTexel [--salida=pesos.properties] [--iteraciones=N] fichero ...}.
+ * El fichero resultante se usa con {@code -Dnoventagrados.pesos=pesos.properties}.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ * @see PesosEvaluacion
+ */
+public class AjustadorTexel implements AutoCloseable {
+    /** Mensaje de uso de la línea de órdenes. */
+    private static final String USO = "Uso: AjustadorTexel [--salida=pesos.properties] [--iteraciones=N] fichero ...";
+
+    /** Bytes por muestra: una característica de 16 bits cada una y el resultado. */
+    private static final int BYTES_MUESTRA = 2 * Evaluador.NUMERO_CARACTERISTICAS + 2;
+
+    /** Muestras de cada bloque de trabajo paralelo. */
+    private static final int MUESTRAS_POR_BLOQUE = 1 << 14;
+
+    /** Muestras por segmento proyectado: múltiplo del bloque que cabe en 2 GiB. */
+    private static final long MUESTRAS_POR_SEGMENTO = (Integer.MAX_VALUE / BYTES_MUESTRA / MUESTRAS_POR_BLOQUE)
+            * (long) MUESTRAS_POR_BLOQUE;
+
+    /** Factor de la sigmoide: ln(10) / 400. */
+    private static final double FACTOR_SIGMOIDE = Math.log(10) / 400;
+
+    /** Tasa de aprendizaje de Adam, en unidades de peso. */
+    private static final double TASA_APRENDIZAJE = 0.5;
+
+    private static final double BETA1 = 0.9;
+    private static final double BETA2 = 0.999;
+    private static final double EPSILON = 1e-8;
+
+    private final Path ficheroMuestras;
+    private final FileChannel canal;
+    private final MappedByteBuffer[] segmentos;
+    private final long muestras;
+
+    /**
+     * Extrae las características de todas las posiciones de los ficheros.
+     *
+     * @param ficheros ficheros de posiciones etiquetadas.
+     * @throws IOException si falla la lectura o la creación del fichero temporal.
+     */
+    public AjustadorTexel(List<Path> ficheros) throws IOException {
+        List<LectorPosiciones> lectores = new ArrayList<>();
+        try {
+            long total = 0;
+            for (Path fichero : ficheros) {
+                LectorPosiciones lector = new LectorPosiciones(fichero);
+                lectores.add(lector);
+                total += lector.contarRegistros();
+            }
+            this.muestras = total;
+            this.ficheroMuestras = Files.createTempFile("noventagrados-texel", ".bin");
+            this.canal = FileChannel.open(ficheroMuestras, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+            int numeroSegmentos = (int) ((total + MUESTRAS_POR_SEGMENTO - 1) / MUESTRAS_POR_SEGMENTO);
+            this.segmentos = new MappedByteBuffer[numeroSegmentos];
+            for (int i = 0; i < numeroSegmentos; i++) {
+                long primera = i * MUESTRAS_POR_SEGMENTO;
+                long cantidad = Math.min(MUESTRAS_POR_SEGMENTO, total - primera);
+                segmentos[i] = canal.map(FileChannel.MapMode.READ_WRITE, primera * BYTES_MUESTRA,
+                        cantidad * BYTES_MUESTRA);
+            }
+            long base = 0;
+            for (LectorPosiciones lector : lectores) {
+                extraer(lector, base);
+                base += lector.contarRegistros();
+            }
+        } finally {
+            for (LectorPosiciones lector : lectores) {
+                lector.close();
+            }
+        }
+    }
+
+    /**
+     * Punto de entrada del ajuste.
+     *
+     * @param args opciones y ficheros de posiciones
+     * @throws IOException si falla la lectura de las posiciones o la escritura de los pesos
+     */
+    public static void main(String[] args) throws IOException {
+        Path salida;
+        int iteraciones;
+        List<Path> ficheros = new ArrayList<>();
+        try {
+            OpcionesLinea opciones = new OpcionesLinea(args, "--salida", "--iteraciones");
+            salida = Paths.get(opciones.consultarTexto("--salida", "pesos.properties"));
+            iteraciones = opciones.consultarEntero("--iteraciones", 500);
+            opciones.consultarArgumentos().forEach(fichero -> ficheros.add(Paths.get(fichero)));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USO);
+            return;
+        }
+        if (ficheros.isEmpty()) {
+            System.err.println(USO);
+            return;
+        }
+        long inicio = System.nanoTime();
+        try (AjustadorTexel ajustador = new AjustadorTexel(ficheros)) {
+            System.out.printf("%d posiciones preparadas en %d ms%n", ajustador.contarMuestras(),
+                    (System.nanoTime() - inicio) / 1_000_000);
+            if (ajustador.contarMuestras() == 0) {
+                return;
+            }
+            double[] pesos = aReales(PesosEvaluacion.consultarIniciales());
+            double k = ajustador.ajustarEscala(pesos);
+            System.out.printf("k = %.4f, error inicial %.6f%n", k, ajustador.calcularError(pesos, k));
+            int[] resultado = ajustador.optimizar(pesos, k, iteraciones);
+            PesosEvaluacion.guardar(salida, resultado,
+                    String.format("Ajuste Texel: %d posiciones, k = %.4f", ajustador.contarMuestras(), k));
+            System.out.printf("Error final %.6f; pesos escritos en %s%n",
+                    ajustador.calcularError(aReales(resultado), k), salida);
+        }
+    }
+
+    /**
+     * Consulta el número de posiciones del conjunto.
+     *
+     * @return el número de muestras.
+     */
+    public long contarMuestras() {
+        return muestras;
+    }
+
+    /**
+     * Busca la escala de la sigmoide que minimiza el error con los pesos dados
+     * (búsqueda de sección áurea en [0.01, 10]).
+     *
+     * @param pesos pesos de las características.
+     * @return la escala.
+     */
+    public double ajustarEscala(double[] pesos) {
+        double razon = (Math.sqrt(5) - 1) / 2;
+        double a = 0.01;
+        double b = 10;
+        double c = b - razon * (b - a);
+        double d = a + razon * (b - a);
+        double errorC = calcularError(pesos, c);
+        double errorD = calcularError(pesos, d);
+        for (int i = 0; i < 40; i++) {
+            if (errorC < errorD) {
+                b = d;
+                d = c;
+                errorD = errorC;
+                c = b - razon * (b - a);
+                errorC = calcularError(pesos, c);
+            } else {
+                a = c;
+                c = d;
+                errorC = errorD;
+                d = a + razon * (b - a);
+                errorD = calcularError(pesos, d);
+            }
+        }
+        return (a + b) / 2;
+    }
+
+    /**
+     * Calcula el error cuadrático medio de las predicciones.
+     *
+     * @param pesos pesos de las características.
+     * @param k     escala de la sigmoide.
+     * @return el error medio.
+     */
+    public double calcularError(double[] pesos, double k) {
+        return recorrer(pesos, k, false)[0] / muestras;
+    }
+
+    /**
+     * Optimiza los pesos por descenso de gradiente con Adam.
+     *
+     * @param pesos       pesos iniciales; se modifican.
+     * @param k           escala de la sigmoide.
+     * @param iteraciones número de pasos.
+     * @return los pesos redondeados a enteros.
+     */
+    public int[] optimizar(double[] pesos, double k, int iteraciones) {
+        double[] momento = new double[pesos.length];
+        double[] varianza = new double[pesos.length];
+        for (int t = 1; t <= iteraciones; t++) {
+            double[] suma = recorrer(pesos, k, true);
+            for (int i = 0; i < pesos.length; i++) {
+                double gradiente = suma[i + 1] / muestras;
+                momento[i] = BETA1 * momento[i] + (1 - BETA1) * gradiente;
+                varianza[i] = BETA2 * varianza[i] + (1 - BETA2) * gradiente * gradiente;
+                double corregidoM = momento[i] / (1 - Math.pow(BETA1, t));
+                double corregidoV = varianza[i] / (1 - Math.pow(BETA2, t));
+                pesos[i] -= TASA_APRENDIZAJE * corregidoM / (Math.sqrt(corregidoV) + EPSILON);
+            }
+            if (t % 50 == 0 || t == iteraciones) {
+                System.out.printf("iteración %d: error %.6f, pesos %s%n", t, suma[0] / muestras,
+                        Arrays.toString(redondear(pesos)));
+            }
+        }
+        return redondear(pesos);
+    }
+
+    /**
+     * Recorre en paralelo todas las muestras acumulando el error y, si se pide,
+     * el gradiente respecto a cada peso.
+     *
+     * @param pesos      pesos de las características.
+     * @param k          escala de la sigmoide.
+     * @param gradientes si se calcula el gradiente.
+     * @return la suma del error en la posición 0 y la del gradiente de cada peso a continuación.
+     */
+    private double[] recorrer(double[] pesos, double k, boolean gradientes) {
+        long bloques = (muestras + MUESTRAS_POR_BLOQUE - 1) / MUESTRAS_POR_BLOQUE;
+        return LongStream.range(0, bloques).parallel()
+                .mapToObj(bloque -> recorrerBloque(bloque, pesos, k, gradientes))
+                .reduce(new double[pesos.length + 1], AjustadorTexel::sumar);
+    }
+
+    /**
+     * Acumula el error y el gradiente de un bloque de muestras.
+     *
+     * @param bloque     índice del bloque.
+     * @param pesos      pesos de las características.
+     * @param k          escala de la sigmoide.
+     * @param gradientes si se calcula el gradiente.
+     * @return las sumas del bloque.
+     */
+    private double[] recorrerBloque(long bloque, double[] pesos, double k, boolean gradientes) {
+        double[] suma = new double[pesos.length + 1];
+        long primera = bloque * MUESTRAS_POR_BLOQUE;
+        long ultima = Math.min(muestras, primera + MUESTRAS_POR_BLOQUE);
+        MappedByteBuffer segmento = segmentos[(int) (primera / MUESTRAS_POR_SEGMENTO)];
+        int posicion = (int) (primera % MUESTRAS_POR_SEGMENTO) * BYTES_MUESTRA;
+        double escala = k * FACTOR_SIGMOIDE;
+        for (long m = primera; m < ultima; m++, posicion += BYTES_MUESTRA) {
+            double evaluacion = 0;
+            for (int i = 0; i < pesos.length; i++) {
+                evaluacion += pesos[i] * segmento.getShort(posicion + 2 * i);
+            }
+            double objetivo = segmento.get(posicion + 2 * pesos.length) / 2.0;
+            double prediccion = 1 / (1 + Math.exp(-escala * evaluacion));
+            double diferencia = objetivo - prediccion;
+            suma[0] += diferencia * diferencia;
+            if (gradientes) {
+                // d(error)/d(peso i) = -2 (objetivo - predicción) p (1 - p) escala f_i
+                double comun = -2 * diferencia * prediccion * (1 - prediccion) * escala;
+                for (int i = 0; i < pesos.length; i++) {
+                    suma[i + 1] += comun * segmento.getShort(posicion + 2 * i);
+                }
+            }
+        }
+        return suma;
+    }
+
+    /**
+     * Calcula y guarda en paralelo las características de las posiciones de un fichero.
+     *
+     * @param lector lector del fichero.
+     * @param base   índice de la primera muestra del fichero.
+     */
+    private void extraer(LectorPosiciones lector, long base) {
+        long registros = lector.contarRegistros();
+        int bloques = (int) ((registros + MUESTRAS_POR_BLOQUE - 1) / MUESTRAS_POR_BLOQUE);
+        IntStream.range(0, bloques).parallel().forEach(bloque -> {
+            LotePosiciones lote = new LotePosiciones(lector.consultarTamano(), MUESTRAS_POR_BLOQUE);
+            int[][] caracteristicas = new int[Evaluador.NUMERO_CARACTERISTICAS][MUESTRAS_POR_BLOQUE];
+            long primero = (long) bloque * MUESTRAS_POR_BLOQUE;
+            long ultimo = Math.min(registros, primero + MUESTRAS_POR_BLOQUE);
+            for (long r = primero; r < ultimo; r++) {
+                lector.cargarEnLote(r, lote);
+            }
+            Evaluador.calcularCaracteristicas(lote, caracteristicas);
+            for (long r = primero; r < ultimo; r++) {
+                int p = (int) (r - primero);
+                long muestra = base + r;
+                MappedByteBuffer segmento = segmentos[(int) (muestra / MUESTRAS_POR_SEGMENTO)];
+                int posicion = (int) (muestra % MUESTRAS_POR_SEGMENTO) * BYTES_MUESTRA;
+                for (int i = 0; i < caracteristicas.length; i++) {
+                    segmento.putShort(posicion + 2 * i, (short) caracteristicas[i][p]);
+                }
+                segmento.put(posicion + 2 * caracteristicas.length, (byte) lector.consultarResultado(r));
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+        Files.deleteIfExists(ficheroMuestras);
+    }
+
+    /**
+     * Suma dos vectores de acumulados en uno nuevo.
+     *
+     * @param a primer sumando.
+     * @param b segundo sumando.
+     * @return la suma.
+     */
+    private static double[] sumar(double[] a, double[] b) {
+        double[] suma = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            suma[i] = a[i] + b[i];
+        }
+        return suma;
+    }
+
+    /**
+     * Convierte pesos enteros en reales.
+     *
+     * @param pesos pesos enteros.
+     * @return los mismos pesos como reales.
+     */
+    private static double[] aReales(int[] pesos) {
+        double[] reales = new double[pesos.length];
+        for (int i = 0; i < pesos.length; i++) {
+            reales[i] = pesos[i];
+        }
+        return reales;
+    }
+
+    /**
+     * Redondea pesos reales a enteros.
+     *
+     * @param pesos pesos reales.
+     * @return los pesos redondeados.
+     */
+    private static int[] redondear(double[] pesos) {
+        int[] enteros = new int[pesos.length];
+        for (int i = 0; i < pesos.length; i++) {
+            enteros[i] = (int) Math.round(pesos[i]);
+        }
+        return enteros;
+    }
+}
@@ -0,0 +1,123 @@
+package noventagrados.datos;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import noventagrados.control.Arbitro;
+import noventagrados.util.Color;
+import noventagrados.util.Coordenada;
+import noventagrados.util.ResultadoPartida;
+import noventagrados.util.TipoPieza;
+
+/**
+ * Escribe posiciones etiquetadas en el formato de {@link FormatoPosiciones}.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class EscritorPosiciones implements AutoCloseable {
+    private final DataOutputStream salida;
+    private final int tamano;
+    private final byte[] registro;
+    private long registros;
+
+    /**
+     * Crea el fichero, sustituyéndolo si existía, y escribe su cabecera.
+     *
+     * @param fichero ruta del fichero.
+     * @param tamano  tamaño del tablero de todas las posiciones.
+     * @throws IOException si no se puede crear el fichero.
+     */
+    public EscritorPosiciones(Path fichero, int tamano) throws IOException {
+        this.salida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(fichero), 1 << 16));
+        this.tamano = tamano;
+        this.registro = new byte[FormatoPosiciones.calcularTamanoRegistro(tamano)];
+        salida.writeLong(FormatoPosiciones.MAGIA);
+        salida.writeInt(tamano);
+        salida.writeInt(registro.length);
+    }
+
+    /**
+     * Añade una posición.
+     *
+     * @param posicion   la posición; su tablero debe ser del tamaño del fichero.
+     * @param resultado  resultado final de la partida ({@link ResultadoPartida#GANAN_BLANCAS}...).
+     * @param puntuacion puntuación de la búsqueda para el jugador con el turno; se satura a 16 bits.
+     * @throws IOException si falla la escritura.
+     */
+    public void escribir(Arbitro posicion, int resultado, int puntuacion) throws IOException {
+        if (posicion.consultarTamano() != tamano) {
+            throw new IllegalArgumentException("Tamaño de tablero distinto del del fichero");
+        }
+        int limitada = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, puntuacion));
+        registro[0] = (byte) (posicion.consultarTurno() == Color.NEGRO ? 1 : 0);
+        registro[1] = (byte) resultado;
+        registro[2] = (byte) posicion.consultarCaja(Color.BLANCO).contarPiezas(TipoPieza.PEON);
+        registro[3] = (byte) posicion.consultarCaja(Color.NEGRO).contarPiezas(TipoPieza.PEON);
+        registro[4] = (byte) (posicion.consultarCaja(Color.BLANCO).contarPiezas(TipoPieza.REINA)
+                | posicion.consultarCaja(Color.NEGRO).contarPiezas(TipoPieza.REINA) << 1);
+        registro[5] = 0;
+        registro[6] = (byte) (limitada >> 8);
+        registro[7] = (byte) limitada;
+        codificarCeldas(posicion);
+        salida.write(registro);
+        registros++;
+    }
+
+    /**
+     * Consulta el número de posiciones escritas.
+     *
+     * @return el número de registros.
+     */
+    public long contarRegistros() {
+        return registros;
+    }
+
+    @Override
+    public void close() throws IOException {
+        salida.close();
+    }
+
+    /**
+     * Escribe los códigos de las celdas en el registro a partir de la ocupación
+     * por color y de la posición de las reinas, sin clonar el tablero.
+     *
+     * @param posicion la posición.
+     */
+    private void codificarCeldas(Arbitro posicion) {
+        Coordenada reinaBlanca = posicion.consultarCoordenadaReina(Color.BLANCO);
+        Coordenada reinaNegra = posicion.consultarCoordenadaReina(Color.NEGRO);
+        int celda = FormatoPosiciones.BYTES_FIJOS;
+        for (int fila = 0; fila < tamano; fila++) {
+            long blancas = posicion.consultarOcupacionFila(fila, Color.BLANCO);
+            long negras = posicion.consultarOcupacionFila(fila, Color.NEGRO);
+            for (int columna = 0; columna < tamano; columna++, celda++) {
+                long bit = 1L << columna;
+                if ((blancas & bit) != 0) {
+                    registro[celda] = esCelda(reinaBlanca, fila, columna) ? FormatoPosiciones.REINA_BLANCA
+                            : FormatoPosiciones.PEON_BLANCO;
+                } else if ((negras & bit) != 0) {
+                    registro[celda] = esCelda(reinaNegra, fila, columna) ? FormatoPosiciones.REINA_NEGRA
+                            : FormatoPosiciones.PEON_NEGRO;
+                } else {
+                    registro[celda] = FormatoPosiciones.VACIA;
+                }
+            }
+        }
+    }
+
+    /**
+     * Comprueba si una coordenada corresponde a una celda.
+     *
+     * @param coordenada coordenada o null.
+     * @param fila       fila de la celda.
+     * @param columna    columna de la celda.
+     * @return true si coinciden.
+     */
+    private static boolean esCelda(Coordenada coordenada, int fila, int columna) {
+        return coordenada != null && coordenada.fila() == fila && coordenada.columna() == columna;
+    }
+}
@@ -0,0 +1,250 @@
+package noventagrados.datos;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import noventagrados.control.Arbitro;
+import noventagrados.modelo.Jugada;
+import noventagrados.modelo.Tablero;
+import noventagrados.motor.Buscador;
+import noventagrados.motor.GeneradorJugadas;
+import noventagrados.motor.InformeBusqueda;
+import noventagrados.motor.LimitesBusqueda;
+import noventagrados.motor.TablaTransposicionMemoria;
+import noventagrados.util.ConjuntoLong;
+import noventagrados.util.OpcionesLinea;
+import noventagrados.util.ResultadoPartida;
+
+/**
+ * Genera datos de entrenamiento jugando partidas del motor contra sí mismo y
+ * escribiéndolas en el formato de {@link FormatoPosiciones}: la posición, el
+ * turno, el resultado final de la partida y la puntuación de la búsqueda.
+ *
+ * Las partidas se juegan en paralelo por lotes, cada una con su propio
+ * generador aleatorio derivado de la semilla. Las primeras jugadas de cada
+ * partida se eligen al azar para variar las aperturas y no se guardan. Del
+ * resto se puede tomar una muestra de tamaño fijo por partida. Las posiciones
+ * de cada lote se escriben al terminarlo, en el orden de las partidas, y las
+ * repetidas, en la misma partida o en otra, se descartan por su clave con un
+ * {@link ConjuntoLong} fuera del montículo: se conserva siempre la de la
+ * primera partida, por lo que el fichero es reproducible y no depende del
+ * número de hilos.
+ *
+ * Uso: {@code ExportadorEntrenamiento [--salida=posiciones.bin] [--partidas=N]
+ * [--tamano=N] [--profundidad=N] [--muestras=N] [--aleatorias=N] [--semilla=N]}.
+ * Con {@code --muestras=0} se guardan todas las posiciones de cada partida.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class ExportadorEntrenamiento {
+    /** Mensaje de uso de la línea de órdenes. */
+    private static final String USO = "Uso: ExportadorEntrenamiento [--salida=posiciones.bin] [--partidas=N]"
+            + " [--tamano=N] [--profundidad=N] [--muestras=N] [--aleatorias=N] [--semilla=N]";
+
+    /** Jugadas máximas de una partida; al llegar se da por tablas. */
+    private static final int MAXIMO_JUGADAS = 200;
+
+    /** Entradas de la tabla de transposición de cada hilo. */
+    private static final int ENTRADAS_TABLA = 1 << 16;
+
+    /** Posiciones guardadas que se esperan por partida, para dimensionar el conjunto. */
+    private static final int POSICIONES_ESPERADAS = 40;
+
+    /** Partidas que se juegan en paralelo antes de escribir sus posiciones. */
+    private static final int PARTIDAS_POR_LOTE = 256;
+
+    private final EscritorPosiciones escritor;
+    private final ConjuntoLong vistas;
+    private final int tamano;
+    private final LimitesBusqueda limites;
+    private final int muestras;
+    private final int aleatorias;
+    private final long semilla;
+    private final ThreadLocal<Buscador> buscadores;
+    private long descartadas;
+
+    /**
+     * Crea un exportador.
+     *
+     * @param escritor   destino de las posiciones.
+     * @param tamano     tamaño del tablero.
+     * @param partidas   número de partidas previsto.
+     * @param limites    límites de la búsqueda de cada jugada.
+     * @param muestras   posiciones guardadas por partida como mucho, o 0 para todas.
+     * @param aleatorias jugadas iniciales al azar de cada partida.
+     * @param semilla    semilla de las partidas.
+     */
+    public ExportadorEntrenamiento(EscritorPosiciones escritor, int tamano, int partidas, LimitesBusqueda limites,
+            int muestras, int aleatorias, long semilla) {
+        this.escritor = escritor;
+        this.tamano = tamano;
+        this.limites = limites;
+        this.muestras = muestras;
+        this.aleatorias = aleatorias;
+        this.semilla = semilla;
+        this.vistas = new ConjuntoLong((long) partidas * (muestras > 0 ? muestras : POSICIONES_ESPERADAS));
+        this.buscadores = ThreadLocal.withInitial(() -> new Buscador(new TablaTransposicionMemoria(ENTRADAS_TABLA)));
+    }
+
+    /**
+     * Punto de entrada del exportador.
+     *
+     * @param args opciones
+     * @throws IOException si falla la escritura
+     */
+    public static void main(String[] args) throws IOException {
+        Path salida;
+        int partidas;
+        int tamano;
+        int profundidad;
+        int muestras;
+        int aleatorias;
+        long semilla;
+        try {
+            OpcionesLinea opciones = new OpcionesLinea(args, "--salida", "--partidas", "--tamano", "--profundidad",
+                    "--muestras", "--aleatorias", "--semilla");
+            if (!opciones.consultarArgumentos().isEmpty()) {
+                throw new IllegalArgumentException("Argumento no esperado: " + opciones.consultarArgumentos().get(0));
+            }
+            salida = Paths.get(opciones.consultarTexto("--salida", "posiciones.bin"));
+            partidas = opciones.consultarEntero("--partidas", 1000);
+            tamano = Tablero.comprobarTamano(opciones.consultarEntero("--tamano", Tablero.TAMANO_POR_DEFECTO));
+            profundidad = opciones.consultarEntero("--profundidad", 3);
+            muestras = opciones.consultarEntero("--muestras", 0);
+            aleatorias = opciones.consultarEntero("--aleatorias", 4);
+            semilla = opciones.consultarLargo("--semilla", 1);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USO);
+            return;
+        }
+        long inicio = System.nanoTime();
+        try (EscritorPosiciones escritor = new EscritorPosiciones(salida, tamano)) {
+            ExportadorEntrenamiento exportador = new ExportadorEntrenamiento(escritor, tamano, partidas,
+                    LimitesBusqueda.porProfundidad(profundidad), muestras, aleatorias, semilla);
+            exportador.jugar(partidas);
+            System.out.printf("%d partidas, %d posiciones escritas en %s, %d repetidas descartadas, %d ms%n",
+                    partidas, escritor.contarRegistros(), salida, exportador.contarDescartadas(),
+                    (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+
+    /**
+     * Juega en paralelo las partidas indicadas y escribe sus posiciones.
+     *
+     * @param partidas número de partidas.
+     * @throws IOException si falla la escritura.
+     */
+    public void jugar(int partidas) throws IOException {
+        PartidaJugada[] lote = new PartidaJugada[Math.min(partidas, PARTIDAS_POR_LOTE)];
+        for (int primera = 0; primera < partidas; primera += lote.length) {
+            int base = primera;
+            int cantidad = Math.min(lote.length, partidas - primera);
+            IntStream.range(0, cantidad).parallel().forEach(i -> lote[i] = jugarPartida(base + i));
+            for (int i = 0; i < cantidad; i++) {
+                escribir(lote[i]);
+                lote[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Consulta el número de posiciones descartadas por repetidas.
+     *
+     * @return las posiciones descartadas.
+     */
+    public long contarDescartadas() {
+        return descartadas;
+    }
+
+    /**
+     * Juega una partida y toma la muestra de sus posiciones.
+     *
+     * @param indice número de la partida, del que se deriva su semilla.
+     * @return las posiciones de la muestra con sus puntuaciones y el resultado.
+     */
+    private PartidaJugada jugarPartida(int indice) {
+        SplittableRandom azar = new SplittableRandom(semilla ^ indice * 0x9E3779B97F4A7C15L);
+        Buscador buscador = buscadores.get();
+        buscador.limpiarTabla();
+        Arbitro arbitro = new Arbitro(new Tablero(tamano));
+        arbitro.colocarPiezasConfiguracionInicial();
+        List<Arbitro> posiciones = new ArrayList<>();
+        int[] puntuaciones = new int[MAXIMO_JUGADAS];
+        for (int numero = 0; numero < MAXIMO_JUGADAS && !arbitro.estaFinalizadaPartida(); numero++) {
+            List<Jugada> legales = GeneradorJugadas.generar(arbitro);
+            if (legales.isEmpty()) {
+                break;
+            }
+            Jugada jugada;
+            if (numero < aleatorias) {
+                jugada = legales.get(azar.nextInt(legales.size()));
+            } else {
+                InformeBusqueda informe = buscador.buscar(arbitro, limites, null);
+                puntuaciones[posiciones.size()] = informe.puntuacion();
+                posiciones.add(arbitro.clonar());
+                jugada = informe.consultarMejorJugada();
+            }
+            arbitro.empujar(jugada);
+            if (!arbitro.estaFinalizadaPartida()) {
+                arbitro.cambiarTurno();
+            }
+        }
+        muestrear(posiciones, puntuaciones, azar);
+        int resultado = ResultadoPartida
+                .codificar(arbitro.estaFinalizadaPartida() ? arbitro.consultarTurnoGanador() : null);
+        return new PartidaJugada(posiciones, puntuaciones, resultado);
+    }
+
+    /**
+     * Deja en la lista una muestra al azar del tamaño configurado, en el orden
+     * de la partida, junto con sus puntuaciones al principio del vector.
+     *
+     * @param posiciones   posiciones de la partida.
+     * @param puntuaciones puntuaciones de cada posición, en el mismo orden.
+     * @param azar         generador de la partida.
+     */
+    private void muestrear(List<Arbitro> posiciones, int[] puntuaciones, SplittableRandom azar) {
+        // Elimina posiciones al azar hasta quedarse con las pedidas
+        while (muestras > 0 && posiciones.size() > muestras) {
+            int eliminada = azar.nextInt(posiciones.size());
+            posiciones.remove(eliminada);
+            System.arraycopy(puntuaciones, eliminada + 1, puntuaciones, eliminada, posiciones.size() - eliminada);
+        }
+    }
+
+    /**
+     * Escribe las posiciones de una partida que no se hayan visto antes. Se
+     * invoca en el orden de las partidas.
+     *
+     * @param partida la partida.
+     * @throws IOException si falla la escritura.
+     */
+    private void escribir(PartidaJugada partida) throws IOException {
+        List<Arbitro> posiciones = partida.posiciones();
+        for (int i = 0; i < posiciones.size(); i++) {
+            Arbitro posicion = posiciones.get(i);
+            if (vistas.añadir(posicion.consultarClave())) {
+                escritor.escribir(posicion, partida.resultado(), partida.puntuaciones()[i]);
+            } else {
+                descartadas++;
+            }
+        }
+    }
+
+    /**
+     * Muestra de las posiciones de una partida jugada, pendiente de escribir.
+     *
+     * @param posiciones   posiciones de la muestra, en el orden de la partida.
+     * @param puntuaciones puntuación de cada posición, al principio del vector.
+     * @param resultado    resultado final de la partida.
+     */
+    private record PartidaJugada(List<Arbitro> posiciones, int[] puntuaciones, int resultado) {
+    }
+}
@@ -0,0 +1,66 @@
+package noventagrados.datos;
+
+import noventagrados.util.ResultadoPartida;
+
+/**
+ * Formato binario de los ficheros de posiciones etiquetadas.
+ *
+ * Un fichero empieza con una cabecera de {@value #TAMANO_CABECERA} bytes
+ * (número mágico {@link #MAGIA} de 8 bytes, tamaño del tablero y tamaño del
+ * registro como enteros de 4 bytes) seguida de registros de anchura fija, todos
+ * del mismo tamaño de tablero n:
+ * <pre>
+ * byte 0      turno: 0 blancas, 1 negras
+ * byte 1      resultado final de la partida: código de {@link ResultadoPartida}
+ * byte 2      peones blancos en su caja
+ * byte 3      peones negros en su caja
+ * byte 4      reinas en caja: bit 0 la blanca, bit 1 la negra
+ * byte 5      reservado (0)
+ * bytes 6-7   puntuación de la búsqueda para el jugador con el turno (entero de 16 bits con signo)
+ * bytes 8-    n * n códigos de celda por filas: {@link #VACIA}, {@link #PEON_BLANCO},
+ *             {@link #REINA_BLANCA}, {@link #PEON_NEGRO} o {@link #REINA_NEGRA}
+ * </pre>
+ * Los enteros se escriben en orden de red.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public final class FormatoPosiciones {
+    /** Número mágico: "NGPOSIC1" en ASCII. */
+    public static final long MAGIA = 0x4E47504F53494331L;
+
+    /** Bytes de la cabecera. */
+    public static final int TAMANO_CABECERA = 16;
+
+    /** Bytes de un registro antes de las celdas. */
+    public static final int BYTES_FIJOS = 8;
+
+    /** Código de celda vacía. */
+    public static final byte VACIA = 0;
+
+    /** Código de peón blanco. */
+    public static final byte PEON_BLANCO = 1;
+
+    /** Código de reina blanca. */
+    public static final byte REINA_BLANCA = 2;
+
+    /** Código de peón negro. */
+    public static final byte PEON_NEGRO = 3;
+
+    /** Código de reina negra. */
+    public static final byte REINA_NEGRA = 4;
+
+    /** Oculta el constructor. */
+    private FormatoPosiciones() {
+    }
+
+    /**
+     * Calcula los bytes de un registro.
+     *
+     * @param tamano tamaño del tablero.
+     * @return la anchura del registro.
+     */
+    public static int calcularTamanoRegistro(int tamano) {
+        return BYTES_FIJOS + tamano * tamano;
+    }
+}
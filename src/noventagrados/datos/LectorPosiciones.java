@@ -0,0 +1,239 @@
+package noventagrados.datos;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import noventagrados.control.Arbitro;
+import noventagrados.modelo.Pieza;
+import noventagrados.modelo.Tablero;
+import noventagrados.motor.LotePosiciones;
+import noventagrados.util.Color;
+import noventagrados.util.Coordenada;
+import noventagrados.util.ResultadoPartida;
+import noventagrados.util.TipoPieza;
+
+/**
+ * Lee un fichero de posiciones etiquetadas proyectándolo en memoria, de modo
+ * que los registros no ocupan el montículo y el sistema operativo los carga y
+ * descarta según se recorren.
+ *
+ * El fichero se proyecta en segmentos de como mucho 2 GiB con un número entero
+ * de registros. Las lecturas son absolutas y no modifican el estado del lector,
+ * por lo que varios hilos pueden leer a la vez.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ * @see FormatoPosiciones
+ */
+public class LectorPosiciones implements AutoCloseable {
+    private final FileChannel canal;
+    private final int tamano;
+    private final int tamanoRegistro;
+    private final long registros;
+    private final long registrosPorSegmento;
+    private final MappedByteBuffer[] segmentos;
+
+    /**
+     * Abre y proyecta un fichero de posiciones.
+     *
+     * @param fichero ruta del fichero.
+     * @throws IOException si no se puede leer o no tiene el formato esperado.
+     */
+    public LectorPosiciones(Path fichero) throws IOException {
+        this.canal = FileChannel.open(fichero, StandardOpenOption.READ);
+        try {
+            ByteBuffer cabecera = ByteBuffer.allocate(FormatoPosiciones.TAMANO_CABECERA);
+            while (cabecera.hasRemaining() && canal.read(cabecera) >= 0) {
+                // Lee la cabecera completa
+            }
+            cabecera.flip();
+            if (cabecera.remaining() < FormatoPosiciones.TAMANO_CABECERA
+                    || cabecera.getLong() != FormatoPosiciones.MAGIA) {
+                throw new IOException("No es un fichero de posiciones: " + fichero);
+            }
+            this.tamano = cabecera.getInt();
+            this.tamanoRegistro = cabecera.getInt();
+            if (tamano < Tablero.TAMANO_MINIMO || tamano > Tablero.TAMANO_MAXIMO
+                    || tamanoRegistro != FormatoPosiciones.calcularTamanoRegistro(tamano)) {
+                throw new IOException("Cabecera de posiciones no válida: " + fichero);
+            }
+            this.registros = (canal.size() - FormatoPosiciones.TAMANO_CABECERA) / tamanoRegistro;
+            this.registrosPorSegmento = Integer.MAX_VALUE / tamanoRegistro;
+            int numeroSegmentos = (int) ((registros + registrosPorSegmento - 1) / registrosPorSegmento);
+            this.segmentos = new MappedByteBuffer[numeroSegmentos];
+            for (int i = 0; i < numeroSegmentos; i++) {
+                long primero = i * registrosPorSegmento;
+                long cantidad = Math.min(registrosPorSegmento, registros - primero);
+                segmentos[i] = canal.map(FileChannel.MapMode.READ_ONLY,
+                        FormatoPosiciones.TAMANO_CABECERA + primero * tamanoRegistro, cantidad * tamanoRegistro);
+            }
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Consulta el tamaño del tablero de las posiciones.
+     *
+     * @return el tamaño.
+     */
+    public int consultarTamano() {
+        return tamano;
+    }
+
+    /**
+     * Consulta el número de posiciones completas del fichero.
+     *
+     * @return el número de registros.
+     */
+    public long contarRegistros() {
+        return registros;
+    }
+
+    /**
+     * Consulta el resultado final de la partida de una posición.
+     *
+     * @param indice índice del registro.
+     * @return {@link ResultadoPartida#GANAN_NEGRAS}, {@link ResultadoPartida#TABLAS} o
+     *         {@link ResultadoPartida#GANAN_BLANCAS}.
+     */
+    public int consultarResultado(long indice) {
+        return leerByte(indice, 1);
+    }
+
+    /**
+     * Consulta la puntuación guardada de una posición.
+     *
+     * @param indice índice del registro.
+     * @return la puntuación para el jugador con el turno.
+     */
+    public int consultarPuntuacion(long indice) {
+        return (short) (leerByte(indice, 6) << 8 | leerByte(indice, 7));
+    }
+
+    /**
+     * Consulta el código de una celda de una posición.
+     *
+     * @param indice  índice del registro.
+     * @param fila    fila de la celda.
+     * @param columna columna de la celda.
+     * @return el código de la celda ({@link FormatoPosiciones#VACIA}...).
+     */
+    public int consultarCelda(long indice, int fila, int columna) {
+        return leerByte(indice, FormatoPosiciones.BYTES_FIJOS + fila * tamano + columna);
+    }
+
+    /**
+     * Reconstruye la posición de un registro, con las cajas y el turno.
+     *
+     * @param indice índice del registro.
+     * @return un árbitro nuevo con la posición.
+     */
+    public Arbitro reconstruir(long indice) {
+        Arbitro arbitro = new Arbitro(new Tablero(tamano));
+        int ocupadas = 0;
+        Pieza[] piezas = new Pieza[tamano * tamano];
+        Coordenada[] coordenadas = new Coordenada[tamano * tamano];
+        for (int fila = 0; fila < tamano; fila++) {
+            for (int columna = 0; columna < tamano; columna++) {
+                int codigo = consultarCelda(indice, fila, columna);
+                if (codigo != FormatoPosiciones.VACIA) {
+                    piezas[ocupadas] = decodificar(codigo);
+                    coordenadas[ocupadas++] = new Coordenada(fila, columna);
+                }
+            }
+        }
+        Color turno = leerByte(indice, 0) == 1 ? Color.NEGRO : Color.BLANCO;
+        arbitro.colocarPiezas(Arrays.copyOf(piezas, ocupadas),
+                Arrays.copyOf(coordenadas, ocupadas), turno);
+        guardar(arbitro, Color.BLANCO, leerByte(indice, 2), (leerByte(indice, 4) & 1) != 0);
+        guardar(arbitro, Color.NEGRO, leerByte(indice, 3), (leerByte(indice, 4) & 2) != 0);
+        return arbitro;
+    }
+
+    /**
+     * Añade la posición de un registro a un lote de evaluación sin construir
+     * un árbitro.
+     *
+     * @param indice índice del registro.
+     * @param lote   lote del mismo tamaño de tablero que el fichero.
+     */
+    public void cargarEnLote(long indice, LotePosiciones lote) {
+        long[] blancas = new long[tamano];
+        long[] negras = new long[tamano];
+        Coordenada reinaBlanca = null;
+        Coordenada reinaNegra = null;
+        for (int fila = 0; fila < tamano; fila++) {
+            for (int columna = 0; columna < tamano; columna++) {
+                int codigo = consultarCelda(indice, fila, columna);
+                if (codigo == FormatoPosiciones.PEON_BLANCO || codigo == FormatoPosiciones.REINA_BLANCA) {
+                    blancas[fila] |= 1L << columna;
+                } else if (codigo == FormatoPosiciones.PEON_NEGRO || codigo == FormatoPosiciones.REINA_NEGRA) {
+                    negras[fila] |= 1L << columna;
+                }
+                if (codigo == FormatoPosiciones.REINA_BLANCA) {
+                    reinaBlanca = new Coordenada(fila, columna);
+                } else if (codigo == FormatoPosiciones.REINA_NEGRA) {
+                    reinaNegra = new Coordenada(fila, columna);
+                }
+            }
+        }
+        lote.añadir(blancas, negras, reinaBlanca, reinaNegra, leerByte(indice, 2), leerByte(indice, 3),
+                leerByte(indice, 0) == 1 ? Color.NEGRO : Color.BLANCO);
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Lee un byte sin signo de un registro.
+     *
+     * @param indice         índice del registro.
+     * @param desplazamiento posición del byte dentro del registro.
+     * @return el byte, entre 0 y 255.
+     */
+    private int leerByte(long indice, int desplazamiento) {
+        if (indice < 0 || indice >= registros) {
+            throw new IndexOutOfBoundsException("Registro inexistente: " + indice);
+        }
+        MappedByteBuffer segmento = segmentos[(int) (indice / registrosPorSegmento)];
+        return segmento.get((int) (indice % registrosPorSegmento) * tamanoRegistro + desplazamiento) & 0xFF;
+    }
+
+    /**
+     * Añade a la caja de un color las piezas indicadas.
+     *
+     * @param arbitro la posición.
+     * @param color   color de la caja.
+     * @param peones  número de peones en la caja.
+     * @param reina   si la reina está en la caja.
+     */
+    private static void guardar(Arbitro arbitro, Color color, int peones, boolean reina) {
+        for (int i = 0; i < peones; i++) {
+            arbitro.consultarCaja(color).añadir(new Pieza(TipoPieza.PEON, color));
+        }
+        if (reina) {
+            arbitro.consultarCaja(color).añadir(new Pieza(TipoPieza.REINA, color));
+        }
+    }
+
+    /**
+     * Convierte un código de celda ocupada en una pieza.
+     *
+     * @param codigo código de celda distinto de {@link FormatoPosiciones#VACIA}.
+     * @return la pieza.
+     */
+    private static Pieza decodificar(int codigo) {
+        Color color = codigo <= FormatoPosiciones.REINA_BLANCA ? Color.BLANCO : Color.NEGRO;
+        boolean reina = codigo == FormatoPosiciones.REINA_BLANCA || codigo == FormatoPosiciones.REINA_NEGRA;
+        return new Pieza(reina ? TipoPieza.REINA : TipoPieza.PEON, color);
+    }
+}
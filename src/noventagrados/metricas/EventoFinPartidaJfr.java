@@ -0,0 +1,28 @@
+package noventagrados.metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento de JDK Flight Recorder emitido cuando una partida finaliza.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+@Name("noventagrados.FinPartida")
+@Label("Fin de partida")
+@Category("Noventa Grados")
+@Description("Resultado de una partida arbitrada")
+class EventoFinPartidaJfr extends Event {
+
+    /** Color ganador o "EMPATE". */
+    @Label("Ganador")
+    String ganador;
+
+    /** Número de jugadas de la partida. */
+    @Label("Jugadas")
+    int numeroJugadas;
+}
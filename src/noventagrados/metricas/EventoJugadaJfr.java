@@ -0,0 +1,28 @@
+package noventagrados.metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento de JDK Flight Recorder emitido al aplicar una jugada.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+@Name("noventagrados.Jugada")
+@Label("Jugada aplicada")
+@Category("Noventa Grados")
+@Description("Jugada aplicada por el árbitro")
+class EventoJugadaJfr extends Event {
+
+    /** Jugada en notación "dd-dd". */
+    @Label("Jugada")
+    String jugada;
+
+    /** Número de jugadas realizadas tras aplicarla. */
+    @Label("Número de jugada")
+    int numeroJugada;
+}
@@ -0,0 +1,138 @@
+package noventagrados.metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias en nanosegundos, sin bloqueos, con cubetas
+ * logarítmico-lineales al estilo de HdrHistogram.
+ *
+ * Cada potencia de dos se divide en {@value #SUBCUBETAS} subcubetas, por lo que
+ * el error relativo de los percentiles está acotado por 1/{@value #SUBCUBETAS}.
+ * Registrar un valor es un único incremento atómico.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class HistogramaLatencias {
+    /** Bits de precisión dentro de cada potencia de dos. */
+    private static final int BITS_SUBCUBETA = 3;
+
+    /** Subcubetas por potencia de dos. */
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+
+    /** Número total de cubetas para cubrir todo el rango de long. */
+    private static final int CUBETAS = (64 - BITS_SUBCUBETA + 1) * SUBCUBETAS;
+
+    private final AtomicLongArray contadores;
+    private final AtomicLong maximo;
+
+    /**
+     * Crea un histograma vacío.
+     */
+    public HistogramaLatencias() {
+        this.contadores = new AtomicLongArray(CUBETAS);
+        this.maximo = new AtomicLong();
+    }
+
+    /**
+     * Registra un valor.
+     *
+     * @param valor valor no negativo, normalmente una latencia en nanosegundos.
+     */
+    public void registrar(long valor) {
+        if (valor < 0) {
+            valor = 0;
+        }
+        contadores.incrementAndGet(indice(valor));
+        long actual = maximo.get();
+        while (valor > actual && !maximo.compareAndSet(actual, valor)) {
+            actual = maximo.get();
+        }
+    }
+
+    /**
+     * Consulta el número de valores registrados.
+     *
+     * @return el total de valores.
+     */
+    public long consultarTotal() {
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            total += contadores.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Consulta el mayor valor registrado.
+     *
+     * @return el máximo, o 0 si no hay valores.
+     */
+    public long consultarMaximo() {
+        return maximo.get();
+    }
+
+    /**
+     * Consulta el valor por debajo del cual queda el porcentaje indicado de registros.
+     *
+     * @param percentil porcentaje en el rango [0, 100].
+     * @return el límite superior de la cubeta que contiene el percentil, o 0 si no hay valores.
+     */
+    public long consultarPercentil(double percentil) {
+        long total = consultarTotal();
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(total * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += contadores.get(i);
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    /**
+     * Pone a cero todos los contadores.
+     */
+    public void reiniciar() {
+        for (int i = 0; i < CUBETAS; i++) {
+            contadores.set(i, 0);
+        }
+        maximo.set(0);
+    }
+
+    /**
+     * Calcula la cubeta de un valor.
+     *
+     * @param valor valor no negativo.
+     * @return índice de cubeta.
+     */
+    private static int indice(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int desplazamiento = exponente - BITS_SUBCUBETA;
+        int subcubeta = (int) (valor >>> desplazamiento) & (SUBCUBETAS - 1);
+        return (desplazamiento + 1) * SUBCUBETAS + subcubeta;
+    }
+
+    /**
+     * Calcula el mayor valor que cae en una cubeta.
+     *
+     * @param indice índice de cubeta.
+     * @return límite superior incluido.
+     */
+    private static long limiteSuperior(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int desplazamiento = indice / SUBCUBETAS - 1;
+        long base = (long) (SUBCUBETAS + indice % SUBCUBETAS) << desplazamiento;
+        return base + (1L << desplazamiento) - 1;
+    }
+}
@@ -0,0 +1,200 @@
+package noventagrados.metricas;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import noventagrados.modelo.Jugada;
+import noventagrados.util.Color;
+
+/**
+ * Métricas opcionales del árbitro: contadores, histogramas de latencia,
+ * exposición por JMX y eventos de JDK Flight Recorder.
+ *
+ * Se activan arrancando la máquina virtual con {@code -Dnoventagrados.metricas=true}.
+ * Como {@link #ACTIVAS} es una constante, el código instrumentado se escribe como
+ * {@code if (MetricasArbitro.ACTIVAS) ...} y, desactivado, el compilador JIT lo
+ * elimina; en el peor caso queda una única rama siempre predicha.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public final class MetricasArbitro implements MetricasArbitroMXBean {
+
+    /** Indica si la instrumentación está activa en esta máquina virtual. */
+    public static final boolean ACTIVAS = Boolean.getBoolean("noventagrados.metricas");
+
+    /** Nombre con el que se registra el MXBean. */
+    public static final String NOMBRE_JMX = "noventagrados:type=MetricasArbitro";
+
+    /** Instancia única, o null si las métricas están desactivadas. */
+    public static final MetricasArbitro INSTANCIA = ACTIVAS ? crear() : null;
+
+    private final LongAdder jugadasAplicadas = new LongAdder();
+    private final LongAdder jugadasRechazadas = new LongAdder();
+    private final LongAdder partidasFinalizadas = new LongAdder();
+    private final LongAdder consultasTablero = new LongAdder();
+    private final HistogramaLatencias legalidad = new HistogramaLatencias();
+    private final HistogramaLatencias empuje = new HistogramaLatencias();
+    private final HistogramaLatencias finalizacion = new HistogramaLatencias();
+
+    /** Oculta el constructor. */
+    private MetricasArbitro() {
+    }
+
+    /**
+     * Crea la instancia y la registra en el servidor de MBeans de la plataforma.
+     *
+     * @return la instancia creada.
+     */
+    private static MetricasArbitro crear() {
+        MetricasArbitro metricas = new MetricasArbitro();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metricas, new ObjectName(NOMBRE_JMX));
+        } catch (JMException e) {
+            // Sin JMX las métricas siguen disponibles desde código
+        }
+        return metricas;
+    }
+
+    /**
+     * Registra una comprobación de legalidad.
+     *
+     * @param inicio instante de inicio según {@link System#nanoTime()}.
+     * @param legal  si la jugada resultó legal.
+     */
+    public void registrarLegalidad(long inicio, boolean legal) {
+        legalidad.registrar(System.nanoTime() - inicio);
+        if (!legal) {
+            jugadasRechazadas.increment();
+        }
+    }
+
+    /**
+     * Registra un empuje aplicado y emite su evento de Flight Recorder.
+     *
+     * @param inicio       instante de inicio según {@link System#nanoTime()}.
+     * @param jugada       jugada aplicada.
+     * @param numeroJugada número de jugadas tras aplicarla.
+     */
+    public void registrarEmpuje(long inicio, Jugada jugada, int numeroJugada) {
+        empuje.registrar(System.nanoTime() - inicio);
+        jugadasAplicadas.increment();
+        EventoJugadaJfr evento = new EventoJugadaJfr();
+        if (evento.isEnabled()) {
+            evento.jugada = jugada.aTexto();
+            evento.numeroJugada = numeroJugada;
+            evento.commit();
+        }
+    }
+
+    /**
+     * Registra una comprobación de fin de partida.
+     *
+     * @param inicio instante de inicio según {@link System#nanoTime()}.
+     */
+    public void registrarFinalizacion(long inicio) {
+        finalizacion.registrar(System.nanoTime() - inicio);
+    }
+
+    /**
+     * Registra el resultado de una partida y emite su evento de Flight Recorder.
+     *
+     * @param ganador       color ganador o null en caso de empate.
+     * @param numeroJugadas jugadas realizadas en la partida.
+     */
+    public void registrarFinPartida(Color ganador, int numeroJugadas) {
+        partidasFinalizadas.increment();
+        EventoFinPartidaJfr evento = new EventoFinPartidaJfr();
+        if (evento.isEnabled()) {
+            evento.ganador = ganador != null ? ganador.name() : "EMPATE";
+            evento.numeroJugadas = numeroJugadas;
+            evento.commit();
+        }
+    }
+
+    /**
+     * Registra una consulta realizada sobre el tablero.
+     */
+    public void registrarConsultaTablero() {
+        consultasTablero.increment();
+    }
+
+    @Override
+    public long getJugadasAplicadas() {
+        return jugadasAplicadas.sum();
+    }
+
+    @Override
+    public long getJugadasRechazadas() {
+        return jugadasRechazadas.sum();
+    }
+
+    @Override
+    public long getPartidasFinalizadas() {
+        return partidasFinalizadas.sum();
+    }
+
+    @Override
+    public long getConsultasTablero() {
+        return consultasTablero.sum();
+    }
+
+    @Override
+    public long getLegalidadP50() {
+        return legalidad.consultarPercentil(50);
+    }
+
+    @Override
+    public long getLegalidadP99() {
+        return legalidad.consultarPercentil(99);
+    }
+
+    @Override
+    public long getLegalidadMaximo() {
+        return legalidad.consultarMaximo();
+    }
+
+    @Override
+    public long getEmpujeP50() {
+        return empuje.consultarPercentil(50);
+    }
+
+    @Override
+    public long getEmpujeP99() {
+        return empuje.consultarPercentil(99);
+    }
+
+    @Override
+    public long getEmpujeMaximo() {
+        return empuje.consultarMaximo();
+    }
+
+    @Override
+    public long getFinalizacionP50() {
+        return finalizacion.consultarPercentil(50);
+    }
+
+    @Override
+    public long getFinalizacionP99() {
+        return finalizacion.consultarPercentil(99);
+    }
+
+    @Override
+    public long getFinalizacionMaximo() {
+        return finalizacion.consultarMaximo();
+    }
+
+    @Override
+    public void reiniciar() {
+        jugadasAplicadas.reset();
+        jugadasRechazadas.reset();
+        partidasFinalizadas.reset();
+        consultasTablero.reset();
+        legalidad.reiniciar();
+        empuje.reiniciar();
+        finalizacion.reiniciar();
+    }
+}
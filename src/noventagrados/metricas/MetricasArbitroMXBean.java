@@ -0,0 +1,80 @@
+package noventagrados.metricas;
+
+/**
+ * Vista JMX de las métricas del árbitro. Las latencias se expresan en nanosegundos.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public interface MetricasArbitroMXBean {
+
+    /**
+     * @return número de jugadas aplicadas.
+     */
+    long getJugadasAplicadas();
+
+    /**
+     * @return número de jugadas rechazadas por ilegales.
+     */
+    long getJugadasRechazadas();
+
+    /**
+     * @return número de partidas finalizadas.
+     */
+    long getPartidasFinalizadas();
+
+    /**
+     * @return número de consultas realizadas a través de TableroConsultor.
+     */
+    long getConsultasTablero();
+
+    /**
+     * @return mediana de la comprobación de legalidad.
+     */
+    long getLegalidadP50();
+
+    /**
+     * @return percentil 99 de la comprobación de legalidad.
+     */
+    long getLegalidadP99();
+
+    /**
+     * @return máximo de la comprobación de legalidad.
+     */
+    long getLegalidadMaximo();
+
+    /**
+     * @return mediana de la ejecución de empujes.
+     */
+    long getEmpujeP50();
+
+    /**
+     * @return percentil 99 de la ejecución de empujes.
+     */
+    long getEmpujeP99();
+
+    /**
+     * @return máximo de la ejecución de empujes.
+     */
+    long getEmpujeMaximo();
+
+    /**
+     * @return mediana de la comprobación de fin de partida.
+     */
+    long getFinalizacionP50();
+
+    /**
+     * @return percentil 99 de la comprobación de fin de partida.
+     */
+    long getFinalizacionP99();
+
+    /**
+     * @return máximo de la comprobación de fin de partida.
+     */
+    long getFinalizacionMaximo();
+
+    /**
+     * Pone a cero todas las métricas.
+     */
+    void reiniciar();
+}
@@ -0,0 +1,175 @@
+package noventagrados.modelo;
+
+import noventagrados.util.Coordenada;
+import noventagrados.util.NotacionJugada;
+
+/**
+ * Representación de una jugada como un único {@code int}, para guardar listas
+ * de jugadas sin crear objetos.
+ *
+ * Cada coordenada ocupa 4 bits, suficientes para cualquier tablero: de mayor a
+ * menor, fila y columna del origen y fila y columna del destino. Por encima se
+ * marca siempre un bit de presencia, de modo que ninguna jugada vale
+ * {@link #NINGUNA}. Es el mismo formato en el que la tabla de transposición
+ * guarda la mejor jugada de cada posición.
+ *
+ * A diferencia de {@link Jugada}, no contiene las celdas ni sus piezas: solo
+ * tiene sentido junto a la posición en la que se juega.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public final class JugadaCompacta {
+    /** Valor que no corresponde a ninguna jugada. */
+    public static final int NINGUNA = 0;
+
+    /** Bits de cada fila o columna. */
+    private static final int BITS_COORDENADA = 4;
+
+    /** Máscara de una fila o columna. */
+    private static final int MASCARA_COORDENADA = (1 << BITS_COORDENADA) - 1;
+
+    /** Bit que marca una jugada presente; es el más alto que ocupa una jugada. */
+    public static final int PRESENTE = 1 << (4 * BITS_COORDENADA);
+
+    /** Oculta el constructor. */
+    private JugadaCompacta() {
+    }
+
+    /**
+     * Empaqueta una jugada a partir de sus filas y columnas.
+     *
+     * @param filaOrigen      fila de origen, en [0, 15].
+     * @param columnaOrigen   columna de origen, en [0, 15].
+     * @param filaDestino     fila de destino, en [0, 15].
+     * @param columnaDestino  columna de destino, en [0, 15].
+     * @return la jugada empaquetada.
+     */
+    public static int crear(int filaOrigen, int columnaOrigen, int filaDestino, int columnaDestino) {
+        return PRESENTE | filaOrigen << 3 * BITS_COORDENADA | columnaOrigen << 2 * BITS_COORDENADA
+                | filaDestino << BITS_COORDENADA | columnaDestino;
+    }
+
+    /**
+     * Empaqueta una jugada a partir de sus coordenadas.
+     *
+     * @param origen  coordenada de origen.
+     * @param destino coordenada de destino.
+     * @return la jugada empaquetada.
+     */
+    public static int crear(Coordenada origen, Coordenada destino) {
+        return crear(origen.fila(), origen.columna(), destino.fila(), destino.columna());
+    }
+
+    /**
+     * Empaqueta una jugada.
+     *
+     * @param jugada la jugada, con coordenadas dentro del tablero.
+     * @return la jugada empaquetada.
+     */
+    public static int desde(Jugada jugada) {
+        return crear(jugada.origen().consultarCoordenada(), jugada.destino().consultarCoordenada());
+    }
+
+    /**
+     * Empaqueta una jugada escrita en notación "dd-dd", ya validada con
+     * {@link NotacionJugada#esValida(CharSequence, int, int)}.
+     *
+     * @param texto  texto que contiene la jugada.
+     * @param inicio posición del primer carácter de la jugada.
+     * @return la jugada empaquetada.
+     */
+    public static int desdeTexto(CharSequence texto, int inicio) {
+        int destino = inicio + NotacionJugada.INICIO_COORDENADA_DESTINO;
+        return crear(Coordenada.desdeCaracter(texto.charAt(inicio)), Coordenada.desdeCaracter(texto.charAt(inicio + 1)),
+                Coordenada.desdeCaracter(texto.charAt(destino)), Coordenada.desdeCaracter(texto.charAt(destino + 1)));
+    }
+
+    /**
+     * Consulta la fila de origen.
+     *
+     * @param jugada jugada empaquetada.
+     * @return la fila.
+     */
+    public static int consultarFilaOrigen(int jugada) {
+        return jugada >>> 3 * BITS_COORDENADA & MASCARA_COORDENADA;
+    }
+
+    /**
+     * Consulta la columna de origen.
+     *
+     * @param jugada jugada empaquetada.
+     * @return la columna.
+     */
+    public static int consultarColumnaOrigen(int jugada) {
+        return jugada >>> 2 * BITS_COORDENADA & MASCARA_COORDENADA;
+    }
+
+    /**
+     * Consulta la fila de destino.
+     *
+     * @param jugada jugada empaquetada.
+     * @return la fila.
+     */
+    public static int consultarFilaDestino(int jugada) {
+        return jugada >>> BITS_COORDENADA & MASCARA_COORDENADA;
+    }
+
+    /**
+     * Consulta la columna de destino.
+     *
+     * @param jugada jugada empaquetada.
+     * @return la columna.
+     */
+    public static int consultarColumnaDestino(int jugada) {
+        return jugada & MASCARA_COORDENADA;
+    }
+
+    /**
+     * Consulta la coordenada de origen.
+     *
+     * @param jugada jugada empaquetada.
+     * @return la coordenada.
+     */
+    public static Coordenada consultarOrigen(int jugada) {
+        return new Coordenada(consultarFilaOrigen(jugada), consultarColumnaOrigen(jugada));
+    }
+
+    /**
+     * Consulta la coordenada de destino.
+     *
+     * @param jugada jugada empaquetada.
+     * @return la coordenada.
+     */
+    public static Coordenada consultarDestino(int jugada) {
+        return new Coordenada(consultarFilaDestino(jugada), consultarColumnaDestino(jugada));
+    }
+
+    /**
+     * Devuelve la representación en texto de la jugada en formato "origen-destino".
+     *
+     * @param jugada jugada empaquetada.
+     * @return el texto de la jugada.
+     */
+    public static String aTexto(int jugada) {
+        return new String(new char[] { Coordenada.aCaracter(consultarFilaOrigen(jugada)),
+                Coordenada.aCaracter(consultarColumnaOrigen(jugada)), '-',
+                Coordenada.aCaracter(consultarFilaDestino(jugada)),
+                Coordenada.aCaracter(consultarColumnaDestino(jugada)) });
+    }
+
+    /**
+     * Añade la jugada en formato "origen-destino" a un texto, sin crear cadenas
+     * intermedias.
+     *
+     * @param jugada  jugada empaquetada.
+     * @param destino texto al que se añade.
+     * @return el mismo texto.
+     */
+    public static StringBuilder escribir(int jugada, StringBuilder destino) {
+        return destino.append(Coordenada.aCaracter(consultarFilaOrigen(jugada)))
+                .append(Coordenada.aCaracter(consultarColumnaOrigen(jugada))).append('-')
+                .append(Coordenada.aCaracter(consultarFilaDestino(jugada)))
+                .append(Coordenada.aCaracter(consultarColumnaDestino(jugada)));
+    }
+}
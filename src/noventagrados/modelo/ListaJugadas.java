@@ -0,0 +1,171 @@
+package noventagrados.modelo;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Lista creciente de jugadas empaquetadas con {@link JugadaCompacta}, guardada
+ * en un vector de enteros: cada jugada ocupa 4 bytes, sin objetos por jugada.
+ *
+ * Está pensada para reutilizarse: {@link #vaciar()} conserva el vector, de
+ * modo que una lista por nivel de búsqueda no vuelve a reservar memoria.
+ *
+ * No es segura para varios hilos.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public final class ListaJugadas {
+    /** Capacidad por defecto, suficiente para las jugadas de casi cualquier posición. */
+    private static final int CAPACIDAD_POR_DEFECTO = 32;
+
+    private int[] jugadas;
+    private int tamano;
+
+    /**
+     * Crea una lista vacía con la capacidad por defecto.
+     */
+    public ListaJugadas() {
+        this(CAPACIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * Crea una lista vacía.
+     *
+     * @param capacidad jugadas que caben sin crecer.
+     * @throws IllegalArgumentException si la capacidad es negativa.
+     */
+    public ListaJugadas(int capacidad) {
+        if (capacidad < 0) {
+            throw new IllegalArgumentException("Capacidad no válida: " + capacidad);
+        }
+        this.jugadas = new int[capacidad];
+    }
+
+    /**
+     * Crea una copia de otra lista.
+     *
+     * @param otra la lista a copiar.
+     */
+    public ListaJugadas(ListaJugadas otra) {
+        this.jugadas = Arrays.copyOf(otra.jugadas, Math.max(otra.tamano, CAPACIDAD_POR_DEFECTO));
+        this.tamano = otra.tamano;
+    }
+
+    /**
+     * Añade una jugada al final.
+     *
+     * @param jugada jugada empaquetada.
+     */
+    public void añadir(int jugada) {
+        if (tamano == jugadas.length) {
+            jugadas = Arrays.copyOf(jugadas, Math.max(2 * jugadas.length, CAPACIDAD_POR_DEFECTO));
+        }
+        jugadas[tamano++] = jugada;
+    }
+
+    /**
+     * Consulta una jugada.
+     *
+     * @param indice posición en la lista.
+     * @return la jugada empaquetada.
+     * @throws IndexOutOfBoundsException si el índice no está en la lista.
+     */
+    public int consultar(int indice) {
+        return jugadas[Objects.checkIndex(indice, tamano)];
+    }
+
+    /**
+     * Consulta el número de jugadas.
+     *
+     * @return el número de jugadas.
+     */
+    public int contar() {
+        return tamano;
+    }
+
+    /**
+     * Indica si la lista no tiene jugadas.
+     *
+     * @return true si está vacía.
+     */
+    public boolean estaVacia() {
+        return tamano == 0;
+    }
+
+    /**
+     * Elimina todas las jugadas, conservando la capacidad.
+     */
+    public void vaciar() {
+        tamano = 0;
+    }
+
+    /**
+     * Busca una jugada.
+     *
+     * @param jugada jugada empaquetada.
+     * @return su primera posición, o -1 si no está.
+     */
+    public int buscar(int jugada) {
+        for (int i = 0; i < tamano; i++) {
+            if (jugadas[i] == jugada) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Elimina la primera aparición de una jugada, conservando el orden de las demás.
+     *
+     * @param jugada jugada empaquetada.
+     * @return true si estaba en la lista.
+     */
+    public boolean eliminar(int jugada) {
+        int indice = buscar(jugada);
+        if (indice < 0) {
+            return false;
+        }
+        System.arraycopy(jugadas, indice + 1, jugadas, indice, tamano - indice - 1);
+        tamano--;
+        return true;
+    }
+
+    /**
+     * Pasa una jugada a la primera posición, conservando el orden de las demás.
+     *
+     * @param indice posición actual de la jugada.
+     * @throws IndexOutOfBoundsException si el índice no está en la lista.
+     */
+    public void adelantar(int indice) {
+        int jugada = consultar(indice);
+        System.arraycopy(jugadas, 0, jugadas, 1, indice);
+        jugadas[0] = jugada;
+    }
+
+    /**
+     * Devuelve una copia de las jugadas.
+     *
+     * @return un vector con las jugadas, en orden.
+     */
+    public int[] aArray() {
+        return Arrays.copyOf(jugadas, tamano);
+    }
+
+    /**
+     * Devuelve una representación en texto de la lista, con las jugadas en formato "dd-dd".
+     *
+     * @return las jugadas separadas por espacios.
+     */
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder(6 * tamano);
+        for (int i = 0; i < tamano; i++) {
+            if (i > 0) {
+                texto.append(' ');
+            }
+            JugadaCompacta.escribir(jugadas[i], texto);
+        }
+        return texto.toString();
+    }
+}
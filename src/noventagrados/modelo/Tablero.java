@@ -1,186 +1,536 @@
-package noventagrados.modelo;
-
-import java.util.Arrays;
-
-import noventagrados.util.Coordenada;
-
-/**
- * Representa el tablero de juego, que consiste en una matriz de celdas de tamaño fijo.
- */
-public class Tablero {
-    private static final int TAMANO = 7;  // Tamaño del tablero (número de filas y columnas)
-    private final Celda[][] matriz;
-
-    /**
-     * Crea un tablero con una matriz de celdas de tamaño definido por la constante TAMANO.
-     * Inicializa cada celda en su correspondiente coordenada.
-     */
-    public Tablero() {
-        matriz = new Celda[TAMANO][TAMANO];
-        for (int i = 0; i < TAMANO; i++) {
-            for (int j = 0; j < TAMANO; j++) {
-                matriz[i][j] = new Celda(new Coordenada(i, j));
-            }
-        }
-    }
-
-    /**
-     * Devuelve una representación en texto del tablero.
-     *
-     * @return una cadena que representa el estado actual del tablero.
-     */
-    public String aTexto() {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < TAMANO; i++) {
-            sb.append(i).append(" ");
-            for (int j = 0; j < TAMANO; j++) {
-                sb.append(matriz[i][j].estaVacia() ? "--" : matriz[i][j].consultarPieza().aTexto()).append(" ");
-            }
-            sb.append("\n");
-        }
-        sb.append("  ");
-        for (int j = 0; j < TAMANO; j++) {
-            sb.append(j).append("  ");
-        }
-        return sb.toString();
-    }
-
-    /**
-     * Crea y devuelve un clon profundo de este tablero.
-     *
-     * @return un nuevo objeto Tablero con una copia profunda de las celdas.
-     */
-    public Tablero clonar() {
-        Tablero clon = new Tablero();
-        for (int i = 0; i < TAMANO; i++) {
-            for (int j = 0; j < TAMANO; j++) {
-                clon.matriz[i][j] = this.matriz[i][j].clonar();
-            }
-        }
-        return clon;
-    }
-
-    /**
-     * Coloca una pieza en la celda especificada por la coordenada.
-     *
-     * @param pieza la pieza a colocar.
-     * @param coordenada la coordenada donde colocar la pieza.
-     */
-    public void colocar(Pieza pieza, Coordenada coordenada) {
-        // Verifica si la pieza es null o si la coordenada no es válida
-        if (pieza == null || coordenada == null || !estaEnTablero(coordenada)) {
-            return;  // Ignora la operación si la pieza es null o la coordenada es inválida
-        }
-        // Coloca la pieza en la celda correspondiente
-        matriz[coordenada.fila()][coordenada.columna()].colocar(pieza);
-    }
-
-    /**
-     * Devuelve una celda en una coordenada especificada.
-     *
-     * @param coordenada la coordenada de la celda a consultar.
-     * @return la celda en la coordenada especificada.
-     */
-    public Celda consultarCelda(Coordenada coordenada) {
-        return estaEnTablero(coordenada) ? matriz[coordenada.fila()][coordenada.columna()].clonar() : null;
-    }
-
-    /**
-     * Devuelve todas las celdas del tablero en un array unidimensional.
-     *
-     * @return un array con copias de todas las celdas del tablero.
-     */
-    public Celda[] consultarCeldas() {
-        Celda[] celdas = new Celda[TAMANO * TAMANO];
-        int index = 0;
-        for (Celda[] fila : matriz) {
-            for (Celda celda : fila) {
-                celdas[index++] = celda.clonar();
-            }
-        }
-        return celdas;
-    }
-
-    /**
-     * Devuelve el número de columnas del tablero.
-     *
-     * @return el número de columnas (TAMANO).
-     */
-    public int consultarNumeroColumnas() {
-        return TAMANO;
-    }
-
-    /**
-     * Devuelve el número de filas del tablero.
-     *
-     * @return el número de filas (TAMANO).
-     */
-    public int consultarNumeroFilas() {
-        return TAMANO;
-    }
-
-    /**
-     * Elimina la pieza de la celda en la coordenada especificada.
-     *
-     * @param coordenada la coordenada de la celda de la cual se eliminará la pieza.
-     */
-    public void eliminarPieza(Coordenada coordenada) {
-        // Verifica si la coordenada es null o si no está en el tablero
-        if (coordenada == null || !estaEnTablero(coordenada)) {
-            return;  // Ignora la operación si la coordenada es null o no válida
-        }
-        // Elimina la pieza en la celda correspondiente
-        matriz[coordenada.fila()][coordenada.columna()].eliminarPieza();
-    }
-
-
-    /**
-     * Verifica si una coordenada está dentro de los límites del tablero.
-     *
-     * @param coordenada la coordenada a verificar.
-     * @return true si la coordenada está en el tablero, false en caso contrario.
-     */
-    public boolean estaEnTablero(Coordenada coordenada) {
-        int fila = coordenada.fila();
-        int columna = coordenada.columna();
-        return fila >= 0 && fila < TAMANO && columna >= 0 && columna < TAMANO;
-    }
-
-    /**
-     * Devuelve la celda en la coordenada especificada sin clonar.
-     * Este método tiene acceso amigable.
-     *
-     * @param coordenada la coordenada de la celda a obtener.
-     * @return la referencia a la celda en la coordenada especificada, o null si está fuera del tablero.
-     */
-    Celda obtenerCelda(Coordenada coordenada) {
-        return estaEnTablero(coordenada) ? matriz[coordenada.fila()][coordenada.columna()] : null;
-    }
-    
-    
-    
-    @Override
-	public boolean equals(Object obj) {
-		if (this == obj)
-			return true;
-		if (obj == null)
-			return false;
-		if (getClass() != obj.getClass())
-			return false;
-		Tablero other = (Tablero) obj;
-		return Arrays.deepEquals(matriz, other.matriz);
-	}
-
-    @Override
-	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + Arrays.deepHashCode(matriz);
-		return result;
-	}
-
-    @Override
-	public String toString() {
-		return "Tablero [matriz=" + Arrays.toString(matriz) + "]";
-	}
-}
+package noventagrados.modelo;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import noventagrados.util.Color;
+import noventagrados.util.Coordenada;
+import noventagrados.util.Simetria;
+import noventagrados.util.TipoPieza;
+
+/**
+ * Representa el tablero de juego, que consiste en una matriz cuadrada de celdas.
+ *
+ * Además de las celdas, el tablero mantiene la ocupación de cada fila y de cada
+ * columna en mapas de bits ({@code long[]}) y la posición de las reinas, de forma
+ * que contar piezas en una línea o localizar una reina no dependa del número de
+ * celdas del tablero.
+ */
+public class Tablero {
+    /** Tamaño por defecto del tablero (número de filas y columnas). */
+    public static final int TAMANO_POR_DEFECTO = 7;
+
+    /** Tamaño mínimo admitido. */
+    public static final int TAMANO_MINIMO = 5;
+
+    /** Tamaño máximo admitido. */
+    public static final int TAMANO_MAXIMO = 15;
+
+    /** Semilla fija de las claves, para que sean las mismas en cada ejecución. */
+    private static final long SEMILLA_CLAVES = 0x4E6F76656E746147L;
+
+    /**
+     * Claves de Zobrist: una por tipo de pieza, color y celda, indexadas por
+     * {@link #indiceClave(TipoPieza, Color, int, int)}.
+     */
+    private static final long[] CLAVES = crearClaves();
+
+    /** Simetrías de las que se mantiene la clave, en orden de ordinal. */
+    private static final Simetria[] SIMETRIAS = Simetria.values();
+
+    private final int tamano;
+    private final Celda[][] matriz;
+
+    /** Ocupación de cada fila: el bit j de filas[i] indica si la celda (i, j) tiene pieza. */
+    private final long[] filas;
+
+    /** Ocupación de cada columna: el bit i de columnas[j] indica si la celda (i, j) tiene pieza. */
+    private final long[] columnas;
+
+    /** Ocupación de cada fila por piezas de cada color: filasPorColor[color][fila]. */
+    private final long[][] filasPorColor;
+
+    /** Ocupación de cada columna por piezas de cada color: columnasPorColor[color][columna]. */
+    private final long[][] columnasPorColor;
+
+    /** Ocupación de cada fila por reinas de cada color: filasReinas[color][fila]. */
+    private final long[][] filasReinas;
+
+    /** Número de reinas de cada color en el tablero, indexado por ordinal del color. */
+    private final int[] numeroReinas;
+
+    /** Coordenada de la reina de cada color, indexada por ordinal del color, o null si no está. */
+    private final Coordenada[] reinas;
+
+    /**
+     * Claves de Zobrist de la disposición de las piezas transformada por cada
+     * simetría, indexadas por ordinal y mantenidas de forma incremental.
+     */
+    private final long[] claves;
+
+    /**
+     * Crea un tablero de tamaño {@link #TAMANO_POR_DEFECTO}.
+     */
+    public Tablero() {
+        this(TAMANO_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un tablero cuadrado del tamaño indicado.
+     * Inicializa cada celda en su correspondiente coordenada.
+     *
+     * @param tamano número de filas y columnas; debe ser impar para que exista celda central.
+     * @throws IllegalArgumentException si el tamaño es par o está fuera de [TAMANO_MINIMO, TAMANO_MAXIMO].
+     */
+    public Tablero(int tamano) {
+        this.tamano = comprobarTamano(tamano);
+        matriz = new Celda[tamano][tamano];
+        for (int i = 0; i < tamano; i++) {
+            for (int j = 0; j < tamano; j++) {
+                matriz[i][j] = new Celda(new Coordenada(i, j));
+            }
+        }
+        filas = new long[tamano];
+        columnas = new long[tamano];
+        reinas = new Coordenada[Color.values().length];
+        filasReinas = new long[Color.values().length][tamano];
+        numeroReinas = new int[Color.values().length];
+        filasPorColor = new long[Color.values().length][tamano];
+        columnasPorColor = new long[Color.values().length][tamano];
+        claves = new long[SIMETRIAS.length];
+    }
+
+    /**
+     * Comprueba que un tamaño de tablero es válido, sin crear el tablero.
+     *
+     * @param tamano número de filas y columnas.
+     * @return el mismo tamaño.
+     * @throws IllegalArgumentException si el tamaño es par o está fuera de [TAMANO_MINIMO, TAMANO_MAXIMO].
+     */
+    public static int comprobarTamano(int tamano) {
+        if (tamano < TAMANO_MINIMO || tamano > TAMANO_MAXIMO || tamano % 2 == 0) {
+            throw new IllegalArgumentException("Tamaño de tablero no válido: " + tamano);
+        }
+        return tamano;
+    }
+
+    /**
+     * Devuelve una representación en texto del tablero.
+     *
+     * @return una cadena que representa el estado actual del tablero.
+     */
+    public String aTexto() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < tamano; i++) {
+            sb.append(Coordenada.aCaracter(i)).append(" ");
+            for (int j = 0; j < tamano; j++) {
+                sb.append(matriz[i][j].estaVacia() ? "--" : matriz[i][j].consultarPieza().aTexto()).append(" ");
+            }
+            sb.append("\n");
+        }
+        sb.append("  ");
+        for (int j = 0; j < tamano; j++) {
+            sb.append(Coordenada.aCaracter(j)).append("  ");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Codifica el tablero en una línea, por filas separadas por '/', con un
+     * carácter por celda: '-' vacía, mayúsculas para piezas blancas y
+     * minúsculas para negras.
+     *
+     * @return el tablero codificado.
+     */
+    public String codificar() {
+        StringBuilder sb = new StringBuilder(tamano * (tamano + 1));
+        for (int i = 0; i < tamano; i++) {
+            if (i > 0) {
+                sb.append('/');
+            }
+            for (int j = 0; j < tamano; j++) {
+                Pieza pieza = matriz[i][j].consultarPieza();
+                if (pieza == null) {
+                    sb.append('-');
+                } else {
+                    char letra = pieza.consultarTipoPieza().toChar();
+                    sb.append(pieza.consultarColor() == Color.BLANCO ? letra : Character.toLowerCase(letra));
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Crea y devuelve un clon profundo de este tablero.
+     *
+     * @return un nuevo objeto Tablero con una copia profunda de las celdas.
+     */
+    public Tablero clonar() {
+        Tablero clon = new Tablero(tamano);
+        for (int i = 0; i < tamano; i++) {
+            for (int j = 0; j < tamano; j++) {
+                clon.matriz[i][j] = this.matriz[i][j].clonar();
+            }
+        }
+        System.arraycopy(filas, 0, clon.filas, 0, tamano);
+        System.arraycopy(columnas, 0, clon.columnas, 0, tamano);
+        System.arraycopy(reinas, 0, clon.reinas, 0, reinas.length);
+        System.arraycopy(numeroReinas, 0, clon.numeroReinas, 0, numeroReinas.length);
+        for (int color = 0; color < filasPorColor.length; color++) {
+            System.arraycopy(filasReinas[color], 0, clon.filasReinas[color], 0, tamano);
+            System.arraycopy(filasPorColor[color], 0, clon.filasPorColor[color], 0, tamano);
+            System.arraycopy(columnasPorColor[color], 0, clon.columnasPorColor[color], 0, tamano);
+        }
+        System.arraycopy(claves, 0, clon.claves, 0, claves.length);
+        return clon;
+    }
+
+    /**
+     * Coloca una pieza en la celda especificada por la coordenada.
+     *
+     * @param pieza la pieza a colocar.
+     * @param coordenada la coordenada donde colocar la pieza.
+     */
+    public void colocar(Pieza pieza, Coordenada coordenada) {
+        // Verifica si la pieza es null o si la coordenada no es válida
+        if (pieza == null || coordenada == null || !estaEnTablero(coordenada)) {
+            return;  // Ignora la operación si la pieza es null o la coordenada es inválida
+        }
+        int fila = coordenada.fila();
+        int columna = coordenada.columna();
+        Pieza anterior = matriz[fila][columna].consultarPieza();
+        if (anterior != null) {
+            olvidarReina(anterior, fila, columna);
+            alternarClaves(anterior, fila, columna);
+            filasPorColor[anterior.consultarColor().ordinal()][fila] &= ~(1L << columna);
+            columnasPorColor[anterior.consultarColor().ordinal()][columna] &= ~(1L << fila);
+        }
+        // Coloca la pieza en la celda correspondiente
+        matriz[fila][columna].colocar(pieza);
+        filas[fila] |= 1L << columna;
+        columnas[columna] |= 1L << fila;
+        alternarClaves(pieza, fila, columna);
+        filasPorColor[pieza.consultarColor().ordinal()][fila] |= 1L << columna;
+        columnasPorColor[pieza.consultarColor().ordinal()][columna] |= 1L << fila;
+        if (pieza.consultarTipoPieza() == TipoPieza.REINA) {
+            int indice = pieza.consultarColor().ordinal();
+            filasReinas[indice][fila] |= 1L << columna;
+            numeroReinas[indice]++;
+            reinas[indice] = coordenada;
+        }
+    }
+
+    /**
+     * Devuelve una celda en una coordenada especificada.
+     *
+     * @param coordenada la coordenada de la celda a consultar.
+     * @return la celda en la coordenada especificada.
+     */
+    public Celda consultarCelda(Coordenada coordenada) {
+        return estaEnTablero(coordenada) ? matriz[coordenada.fila()][coordenada.columna()].clonar() : null;
+    }
+
+    /**
+     * Devuelve todas las celdas del tablero en un array unidimensional.
+     *
+     * @return un array con copias de todas las celdas del tablero.
+     */
+    public Celda[] consultarCeldas() {
+        Celda[] celdas = new Celda[tamano * tamano];
+        int index = 0;
+        for (Celda[] fila : matriz) {
+            for (Celda celda : fila) {
+                celdas[index++] = celda.clonar();
+            }
+        }
+        return celdas;
+    }
+
+    /**
+     * Devuelve el número de columnas del tablero.
+     *
+     * @return el número de columnas.
+     */
+    public int consultarNumeroColumnas() {
+        return tamano;
+    }
+
+    /**
+     * Devuelve el número de filas del tablero.
+     *
+     * @return el número de filas.
+     */
+    public int consultarNumeroFilas() {
+        return tamano;
+    }
+
+    /**
+     * Devuelve la coordenada de la celda central del tablero.
+     *
+     * @return la coordenada central.
+     */
+    public Coordenada consultarCentro() {
+        return new Coordenada(tamano / 2, tamano / 2);
+    }
+
+    /**
+     * Consulta si hay pieza en la celda indicada sin clonar la celda.
+     *
+     * @param fila    fila de la celda.
+     * @param columna columna de la celda.
+     * @return true si la celda está dentro del tablero y ocupada, false en caso contrario.
+     */
+    public boolean estaOcupada(int fila, int columna) {
+        return fila >= 0 && fila < tamano && columna >= 0 && columna < tamano && (filas[fila] & (1L << columna)) != 0;
+    }
+
+    /**
+     * Devuelve el mapa de bits de ocupación de una fila (bit j = columna j).
+     *
+     * @param fila la fila a consultar.
+     * @return los bits de ocupación de la fila.
+     */
+    public long consultarOcupacionFila(int fila) {
+        return filas[fila];
+    }
+
+    /**
+     * Devuelve el mapa de bits de ocupación de una columna (bit i = fila i).
+     *
+     * @param columna la columna a consultar.
+     * @return los bits de ocupación de la columna.
+     */
+    public long consultarOcupacionColumna(int columna) {
+        return columnas[columna];
+    }
+
+    /**
+     * Devuelve el mapa de bits de las piezas de un color en una fila (bit j = columna j).
+     *
+     * @param fila  la fila a consultar.
+     * @param color el color de las piezas.
+     * @return los bits de ocupación de la fila por ese color.
+     */
+    public long consultarOcupacionFila(int fila, Color color) {
+        return filasPorColor[color.ordinal()][fila];
+    }
+
+    /**
+     * Devuelve el mapa de bits de las piezas de un color en una columna (bit i = fila i).
+     *
+     * @param columna la columna a consultar.
+     * @param color   el color de las piezas.
+     * @return los bits de ocupación de la columna por ese color.
+     */
+    public long consultarOcupacionColumna(int columna, Color color) {
+        return columnasPorColor[color.ordinal()][columna];
+    }
+
+    /**
+     * Cuenta las piezas presentes en una fila.
+     *
+     * @param fila la fila a consultar.
+     * @return el número de piezas en la fila.
+     */
+    public int contarPiezasEnFila(int fila) {
+        return Long.bitCount(filas[fila]);
+    }
+
+    /**
+     * Cuenta las piezas presentes en una columna.
+     *
+     * @param columna la columna a consultar.
+     * @return el número de piezas en la columna.
+     */
+    public int contarPiezasEnColumna(int columna) {
+        return Long.bitCount(columnas[columna]);
+    }
+
+    /**
+     * Devuelve la coordenada donde se encuentra la reina de un color.
+     *
+     * @param color el color de la reina.
+     * @return la coordenada de la reina, o null si no está en el tablero.
+     */
+    public Coordenada consultarCoordenadaReina(Color color) {
+        return reinas[color.ordinal()];
+    }
+
+    /**
+     * Devuelve la clave de Zobrist de la disposición de las piezas. Dos tableros
+     * con las mismas piezas en las mismas celdas tienen la misma clave.
+     *
+     * @return la clave de 64 bits.
+     */
+    public long consultarClave() {
+        return claves[Simetria.IDENTIDAD.ordinal()];
+    }
+
+    /**
+     * Devuelve la clave de Zobrist que tendría el tablero transformado por una
+     * simetría, sin transformarlo.
+     *
+     * @param simetria la simetría.
+     * @return la clave de 64 bits del tablero transformado.
+     */
+    public long consultarClave(Simetria simetria) {
+        return claves[simetria.ordinal()];
+    }
+
+    /**
+     * Elimina la pieza de la celda en la coordenada especificada.
+     *
+     * @param coordenada la coordenada de la celda de la cual se eliminará la pieza.
+     */
+    public void eliminarPieza(Coordenada coordenada) {
+        // Verifica si la coordenada es null o si no está en el tablero
+        if (coordenada == null || !estaEnTablero(coordenada)) {
+            return;  // Ignora la operación si la coordenada es null o no válida
+        }
+        int fila = coordenada.fila();
+        int columna = coordenada.columna();
+        Pieza pieza = matriz[fila][columna].consultarPieza();
+        // Elimina la pieza en la celda correspondiente
+        matriz[fila][columna].eliminarPieza();
+        filas[fila] &= ~(1L << columna);
+        columnas[columna] &= ~(1L << fila);
+        if (pieza != null) {
+            olvidarReina(pieza, fila, columna);
+            alternarClaves(pieza, fila, columna);
+            filasPorColor[pieza.consultarColor().ordinal()][fila] &= ~(1L << columna);
+            columnasPorColor[pieza.consultarColor().ordinal()][columna] &= ~(1L << fila);
+        }
+    }
+
+    /**
+     * Si la pieza retirada es una reina, la quita de la ocupación de reinas y,
+     * si era la registrada, registra otra reina del mismo color si la hay.
+     *
+     * @param pieza   pieza retirada.
+     * @param fila    fila de la que se retira.
+     * @param columna columna de la que se retira.
+     */
+    private void olvidarReina(Pieza pieza, int fila, int columna) {
+        if (pieza.consultarTipoPieza() != TipoPieza.REINA) {
+            return;
+        }
+        int indice = pieza.consultarColor().ordinal();
+        filasReinas[indice][fila] &= ~(1L << columna);
+        numeroReinas[indice]--;
+        Coordenada registrada = reinas[indice];
+        if (registrada != null && registrada.fila() == fila && registrada.columna() == columna) {
+            reinas[indice] = numeroReinas[indice] == 0 ? null : buscarReina(indice);
+        }
+    }
+
+    /**
+     * Localiza una reina de un color en la ocupación de reinas. Solo se usa en
+     * tableros configurados con más de una reina del mismo color.
+     *
+     * @param indice ordinal del color.
+     * @return la coordenada de una de sus reinas, o null si no queda ninguna.
+     */
+    private Coordenada buscarReina(int indice) {
+        for (int i = 0; i < tamano; i++) {
+            long bits = filasReinas[indice][i];
+            if (bits != 0) {
+                return new Coordenada(i, Long.numberOfTrailingZeros(bits));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Añade o quita de las claves de todas las simetrías una pieza en una celda.
+     *
+     * @param pieza   la pieza.
+     * @param fila    fila de la celda.
+     * @param columna columna de la celda.
+     */
+    private void alternarClaves(Pieza pieza, int fila, int columna) {
+        for (Simetria simetria : SIMETRIAS) {
+            claves[simetria.ordinal()] ^= CLAVES[indiceClave(pieza.consultarTipoPieza(),
+                    simetria.transformar(pieza.consultarColor()), simetria.transformarFila(fila, columna, tamano),
+                    simetria.transformarColumna(fila, columna, tamano))];
+        }
+    }
+
+    /**
+     * Calcula la posición en {@link #CLAVES} de una pieza en una celda.
+     *
+     * @param tipo    tipo de la pieza.
+     * @param color   color de la pieza.
+     * @param fila    fila de la celda.
+     * @param columna columna de la celda.
+     * @return el índice de su clave.
+     */
+    private static int indiceClave(TipoPieza tipo, Color color, int fila, int columna) {
+        int pieza = tipo.ordinal() * Color.values().length + color.ordinal();
+        return (pieza * TAMANO_MAXIMO + fila) * TAMANO_MAXIMO + columna;
+    }
+
+    /**
+     * Genera las claves de Zobrist de todas las combinaciones de pieza y celda.
+     *
+     * @return las claves.
+     */
+    private static long[] crearClaves() {
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA_CLAVES);
+        long[] claves = new long[TipoPieza.values().length * Color.values().length * TAMANO_MAXIMO * TAMANO_MAXIMO];
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = aleatorio.nextLong();
+        }
+        return claves;
+    }
+
+    /**
+     * Verifica si una coordenada está dentro de los límites del tablero.
+     *
+     * @param coordenada la coordenada a verificar.
+     * @return true si la coordenada está en el tablero, false en caso contrario.
+     */
+    public boolean estaEnTablero(Coordenada coordenada) {
+        int fila = coordenada.fila();
+        int columna = coordenada.columna();
+        return fila >= 0 && fila < tamano && columna >= 0 && columna < tamano;
+    }
+
+    /**
+     * Devuelve la celda en la coordenada especificada sin clonar.
+     * Este método tiene acceso amigable.
+     *
+     * @param coordenada la coordenada de la celda a obtener.
+     * @return la referencia a la celda en la coordenada especificada, o null si está fuera del tablero.
+     */
+    Celda obtenerCelda(Coordenada coordenada) {
+        return estaEnTablero(coordenada) ? matriz[coordenada.fila()][coordenada.columna()] : null;
+    }
+
+
+
+    @Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Tablero other = (Tablero) obj;
+		return tamano == other.tamano && Arrays.deepEquals(matriz, other.matriz);
+	}
+
+    @Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Arrays.deepHashCode(matriz);
+		return result;
+	}
+
+    @Override
+	public String toString() {
+		return "Tablero [tamano=" + tamano + ", matriz=" + Arrays.toString(matriz) + "]";
+	}
+}
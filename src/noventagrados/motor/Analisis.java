@@ -0,0 +1,69 @@
+package noventagrados.motor;
+
+import java.util.List;
+
+import noventagrados.control.Arbitro;
+
+/**
+ * Análisis de una posición en segundo plano con varias variantes principales.
+ *
+ * Profundiza sin límite hasta que se detiene (o hasta encontrar victorias
+ * forzadas en todas las variantes) e informa de las variantes de cada
+ * iteración según se completan.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ * @see noventagrados.control.Arbitro#analizar(int, OyenteAnalisis)
+ */
+public class Analisis {
+    /** Espera máxima entre avisos de detención, en milisegundos. */
+    private static final long ESPERA_DETENCION_MS = 10;
+
+    private final Buscador buscador;
+    private final Thread hilo;
+    private volatile List<InformeBusqueda> resultado;
+
+    /**
+     * Empieza a analizar una posición.
+     *
+     * @param arbitro   posición a analizar; se copia, por lo que puede seguir modificándose.
+     * @param variantes número de variantes pedidas.
+     * @param oyente    receptor de las variantes de cada iteración, o null.
+     */
+    public Analisis(Arbitro arbitro, int variantes, OyenteAnalisis oyente) {
+        this.buscador = new Buscador();
+        this.resultado = List.of();
+        Arbitro posicion = arbitro.clonar();
+        this.hilo = new Thread(() -> resultado = buscador.buscarVariantes(posicion, variantes,
+                LimitesBusqueda.infinita(), oyente), "analisis-motor");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Detiene el análisis y espera a que termine.
+     *
+     * @return las variantes de la última iteración completa.
+     */
+    public List<InformeBusqueda> detener() {
+        try {
+            // Se repite por si el hilo aún no había empezado la búsqueda
+            while (hilo.isAlive()) {
+                buscador.detener();
+                hilo.join(ESPERA_DETENCION_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return resultado;
+    }
+
+    /**
+     * Indica si el análisis sigue en curso.
+     *
+     * @return true si no ha terminado.
+     */
+    public boolean estaEnCurso() {
+        return hilo.isAlive();
+    }
+}
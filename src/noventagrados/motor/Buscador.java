@@ -0,0 +1,457 @@
+package noventagrados.motor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import noventagrados.control.Arbitro;
+import noventagrados.modelo.Jugada;
+import noventagrados.modelo.ListaJugadas;
+import noventagrados.util.Color;
+import noventagrados.util.Simetria;
+
+/**
+ * Búsqueda de la mejor jugada por profundización iterativa con poda alfa-beta
+ * (negamax). Las puntuaciones son siempre para el jugador con el turno.
+ *
+ * Cada búsqueda trabaja sobre copias del árbitro recibido, que no se modifica.
+ * Los resultados se guardan en una {@link TablaTransposicion} que se conserva
+ * entre búsquedas, de modo que una búsqueda aprovecha el trabajo de las
+ * anteriores (por ejemplo, la reflexión durante el turno del rival). Se
+ * indexan por la clave canónica de cada posición, por lo que también se
+ * aprovechan entre posiciones simétricas.
+ * Dentro del árbol las jugadas se manejan empaquetadas: cada nivel reutiliza
+ * su {@link ListaJugadas} y las variantes son vectores de enteros, que solo se
+ * convierten a {@link Jugada} al publicar un informe.
+ * Una instancia no es reentrante: solo puede ejecutar una búsqueda a la vez,
+ * pero {@link #detener()} puede invocarse desde cualquier hilo.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class Buscador {
+    /** Puntuación de una victoria inmediata; se resta la distancia en medias jugadas. */
+    public static final int VICTORIA = 1_000_000;
+
+    /** Cota superior de cualquier puntuación. */
+    private static final int INFINITO = VICTORIA + 1;
+
+    /** Cada cuántos nodos se comprueban los límites de tiempo y de nodos. */
+    private static final int MASCARA_COMPROBACION = 1023;
+
+    /** Entradas de la tabla de transposición por defecto (16 MiB). */
+    private static final int ENTRADAS_POR_DEFECTO = 1 << 20;
+
+    /** Puntuaciones a partir de las cuales se consideran victorias a cierta distancia. */
+    private static final int UMBRAL_VICTORIA = VICTORIA - LimitesBusqueda.PROFUNDIDAD_MAXIMA - 1;
+
+    private volatile boolean detenida;
+    private long nodos;
+    private long limiteNodos;
+    private long instanteInicio;
+    private long instanteLimite;
+    private final int[][] variantes;
+    private final int[] longitudes;
+    private final ListaJugadas[] listas;
+    private final TablaTransposicion tabla;
+    private final Evaluador evaluador;
+
+    /**
+     * Crea un buscador con una tabla de transposición del tamaño por defecto.
+     */
+    public Buscador() {
+        this(new TablaTransposicionMemoria(ENTRADAS_POR_DEFECTO));
+    }
+
+    /**
+     * Crea un buscador que usa la tabla de transposición indicada.
+     *
+     * @param tabla tabla de transposición.
+     */
+    public Buscador(TablaTransposicion tabla) {
+        this(tabla, new Evaluador());
+    }
+
+    /**
+     * Crea un buscador con la tabla de transposición y el evaluador indicados.
+     *
+     * @param tabla     tabla de transposición.
+     * @param evaluador evaluación de las posiciones hoja.
+     */
+    public Buscador(TablaTransposicion tabla, Evaluador evaluador) {
+        this.tabla = tabla;
+        this.evaluador = evaluador;
+        int maximo = LimitesBusqueda.PROFUNDIDAD_MAXIMA + 1;
+        this.variantes = new int[maximo][maximo];
+        this.longitudes = new int[maximo];
+        this.listas = new ListaJugadas[maximo];
+        for (int i = 0; i < maximo; i++) {
+            listas[i] = new ListaJugadas();
+        }
+    }
+
+    /**
+     * Busca la mejor jugada de la posición hasta agotar alguno de los límites o
+     * hasta que se detenga la búsqueda.
+     *
+     * @param arbitro árbitro con la posición a analizar; no se modifica.
+     * @param limites límites de la búsqueda.
+     * @param oyente  receptor de los informes de cada iteración, o null.
+     * @return el informe de la última iteración completa; si no se completó
+     *         ninguna, su variante contiene solo la primera jugada legal (o está
+     *         vacía si no hay jugadas).
+     */
+    public InformeBusqueda buscar(Arbitro arbitro, LimitesBusqueda limites, OyenteBusqueda oyente) {
+        iniciar(limites);
+        ListaJugadas raiz = new ListaJugadas();
+        GeneradorJugadas.generar(arbitro, raiz);
+        if (raiz.estaVacia()) {
+            int puntuacion = arbitro.estaFinalizadaPartida() ? puntuarFinal(arbitro, 0) : 0;
+            return new InformeBusqueda(0, puntuacion, 0, 0, List.of());
+        }
+
+        Simetria simetria = arbitro.consultarSimetriaCanonica();
+        long clave = arbitro.consultarClave(simetria);
+        int tamano = arbitro.consultarTamano();
+        adelantarJugada(raiz, TablaTransposicion.consultarJugada(tabla.consultar(clave)), simetria, tamano);
+        InformeBusqueda mejor = new InformeBusqueda(0, 0, 0, 0, List.of(arbitro.crearJugada(raiz.consultar(0))));
+        for (int profundidad = 1; profundidad <= limites.consultarProfundidadEfectiva(); profundidad++) {
+            int puntuacion = buscarRaiz(arbitro, raiz, profundidad);
+            if (detenida) {
+                break;
+            }
+            int mejorJugada = variantes[0][0];
+            mejor = new InformeBusqueda(profundidad, puntuacion, nodos, consultarTiempoMs(), crearVariante(arbitro));
+            tabla.guardar(clave, profundidad, TablaTransposicion.EXACTA, aTabla(puntuacion, 0),
+                    TablaTransposicion.empaquetar(mejorJugada, simetria, tamano));
+            if (oyente != null) {
+                oyente.alCompletarIteracion(mejor);
+            }
+            if (mejor.esVictoriaForzada()) {
+                break;
+            }
+            // La mejor jugada de esta iteración se explora primero en la siguiente
+            raiz.adelantar(raiz.buscar(mejorJugada));
+        }
+        return mejor;
+    }
+
+    /**
+     * Busca las mejores jugadas de la posición, cada una con su puntuación y su
+     * variante principal, hasta agotar alguno de los límites o hasta que se
+     * detenga la búsqueda.
+     *
+     * En cada iteración la primera variante se busca entre todas las jugadas,
+     * la segunda entre las restantes y así sucesivamente, por lo que las
+     * puntuaciones de todas las variantes son exactas.
+     *
+     * @param arbitro   árbitro con la posición a analizar; no se modifica.
+     * @param variantes número de variantes pedidas (al menos 1).
+     * @param limites   límites de la búsqueda.
+     * @param oyente    receptor de las variantes de cada iteración completa, o null.
+     * @return las variantes de la última iteración completa, de mejor a peor; vacía
+     *         si no se completó ninguna o no hay jugadas.
+     */
+    public List<InformeBusqueda> buscarVariantes(Arbitro arbitro, int variantes, LimitesBusqueda limites,
+            OyenteAnalisis oyente) {
+        iniciar(limites);
+        ListaJugadas raiz = new ListaJugadas();
+        GeneradorJugadas.generar(arbitro, raiz);
+        Simetria simetria = arbitro.consultarSimetriaCanonica();
+        long clave = arbitro.consultarClave(simetria);
+        int tamano = arbitro.consultarTamano();
+        adelantarJugada(raiz, TablaTransposicion.consultarJugada(tabla.consultar(clave)), simetria, tamano);
+        int numero = Math.min(Math.max(variantes, 1), raiz.contar());
+        int[] primeras = new int[numero];
+        List<InformeBusqueda> mejores = List.of();
+        for (int profundidad = 1; profundidad <= limites.consultarProfundidadEfectiva() && numero > 0; profundidad++) {
+            List<InformeBusqueda> iteracion = new ArrayList<>(numero);
+            ListaJugadas restantes = new ListaJugadas(raiz);
+            for (int i = 0; i < numero && !detenida; i++) {
+                int puntuacion = buscarRaiz(arbitro, restantes, profundidad);
+                if (detenida) {
+                    break;
+                }
+                primeras[i] = this.variantes[0][0];
+                iteracion.add(new InformeBusqueda(profundidad, puntuacion, nodos, consultarTiempoMs(),
+                        crearVariante(arbitro)));
+                restantes.eliminar(primeras[i]);
+            }
+            if (detenida) {
+                break;
+            }
+            mejores = List.copyOf(iteracion);
+            tabla.guardar(clave, profundidad, TablaTransposicion.EXACTA, aTabla(mejores.get(0).puntuacion(), 0),
+                    TablaTransposicion.empaquetar(primeras[0], simetria, tamano));
+            if (oyente != null) {
+                oyente.alCompletarIteracion(mejores);
+            }
+            if (mejores.stream().allMatch(InformeBusqueda::esVictoriaForzada)) {
+                break;
+            }
+            // Las variantes de esta iteración se exploran primero, en su orden, en la siguiente
+            for (int i = mejores.size() - 1; i >= 0; i--) {
+                raiz.adelantar(raiz.buscar(primeras[i]));
+            }
+        }
+        return mejores;
+    }
+
+    /**
+     * Detiene la búsqueda en curso lo antes posible.
+     */
+    public void detener() {
+        detenida = true;
+    }
+
+    /**
+     * Vacía la tabla de transposición, por ejemplo al empezar una partida nueva.
+     * No debe invocarse durante una búsqueda.
+     */
+    public void limpiarTabla() {
+        tabla.limpiar();
+    }
+
+    /**
+     * Consulta los nodos visitados en la búsqueda actual o en la última.
+     *
+     * @return el número de nodos.
+     */
+    public long consultarNodos() {
+        return nodos;
+    }
+
+    /**
+     * Reinicia los contadores y fija los límites de una búsqueda nueva.
+     *
+     * @param limites límites de la búsqueda.
+     */
+    private void iniciar(LimitesBusqueda limites) {
+        detenida = false;
+        nodos = 0;
+        instanteInicio = System.nanoTime();
+        limiteNodos = limites.nodos() > 0 ? limites.nodos() : Long.MAX_VALUE;
+        instanteLimite = limites.tiempoMs() > 0 ? instanteInicio + limites.tiempoMs() * 1_000_000L : Long.MAX_VALUE;
+    }
+
+    /**
+     * Busca todas las jugadas de la raíz a la profundidad indicada.
+     *
+     * @param arbitro     posición raíz.
+     * @param jugadas     jugadas legales de la raíz, en el orden en que se exploran.
+     * @param profundidad profundidad de la iteración.
+     * @return la puntuación de la mejor jugada.
+     */
+    private int buscarRaiz(Arbitro arbitro, ListaJugadas jugadas, int profundidad) {
+        int alfa = -INFINITO;
+        longitudes[0] = 0;
+        for (int i = 0; i < jugadas.contar(); i++) {
+            int jugada = jugadas.consultar(i);
+            int valor = -negamax(aplicar(arbitro, jugada), profundidad - 1, -INFINITO, -alfa, 1);
+            if (detenida) {
+                return 0;
+            }
+            if (valor > alfa) {
+                alfa = valor;
+                actualizarVariante(0, jugada);
+            }
+        }
+        return alfa;
+    }
+
+    /**
+     * Búsqueda negamax con poda alfa-beta.
+     *
+     * @param nodo        posición a evaluar.
+     * @param profundidad profundidad restante.
+     * @param alfa        cota inferior.
+     * @param beta        cota superior.
+     * @param distancia   medias jugadas desde la raíz.
+     * @return la puntuación para el jugador con el turno en el nodo.
+     */
+    private int negamax(Arbitro nodo, int profundidad, int alfa, int beta, int distancia) {
+        longitudes[distancia] = distancia;
+        if ((++nodos & MASCARA_COMPROBACION) == 0) {
+            comprobarLimites();
+        }
+        if (detenida) {
+            return 0;
+        }
+        if (nodo.estaFinalizadaPartida()) {
+            return puntuarFinal(nodo, distancia);
+        }
+        if (profundidad == 0 || distancia >= LimitesBusqueda.PROFUNDIDAD_MAXIMA) {
+            return evaluador.evaluar(nodo);
+        }
+        Simetria simetria = nodo.consultarSimetriaCanonica();
+        long clave = nodo.consultarClave(simetria);
+        long entrada = tabla.consultar(clave);
+        if (entrada != 0 && TablaTransposicion.consultarProfundidad(entrada) >= profundidad) {
+            int valor = desdeTabla(TablaTransposicion.consultarPuntuacion(entrada), distancia);
+            int tipo = TablaTransposicion.consultarTipo(entrada);
+            if (tipo == TablaTransposicion.EXACTA || (tipo == TablaTransposicion.INFERIOR && valor >= beta)
+                    || (tipo == TablaTransposicion.SUPERIOR && valor <= alfa)) {
+                return valor;
+            }
+        }
+        ListaJugadas jugadas = listas[distancia];
+        GeneradorJugadas.generar(nodo, jugadas);
+        if (jugadas.estaVacia()) {
+            return 0;
+        }
+        int tamano = nodo.consultarTamano();
+        adelantarJugada(jugadas, TablaTransposicion.consultarJugada(entrada), simetria, tamano);
+        int alfaInicial = alfa;
+        int mejorJugada = 0;
+        for (int i = 0; i < jugadas.contar(); i++) {
+            int jugada = jugadas.consultar(i);
+            int valor = -negamax(aplicar(nodo, jugada), profundidad - 1, -beta, -alfa, distancia + 1);
+            if (detenida) {
+                return 0;
+            }
+            if (valor > alfa) {
+                alfa = valor;
+                mejorJugada = TablaTransposicion.empaquetar(jugada, simetria, tamano);
+                actualizarVariante(distancia, jugada);
+                if (alfa >= beta) {
+                    break;
+                }
+            }
+        }
+        int tipo = alfa >= beta ? TablaTransposicion.INFERIOR
+                : alfa > alfaInicial ? TablaTransposicion.EXACTA : TablaTransposicion.SUPERIOR;
+        tabla.guardar(clave, profundidad, tipo, aTabla(alfa, distancia), mejorJugada);
+        return alfa;
+    }
+
+    /**
+     * Coloca en primer lugar la jugada indicada, si está en la lista.
+     *
+     * @param jugadas     jugadas legales.
+     * @param empaquetada jugada empaquetada de la tabla de transposición, o 0.
+     * @param simetria    simetría canónica de la posición.
+     * @param tamano      tamaño del tablero.
+     */
+    private static void adelantarJugada(ListaJugadas jugadas, int empaquetada, Simetria simetria, int tamano) {
+        if (empaquetada == 0) {
+            return;
+        }
+        for (int i = 1; i < jugadas.contar(); i++) {
+            if (TablaTransposicion.empaquetar(jugadas.consultar(i), simetria, tamano) == empaquetada) {
+                jugadas.adelantar(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Convierte una puntuación de victoria relativa a la raíz en relativa al
+     * nodo, para que sea válida al encontrar la posición a otra distancia.
+     *
+     * @param puntuacion puntuación relativa a la raíz.
+     * @param distancia  medias jugadas desde la raíz.
+     * @return la puntuación que se guarda.
+     */
+    private static int aTabla(int puntuacion, int distancia) {
+        if (puntuacion >= UMBRAL_VICTORIA) {
+            return puntuacion + distancia;
+        }
+        return puntuacion <= -UMBRAL_VICTORIA ? puntuacion - distancia : puntuacion;
+    }
+
+    /**
+     * Operación inversa de {@link #aTabla(int, int)}.
+     *
+     * @param puntuacion puntuación guardada.
+     * @param distancia  medias jugadas desde la raíz.
+     * @return la puntuación relativa a la raíz.
+     */
+    private static int desdeTabla(int puntuacion, int distancia) {
+        if (puntuacion >= UMBRAL_VICTORIA) {
+            return puntuacion - distancia;
+        }
+        return puntuacion <= -UMBRAL_VICTORIA ? puntuacion + distancia : puntuacion;
+    }
+
+    /**
+     * Aplica una jugada sobre una copia de la posición y pasa el turno.
+     *
+     * @param arbitro posición de partida.
+     * @param jugada  jugada legal empaquetada.
+     * @return la posición resultante.
+     */
+    private static Arbitro aplicar(Arbitro arbitro, int jugada) {
+        Arbitro hijo = arbitro.clonar();
+        hijo.empujar(jugada);
+        hijo.cambiarTurno();
+        return hijo;
+    }
+
+    /**
+     * Puntúa una posición final para el jugador con el turno, prefiriendo las
+     * victorias más cercanas y las derrotas más lejanas.
+     *
+     * @param nodo      posición finalizada.
+     * @param distancia medias jugadas desde la raíz.
+     * @return la puntuación.
+     */
+    private static int puntuarFinal(Arbitro nodo, int distancia) {
+        Color ganador = nodo.consultarTurnoGanador();
+        if (ganador == null) {
+            return 0;
+        }
+        return ganador == nodo.consultarTurno() ? VICTORIA - distancia : -(VICTORIA - distancia);
+    }
+
+    /**
+     * Coloca la jugada al inicio de la variante de esta distancia seguida de la variante del hijo.
+     *
+     * @param distancia medias jugadas desde la raíz.
+     * @param jugada    jugada empaquetada que mejora alfa.
+     */
+    private void actualizarVariante(int distancia, int jugada) {
+        variantes[distancia][distancia] = jugada;
+        int hasta = longitudes[distancia + 1];
+        for (int i = distancia + 1; i < hasta; i++) {
+            variantes[distancia][i] = variantes[distancia + 1][i];
+        }
+        longitudes[distancia] = Math.max(hasta, distancia + 1);
+    }
+
+    /**
+     * Convierte la variante principal de la raíz en jugadas, reproduciéndola
+     * sobre una copia de la posición para que cada jugada lleve las celdas de
+     * la posición en la que se juega.
+     *
+     * @param arbitro posición raíz.
+     * @return la variante, inmutable.
+     */
+    private List<Jugada> crearVariante(Arbitro arbitro) {
+        Jugada[] jugadas = new Jugada[longitudes[0]];
+        Arbitro nodo = arbitro;
+        for (int i = 0; i < jugadas.length; i++) {
+            jugadas[i] = nodo.crearJugada(variantes[0][i]);
+            if (i + 1 < jugadas.length) {
+                nodo = aplicar(nodo, variantes[0][i]);
+            }
+        }
+        return List.of(jugadas);
+    }
+
+    /**
+     * Detiene la búsqueda si se han agotado los nodos o el tiempo.
+     */
+    private void comprobarLimites() {
+        if (nodos >= limiteNodos || System.nanoTime() >= instanteLimite) {
+            detenida = true;
+        }
+    }
+
+    /**
+     * Consulta los milisegundos transcurridos desde el inicio de la búsqueda.
+     *
+     * @return el tiempo transcurrido.
+     */
+    private long consultarTiempoMs() {
+        return (System.nanoTime() - instanteInicio) / 1_000_000L;
+    }
+}
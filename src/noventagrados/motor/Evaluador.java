@@ -0,0 +1,374 @@
+package noventagrados.motor;
+
+import java.util.Arrays;
+
+import noventagrados.control.Arbitro;
+import noventagrados.util.Color;
+import noventagrados.util.Coordenada;
+import noventagrados.util.TipoPieza;
+
+/**
+ * Evaluación estática de posiciones no finalizadas.
+ *
+ * La puntuación es una suma ponderada de características calculadas como
+ * diferencia entre blancas y negras:
+ * <ul>
+ * <li>{@link #MATERIAL}: peones del rival en su caja menos peones propios en la caja.</li>
+ * <li>{@link #DISTANCIA_REINA}: distancia (Manhattan) al centro de la reina rival menos la de la propia.</li>
+ * <li>{@link #EXPOSICION_REINA}: piezas rivales en la fila y columna de la reina rival
+ * menos las que hay en las de la propia; cuentan doble si la reina está en el borde.</li>
+ * <li>{@link #MOVILIDAD}: destinos dentro del tablero de las piezas propias menos los de las rivales.</li>
+ * </ul>
+ *
+ * Todas se obtienen de datos que el tablero y las cajas mantienen de forma
+ * incremental en cada empuje (ocupación por color de filas y columnas,
+ * posición de las reinas y recuento de piezas por tipo), de modo que evaluar
+ * no recorre celdas ni clona nada. Además, las evaluaciones se guardan en una
+ * caché sin cerrojos indexada por la clave de la posición, que puede
+ * compartirse entre hilos.
+ *
+ * Para evaluar miles de posiciones a la vez (entrenamiento, etiquetado de
+ * datos) hay una versión por lotes sobre {@link LotePosiciones} que calcula
+ * cada característica para todas las posiciones seguidas.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class Evaluador {
+    /** Índice de la característica de material. */
+    public static final int MATERIAL = 0;
+
+    /** Índice de la característica de distancia de las reinas al centro. */
+    public static final int DISTANCIA_REINA = 1;
+
+    /** Índice de la característica de exposición de las reinas. */
+    public static final int EXPOSICION_REINA = 2;
+
+    /** Índice de la característica de movilidad. */
+    public static final int MOVILIDAD = 3;
+
+    /** Número de características. */
+    public static final int NUMERO_CARACTERISTICAS = 4;
+
+    /** Entradas de la caché por defecto. */
+    private static final int ENTRADAS_CACHE_POR_DEFECTO = 1 << 16;
+
+    private final int[] pesos;
+
+    /** Pares (clave XOR datos, datos): una entrada rota por escrituras simultáneas no coincide con ninguna clave. */
+    private final long[] cache;
+    private final int mascara;
+
+    /**
+     * Crea un evaluador con los pesos iniciales (por defecto o del fichero de pesos).
+     *
+     * @see PesosEvaluacion#consultarIniciales()
+     */
+    public Evaluador() {
+        this(PesosEvaluacion.consultarIniciales(), ENTRADAS_CACHE_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un evaluador con los pesos y la caché indicados.
+     *
+     * @param pesos    pesos indexados por característica.
+     * @param entradas número de entradas de la caché; se redondea a una potencia de dos.
+     * @throws IllegalArgumentException si no hay un peso por característica o la caché no es positiva.
+     */
+    public Evaluador(int[] pesos, int entradas) {
+        if (pesos.length != NUMERO_CARACTERISTICAS || entradas <= 0 || entradas > 1 << 29) {
+            throw new IllegalArgumentException("Configuración del evaluador no válida");
+        }
+        this.pesos = pesos.clone();
+        int capacidad = Integer.highestOneBit(entradas);
+        if (capacidad < entradas) {
+            capacidad <<= 1;
+        }
+        this.cache = new long[2 * capacidad];
+        this.mascara = capacidad - 1;
+    }
+
+    /**
+     * Evalúa una posición no finalizada.
+     *
+     * @param arbitro la posición.
+     * @return la puntuación para el jugador con el turno.
+     */
+    public int evaluar(Arbitro arbitro) {
+        long clave = arbitro.consultarClave();
+        int indice = 2 * ((int) clave & mascara);
+        long datos = cache[indice + 1];
+        if ((cache[indice] ^ datos) == clave) {
+            return (int) datos;
+        }
+        int tamano = arbitro.consultarTamano();
+        int valor = pesos[MATERIAL] * material(arbitro) + pesos[DISTANCIA_REINA] * distanciaReinas(arbitro, tamano)
+                + pesos[EXPOSICION_REINA] * exposicionReinas(arbitro, tamano)
+                + pesos[MOVILIDAD] * movilidad(arbitro, tamano);
+        if (arbitro.consultarTurno() == Color.NEGRO) {
+            valor = -valor;
+        }
+        datos = valor;
+        cache[indice] = clave ^ datos;
+        cache[indice + 1] = datos;
+        return valor;
+    }
+
+    /**
+     * Devuelve una copia de los pesos.
+     *
+     * @return los pesos indexados por característica.
+     */
+    public int[] consultarPesos() {
+        return pesos.clone();
+    }
+
+    /**
+     * Vacía la caché.
+     */
+    public void limpiarCache() {
+        Arrays.fill(cache, 0);
+    }
+
+    /**
+     * Calcula las características de una posición desde el punto de vista de las blancas.
+     *
+     * @param arbitro         la posición.
+     * @param caracteristicas array de {@link #NUMERO_CARACTERISTICAS} elementos donde se escriben.
+     */
+    public static void calcularCaracteristicas(Arbitro arbitro, int[] caracteristicas) {
+        int tamano = arbitro.consultarTamano();
+        caracteristicas[MATERIAL] = material(arbitro);
+        caracteristicas[DISTANCIA_REINA] = distanciaReinas(arbitro, tamano);
+        caracteristicas[EXPOSICION_REINA] = exposicionReinas(arbitro, tamano);
+        caracteristicas[MOVILIDAD] = movilidad(arbitro, tamano);
+    }
+
+    /**
+     * Evalúa todas las posiciones de un lote, que no deben estar finalizadas.
+     * Da las mismas puntuaciones que {@link #evaluar(Arbitro)} sin usar la caché.
+     *
+     * @param lote         las posiciones.
+     * @param puntuaciones array de al menos tantos elementos como posiciones donde
+     *                     se escribe la puntuación de cada una para el jugador con el turno.
+     */
+    public void evaluar(LotePosiciones lote, int[] puntuaciones) {
+        int posiciones = lote.contarPosiciones();
+        int[][] caracteristicas = new int[NUMERO_CARACTERISTICAS][posiciones];
+        calcularCaracteristicas(lote, caracteristicas);
+        for (int p = 0; p < posiciones; p++) {
+            int valor = 0;
+            for (int i = 0; i < NUMERO_CARACTERISTICAS; i++) {
+                valor += pesos[i] * caracteristicas[i][p];
+            }
+            // Cambia el signo sin saltos: (v ^ -1) + 1 = -v
+            int signo = -lote.turnoNegro[p];
+            puntuaciones[p] = (valor ^ signo) - signo;
+        }
+    }
+
+    /**
+     * Calcula las características de todas las posiciones de un lote desde el
+     * punto de vista de las blancas. Cada característica se calcula para todas
+     * las posiciones en bucles sobre datos contiguos.
+     *
+     * @param lote            las posiciones.
+     * @param caracteristicas array de {@link #NUMERO_CARACTERISTICAS} arrays de al menos tantos
+     *                        elementos como posiciones, indexado por característica y posición.
+     */
+    public static void calcularCaracteristicas(LotePosiciones lote, int[][] caracteristicas) {
+        int posiciones = lote.contarPosiciones();
+        int capacidad = lote.consultarCapacidad();
+        int tamano = lote.consultarTamano();
+        int centro = tamano / 2;
+        int[] material = caracteristicas[MATERIAL];
+        int[] distancia = caracteristicas[DISTANCIA_REINA];
+        int[] exposicion = caracteristicas[EXPOSICION_REINA];
+        int[] movilidad = caracteristicas[MOVILIDAD];
+        for (int p = 0; p < posiciones; p++) {
+            material[p] = lote.peonesCajaNegros[p] - lote.peonesCajaBlancos[p];
+            distancia[p] = distanciaAlCentro(lote.filaReinaNegra[p], lote.columnaReinaNegra[p], centro)
+                    - distanciaAlCentro(lote.filaReinaBlanca[p], lote.columnaReinaBlanca[p], centro);
+            exposicion[p] = exposicion(lote.filaReinaNegra[p], lote.columnaReinaNegra[p], lote.filasBlancas,
+                    lote.columnasBlancas, capacidad, p, tamano)
+                    - exposicion(lote.filaReinaBlanca[p], lote.columnaReinaBlanca[p], lote.filasNegras,
+                            lote.columnasNegras, capacidad, p, tamano);
+            movilidad[p] = 0;
+        }
+        for (int i = 0; i < tamano; i++) {
+            int base = i * capacidad;
+            for (int p = 0; p < posiciones; p++) {
+                int blancasFila = lote.filasBlancas[base + p];
+                int negrasFila = lote.filasNegras[base + p];
+                int sentidosFila = sentidosEnTablero(i, blancasFila + negrasFila, tamano);
+                int blancasColumna = lote.columnasBlancas[base + p];
+                int negrasColumna = lote.columnasNegras[base + p];
+                int sentidosColumna = sentidosEnTablero(i, blancasColumna + negrasColumna, tamano);
+                movilidad[p] += (blancasFila - negrasFila) * sentidosFila
+                        + (blancasColumna - negrasColumna) * sentidosColumna;
+            }
+        }
+    }
+
+    /**
+     * Característica de material.
+     *
+     * @param arbitro la posición.
+     * @return peones negros en su caja menos peones blancos en la suya.
+     */
+    private static int material(Arbitro arbitro) {
+        return arbitro.consultarCaja(Color.NEGRO).contarPiezas(TipoPieza.PEON)
+                - arbitro.consultarCaja(Color.BLANCO).contarPiezas(TipoPieza.PEON);
+    }
+
+    /**
+     * Característica de distancia de las reinas al centro.
+     *
+     * @param arbitro la posición.
+     * @param tamano  tamaño del tablero.
+     * @return distancia de la reina negra menos la de la blanca.
+     */
+    private static int distanciaReinas(Arbitro arbitro, int tamano) {
+        return distanciaAlCentro(arbitro.consultarCoordenadaReina(Color.NEGRO), tamano)
+                - distanciaAlCentro(arbitro.consultarCoordenadaReina(Color.BLANCO), tamano);
+    }
+
+    /**
+     * Característica de exposición de las reinas.
+     *
+     * @param arbitro la posición.
+     * @param tamano  tamaño del tablero.
+     * @return exposición de la reina negra menos la de la blanca.
+     */
+    private static int exposicionReinas(Arbitro arbitro, int tamano) {
+        return exposicion(arbitro, Color.NEGRO, tamano) - exposicion(arbitro, Color.BLANCO, tamano);
+    }
+
+    /**
+     * Característica de movilidad.
+     *
+     * @param arbitro la posición.
+     * @param tamano  tamaño del tablero.
+     * @return destinos de las blancas menos los de las negras.
+     */
+    private static int movilidad(Arbitro arbitro, int tamano) {
+        return movilidad(arbitro, Color.BLANCO, tamano) - movilidad(arbitro, Color.NEGRO, tamano);
+    }
+
+    /**
+     * Calcula la distancia de Manhattan de una reina a la celda central.
+     *
+     * @param reina  coordenada de la reina o null.
+     * @param tamano tamaño del tablero.
+     * @return la distancia; si la reina no está, la máxima posible.
+     */
+    private static int distanciaAlCentro(Coordenada reina, int tamano) {
+        int centro = tamano / 2;
+        if (reina == null) {
+            return 2 * centro;
+        }
+        return Math.abs(reina.fila() - centro) + Math.abs(reina.columna() - centro);
+    }
+
+    /**
+     * Calcula la distancia de Manhattan de una reina a la celda central a
+     * partir de sus coordenadas en un lote.
+     *
+     * @param fila    fila de la reina o {@link LotePosiciones#SIN_REINA}.
+     * @param columna columna de la reina.
+     * @param centro  fila y columna de la celda central.
+     * @return la distancia; si la reina no está, la máxima posible.
+     */
+    private static int distanciaAlCentro(int fila, int columna, int centro) {
+        if (fila == LotePosiciones.SIN_REINA) {
+            return 2 * centro;
+        }
+        return Math.abs(fila - centro) + Math.abs(columna - centro);
+    }
+
+    /**
+     * Cuenta las piezas rivales alineadas con una reina de un lote; cuentan
+     * doble si la reina está en el borde.
+     *
+     * @param fila          fila de la reina o {@link LotePosiciones#SIN_REINA}.
+     * @param columna       columna de la reina.
+     * @param filasRival    piezas rivales por fila del lote.
+     * @param columnasRival piezas rivales por columna del lote.
+     * @param capacidad     capacidad del lote.
+     * @param posicion      índice de la posición en el lote.
+     * @param tamano        tamaño del tablero.
+     * @return la exposición de la reina, 0 si no está.
+     */
+    private static int exposicion(int fila, int columna, byte[] filasRival, byte[] columnasRival, int capacidad,
+            int posicion, int tamano) {
+        if (fila == LotePosiciones.SIN_REINA) {
+            return 0;
+        }
+        int alineadas = filasRival[fila * capacidad + posicion] + columnasRival[columna * capacidad + posicion];
+        boolean enBorde = fila == 0 || columna == 0 || fila == tamano - 1 || columna == tamano - 1;
+        return enBorde ? 2 * alineadas : alineadas;
+    }
+
+    /**
+     * Cuenta las piezas rivales alineadas con la reina, que son las que pueden
+     * empujarla; cuentan doble si la reina está en el borde.
+     *
+     * @param arbitro la posición.
+     * @param color   color de la reina.
+     * @param tamano  tamaño del tablero.
+     * @return la exposición de la reina, 0 si no está.
+     */
+    private static int exposicion(Arbitro arbitro, Color color, int tamano) {
+        Coordenada reina = arbitro.consultarCoordenadaReina(color);
+        if (reina == null) {
+            return 0;
+        }
+        Color rival = color.consultarContrario();
+        int alineadas = Long.bitCount(arbitro.consultarOcupacionFila(reina.fila(), rival))
+                + Long.bitCount(arbitro.consultarOcupacionColumna(reina.columna(), rival));
+        boolean enBorde = reina.fila() == 0 || reina.columna() == 0 || reina.fila() == tamano - 1
+                || reina.columna() == tamano - 1;
+        return enBorde ? 2 * alineadas : alineadas;
+    }
+
+    /**
+     * Cuenta los destinos dentro del tablero de las piezas de un color. Todas las
+     * piezas de una fila se desplazan en vertical la misma distancia (las piezas
+     * de la fila), y todas las de una columna en horizontal las de la columna,
+     * por lo que basta recorrer filas y columnas.
+     *
+     * @param arbitro la posición.
+     * @param color   color de las piezas.
+     * @param tamano  tamaño del tablero.
+     * @return el número de destinos.
+     */
+    private static int movilidad(Arbitro arbitro, Color color, int tamano) {
+        Color rival = color.consultarContrario();
+        int destinos = 0;
+        for (int i = 0; i < tamano; i++) {
+            long propiasFila = arbitro.consultarOcupacionFila(i, color);
+            if (propiasFila != 0) {
+                int distancia = Long.bitCount(propiasFila | arbitro.consultarOcupacionFila(i, rival));
+                destinos += Long.bitCount(propiasFila) * sentidosEnTablero(i, distancia, tamano);
+            }
+            long propiasColumna = arbitro.consultarOcupacionColumna(i, color);
+            if (propiasColumna != 0) {
+                int distancia = Long.bitCount(propiasColumna | arbitro.consultarOcupacionColumna(i, rival));
+                destinos += Long.bitCount(propiasColumna) * sentidosEnTablero(i, distancia, tamano);
+            }
+        }
+        return destinos;
+    }
+
+    /**
+     * Cuenta en cuántos de los dos sentidos de una línea el destino queda dentro del tablero.
+     *
+     * @param posicion  posición en la línea.
+     * @param distancia desplazamiento.
+     * @param tamano    tamaño del tablero.
+     * @return 0, 1 o 2.
+     */
+    private static int sentidosEnTablero(int posicion, int distancia, int tamano) {
+        return (posicion - distancia >= 0 ? 1 : 0) + (posicion + distancia < tamano ? 1 : 0);
+    }
+}
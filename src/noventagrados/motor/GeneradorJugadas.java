@@ -0,0 +1,107 @@
+package noventagrados.motor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import noventagrados.control.Arbitro;
+import noventagrados.modelo.Jugada;
+import noventagrados.modelo.JugadaCompacta;
+import noventagrados.modelo.ListaJugadas;
+import noventagrados.util.Color;
+import noventagrados.util.Sentido;
+
+/**
+ * Genera las jugadas legales de una posición.
+ *
+ * Una pieza se desplaza en horizontal tantas casillas como piezas hay en su
+ * columna, y en vertical tantas como piezas hay en su fila; el árbitro confirma
+ * la legalidad de cada candidata.
+ *
+ * Las jugadas se generan empaquetadas en una {@link ListaJugadas}, a partir de
+ * los mapas de bits de ocupación del árbitro y sin copiar el tablero; la
+ * búsqueda reutiliza una lista por nivel. La variante que devuelve objetos
+ * {@link Jugada} se mantiene para los usos fuera de la búsqueda.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public final class GeneradorJugadas {
+
+    /** Oculta el constructor. */
+    private GeneradorJugadas() {
+    }
+
+    /**
+     * Genera las jugadas legales del jugador con el turno.
+     *
+     * @param arbitro el árbitro con la posición.
+     * @return la lista de jugadas legales, vacía si la partida ha finalizado.
+     */
+    public static List<Jugada> generar(Arbitro arbitro) {
+        ListaJugadas empaquetadas = new ListaJugadas();
+        generar(arbitro, empaquetadas);
+        List<Jugada> jugadas = new ArrayList<>(empaquetadas.contar());
+        for (int i = 0; i < empaquetadas.contar(); i++) {
+            jugadas.add(arbitro.crearJugada(empaquetadas.consultar(i)));
+        }
+        return jugadas;
+    }
+
+    /**
+     * Genera las jugadas legales del jugador con el turno, empaquetadas, en
+     * orden de fila y columna de la pieza y de sentido.
+     *
+     * @param arbitro el árbitro con la posición.
+     * @param jugadas lista que se vacía y donde se añaden; queda vacía si la
+     *                partida ha finalizado.
+     */
+    public static void generar(Arbitro arbitro, ListaJugadas jugadas) {
+        jugadas.vaciar();
+        Color turno = arbitro.consultarTurno();
+        if (turno == null || arbitro.estaFinalizadaPartida()) {
+            return;
+        }
+        Color rival = turno.consultarContrario();
+        int tamano = arbitro.consultarTamano();
+        for (int fila = 0; fila < tamano; fila++) {
+            long propias = arbitro.consultarOcupacionFila(fila, turno);
+            if (propias == 0) {
+                continue;
+            }
+            int enFila = Long.bitCount(propias | arbitro.consultarOcupacionFila(fila, rival));
+            while (propias != 0) {
+                int columna = Long.numberOfTrailingZeros(propias);
+                propias &= propias - 1;
+                int enColumna = Long.bitCount(arbitro.consultarOcupacionColumna(columna, turno)
+                        | arbitro.consultarOcupacionColumna(columna, rival));
+                anadirJugadas(arbitro, tamano, fila, columna, enFila, enColumna, jugadas);
+            }
+        }
+    }
+
+    /**
+     * Añade las jugadas legales de la pieza situada en el origen.
+     *
+     * @param arbitro   el árbitro con la posición.
+     * @param tamano    tamaño del tablero.
+     * @param fila      fila de la pieza.
+     * @param columna   columna de la pieza.
+     * @param enFila    piezas en la fila de la pieza.
+     * @param enColumna piezas en la columna de la pieza.
+     * @param jugadas   lista donde se añaden.
+     */
+    private static void anadirJugadas(Arbitro arbitro, int tamano, int fila, int columna, int enFila, int enColumna,
+            ListaJugadas jugadas) {
+        for (Sentido sentido : Sentido.values()) {
+            int distancia = sentido.consultarDesplazamientoEnFilas() != 0 ? enFila : enColumna;
+            int filaDestino = fila + sentido.consultarDesplazamientoEnFilas() * distancia;
+            int columnaDestino = columna + sentido.consultarDesplazamientoEnColumnas() * distancia;
+            if (filaDestino >= 0 && filaDestino < tamano && columnaDestino >= 0 && columnaDestino < tamano) {
+                int jugada = JugadaCompacta.crear(fila, columna, filaDestino, columnaDestino);
+                if (arbitro.consultarMotivoIlegalidad(jugada) == null) {
+                    jugadas.añadir(jugada);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package noventagrados.motor;
+
+import java.util.List;
+
+import noventagrados.modelo.Jugada;
+
+/**
+ * Resultado de una iteración completa de la búsqueda.
+ *
+ * @param profundidad profundidad alcanzada en medias jugadas.
+ * @param puntuacion  puntuación para el jugador con el turno.
+ * @param nodos       nodos visitados desde el inicio de la búsqueda.
+ * @param tiempoMs    milisegundos transcurridos desde el inicio de la búsqueda.
+ * @param variante    variante principal, empezando por la mejor jugada.
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public record InformeBusqueda(int profundidad, int puntuacion, long nodos, long tiempoMs, List<Jugada> variante) {
+
+    /**
+     * Devuelve la mejor jugada encontrada.
+     *
+     * @return la primera jugada de la variante o null si no hay jugadas.
+     */
+    public Jugada consultarMejorJugada() {
+        return variante.isEmpty() ? null : variante.get(0);
+    }
+
+    /**
+     * Indica si la puntuación corresponde a una victoria o derrota forzada.
+     *
+     * @return true si es una puntuación de final de partida.
+     */
+    public boolean esVictoriaForzada() {
+        return Math.abs(puntuacion) >= Buscador.VICTORIA - LimitesBusqueda.PROFUNDIDAD_MAXIMA;
+    }
+}
@@ -0,0 +1,64 @@
+package noventagrados.motor;
+
+/**
+ * Límites de una búsqueda. Un valor no positivo indica que no hay límite de ese tipo.
+ *
+ * @param profundidad profundidad máxima en medias jugadas.
+ * @param nodos       número máximo de nodos visitados.
+ * @param tiempoMs    tiempo máximo en milisegundos.
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public record LimitesBusqueda(int profundidad, long nodos, long tiempoMs) {
+
+    /** Profundidad usada cuando no se limita la profundidad. */
+    public static final int PROFUNDIDAD_MAXIMA = 64;
+
+    /**
+     * Búsqueda sin límites: solo termina al detenerla.
+     *
+     * @return los límites.
+     */
+    public static LimitesBusqueda infinita() {
+        return new LimitesBusqueda(0, 0, 0);
+    }
+
+    /**
+     * Búsqueda hasta una profundidad fija.
+     *
+     * @param profundidad profundidad en medias jugadas.
+     * @return los límites.
+     */
+    public static LimitesBusqueda porProfundidad(int profundidad) {
+        return new LimitesBusqueda(profundidad, 0, 0);
+    }
+
+    /**
+     * Búsqueda limitada por número de nodos.
+     *
+     * @param nodos número máximo de nodos.
+     * @return los límites.
+     */
+    public static LimitesBusqueda porNodos(long nodos) {
+        return new LimitesBusqueda(0, nodos, 0);
+    }
+
+    /**
+     * Búsqueda limitada por tiempo.
+     *
+     * @param tiempoMs tiempo máximo en milisegundos.
+     * @return los límites.
+     */
+    public static LimitesBusqueda porTiempo(long tiempoMs) {
+        return new LimitesBusqueda(0, 0, tiempoMs);
+    }
+
+    /**
+     * Devuelve la profundidad máxima efectiva de la profundización iterativa.
+     *
+     * @return la profundidad límite o {@link #PROFUNDIDAD_MAXIMA}.
+     */
+    public int consultarProfundidadEfectiva() {
+        return profundidad > 0 ? Math.min(profundidad, PROFUNDIDAD_MAXIMA) : PROFUNDIDAD_MAXIMA;
+    }
+}
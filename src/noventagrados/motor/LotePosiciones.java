@@ -0,0 +1,213 @@
+package noventagrados.motor;
+
+import noventagrados.control.Arbitro;
+import noventagrados.util.Color;
+import noventagrados.util.Coordenada;
+import noventagrados.util.TipoPieza;
+
+/**
+ * Lote de posiciones del mismo tamaño de tablero preparado para evaluarlas
+ * todas a la vez con {@link Evaluador#evaluar(LotePosiciones, int[])}.
+ *
+ * Solo guarda lo que usa la evaluación, por columnas de datos en lugar de por
+ * posición: piezas de cada color en cada fila y columna, coordenadas de las
+ * reinas, peones en caja y turno. Los recuentos por línea se guardan con la
+ * línea como índice exterior ({@code linea * capacidad + posicion}), de modo
+ * que los datos de una misma línea de todas las posiciones quedan contiguos y
+ * los bucles de la evaluación recorren posiciones consecutivas con la misma
+ * operación, que el compilador puede vectorizar.
+ *
+ * Un lote se reutiliza vaciándolo con {@link #vaciar()}. No es seguro para
+ * varios hilos a la vez.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class LotePosiciones {
+    /** Valor de fila y columna de una reina que no está en el tablero. */
+    static final byte SIN_REINA = -1;
+
+    private final int tamano;
+    private final int capacidad;
+    private int posiciones;
+
+    /** Piezas de cada color en cada fila y columna, indexadas por línea * capacidad + posición. */
+    final byte[] filasBlancas;
+    final byte[] filasNegras;
+    final byte[] columnasBlancas;
+    final byte[] columnasNegras;
+
+    /** Coordenadas de las reinas, o {@link #SIN_REINA}. */
+    final byte[] filaReinaBlanca;
+    final byte[] columnaReinaBlanca;
+    final byte[] filaReinaNegra;
+    final byte[] columnaReinaNegra;
+
+    /** Peones en la caja de cada color. */
+    final byte[] peonesCajaBlancos;
+    final byte[] peonesCajaNegros;
+
+    /** 1 si el turno es de las negras, 0 si es de las blancas. */
+    final byte[] turnoNegro;
+
+    /**
+     * Crea un lote vacío.
+     *
+     * @param tamano    tamaño del tablero de todas las posiciones.
+     * @param capacidad número máximo de posiciones.
+     * @throws IllegalArgumentException si la capacidad no es positiva.
+     */
+    public LotePosiciones(int tamano, int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("Capacidad no válida: " + capacidad);
+        }
+        this.tamano = tamano;
+        this.capacidad = capacidad;
+        this.filasBlancas = new byte[tamano * capacidad];
+        this.filasNegras = new byte[tamano * capacidad];
+        this.columnasBlancas = new byte[tamano * capacidad];
+        this.columnasNegras = new byte[tamano * capacidad];
+        this.filaReinaBlanca = new byte[capacidad];
+        this.columnaReinaBlanca = new byte[capacidad];
+        this.filaReinaNegra = new byte[capacidad];
+        this.columnaReinaNegra = new byte[capacidad];
+        this.peonesCajaBlancos = new byte[capacidad];
+        this.peonesCajaNegros = new byte[capacidad];
+        this.turnoNegro = new byte[capacidad];
+    }
+
+    /**
+     * Consulta el tamaño del tablero de las posiciones.
+     *
+     * @return el tamaño.
+     */
+    public int consultarTamano() {
+        return tamano;
+    }
+
+    /**
+     * Consulta el número máximo de posiciones.
+     *
+     * @return la capacidad.
+     */
+    public int consultarCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Consulta el número de posiciones del lote.
+     *
+     * @return el número de posiciones.
+     */
+    public int contarPosiciones() {
+        return posiciones;
+    }
+
+    /**
+     * Comprueba si el lote está lleno.
+     *
+     * @return true si no caben más posiciones.
+     */
+    public boolean estaLleno() {
+        return posiciones == capacidad;
+    }
+
+    /**
+     * Vacía el lote para reutilizarlo.
+     */
+    public void vaciar() {
+        posiciones = 0;
+    }
+
+    /**
+     * Añade la posición de un árbitro.
+     *
+     * @param arbitro la posición; su tablero debe ser del tamaño del lote.
+     * @throws IllegalArgumentException si el tamaño no coincide.
+     * @throws IllegalStateException si el lote está lleno.
+     */
+    public void añadir(Arbitro arbitro) {
+        int posicion = reservar(arbitro.consultarTamano());
+        for (int i = 0; i < tamano; i++) {
+            int indice = i * capacidad + posicion;
+            filasBlancas[indice] = (byte) Long.bitCount(arbitro.consultarOcupacionFila(i, Color.BLANCO));
+            filasNegras[indice] = (byte) Long.bitCount(arbitro.consultarOcupacionFila(i, Color.NEGRO));
+            columnasBlancas[indice] = (byte) Long.bitCount(arbitro.consultarOcupacionColumna(i, Color.BLANCO));
+            columnasNegras[indice] = (byte) Long.bitCount(arbitro.consultarOcupacionColumna(i, Color.NEGRO));
+        }
+        completar(posicion, arbitro.consultarCoordenadaReina(Color.BLANCO),
+                arbitro.consultarCoordenadaReina(Color.NEGRO),
+                arbitro.consultarCaja(Color.BLANCO).contarPiezas(TipoPieza.PEON),
+                arbitro.consultarCaja(Color.NEGRO).contarPiezas(TipoPieza.PEON), arbitro.consultarTurno());
+    }
+
+    /**
+     * Añade una posición dada por la ocupación de cada fila, sin construir un
+     * árbitro; sirve para cargar posiciones guardadas en ficheros.
+     *
+     * @param blancasPorFila    ocupación de cada fila por piezas blancas (bit j = columna j).
+     * @param negrasPorFila     ocupación de cada fila por piezas negras.
+     * @param reinaBlanca       coordenada de la reina blanca o null.
+     * @param reinaNegra        coordenada de la reina negra o null.
+     * @param peonesCajaBlancos peones blancos en su caja.
+     * @param peonesCajaNegros  peones negros en su caja.
+     * @param turno             color con el turno.
+     * @throws IllegalArgumentException si el número de filas no es el tamaño del lote.
+     * @throws IllegalStateException si el lote está lleno.
+     */
+    public void añadir(long[] blancasPorFila, long[] negrasPorFila, Coordenada reinaBlanca, Coordenada reinaNegra,
+            int peonesCajaBlancos, int peonesCajaNegros, Color turno) {
+        int posicion = reservar(blancasPorFila.length);
+        for (int i = 0; i < tamano; i++) {
+            int indice = i * capacidad + posicion;
+            filasBlancas[indice] = (byte) Long.bitCount(blancasPorFila[i]);
+            filasNegras[indice] = (byte) Long.bitCount(negrasPorFila[i]);
+            int blancas = 0;
+            int negras = 0;
+            for (int fila = 0; fila < tamano; fila++) {
+                blancas += (int) (blancasPorFila[fila] >>> i) & 1;
+                negras += (int) (negrasPorFila[fila] >>> i) & 1;
+            }
+            columnasBlancas[indice] = (byte) blancas;
+            columnasNegras[indice] = (byte) negras;
+        }
+        completar(posicion, reinaBlanca, reinaNegra, peonesCajaBlancos, peonesCajaNegros, turno);
+    }
+
+    /**
+     * Reserva el hueco de la siguiente posición.
+     *
+     * @param tamanoPosicion tamaño del tablero de la posición.
+     * @return el índice de la posición.
+     */
+    private int reservar(int tamanoPosicion) {
+        if (tamanoPosicion != tamano) {
+            throw new IllegalArgumentException("Tamaño de tablero distinto del del lote");
+        }
+        if (estaLleno()) {
+            throw new IllegalStateException("Lote lleno");
+        }
+        return posiciones++;
+    }
+
+    /**
+     * Guarda los datos de la posición que no dependen de las líneas.
+     *
+     * @param posicion          índice de la posición.
+     * @param reinaBlanca       coordenada de la reina blanca o null.
+     * @param reinaNegra        coordenada de la reina negra o null.
+     * @param peonesCajaBlancos peones blancos en su caja.
+     * @param peonesCajaNegros  peones negros en su caja.
+     * @param turno             color con el turno.
+     */
+    private void completar(int posicion, Coordenada reinaBlanca, Coordenada reinaNegra, int peonesCajaBlancos,
+            int peonesCajaNegros, Color turno) {
+        filaReinaBlanca[posicion] = reinaBlanca == null ? SIN_REINA : (byte) reinaBlanca.fila();
+        columnaReinaBlanca[posicion] = reinaBlanca == null ? SIN_REINA : (byte) reinaBlanca.columna();
+        filaReinaNegra[posicion] = reinaNegra == null ? SIN_REINA : (byte) reinaNegra.fila();
+        columnaReinaNegra[posicion] = reinaNegra == null ? SIN_REINA : (byte) reinaNegra.columna();
+        this.peonesCajaBlancos[posicion] = (byte) peonesCajaBlancos;
+        this.peonesCajaNegros[posicion] = (byte) peonesCajaNegros;
+        turnoNegro[posicion] = (byte) (turno == Color.NEGRO ? 1 : 0);
+    }
+}
@@ -0,0 +1,21 @@
+package noventagrados.motor;
+
+import java.util.List;
+
+/**
+ * Recibe las variantes de un análisis a medida que se completan las iteraciones.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface OyenteAnalisis {
+
+    /**
+     * Se invoca, en el hilo del análisis, cada vez que termina una iteración.
+     *
+     * @param variantes las mejores variantes de la iteración, de mejor a peor;
+     *                  todas con la misma profundidad.
+     */
+    void alCompletarIteracion(List<InformeBusqueda> variantes);
+}
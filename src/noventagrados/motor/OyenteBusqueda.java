@@ -0,0 +1,18 @@
+package noventagrados.motor;
+
+/**
+ * Recibe los informes de la búsqueda a medida que se completan las iteraciones.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface OyenteBusqueda {
+
+    /**
+     * Se invoca, en el hilo de la búsqueda, cada vez que termina una iteración.
+     *
+     * @param informe el resultado de la iteración.
+     */
+    void alCompletarIteracion(InformeBusqueda informe);
+}
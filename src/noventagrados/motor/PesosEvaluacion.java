@@ -0,0 +1,119 @@
+package noventagrados.motor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Pesos de las características del {@link Evaluador} y su fichero.
+ *
+ * Los pesos se guardan como propiedades ({@code material=100}...). Si la
+ * máquina virtual arranca con {@code -Dnoventagrados.pesos=<fichero>}, los
+ * evaluadores creados sin pesos explícitos usan los de ese fichero; si no, o si
+ * el fichero no se puede leer, usan los pesos por defecto.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public final class PesosEvaluacion {
+    /** Propiedad del sistema con la ruta del fichero de pesos. */
+    public static final String PROPIEDAD_FICHERO = "noventagrados.pesos";
+
+    /** Nombre de cada característica en el fichero, indexado como en {@link Evaluador}. */
+    private static final String[] NOMBRES = { "material", "distancia_reina", "exposicion_reina", "movilidad" };
+
+    /** Pesos por defecto, ajustados a mano. */
+    private static final int[] POR_DEFECTO = { 100, 20, 15, 4 };
+
+    /** Pesos iniciales de los evaluadores, cargados una sola vez. */
+    private static final int[] INICIALES = cargarIniciales();
+
+    /** Oculta el constructor. */
+    private PesosEvaluacion() {
+    }
+
+    /**
+     * Devuelve una copia de los pesos con los que arrancan los evaluadores.
+     *
+     * @return los pesos indexados por característica.
+     */
+    public static int[] consultarIniciales() {
+        return INICIALES.clone();
+    }
+
+    /**
+     * Devuelve una copia de los pesos por defecto.
+     *
+     * @return los pesos indexados por característica.
+     */
+    public static int[] consultarPorDefecto() {
+        return POR_DEFECTO.clone();
+    }
+
+    /**
+     * Lee un fichero de pesos. Las características que no aparecen conservan su peso por defecto.
+     *
+     * @param fichero ruta del fichero.
+     * @return los pesos indexados por característica.
+     * @throws IOException si no se puede leer o algún peso no es un entero.
+     */
+    public static int[] cargar(Path fichero) throws IOException {
+        Properties propiedades = new Properties();
+        try (Reader lector = Files.newBufferedReader(fichero, StandardCharsets.UTF_8)) {
+            propiedades.load(lector);
+        }
+        int[] pesos = consultarPorDefecto();
+        for (int i = 0; i < NOMBRES.length; i++) {
+            String valor = propiedades.getProperty(NOMBRES[i]);
+            if (valor != null) {
+                try {
+                    pesos[i] = Integer.parseInt(valor.trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Peso no válido para " + NOMBRES[i] + ": " + valor, e);
+                }
+            }
+        }
+        return pesos;
+    }
+
+    /**
+     * Escribe un fichero de pesos.
+     *
+     * @param fichero    ruta del fichero.
+     * @param pesos      pesos indexados por característica.
+     * @param comentario comentario de cabecera, o null.
+     * @throws IOException si no se puede escribir.
+     */
+    public static void guardar(Path fichero, int[] pesos, String comentario) throws IOException {
+        Properties propiedades = new Properties();
+        for (int i = 0; i < NOMBRES.length; i++) {
+            propiedades.setProperty(NOMBRES[i], Integer.toString(pesos[i]));
+        }
+        try (Writer escritor = Files.newBufferedWriter(fichero, StandardCharsets.UTF_8)) {
+            propiedades.store(escritor, comentario);
+        }
+    }
+
+    /**
+     * Carga los pesos del fichero indicado en {@link #PROPIEDAD_FICHERO}, si lo hay.
+     *
+     * @return los pesos iniciales.
+     */
+    private static int[] cargarIniciales() {
+        String fichero = System.getProperty(PROPIEDAD_FICHERO);
+        if (fichero == null) {
+            return POR_DEFECTO.clone();
+        }
+        try {
+            return cargar(Paths.get(fichero));
+        } catch (IOException e) {
+            System.err.println("No se pueden cargar los pesos de " + fichero + ": " + e.getMessage());
+            return POR_DEFECTO.clone();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package noventagrados.motor;
+
+import noventagrados.control.Arbitro;
+
+/**
+ * Reflexión del motor durante el turno del rival ("pondering").
+ *
+ * Mientras el rival piensa, busca sin límites la posición en la que le toca
+ * mover en un hilo en segundo plano. Así la tabla de transposición del
+ * buscador se llena con las respuestas a todas sus jugadas posibles, y la
+ * búsqueda que se lanza al recibir su jugada encuentra resueltas las primeras
+ * iteraciones.
+ *
+ * Comparte el buscador con quien lo usa: entre {@link #iniciar(Arbitro)} y
+ * {@link #detener()} no debe lanzarse ninguna otra búsqueda con él.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class Reflexion {
+    /** Espera máxima entre avisos de detención, en milisegundos. */
+    private static final long ESPERA_DETENCION_MS = 10;
+
+    private final Buscador buscador;
+    private Thread hilo;
+    private volatile InformeBusqueda ultimoInforme;
+
+    /**
+     * Crea la reflexión sobre un buscador.
+     *
+     * @param buscador buscador cuya tabla de transposición se aprovecha después.
+     */
+    public Reflexion(Buscador buscador) {
+        this.buscador = buscador;
+    }
+
+    /**
+     * Empieza a reflexionar sobre una posición. Si ya había una reflexión en
+     * curso, se detiene antes.
+     *
+     * @param arbitro posición con el turno del rival; se copia, por lo que puede
+     *                seguir modificándose.
+     */
+    public void iniciar(Arbitro arbitro) {
+        detener();
+        Arbitro posicion = arbitro.clonar();
+        ultimoInforme = null;
+        hilo = new Thread(() -> buscador.buscar(posicion, LimitesBusqueda.infinita(), informe -> ultimoInforme = informe),
+                "reflexion-motor");
+        hilo.setDaemon(true);
+        hilo.setPriority(Thread.MIN_PRIORITY);
+        hilo.start();
+    }
+
+    /**
+     * Detiene la reflexión en curso, si la hay, y espera a que termine, de modo
+     * que el buscador queda libre para la siguiente búsqueda.
+     *
+     * @return el informe de la última iteración completada, o null si no hubo ninguna.
+     */
+    public InformeBusqueda detener() {
+        if (hilo != null) {
+            try {
+                // Se repite por si el hilo aún no había empezado la búsqueda
+                while (hilo.isAlive()) {
+                    buscador.detener();
+                    hilo.join(ESPERA_DETENCION_MS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            hilo = null;
+        }
+        return ultimoInforme;
+    }
+}
@@ -0,0 +1,294 @@
+package noventagrados.motor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import noventagrados.control.Arbitro;
+import noventagrados.modelo.Jugada;
+import noventagrados.modelo.JugadaCompacta;
+import noventagrados.modelo.ListaJugadas;
+import noventagrados.util.Color;
+
+/**
+ * Busca victorias forzadas en un número acotado de jugadas propias: llevar la
+ * reina propia al centro o expulsar la reina rival, contra cualquier defensa.
+ *
+ * A diferencia de {@link Buscador}, no evalúa posiciones: es una búsqueda Y-O
+ * que solo distingue si el atacante gana o no, por lo que corta en cuanto una
+ * jugada del atacante gana o una respuesta del defensor se salva. En cada
+ * nodo se miran las jugadas que terminan la partida antes de profundizar en
+ * ninguna. La búsqueda está acotada además por un número de nodos, que
+ * comparten todas las consultas hasta la siguiente llamada a
+ * {@link #reiniciar()}, de modo que se puede acotar todo el trabajo sobre una
+ * posición; una vez agotados, el resultado de cualquier consulta es desconocido.
+ *
+ * No es seguro para varios hilos a la vez; cada hilo debe usar el suyo.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class ResolutorVictorias {
+    /** Resultado de {@link #contarJugadasGanadoras} cuando se agotan los nodos. */
+    public static final int DESCONOCIDO = -1;
+
+    private final long maximoNodos;
+    private long nodos;
+    private boolean agotado;
+
+    /**
+     * Crea un resolutor.
+     *
+     * @param maximoNodos nodos máximos entre dos llamadas a {@link #reiniciar()},
+     *                    o un valor no positivo para no limitarlos.
+     */
+    public ResolutorVictorias(long maximoNodos) {
+        this.maximoNodos = maximoNodos > 0 ? maximoNodos : Long.MAX_VALUE;
+    }
+
+    /**
+     * Cuenta las jugadas del jugador con el turno que ganan en como mucho el
+     * número de jugadas propias indicado, dejando de contar al llegar al tope.
+     *
+     * @param arbitro posición; no se modifica.
+     * @param jugadas jugadas propias máximas, contando la primera.
+     * @param tope    número de jugadas ganadoras a partir del cual se deja de contar.
+     * @param ganadoras lista donde se añaden las jugadas ganadoras encontradas, o null.
+     * @return el número de jugadas ganadoras hasta el tope, o {@link #DESCONOCIDO}
+     *         si se agotaron los nodos.
+     */
+    public int contarJugadasGanadoras(Arbitro arbitro, int jugadas, int tope, List<Jugada> ganadoras) {
+        if (agotado) {
+            return DESCONOCIDO;
+        }
+        Color atacante = arbitro.consultarTurno();
+        int encontradas = 0;
+        ListaJugadas candidatas = new ListaJugadas();
+        GeneradorJugadas.generar(arbitro, candidatas);
+        for (int i = 0; i < candidatas.contar(); i++) {
+            int jugada = candidatas.consultar(i);
+            if (ganaCon(arbitro, jugada, atacante, jugadas)) {
+                if (ganadoras != null) {
+                    ganadoras.add(arbitro.crearJugada(jugada));
+                }
+                if (++encontradas >= tope) {
+                    break;
+                }
+            }
+            if (agotado) {
+                return DESCONOCIDO;
+            }
+        }
+        return encontradas;
+    }
+
+    /**
+     * Calcula el menor número de jugadas propias con el que el jugador con el
+     * turno gana a la fuerza.
+     *
+     * @param arbitro posición; no se modifica.
+     * @param maximo  jugadas propias máximas.
+     * @return el número de jugadas, 0 si no gana en ese máximo o
+     *         {@link #DESCONOCIDO} si se agotaron los nodos.
+     */
+    public int calcularDistancia(Arbitro arbitro, int maximo) {
+        if (agotado) {
+            return DESCONOCIDO;
+        }
+        for (int n = 1; n <= maximo; n++) {
+            boolean gana = gana(arbitro, n);
+            if (agotado) {
+                return DESCONOCIDO;
+            }
+            if (gana) {
+                return n;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Construye la línea de solución de una victoria forzada: en cada turno
+     * del atacante, la jugada que gana antes; en cada turno del defensor, la
+     * respuesta que más la retrasa.
+     *
+     * @param arbitro posición; no se modifica.
+     * @param primera primera jugada del atacante.
+     * @param jugadas jugadas propias en que gana el atacante con ella.
+     * @return las jugadas de la línea, empezando por la primera; vacía si se
+     *         agotaron los nodos.
+     */
+    public List<Jugada> construirSolucion(Arbitro arbitro, Jugada primera, int jugadas) {
+        List<Jugada> solucion = new ArrayList<>();
+        Arbitro nodo = aplicar(arbitro, JugadaCompacta.desde(primera));
+        solucion.add(primera);
+        ListaJugadas respuestas = new ListaJugadas();
+        for (int restantes = jugadas - 1; restantes > 0 && !nodo.estaFinalizadaPartida(); restantes--) {
+            Jugada respuesta = null;
+            Arbitro peor = null;
+            int mayor = 0;
+            GeneradorJugadas.generar(nodo, respuestas);
+            for (int i = 0; i < respuestas.contar(); i++) {
+                int jugada = respuestas.consultar(i);
+                Arbitro hijo = aplicar(nodo, jugada);
+                int distancia = hijo.estaFinalizadaPartida() ? 0 : calcularDistancia(hijo, restantes);
+                if (distancia == DESCONOCIDO) {
+                    return List.of();
+                }
+                if (respuesta == null || distancia > mayor) {
+                    respuesta = nodo.crearJugada(jugada);
+                    peor = hijo;
+                    mayor = distancia;
+                }
+            }
+            if (respuesta == null) {
+                break;
+            }
+            solucion.add(respuesta);
+            nodo = peor;
+            if (nodo.estaFinalizadaPartida()) {
+                break;
+            }
+            List<Jugada> ganadoras = new ArrayList<>(1);
+            if (contarJugadasGanadoras(nodo, mayor, 1, ganadoras) <= 0) {
+                return List.of();
+            }
+            solucion.add(ganadoras.get(0));
+            nodo = aplicar(nodo, JugadaCompacta.desde(ganadoras.get(0)));
+            restantes = mayor;
+        }
+        return solucion;
+    }
+
+    /**
+     * Consulta los nodos visitados desde la última llamada a {@link #reiniciar()}.
+     *
+     * @return el número de nodos.
+     */
+    public long consultarNodos() {
+        return nodos;
+    }
+
+    /**
+     * Empieza una cuenta de nodos nueva, normalmente al pasar a otra posición.
+     */
+    public void reiniciar() {
+        nodos = 0;
+        agotado = false;
+    }
+
+    /**
+     * Comprueba si el jugador con el turno gana en como mucho n jugadas propias.
+     * Primero se aplican todas sus jugadas buscando una que gane en el acto y
+     * después se profundiza en el resto.
+     *
+     * @param nodo posición sin terminar.
+     * @param n    jugadas propias restantes.
+     * @return true si gana; false si no, o si se han agotado los nodos.
+     */
+    private boolean gana(Arbitro nodo, int n) {
+        Color atacante = nodo.consultarTurno();
+        ListaJugadas jugadas = new ListaJugadas();
+        GeneradorJugadas.generar(nodo, jugadas);
+        List<Arbitro> hijos = new ArrayList<>(jugadas.contar());
+        for (int i = 0; i < jugadas.contar(); i++) {
+            int jugada = jugadas.consultar(i);
+            if (++nodos > maximoNodos) {
+                agotado = true;
+                return false;
+            }
+            Arbitro hijo = aplicar(nodo, jugada);
+            if (!hijo.estaFinalizadaPartida()) {
+                hijos.add(hijo);
+            } else if (hijo.consultarTurnoGanador() == atacante) {
+                return true;
+            }
+        }
+        if (n > 1) {
+            for (Arbitro hijo : hijos) {
+                if (pierde(hijo, atacante, n - 1)) {
+                    return true;
+                }
+                if (agotado) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Comprueba si una jugada del atacante gana en como mucho n jugadas propias.
+     *
+     * @param nodo     posición con el turno del atacante.
+     * @param jugada   jugada empaquetada del atacante.
+     * @param atacante color del atacante.
+     * @param n        jugadas propias restantes, contando esta.
+     * @return true si gana.
+     */
+    private boolean ganaCon(Arbitro nodo, int jugada, Color atacante, int n) {
+        if (++nodos > maximoNodos) {
+            agotado = true;
+            return false;
+        }
+        Arbitro hijo = aplicar(nodo, jugada);
+        if (hijo.estaFinalizadaPartida()) {
+            return hijo.consultarTurnoGanador() == atacante;
+        }
+        return n > 1 && pierde(hijo, atacante, n - 1);
+    }
+
+    /**
+     * Comprueba si el jugador con el turno pierde contra cualquier defensa en
+     * como mucho n jugadas del atacante. Primero se aplican todas las
+     * respuestas buscando una que termine la partida sin perder y después se
+     * profundiza en el resto.
+     *
+     * @param nodo     posición sin terminar con el turno del defensor.
+     * @param atacante color del atacante.
+     * @param n        jugadas propias restantes del atacante.
+     * @return true si pierde; false si no, o si se han agotado los nodos.
+     */
+    private boolean pierde(Arbitro nodo, Color atacante, int n) {
+        ListaJugadas respuestas = new ListaJugadas();
+        GeneradorJugadas.generar(nodo, respuestas);
+        if (respuestas.estaVacia()) {
+            return false;
+        }
+        List<Arbitro> hijos = new ArrayList<>(respuestas.contar());
+        for (int i = 0; i < respuestas.contar(); i++) {
+            int respuesta = respuestas.consultar(i);
+            if (++nodos > maximoNodos) {
+                agotado = true;
+                return false;
+            }
+            Arbitro hijo = aplicar(nodo, respuesta);
+            if (!hijo.estaFinalizadaPartida()) {
+                hijos.add(hijo);
+            } else if (hijo.consultarTurnoGanador() != atacante) {
+                return false;
+            }
+        }
+        for (Arbitro hijo : hijos) {
+            if (!gana(hijo, n)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Aplica una jugada a una copia de la posición.
+     *
+     * @param arbitro posición.
+     * @param jugada  jugada legal empaquetada.
+     * @return la posición resultante, con el turno cambiado si no ha terminado.
+     */
+    private static Arbitro aplicar(Arbitro arbitro, int jugada) {
+        Arbitro hijo = arbitro.clonar();
+        hijo.empujar(jugada);
+        if (!hijo.estaFinalizadaPartida()) {
+            hijo.cambiarTurno();
+        }
+        return hijo;
+    }
+}
@@ -0,0 +1,189 @@
+package noventagrados.motor;
+
+import noventagrados.modelo.Jugada;
+import noventagrados.modelo.JugadaCompacta;
+import noventagrados.util.Simetria;
+
+/**
+ * Tabla de transposición: guarda, por clave de posición, el resultado de la
+ * última búsqueda de esa posición para reutilizarlo en búsquedas posteriores.
+ *
+ * Los datos de cada entrada se empaquetan en un {@code long} (puntuación,
+ * profundidad, tipo de cota y mejor jugada) con el mismo formato en todas las
+ * implementaciones: {@link TablaTransposicionMemoria}, propia del proceso, y
+ * {@link TablaTransposicionCompartida}, en un fichero compartido entre procesos.
+ *
+ * El buscador indexa las posiciones por su clave canónica (véase
+ * {@link noventagrados.util.Simetria}), de modo que las posiciones simétricas
+ * comparten entrada, y guarda la mejor jugada transformada a la posición
+ * canónica.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public abstract class TablaTransposicion {
+    /** La puntuación es exacta. */
+    public static final int EXACTA = 1;
+
+    /** La puntuación es una cota inferior (hubo poda beta). */
+    public static final int INFERIOR = 2;
+
+    /** La puntuación es una cota superior (ninguna jugada superó alfa). */
+    public static final int SUPERIOR = 3;
+
+    private static final int DESPLAZAMIENTO_PROFUNDIDAD = 32;
+    private static final int DESPLAZAMIENTO_TIPO = 40;
+    private static final int DESPLAZAMIENTO_JUGADA = 42;
+
+    /**
+     * Busca la entrada de una posición.
+     *
+     * @param clave clave de la posición.
+     * @return los datos empaquetados, o 0 si no hay entrada para esa clave.
+     */
+    public abstract long consultar(long clave);
+
+    /**
+     * Guarda el resultado de buscar una posición. Una entrada nueva sustituye a
+     * la anterior salvo que sea de la misma posición con menos profundidad.
+     *
+     * @param clave       clave de la posición.
+     * @param profundidad profundidad de la búsqueda.
+     * @param tipo        {@link #EXACTA}, {@link #INFERIOR} o {@link #SUPERIOR}.
+     * @param puntuacion  puntuación obtenida.
+     * @param jugada      mejor jugada empaquetada con {@link #empaquetar(Jugada)}, o 0.
+     */
+    public abstract void guardar(long clave, int profundidad, int tipo, int puntuacion, int jugada);
+
+    /**
+     * Vacía la tabla, por ejemplo al empezar una partida nueva.
+     */
+    public abstract void limpiar();
+
+    /**
+     * Consulta el número de entradas de la tabla.
+     *
+     * @return la capacidad.
+     */
+    public abstract int consultarCapacidad();
+
+    /**
+     * Empaqueta los datos de una entrada en un {@code long} distinto de 0.
+     *
+     * @param profundidad profundidad de la búsqueda.
+     * @param tipo        tipo de cota.
+     * @param puntuacion  puntuación obtenida.
+     * @param jugada      mejor jugada empaquetada, o 0.
+     * @return los datos empaquetados.
+     */
+    protected static long empaquetarDatos(int profundidad, int tipo, int puntuacion, int jugada) {
+        return (puntuacion & 0xFFFFFFFFL) | ((long) profundidad << DESPLAZAMIENTO_PROFUNDIDAD)
+                | ((long) tipo << DESPLAZAMIENTO_TIPO) | ((long) jugada << DESPLAZAMIENTO_JUGADA);
+    }
+
+    /**
+     * Redondea un número de entradas a la siguiente potencia de dos.
+     *
+     * @param entradas número mínimo de entradas.
+     * @return la capacidad.
+     * @throws IllegalArgumentException si no es positivo o excede 2^30.
+     */
+    protected static int calcularCapacidad(int entradas) {
+        if (entradas <= 0 || entradas > 1 << 30) {
+            throw new IllegalArgumentException("Número de entradas no válido: " + entradas);
+        }
+        int capacidad = Integer.highestOneBit(entradas);
+        return capacidad < entradas ? capacidad << 1 : capacidad;
+    }
+
+    /**
+     * Extrae la puntuación de unos datos empaquetados.
+     *
+     * @param datos datos de una entrada.
+     * @return la puntuación.
+     */
+    public static int consultarPuntuacion(long datos) {
+        return (int) datos;
+    }
+
+    /**
+     * Extrae la profundidad de unos datos empaquetados.
+     *
+     * @param datos datos de una entrada.
+     * @return la profundidad.
+     */
+    public static int consultarProfundidad(long datos) {
+        return (int) (datos >>> DESPLAZAMIENTO_PROFUNDIDAD) & 0xFF;
+    }
+
+    /**
+     * Extrae el tipo de cota de unos datos empaquetados.
+     *
+     * @param datos datos de una entrada.
+     * @return {@link #EXACTA}, {@link #INFERIOR} o {@link #SUPERIOR}.
+     */
+    public static int consultarTipo(long datos) {
+        return (int) (datos >>> DESPLAZAMIENTO_TIPO) & 0x3;
+    }
+
+    /**
+     * Extrae la mejor jugada de unos datos empaquetados.
+     *
+     * @param datos datos de una entrada.
+     * @return la jugada empaquetada, o 0 si no hay.
+     */
+    public static int consultarJugada(long datos) {
+        // La jugada ocupa hasta su bit de presencia, incluido
+        return (int) (datos >>> DESPLAZAMIENTO_JUGADA) & (2 * JugadaCompacta.PRESENTE - 1);
+    }
+
+    /**
+     * Empaqueta una jugada en un entero distinto de 0, con el formato de
+     * {@link JugadaCompacta}.
+     *
+     * @param jugada la jugada.
+     * @return la jugada empaquetada.
+     */
+    public static int empaquetar(Jugada jugada) {
+        return JugadaCompacta.desde(jugada);
+    }
+
+    /**
+     * Empaqueta una jugada transformada por una simetría, para guardarla con la
+     * clave canónica de la posición.
+     *
+     * @param jugada   la jugada.
+     * @param simetria simetría canónica de la posición.
+     * @param tamano   tamaño del tablero.
+     * @return la jugada transformada y empaquetada.
+     * @see #empaquetar(int, Simetria, int)
+     */
+    public static int empaquetar(Jugada jugada, Simetria simetria, int tamano) {
+        return empaquetar(JugadaCompacta.desde(jugada), simetria, tamano);
+    }
+
+    /**
+     * Transforma por una simetría una jugada ya empaquetada, para guardarla con
+     * la clave canónica de la posición. Como cada simetría es su propia
+     * inversa, una jugada de la tabla se reconoce transformando las jugadas
+     * legales con la misma simetría.
+     *
+     * @param jugada   jugada empaquetada con {@link JugadaCompacta}.
+     * @param simetria simetría canónica de la posición.
+     * @param tamano   tamaño del tablero.
+     * @return la jugada transformada.
+     */
+    public static int empaquetar(int jugada, Simetria simetria, int tamano) {
+        if (simetria == Simetria.IDENTIDAD) {
+            return jugada;
+        }
+        int filaOrigen = JugadaCompacta.consultarFilaOrigen(jugada);
+        int columnaOrigen = JugadaCompacta.consultarColumnaOrigen(jugada);
+        int filaDestino = JugadaCompacta.consultarFilaDestino(jugada);
+        int columnaDestino = JugadaCompacta.consultarColumnaDestino(jugada);
+        return JugadaCompacta.crear(simetria.transformarFila(filaOrigen, columnaOrigen, tamano),
+                simetria.transformarColumna(filaOrigen, columnaOrigen, tamano),
+                simetria.transformarFila(filaDestino, columnaDestino, tamano),
+                simetria.transformarColumna(filaDestino, columnaDestino, tamano));
+    }
+}
@@ -0,0 +1,179 @@
+package noventagrados.motor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tabla de transposición en un fichero proyectado en memoria, que sobrevive a
+ * los reinicios y que varios procesos del mismo equipo pueden usar a la vez:
+ * cada uno empieza con lo que los demás, o él mismo en ejecuciones
+ * anteriores, ya han buscado.
+ *
+ * No usa cerrojos salvo al abrir el fichero, que se bloquea para que dos
+ * procesos no lo creen a la vez. Cada entrada guarda la clave
+ * combinada con los datos por o exclusivo ({@code clave ^ datos}) seguida de
+ * los datos. Si dos procesos escriben a la vez la misma entrada y sus
+ * escrituras se mezclan, la combinación deja de corresponder a los datos y la
+ * entrada se ignora como si no existiera. Las lecturas nunca devuelven datos
+ * de otra posición, salvo colisión de claves.
+ *
+ * El fichero empieza con una cabecera de {@value #TAMANO_CABECERA} bytes
+ * (número mágico, número de entradas y tamaño del tablero). Si ya existe, se
+ * usa con el número de entradas con el que se creó. Las claves no dependen del
+ * tamaño del tablero, así que cada fichero es de un solo tamaño y abrirlo para
+ * otro es un error. Los enteros se guardan en el orden nativo de la máquina,
+ * por lo que el fichero solo sirve en equipos de la misma arquitectura.
+ *
+ * Es segura para varios hilos y procesos a la vez.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class TablaTransposicionCompartida extends TablaTransposicion implements AutoCloseable {
+    /** Número mágico: "NGTABLA2" en ASCII. */
+    private static final long MAGIA = 0x4E475441424C4132L;
+
+    /** Bytes de la cabecera del fichero. */
+    private static final int TAMANO_CABECERA = 64;
+
+    /** Bytes de cada entrada. */
+    private static final int BYTES_ENTRADA = 2 * Long.BYTES;
+
+    /** Bits del número de entradas de cada segmento proyectado (1 GiB). */
+    private static final int BITS_SEGMENTO = 26;
+
+    private final FileChannel canal;
+    private final ByteBuffer[] segmentos;
+    private final int capacidad;
+    private final int mascara;
+    private final int tamano;
+
+    /**
+     * Abre la tabla de un fichero o la crea si no existe.
+     *
+     * @param fichero  ruta del fichero.
+     * @param tamano   tamaño del tablero de las posiciones de la tabla.
+     * @param entradas número mínimo de entradas si hay que crearla; se redondea a
+     *                 la siguiente potencia de dos.
+     * @throws IOException si no se puede proyectar, no contiene una tabla de
+     *                     transposición o es de otro tamaño de tablero.
+     * @throws IllegalArgumentException si el número de entradas no es positivo o excede 2^30.
+     */
+    public TablaTransposicionCompartida(Path fichero, int tamano, int entradas) throws IOException {
+        this.tamano = tamano;
+        this.canal = FileChannel.open(fichero, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        FileLock cerrojo = null;
+        try {
+            cerrojo = canal.lock();
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA).order(ByteOrder.nativeOrder());
+            if (canal.size() == 0) {
+                this.capacidad = calcularCapacidad(entradas);
+                cabecera.putLong(MAGIA).putInt(capacidad).putInt(tamano);
+                cabecera.clear();
+                while (cabecera.hasRemaining()) {
+                    canal.write(cabecera, cabecera.position());
+                }
+            } else {
+                while (cabecera.hasRemaining() && canal.read(cabecera, cabecera.position()) >= 0) {
+                    // Lee la cabecera completa
+                }
+                cabecera.flip();
+                if (cabecera.remaining() < TAMANO_CABECERA || cabecera.getLong() != MAGIA) {
+                    throw new IOException("No es una tabla de transposición: " + fichero);
+                }
+                this.capacidad = cabecera.getInt();
+                if (capacidad <= 0 || Integer.bitCount(capacidad) != 1) {
+                    throw new IOException("Cabecera de tabla de transposición no válida: " + fichero);
+                }
+                int tamanoFichero = cabecera.getInt();
+                if (tamanoFichero != tamano) {
+                    throw new IOException("La tabla de transposición " + fichero + " es de tableros de tamaño "
+                            + tamanoFichero + ", no " + tamano);
+                }
+            }
+            this.mascara = capacidad - 1;
+            int porSegmento = 1 << BITS_SEGMENTO;
+            this.segmentos = new ByteBuffer[(capacidad + porSegmento - 1) / porSegmento];
+            for (int i = 0; i < segmentos.length; i++) {
+                long entradasSegmento = Math.min(porSegmento, capacidad - (long) i * porSegmento);
+                segmentos[i] = canal.map(FileChannel.MapMode.READ_WRITE,
+                        TAMANO_CABECERA + (long) i * porSegmento * BYTES_ENTRADA, entradasSegmento * BYTES_ENTRADA)
+                        .order(ByteOrder.nativeOrder());
+            }
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        } finally {
+            if (cerrojo != null && cerrojo.isValid()) {
+                cerrojo.release();
+            }
+        }
+    }
+
+    @Override
+    public long consultar(long clave) {
+        int indice = (int) clave & mascara;
+        ByteBuffer segmento = segmentos[indice >>> BITS_SEGMENTO];
+        int posicion = (indice & ((1 << BITS_SEGMENTO) - 1)) * BYTES_ENTRADA;
+        long datos = segmento.getLong(posicion + Long.BYTES);
+        return (segmento.getLong(posicion) ^ datos) == clave ? datos : 0;
+    }
+
+    @Override
+    public void guardar(long clave, int profundidad, int tipo, int puntuacion, int jugada) {
+        int indice = (int) clave & mascara;
+        ByteBuffer segmento = segmentos[indice >>> BITS_SEGMENTO];
+        int posicion = (indice & ((1 << BITS_SEGMENTO) - 1)) * BYTES_ENTRADA;
+        long actuales = segmento.getLong(posicion + Long.BYTES);
+        if ((segmento.getLong(posicion) ^ actuales) == clave && actuales != 0
+                && consultarProfundidad(actuales) > profundidad) {
+            return;
+        }
+        long datos = empaquetarDatos(profundidad, tipo, puntuacion, jugada);
+        segmento.putLong(posicion, clave ^ datos);
+        segmento.putLong(posicion + Long.BYTES, datos);
+    }
+
+    /**
+     * Vacía la tabla para todos los procesos que la comparten.
+     */
+    @Override
+    public void limpiar() {
+        for (ByteBuffer segmento : segmentos) {
+            for (int posicion = 0; posicion < segmento.capacity(); posicion += Long.BYTES) {
+                segmento.putLong(posicion, 0);
+            }
+        }
+    }
+
+    @Override
+    public int consultarCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Consulta el tamaño del tablero de las posiciones de la tabla.
+     *
+     * @return el tamaño.
+     */
+    public int consultarTamano() {
+        return tamano;
+    }
+
+    /**
+     * Cierra el fichero. Lo escrito queda en él aunque el proceso termine; la
+     * proyección se libera cuando el recolector descarta los búferes.
+     *
+     * @throws IOException si falla el cierre.
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
@@ -0,0 +1,62 @@
+package noventagrados.motor;
+
+import java.util.Arrays;
+
+/**
+ * Tabla de transposición en el montículo, propia de un proceso.
+ *
+ * Cada entrada ocupa dos {@code long}: la clave completa y los datos
+ * empaquetados. Se indexa por los bits bajos de la clave.
+ *
+ * No es segura para varios hilos a la vez; puede pasar de un hilo a otro
+ * siempre que el primero haya terminado (por ejemplo, tras un {@code join}).
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class TablaTransposicionMemoria extends TablaTransposicion {
+    private final long[] claves;
+    private final long[] datos;
+    private final int mascara;
+
+    /**
+     * Crea una tabla con al menos el número de entradas indicado, redondeado a
+     * la siguiente potencia de dos.
+     *
+     * @param entradas número mínimo de entradas.
+     * @throws IllegalArgumentException si no es positivo o excede 2^30.
+     */
+    public TablaTransposicionMemoria(int entradas) {
+        int capacidad = calcularCapacidad(entradas);
+        this.claves = new long[capacidad];
+        this.datos = new long[capacidad];
+        this.mascara = capacidad - 1;
+    }
+
+    @Override
+    public long consultar(long clave) {
+        int indice = (int) clave & mascara;
+        return claves[indice] == clave ? datos[indice] : 0;
+    }
+
+    @Override
+    public void guardar(long clave, int profundidad, int tipo, int puntuacion, int jugada) {
+        int indice = (int) clave & mascara;
+        if (claves[indice] == clave && datos[indice] != 0 && consultarProfundidad(datos[indice]) > profundidad) {
+            return;
+        }
+        claves[indice] = clave;
+        datos[indice] = empaquetarDatos(profundidad, tipo, puntuacion, jugada);
+    }
+
+    @Override
+    public void limpiar() {
+        Arrays.fill(claves, 0);
+        Arrays.fill(datos, 0);
+    }
+
+    @Override
+    public int consultarCapacidad() {
+        return claves.length;
+    }
+}
@@ -0,0 +1,331 @@
+package noventagrados.servidor;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import noventagrados.clasificacion.ServicioClasificacion;
+import noventagrados.control.Arbitro;
+import noventagrados.control.MotivoIlegalidad;
+import noventagrados.modelo.JugadaCompacta;
+import noventagrados.modelo.Tablero;
+import noventagrados.util.Color;
+import noventagrados.util.NotacionJugada;
+
+/**
+ * Partida alojada en el servidor, gestionada como un actor de un único escritor.
+ *
+ * Cualquier hilo puede enviarle mensajes; el actor los encola y los procesa de
+ * uno en uno en el ejecutor compartido, de modo que el árbitro solo lo modifica
+ * un hilo a la vez sin cerrojos y una partida sin mensajes no ocupa ningún hilo.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class ActorPartida {
+    /** Mensajes procesados como máximo en cada turno del actor antes de ceder el hilo. */
+    private static final int MENSAJES_POR_TURNO = 64;
+
+    /** Intervalo entre envíos a los espectadores, en milisegundos. */
+    private static final long INTERVALO_DIFUSION_MS = 100;
+
+    private final long id;
+    private final Arbitro arbitro;
+    private final int tamano;
+    private final Executor ejecutor;
+    private final ScheduledExecutorService programador;
+    private final Runnable alTerminar;
+    private final ServicioClasificacion clasificacion;
+    private final Queue<Runnable> buzon;
+    private final AtomicBoolean programado;
+
+    // Asientos: se reservan desde el hilo del selector y no vuelven a cambiar
+    private volatile ConexionJugador blancas;
+    private volatile ConexionJugador negras;
+
+    // Estado accedido únicamente desde el actor; terminada se escribe además con
+    // el cerrojo de los asientos para que no se reserve ninguno después
+    private boolean terminada;
+    private DifusionEspectadores difusion;
+    private ScheduledFuture<?> envioPeriodico;
+
+    /**
+     * Crea una partida con la configuración inicial.
+     *
+     * @param id         identificador de la partida.
+     * @param tamano     tamaño del tablero.
+     * @param ejecutor    ejecutor compartido donde se procesan los mensajes.
+     * @param programador ejecutor que marca el ritmo de envío a los espectadores.
+     * @param alTerminar  acción que se ejecuta una sola vez al terminar la partida.
+     * @param clasificacion servicio donde se registra el resultado si ambos
+     *                      jugadores tienen nombre, o null.
+     */
+    public ActorPartida(long id, int tamano, Executor ejecutor, ScheduledExecutorService programador,
+            Runnable alTerminar, ServicioClasificacion clasificacion) {
+        this.id = id;
+        this.tamano = tamano;
+        this.arbitro = new Arbitro(new Tablero(tamano));
+        this.arbitro.colocarPiezasConfiguracionInicial();
+        this.ejecutor = ejecutor;
+        this.programador = programador;
+        this.alTerminar = alTerminar;
+        this.clasificacion = clasificacion;
+        this.buzon = new ConcurrentLinkedQueue<>();
+        this.programado = new AtomicBoolean();
+    }
+
+    /**
+     * Consulta el identificador de la partida.
+     *
+     * @return el identificador.
+     */
+    public long consultarId() {
+        return id;
+    }
+
+    /**
+     * Consulta el tamaño del tablero.
+     *
+     * @return el tamaño.
+     */
+    public int consultarTamano() {
+        return tamano;
+    }
+
+    /**
+     * Ejecuta una acción con acceso exclusivo al árbitro, en el hilo del actor.
+     *
+     * @param accion acción a ejecutar.
+     */
+    public void ejecutar(Consumer<Arbitro> accion) {
+        enviar(() -> accion.accept(arbitro));
+    }
+
+    /**
+     * Sienta a un jugador en la partida: el primero juega con blancas y el
+     * segundo con negras. Se invoca desde el hilo del selector del servidor al
+     * procesar la orden, de modo que la conexión conoce su partida antes de
+     * procesar la siguiente. La respuesta {@code PARTIDA} se encola antes de
+     * ocupar el asiento, porque desde ese momento el actor puede enviar al
+     * jugador la jugada de su rival.
+     *
+     * @param conexion conexión del jugador.
+     * @return el color asignado, o null si la partida está completa o terminada
+     *         o el jugador ya estaba sentado en ella.
+     */
+    public synchronized Color sentar(ConexionJugador conexion) {
+        Color color = null;
+        if (!terminada && blancas == null) {
+            color = Color.BLANCO;
+        } else if (!terminada && negras == null && blancas != conexion) {
+            color = Color.NEGRO;
+        }
+        if (color == null) {
+            return null;
+        }
+        conexion.enviar("PARTIDA " + id + " " + color + " " + tamano);
+        if (color == Color.BLANCO) {
+            blancas = conexion;
+        } else {
+            negras = conexion;
+        }
+        return color;
+    }
+
+    /**
+     * Procesa una jugada enviada por un jugador en notación "dd-dd".
+     *
+     * @param conexion    conexión del jugador.
+     * @param textoJugada texto de la jugada.
+     */
+    public void jugar(ConexionJugador conexion, String textoJugada) {
+        enviar(() -> {
+            Color color = consultarColor(conexion);
+            if (terminada) {
+                conexion.enviar("ERROR partida finalizada");
+            } else if (color == null) {
+                conexion.enviar("ERROR no juegas esta partida");
+            } else if (negras == null) {
+                conexion.enviar("ERROR esperando rival");
+            } else if (color != arbitro.consultarTurno()) {
+                conexion.enviar("ERROR no es tu turno");
+            } else if (textoJugada.length() != NotacionJugada.TAMANO_JUGADA
+                    || !NotacionJugada.esValida(textoJugada, 0, tamano)) {
+                conexion.enviar("ERROR formato de jugada");
+            } else {
+                aplicar(conexion, textoJugada);
+            }
+        });
+    }
+
+    /**
+     * Envía al solicitante el estado del tablero en una línea.
+     *
+     * @param conexion conexión que lo solicita.
+     */
+    public void enviarTablero(ConexionJugador conexion) {
+        enviar(() -> conexion.enviar("TABLERO " + arbitro.consultarTurno() + " " + arbitro.codificarTablero()));
+    }
+
+    /**
+     * Suscribe un espectador a la partida. La difusión se crea con el primer
+     * espectador y envía los cambios acumulados cada {@value #INTERVALO_DIFUSION_MS} ms.
+     *
+     * @param aviso acción que se ejecuta tras cada entrega de marcos al espectador.
+     * @return la suscripción, que se completa con null si la partida ya ha terminado.
+     */
+    public CompletableFuture<SuscripcionEspectador> suscribir(Runnable aviso) {
+        CompletableFuture<SuscripcionEspectador> suscripcion = new CompletableFuture<>();
+        enviar(() -> {
+            if (terminada) {
+                suscripcion.complete(null);
+                return;
+            }
+            if (difusion == null) {
+                DifusionEspectadores nueva = new DifusionEspectadores(arbitro);
+                difusion = nueva;
+                envioPeriodico = programador.scheduleWithFixedDelay(() -> enviar(nueva::publicar),
+                        INTERVALO_DIFUSION_MS, INTERVALO_DIFUSION_MS, TimeUnit.MILLISECONDS);
+            }
+            suscripcion.complete(difusion.suscribir(aviso));
+        });
+        return suscripcion;
+    }
+
+    /**
+     * Retira a un jugador de la partida; si estaba en curso, su rival gana por abandono.
+     *
+     * @param conexion conexión que abandona.
+     */
+    public void abandonar(ConexionJugador conexion) {
+        enviar(() -> {
+            Color color = consultarColor(conexion);
+            if (color != null && !terminada) {
+                // Tras terminar ya no puede sentarse nadie, así que el rival leído es definitivo
+                terminar();
+                ConexionJugador rival = color == Color.BLANCO ? negras : blancas;
+                if (rival != null) {
+                    rival.enviar("FIN " + color.consultarContrario() + " ABANDONO");
+                    registrarResultado(color.consultarContrario());
+                }
+            }
+        });
+    }
+
+    /**
+     * Aplica una jugada de formato correcto si es legal y notifica a ambos jugadores.
+     *
+     * @param conexion    conexión del jugador con el turno.
+     * @param textoJugada texto de la jugada.
+     */
+    private void aplicar(ConexionJugador conexion, String textoJugada) {
+        int jugada = JugadaCompacta.desdeTexto(textoJugada, 0);
+        MotivoIlegalidad motivo = arbitro.consultarMotivoIlegalidad(jugada);
+        if (motivo != null) {
+            conexion.enviar("ILEGAL " + motivo);
+            return;
+        }
+        arbitro.empujar(jugada);
+        ConexionJugador rival = conexion == blancas ? negras : blancas;
+        conexion.enviar("OK " + arbitro.consultarNumeroJugada());
+        rival.enviar("JUGADA " + textoJugada);
+        if (arbitro.estaFinalizadaPartida()) {
+            Color ganador = arbitro.consultarTurnoGanador();
+            String fin = "FIN " + (ganador != null ? ganador : "EMPATE");
+            blancas.enviar(fin);
+            negras.enviar(fin);
+            registrarResultado(ganador);
+            terminar();
+        } else {
+            arbitro.cambiarTurno();
+        }
+    }
+
+    /**
+     * Registra el resultado en la clasificación si hay servicio y ambos
+     * jugadores se han identificado.
+     *
+     * @param ganador color ganador, o null si es empate.
+     */
+    private void registrarResultado(Color ganador) {
+        if (clasificacion == null) {
+            return;
+        }
+        String nombreBlancas = blancas.consultarNombre();
+        String nombreNegras = negras.consultarNombre();
+        if (nombreBlancas != null && nombreNegras != null) {
+            clasificacion.registrar(nombreBlancas, nombreNegras, ganador);
+        }
+    }
+
+    /**
+     * Marca la partida como terminada y avisa al servidor.
+     */
+    private void terminar() {
+        synchronized (this) {
+            terminada = true;
+        }
+        if (difusion != null) {
+            envioPeriodico.cancel(false);
+            difusion.cerrar();
+        }
+        alTerminar.run();
+    }
+
+    /**
+     * Devuelve el color con el que juega una conexión.
+     *
+     * @param conexion la conexión.
+     * @return el color o null si no juega esta partida.
+     */
+    private Color consultarColor(ConexionJugador conexion) {
+        if (conexion == blancas) {
+            return Color.BLANCO;
+        }
+        return conexion == negras && conexion != null ? Color.NEGRO : null;
+    }
+
+    /**
+     * Encola un mensaje y programa el actor si no lo estaba.
+     *
+     * @param mensaje el mensaje a procesar.
+     */
+    private void enviar(Runnable mensaje) {
+        buzon.offer(mensaje);
+        if (programado.compareAndSet(false, true)) {
+            ejecutor.execute(this::procesar);
+        }
+    }
+
+    /**
+     * Procesa mensajes pendientes y vuelve a programarse si quedan más.
+     */
+    private void procesar() {
+        Runnable mensaje;
+        int procesados = 0;
+        while (procesados < MENSAJES_POR_TURNO && (mensaje = buzon.poll()) != null) {
+            try {
+                mensaje.run();
+            } catch (RuntimeException e) {
+                // Un mensaje erróneo no debe detener la partida
+                System.err.println("Error en la partida " + id + ": " + e);
+            }
+            procesados++;
+        }
+        programado.set(false);
+        if (!buzon.isEmpty() && programado.compareAndSet(false, true)) {
+            ejecutor.execute(this::procesar);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ActorPartida [id=" + id + ", tamano=" + tamano + ", terminada=" + terminada + "]";
+    }
+}
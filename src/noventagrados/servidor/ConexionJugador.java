@@ -0,0 +1,505 @@
+package noventagrados.servidor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import noventagrados.clasificacion.Puesto;
+import noventagrados.clasificacion.ServicioClasificacion;
+import noventagrados.modelo.Tablero;
+
+/**
+ * Conexión de un jugador con el servidor de partidas.
+ *
+ * No tiene hilos propios: el hilo del selector del servidor lee sus órdenes
+ * cuando llegan datos, las procesa y reenvía a la partida las que la afectan.
+ * Las respuestas, lleguen del selector o de la partida, solo se encolan y se
+ * avisa al selector, que las escribe en el canal cuando este las admite. Así un
+ * cliente lento no retiene ningún hilo; si acumula más de
+ * {@value #MAXIMO_PENDIENTES} mensajes sin leer, se cierra su conexión.
+ *
+ * Como espectador, los marcos se toman de la suscripción solo cuando se ha
+ * escrito todo lo anterior: si el cliente no lee a tiempo, se llena la cola de
+ * la suscripción, que descarta los lotes y le envía después una instantánea.
+ *
+ * Salvo {@link #enviar(String)} y {@link #consultarNombre()}, los métodos deben
+ * invocarse desde el hilo del selector.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class ConexionJugador {
+    /** Longitud máxima del nombre de un jugador. */
+    private static final int MAXIMO_NOMBRE = 64;
+
+    /** Puestos de la clasificación enviados si no se indica cuántos. */
+    private static final int PUESTOS_POR_DEFECTO = 10;
+
+    /** Mensajes pendientes de envío por encima de los cuales se cierra la conexión. */
+    private static final int MAXIMO_PENDIENTES = 1024;
+
+    /** Longitud máxima de una orden, en bytes. */
+    private static final int MAXIMO_ORDEN = 1024;
+
+    /** Tamaño inicial del búfer de escritura, que crece si un mensaje no cabe. */
+    private static final int TAMANO_SALIDA = 2048;
+
+    private final SocketChannel canal;
+    private final ServidorPartidas servidor;
+    private final ByteBuffer entrada;
+    private final BlockingQueue<byte[]> pendientes;
+    private final AtomicBoolean avisada;
+    private volatile boolean cerrada;
+    private volatile ActorPartida partida;
+    private volatile String nombre;
+
+    // Respuesta a MIRAR, publicada desde el hilo de la partida
+    private volatile boolean suscripcionResuelta;
+    private volatile SuscripcionEspectador suscripcionNueva;
+
+    // Estado accedido únicamente desde el hilo del selector
+    private SelectionKey clave;
+    private ByteBuffer salida;
+    private byte[] lineaRetenida;
+    private byte[] marcoRetenido;
+    private SuscripcionEspectador suscripcion;
+    private long idMirada;
+    private boolean esperandoSuscripcion;
+    private boolean terminando;
+    private boolean finalizada;
+
+    /**
+     * Crea la conexión sobre un canal aceptado en modo no bloqueante.
+     *
+     * @param canal    canal del cliente.
+     * @param servidor servidor que aloja las partidas.
+     */
+    public ConexionJugador(SocketChannel canal, ServidorPartidas servidor) {
+        this.canal = canal;
+        this.servidor = servidor;
+        this.entrada = ByteBuffer.allocate(MAXIMO_ORDEN);
+        this.salida = ByteBuffer.allocate(TAMANO_SALIDA).flip();
+        this.pendientes = new ArrayBlockingQueue<>(MAXIMO_PENDIENTES);
+        this.avisada = new AtomicBoolean();
+    }
+
+    /**
+     * Registra el canal en el selector para empezar a leer órdenes.
+     *
+     * @param selector selector del servidor.
+     * @throws IOException si no se puede registrar.
+     */
+    void registrar(Selector selector) throws IOException {
+        clave = canal.register(selector, SelectionKey.OP_READ, this);
+    }
+
+    /**
+     * Lee los datos disponibles, procesa las órdenes completas y escribe las
+     * respuestas que quepan. El final de la entrada equivale a {@code SALIR}.
+     *
+     * @throws IOException si falla el canal.
+     */
+    void leer() throws IOException {
+        if (canal.read(entrada) < 0) {
+            terminar();
+        } else {
+            procesarEntrada();
+        }
+        escribir();
+    }
+
+    /**
+     * Escribe lo pendiente mientras el canal lo admita y ajusta el interés en
+     * el selector: escritura mientras quede algo por enviar y lectura salvo
+     * mientras se espera una suscripción o tras la última orden. Cierra la
+     * conexión cuando ha terminado y no queda nada por enviar.
+     *
+     * @throws IOException si falla el canal.
+     */
+    void escribir() throws IOException {
+        while (salida.hasRemaining() || llenarSalida()) {
+            canal.write(salida);
+            if (salida.hasRemaining()) {
+                break;
+            }
+        }
+        if (finalizada) {
+            return;
+        }
+        if (terminando && !salida.hasRemaining() && suscripcion == null) {
+            cerrar();
+            return;
+        }
+        int interes = salida.hasRemaining() ? SelectionKey.OP_WRITE : 0;
+        if (!terminando && !esperandoSuscripcion) {
+            interes |= SelectionKey.OP_READ;
+        }
+        clave.interestOps(interes);
+    }
+
+    /**
+     * Atiende un aviso de otro hilo: hay mensajes o marcos nuevos, ha llegado la
+     * respuesta a {@code MIRAR} o se ha pedido cerrar la conexión.
+     *
+     * @throws IOException si falla el canal.
+     */
+    void atenderAviso() throws IOException {
+        avisada.set(false);
+        if (finalizada) {
+            // La suscripción pudo resolverse después del cierre
+            SuscripcionEspectador tardia = suscripcionNueva;
+            if (tardia != null) {
+                suscripcionNueva = null;
+                tardia.cancelar();
+            }
+            return;
+        }
+        if (cerrada) {
+            cerrar();
+            return;
+        }
+        if (esperandoSuscripcion && suscripcionResuelta) {
+            empezarAMirar();
+        }
+        escribir();
+    }
+
+    /**
+     * Extrae las órdenes completas del búfer de entrada y las procesa en orden.
+     * Mientras se espera una suscripción, las órdenes quedan en el búfer; como
+     * espectador, o tras la última orden, se descartan.
+     */
+    private void procesarEntrada() {
+        if (terminando || suscripcion != null) {
+            entrada.clear();
+            return;
+        }
+        int inicio = 0;
+        for (int i = 0; i < entrada.position() && !terminando && !esperandoSuscripcion; i++) {
+            if (entrada.get(i) == '\n') {
+                String orden = new String(entrada.array(), inicio, i - inicio, StandardCharsets.UTF_8);
+                inicio = i + 1;
+                if (procesar(orden.trim())) {
+                    terminar();
+                }
+            }
+        }
+        entrada.flip().position(inicio);
+        entrada.compact();
+        if (!entrada.hasRemaining() && !terminando && !esperandoSuscripcion) {
+            enviar("ERROR orden demasiado larga");
+            terminar();
+        }
+    }
+
+    /**
+     * Rellena el búfer de escritura con las líneas pendientes y, cuando no queda
+     * ninguna, con los marcos de la suscripción, precedidos de su longitud.
+     *
+     * @return true si hay algo que escribir.
+     */
+    private boolean llenarSalida() {
+        salida.clear();
+        byte[] linea;
+        while ((linea = lineaRetenida != null ? lineaRetenida : pendientes.poll()) != null) {
+            lineaRetenida = null;
+            if (!reservar(linea.length)) {
+                lineaRetenida = linea;
+                break;
+            }
+            salida.put(linea);
+        }
+        byte[] marco;
+        while (lineaRetenida == null && suscripcion != null
+                && (marco = marcoRetenido != null ? marcoRetenido : suscripcion.tomar()) != null) {
+            marcoRetenido = null;
+            if (!reservar(Integer.BYTES + marco.length)) {
+                marcoRetenido = marco;
+                break;
+            }
+            salida.putInt(marco.length).put(marco);
+            if (marco == SuscripcionEspectador.FIN) {
+                suscripcion = null;
+                terminar();
+            }
+        }
+        salida.flip();
+        return salida.hasRemaining();
+    }
+
+    /**
+     * Comprueba si caben los bytes indicados en el búfer de escritura; si no
+     * caben ni estando vacío, lo sustituye por uno del tamaño necesario.
+     *
+     * @param bytes bytes que se van a escribir.
+     * @return true si caben.
+     */
+    private boolean reservar(int bytes) {
+        if (bytes <= salida.remaining()) {
+            return true;
+        }
+        if (salida.position() > 0) {
+            return false;
+        }
+        salida = ByteBuffer.allocate(bytes);
+        return true;
+    }
+
+    /**
+     * Procesa una orden del protocolo.
+     *
+     * @param orden línea recibida sin espacios en los extremos.
+     * @return true si la conexión debe cerrarse.
+     */
+    private boolean procesar(String orden) {
+        ActorPartida actual = partida;
+        if (orden.startsWith("JUGAR ") && actual != null) {
+            actual.jugar(this, orden.substring("JUGAR ".length()).trim());
+        } else if (orden.equals("TABLERO") && actual != null) {
+            actual.enviarTablero(this);
+        } else if (orden.equals("NUEVA") || orden.startsWith("NUEVA ")) {
+            if (actual != null) {
+                enviar("ERROR ya estás en una partida");
+            } else {
+                crearPartida(orden.substring("NUEVA".length()).trim());
+            }
+        } else if (orden.startsWith("MIRAR ") && actual == null) {
+            mirar(orden.substring("MIRAR ".length()).trim());
+        } else if (orden.startsWith("UNIRSE ")) {
+            unirse(orden.substring("UNIRSE ".length()).trim());
+        } else if (orden.startsWith("NOMBRE ")) {
+            identificar(orden.substring("NOMBRE ".length()).trim());
+        } else if (orden.equals("CLASIFICACION") || orden.startsWith("CLASIFICACION ")) {
+            enviarClasificacion(orden.substring("CLASIFICACION".length()).trim());
+        } else if (orden.equals("SALIR")) {
+            return true;
+        } else if (!orden.isEmpty()) {
+            enviar("ERROR orden desconocida");
+        }
+        return false;
+    }
+
+    /**
+     * Crea una partida y sienta en ella a este jugador.
+     *
+     * @param textoTamano tamaño del tablero, o cadena vacía para el tamaño por defecto.
+     */
+    private void crearPartida(String textoTamano) {
+        try {
+            int tamano = textoTamano.isEmpty() ? Tablero.TAMANO_POR_DEFECTO : Integer.parseInt(textoTamano);
+            sentar(servidor.crearPartida(tamano));
+        } catch (IllegalArgumentException e) {
+            enviar("ERROR tamaño no válido");
+        }
+    }
+
+    /**
+     * Sienta a este jugador en una partida existente.
+     *
+     * @param textoId identificador de la partida.
+     */
+    private void unirse(String textoId) {
+        ActorPartida buscada = null;
+        try {
+            buscada = servidor.buscarPartida(Long.parseLong(textoId));
+        } catch (NumberFormatException e) {
+            // Se informa como partida inexistente
+        }
+        if (partida != null) {
+            enviar("ERROR ya estás en una partida");
+        } else if (buscada == null) {
+            enviar("ERROR partida inexistente");
+        } else {
+            sentar(buscada);
+        }
+    }
+
+    /**
+     * Ocupa un asiento en una partida y, si lo consigue, la asocia a la conexión
+     * antes de procesar la siguiente orden. La partida envía la respuesta
+     * {@code PARTIDA} al sentar al jugador.
+     *
+     * @param buscada la partida.
+     */
+    private void sentar(ActorPartida buscada) {
+        if (buscada.sentar(this) == null) {
+            enviar("ERROR partida completa");
+        } else {
+            partida = buscada;
+        }
+    }
+
+    /**
+     * Da nombre al jugador para registrar sus resultados en la clasificación.
+     * Solo puede hacerse antes de sentarse en una partida.
+     *
+     * @param texto nombre del jugador, sin espacios.
+     */
+    private void identificar(String texto) {
+        if (partida != null) {
+            enviar("ERROR ya estás en una partida");
+        } else if (texto.isEmpty() || texto.length() > MAXIMO_NOMBRE
+                || texto.chars().anyMatch(Character::isWhitespace)) {
+            enviar("ERROR nombre no válido");
+        } else {
+            nombre = texto;
+            enviar("NOMBRE " + texto);
+        }
+    }
+
+    /**
+     * Envía los primeros puestos de la clasificación en una línea con la
+     * posición, el nombre y la valoración de cada uno.
+     *
+     * @param textoCantidad número de puestos, o cadena vacía para {@value #PUESTOS_POR_DEFECTO}.
+     */
+    private void enviarClasificacion(String textoCantidad) {
+        ServicioClasificacion servicio = servidor.consultarClasificacion();
+        if (servicio == null) {
+            enviar("ERROR clasificación no disponible");
+            return;
+        }
+        int cantidad;
+        try {
+            cantidad = textoCantidad.isEmpty() ? PUESTOS_POR_DEFECTO : Integer.parseInt(textoCantidad);
+        } catch (NumberFormatException e) {
+            enviar("ERROR cantidad no válida");
+            return;
+        }
+        List<Puesto> puestos = servicio.consultarClasificacion().consultarPrimeros(cantidad);
+        StringBuilder sb = new StringBuilder("CLASIFICACION ").append(puestos.size());
+        for (Puesto puesto : puestos) {
+            sb.append(' ').append(puesto.posicion()).append(' ').append(puesto.nombre()).append(' ')
+                    .append(Math.round(puesto.valoracion()));
+        }
+        enviar(sb.toString());
+    }
+
+    /**
+     * Consulta el nombre con el que se ha identificado el jugador.
+     *
+     * @return el nombre, o null si no se ha identificado.
+     */
+    public String consultarNombre() {
+        return nombre;
+    }
+
+    /**
+     * Pide seguir una partida como espectador. Hasta que llega la suscripción no
+     * se procesan más órdenes; después, la conexión solo envía marcos binarios
+     * hasta que termina la partida o el cliente se desconecta.
+     *
+     * @param textoId identificador de la partida.
+     */
+    private void mirar(String textoId) {
+        ActorPartida buscada = null;
+        try {
+            buscada = servidor.buscarPartida(Long.parseLong(textoId));
+        } catch (NumberFormatException e) {
+            // Se informa como partida inexistente
+        }
+        if (buscada == null) {
+            enviar("ERROR partida inexistente");
+            return;
+        }
+        idMirada = buscada.consultarId();
+        esperandoSuscripcion = true;
+        suscripcionResuelta = false;
+        suscripcionNueva = null;
+        buscada.suscribir(this::avisar).whenComplete((nueva, error) -> {
+            suscripcionNueva = nueva;
+            suscripcionResuelta = true;
+            avisar();
+        });
+    }
+
+    /**
+     * Pasa a espectador con la suscripción recibida, o informa del error y sigue
+     * con las órdenes pendientes si la partida ya no existía.
+     */
+    private void empezarAMirar() {
+        esperandoSuscripcion = false;
+        SuscripcionEspectador nueva = suscripcionNueva;
+        suscripcionNueva = null;
+        if (nueva == null) {
+            enviar("ERROR partida inexistente");
+            procesarEntrada();
+        } else {
+            suscripcion = nueva;
+            enviar("MIRANDO " + idMirada);
+            entrada.clear();
+        }
+    }
+
+    /**
+     * Encola una línea para el cliente sin esperar a que se escriba y avisa al
+     * selector. Puede invocarse desde cualquier hilo. Si el cliente acumula
+     * demasiados mensajes sin leer, se cierra la conexión.
+     *
+     * @param linea texto de la línea sin salto de línea.
+     */
+    public void enviar(String linea) {
+        if (cerrada) {
+            return;
+        }
+        if (!pendientes.offer((linea + '\n').getBytes(StandardCharsets.UTF_8))) {
+            cerrada = true;
+            pendientes.clear();
+        }
+        avisar();
+    }
+
+    /**
+     * Pide al selector que atienda la conexión, salvo si ya tiene un aviso pendiente.
+     */
+    private void avisar() {
+        if (avisada.compareAndSet(false, true)) {
+            servidor.avisar(this);
+        }
+    }
+
+    /**
+     * Deja de procesar órdenes, abandona la partida y cancela la suscripción;
+     * la conexión se cierra cuando termina de enviar lo pendiente.
+     */
+    private void terminar() {
+        if (terminando) {
+            return;
+        }
+        terminando = true;
+        ActorPartida actual = partida;
+        if (actual != null) {
+            actual.abandonar(this);
+        }
+        if (suscripcion != null) {
+            suscripcion.cancelar();
+            suscripcion = null;
+            marcoRetenido = null;
+        }
+    }
+
+    /**
+     * Cierra el canal ignorando errores y descarta los mensajes pendientes.
+     */
+    void cerrar() {
+        if (finalizada) {
+            return;
+        }
+        terminar();
+        finalizada = true;
+        cerrada = true;
+        pendientes.clear();
+        try {
+            canal.close();
+        } catch (IOException e) {
+            // Ya estaba cerrado
+        }
+    }
+}
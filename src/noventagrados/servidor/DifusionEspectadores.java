@@ -0,0 +1,236 @@
+package noventagrados.servidor;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import noventagrados.control.Arbitro;
+import noventagrados.control.OyenteArbitro;
+import noventagrados.modelo.Jugada;
+import noventagrados.modelo.Pieza;
+import noventagrados.modelo.Tablero;
+import noventagrados.util.Color;
+import noventagrados.util.Coordenada;
+import noventagrados.util.TipoPieza;
+
+/**
+ * Difusión de una partida a sus espectadores mediante cambios compactos.
+ *
+ * Cada jugada aplicada se codifica como un cambio de pocos bytes con las celdas
+ * modificadas de la línea del empuje y las piezas guardadas en las cajas. Los
+ * cambios se acumulan y, en cada {@link #publicar()}, se escriben una sola vez
+ * en un marco que se entrega por referencia a todos los suscriptores. Los
+ * suscriptores lentos reciben una instantánea completa en vez de acumular marcos.
+ *
+ * Formato de los marcos (enteros en orden de red):
+ * <ul>
+ * <li>Lote: {@code 'D'}, secuencia (long), número de cambios (int) y, por cada
+ * cambio, número de jugada (int), origen, destino, número de celdas modificadas
+ * y pares (celda, código), número de piezas guardadas y sus códigos (bytes).</li>
+ * <li>Instantánea: {@code 'S'}, secuencia (long), tamaño, turno y un código por celda.</li>
+ * <li>Fin: {@code 'F'}.</li>
+ * </ul>
+ * Las celdas se numeran por filas ({@code fila * tamaño + columna}) y los códigos
+ * de pieza son 0 vacía, 1 peón blanco, 2 reina blanca, 3 peón negro y 4 reina negra.
+ *
+ * Salvo {@link #suscribir(Runnable)}, todos los métodos deben invocarse desde el hilo
+ * que modifica el árbitro (el de la partida).
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class DifusionEspectadores implements OyenteArbitro {
+    /** Tipo de marco: lote de cambios. */
+    static final byte MARCO_LOTE = 'D';
+
+    /** Tipo de marco: instantánea. */
+    static final byte MARCO_INSTANTANEA = 'S';
+
+    /** Tipo de marco: fin de la difusión. */
+    static final byte MARCO_FIN = 'F';
+
+    /** Marcos pendientes admitidos por suscriptor antes de pasar a instantánea. */
+    private static final int CAPACIDAD_SUSCRIPCION = 32;
+
+    private final Arbitro arbitro;
+    private final int tamano;
+    private final byte[] espejo;
+    private final byte[] guardadas;
+    private final List<SuscripcionEspectador> suscripciones;
+    private ByteBuffer pendiente;
+    private int cambiosPendientes;
+    private int numeroGuardadas;
+    private long secuencia;
+
+    /**
+     * Crea la difusión de una partida y la registra como oyente de su árbitro.
+     *
+     * @param arbitro árbitro de la partida.
+     */
+    public DifusionEspectadores(Arbitro arbitro) {
+        this.arbitro = arbitro;
+        Tablero tablero = arbitro.consultarTablero();
+        this.tamano = tablero.consultarNumeroFilas();
+        this.espejo = new byte[tamano * tamano];
+        for (int i = 0; i < espejo.length; i++) {
+            espejo[i] = codificar(tablero.consultarCelda(new Coordenada(i / tamano, i % tamano)).consultarPieza());
+        }
+        this.guardadas = new byte[2 * tamano];
+        this.suscripciones = new CopyOnWriteArrayList<>();
+        this.pendiente = ByteBuffer.allocate(256);
+        arbitro.registrarOyente(this);
+    }
+
+    /**
+     * Añade un espectador. Puede invocarse desde cualquier hilo; la primera
+     * entrega que reciba será una instantánea.
+     *
+     * @param aviso acción que se ejecuta tras cada entrega a la suscripción.
+     * @return la suscripción.
+     */
+    public SuscripcionEspectador suscribir(Runnable aviso) {
+        SuscripcionEspectador suscripcion = new SuscripcionEspectador(CAPACIDAD_SUSCRIPCION, aviso);
+        suscripciones.add(suscripcion);
+        return suscripcion;
+    }
+
+    /**
+     * Consulta el número de espectadores.
+     *
+     * @return el número de suscripciones activas.
+     */
+    public int contarEspectadores() {
+        return suscripciones.size();
+    }
+
+    @Override
+    public void alGuardarEnCaja(Pieza pieza) {
+        if (numeroGuardadas < guardadas.length) {
+            guardadas[numeroGuardadas++] = codificar(pieza);
+        }
+    }
+
+    @Override
+    public void alAplicarJugada(Jugada jugada, int numeroJugada) {
+        Coordenada origen = jugada.origen().consultarCoordenada();
+        Coordenada destino = jugada.destino().consultarCoordenada();
+        asegurarEspacio(8 + 2 * tamano * 2 + numeroGuardadas);
+        pendiente.putInt(numeroJugada);
+        pendiente.put((byte) indice(origen.fila(), origen.columna()));
+        pendiente.put((byte) indice(destino.fila(), destino.columna()));
+        int posicionContador = pendiente.position();
+        pendiente.put((byte) 0);
+        int modificadas = 0;
+        // Solo cambian celdas de la línea del empuje
+        boolean horizontal = origen.fila() == destino.fila();
+        for (int i = 0; i < tamano; i++) {
+            int fila = horizontal ? origen.fila() : i;
+            int columna = horizontal ? i : origen.columna();
+            int celda = indice(fila, columna);
+            byte codigo = codificar(arbitro.consultarCelda(new Coordenada(fila, columna)).consultarPieza());
+            if (codigo != espejo[celda]) {
+                espejo[celda] = codigo;
+                pendiente.put((byte) celda).put(codigo);
+                modificadas++;
+            }
+        }
+        pendiente.put(posicionContador, (byte) modificadas);
+        pendiente.put((byte) numeroGuardadas);
+        pendiente.put(guardadas, 0, numeroGuardadas);
+        numeroGuardadas = 0;
+        cambiosPendientes++;
+    }
+
+    /**
+     * Publica los cambios acumulados en un marco compartido y entrega
+     * instantáneas a los suscriptores que lo necesiten. Se invoca una vez por
+     * intervalo de envío.
+     */
+    public void publicar() {
+        suscripciones.removeIf(SuscripcionEspectador::estaCancelada);
+        byte[] instantanea = null;
+        byte[] lote = null;
+        if (cambiosPendientes > 0) {
+            secuencia++;
+            lote = new byte[1 + 8 + 4 + pendiente.position()];
+            ByteBuffer.wrap(lote).put(MARCO_LOTE).putLong(secuencia).putInt(cambiosPendientes)
+                    .put(pendiente.array(), 0, pendiente.position());
+            pendiente.clear();
+            cambiosPendientes = 0;
+        }
+        for (SuscripcionEspectador suscripcion : suscripciones) {
+            if (suscripcion.necesitaInstantanea()) {
+                if (instantanea == null) {
+                    instantanea = crearInstantanea();
+                }
+                suscripcion.entregarInstantanea(instantanea);
+            } else if (lote != null) {
+                suscripcion.ofrecer(lote);
+            }
+        }
+    }
+
+    /**
+     * Publica lo pendiente y envía el marco de fin a todos los suscriptores.
+     */
+    public void cerrar() {
+        publicar();
+        arbitro.eliminarOyente(this);
+        for (SuscripcionEspectador suscripcion : suscripciones) {
+            suscripcion.finalizar();
+        }
+        suscripciones.clear();
+    }
+
+    /**
+     * Crea el marco con el estado completo de la partida.
+     *
+     * @return la instantánea.
+     */
+    private byte[] crearInstantanea() {
+        Color turno = arbitro.consultarTurno();
+        ByteBuffer marco = ByteBuffer.allocate(1 + 8 + 2 + espejo.length);
+        marco.put(MARCO_INSTANTANEA).putLong(secuencia).put((byte) tamano)
+                .put((byte) (turno == null ? 0 : turno.ordinal() + 1)).put(espejo);
+        return marco.array();
+    }
+
+    /**
+     * Amplía el búfer de cambios pendientes si no caben los bytes indicados.
+     *
+     * @param bytes bytes que se van a escribir.
+     */
+    private void asegurarEspacio(int bytes) {
+        if (pendiente.remaining() < bytes) {
+            ByteBuffer mayor = ByteBuffer.allocate(Math.max(pendiente.capacity() * 2, pendiente.position() + bytes));
+            pendiente.flip();
+            mayor.put(pendiente);
+            pendiente = mayor;
+        }
+    }
+
+    /**
+     * Calcula el número de celda.
+     *
+     * @param fila    fila.
+     * @param columna columna.
+     * @return índice por filas.
+     */
+    private int indice(int fila, int columna) {
+        return fila * tamano + columna;
+    }
+
+    /**
+     * Codifica una pieza en un byte.
+     *
+     * @param pieza la pieza o null.
+     * @return 0 vacía, 1 peón blanco, 2 reina blanca, 3 peón negro, 4 reina negra.
+     */
+    static byte codificar(Pieza pieza) {
+        if (pieza == null) {
+            return 0;
+        }
+        int codigo = pieza.consultarTipoPieza() == TipoPieza.REINA ? 2 : 1;
+        return (byte) (pieza.consultarColor() == Color.BLANCO ? codigo : codigo + 2);
+    }
+}
@@ -0,0 +1,370 @@
+package noventagrados.servidor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import noventagrados.control.Arbitro;
+import noventagrados.metricas.HistogramaLatencias;
+import noventagrados.modelo.JugadaCompacta;
+import noventagrados.modelo.ListaJugadas;
+import noventagrados.modelo.Tablero;
+import noventagrados.motor.GeneradorJugadas;
+
+/**
+ * Herramienta de carga para {@link ServidorPartidas}: abre miles de jugadores
+ * simulados contra un servidor local, mide la latencia extremo a extremo de
+ * cada jugada y el rendimiento a lo largo del tiempo.
+ *
+ * Cada partida la juegan dos jugadores simulados, cada uno con su propia
+ * conexión y una réplica local del árbitro de la que obtiene jugadas legales al
+ * azar. Antes de cada jugada el jugador espera un tiempo de reflexión según la
+ * distribución elegida. Al terminar una partida, la pareja empieza otra hasta
+ * agotar la duración de la prueba.
+ *
+ * Uso: {@code GeneradorCarga [puerto] [partidas] [segundos] [reflexión] [ms]}
+ * donde reflexión es {@code cero}, {@code constante}, {@code uniforme} o
+ * {@code exponencial} y ms su valor medio. Con el puerto 0 arranca un servidor
+ * propio dentro del mismo proceso.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class GeneradorCarga {
+
+    /**
+     * Distribuciones del tiempo de reflexión entre jugadas.
+     */
+    public enum Reflexion {
+        /** Sin espera. */
+        CERO,
+        /** Siempre la media. */
+        CONSTANTE,
+        /** Uniforme entre cero y el doble de la media. */
+        UNIFORME,
+        /** Exponencial con la media indicada. */
+        EXPONENCIAL;
+
+        /**
+         * Genera un tiempo de reflexión.
+         *
+         * @param mediaMs media en milisegundos.
+         * @return el tiempo en milisegundos.
+         */
+        long generar(long mediaMs) {
+            ThreadLocalRandom azar = ThreadLocalRandom.current();
+            switch (this) {
+            case CONSTANTE:
+                return mediaMs;
+            case UNIFORME:
+                return mediaMs == 0 ? 0 : azar.nextLong(2 * mediaMs + 1);
+            case EXPONENCIAL:
+                return (long) (-Math.log(1.0 - azar.nextDouble()) * mediaMs);
+            default:
+                return 0;
+            }
+        }
+    }
+
+    /** Espera máxima por una respuesta del servidor antes de dar la conexión por fallida. */
+    private static final int ESPERA_RESPUESTA_MS = 10_000;
+
+    private final int puerto;
+    private final int partidas;
+    private final long duracionMs;
+    private final Reflexion reflexion;
+    private final long reflexionMediaMs;
+    private final HistogramaLatencias latencias;
+    private volatile HistogramaLatencias latenciasIntervalo;
+    private final LongAdder jugadas;
+    private final LongAdder partidasTerminadas;
+    private final LongAdder errores;
+    private volatile boolean terminar;
+
+    /**
+     * Configura una prueba de carga.
+     *
+     * @param puerto           puerto del servidor local.
+     * @param partidas         partidas simultáneas (dos jugadores por partida).
+     * @param duracionMs       duración de la prueba.
+     * @param reflexion        distribución del tiempo de reflexión.
+     * @param reflexionMediaMs media del tiempo de reflexión.
+     */
+    public GeneradorCarga(int puerto, int partidas, long duracionMs, Reflexion reflexion, long reflexionMediaMs) {
+        this.puerto = puerto;
+        this.partidas = partidas;
+        this.duracionMs = duracionMs;
+        this.reflexion = reflexion;
+        this.reflexionMediaMs = reflexionMediaMs;
+        this.latencias = new HistogramaLatencias();
+        this.latenciasIntervalo = new HistogramaLatencias();
+        this.jugadas = new LongAdder();
+        this.partidasTerminadas = new LongAdder();
+        this.errores = new LongAdder();
+    }
+
+    /**
+     * Punto de entrada.
+     *
+     * @param args puerto, partidas, segundos, reflexión y media en ms (todos opcionales).
+     * @throws Exception si falla la prueba.
+     */
+    public static void main(String[] args) throws Exception {
+        int puerto = args.length > 0 ? Integer.parseInt(args[0]) : ServidorPartidas.PUERTO_POR_DEFECTO;
+        int partidas = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        long segundos = args.length > 2 ? Long.parseLong(args[2]) : 30;
+        Reflexion reflexion = args.length > 3 ? Reflexion.valueOf(args[3].toUpperCase()) : Reflexion.EXPONENCIAL;
+        long media = args.length > 4 ? Long.parseLong(args[4]) : 100;
+
+        ServidorPartidas propio = null;
+        if (puerto == 0) {
+            propio = new ServidorPartidas(0);
+            puerto = propio.consultarPuerto();
+            ServidorPartidas servidor = propio;
+            Thread hilo = new Thread(servidor::atender, "servidor-partidas");
+            hilo.setDaemon(true);
+            hilo.start();
+        }
+        try {
+            new GeneradorCarga(puerto, partidas, segundos * 1000, reflexion, media).ejecutar();
+        } finally {
+            if (propio != null) {
+                propio.close();
+            }
+        }
+    }
+
+    /**
+     * Ejecuta la prueba, mostrando cada segundo el rendimiento y los percentiles
+     * de las jugadas de ese segundo, y al final los de toda la prueba.
+     *
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public void ejecutar() throws InterruptedException {
+        ExecutorService ejecutor = Hilos.crearEjecutorPorTarea("jugador-simulado");
+        CountDownLatch finalizados = new CountDownLatch(partidas);
+        for (int i = 0; i < partidas; i++) {
+            ejecutor.execute(() -> {
+                try {
+                    while (!terminar) {
+                        jugarPartida(ejecutor);
+                    }
+                } catch (IOException | InterruptedException e) {
+                    errores.increment();
+                } finally {
+                    finalizados.countDown();
+                }
+            });
+        }
+
+        long inicio = System.nanoTime();
+        long anteriores = 0;
+        System.out.println("segundo\tjugadas/s\tpartidas\tp50(us)\tp99(us)");
+        for (int segundo = 1; segundo * 1000L <= duracionMs; segundo++) {
+            Thread.sleep(Math.max(0, inicio / 1_000_000L + segundo * 1000L - System.nanoTime() / 1_000_000L));
+            long total = jugadas.sum();
+            HistogramaLatencias intervalo = latenciasIntervalo;
+            latenciasIntervalo = new HistogramaLatencias();
+            System.out.printf("%d\t%d\t%d\t%d\t%d%n", segundo, total - anteriores, partidasTerminadas.sum(),
+                    intervalo.consultarPercentil(50) / 1000, intervalo.consultarPercentil(99) / 1000);
+            anteriores = total;
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        terminar = true;
+        finalizados.await(30, TimeUnit.SECONDS);
+        ejecutor.shutdownNow();
+
+        System.out.printf("Jugadas: %d (%.0f/s)  Partidas terminadas: %d  Errores: %d%n", jugadas.sum(),
+                jugadas.sum() / segundos, partidasTerminadas.sum(), errores.sum());
+        System.out.printf("Latencia (us) p50=%d p90=%d p99=%d p99.9=%d max=%d%n", latencias.consultarPercentil(50) / 1000,
+                latencias.consultarPercentil(90) / 1000, latencias.consultarPercentil(99) / 1000,
+                latencias.consultarPercentil(99.9) / 1000, latencias.consultarMaximo() / 1000);
+    }
+
+    /**
+     * Juega una partida completa con dos jugadores simulados; este hilo lleva las
+     * blancas y lanza otro para las negras.
+     *
+     * @param ejecutor ejecutor donde lanzar el jugador de negras.
+     * @throws IOException          si falla la conexión.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    private void jugarPartida(ExecutorService ejecutor) throws IOException, InterruptedException {
+        try (JugadorSimulado blancas = new JugadorSimulado()) {
+            String respuesta = blancas.pedir("NUEVA");
+            String id = respuesta.split(" ")[1];
+            CountDownLatch negrasTerminadas = new CountDownLatch(1);
+            ejecutor.execute(() -> {
+                try (JugadorSimulado negras = new JugadorSimulado()) {
+                    if (!negras.pedir("UNIRSE " + id).startsWith("PARTIDA")) {
+                        // Al terminar la prueba las blancas pueden salir antes de que lleguen las negras
+                        if (!terminar) {
+                            errores.increment();
+                        }
+                        return;
+                    }
+                    negras.jugar(false);
+                } catch (IOException | InterruptedException e) {
+                    errores.increment();
+                } finally {
+                    negrasTerminadas.countDown();
+                }
+            });
+            blancas.jugar(true);
+            negrasTerminadas.await();
+            partidasTerminadas.increment();
+        }
+    }
+
+    /**
+     * Jugador simulado con su conexión y su réplica de la partida.
+     */
+    private final class JugadorSimulado implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader lector;
+        private final Writer escritor;
+        private final Arbitro replica;
+        private final ListaJugadas legales;
+
+        /**
+         * Conecta con el servidor.
+         *
+         * @throws IOException si no se puede conectar.
+         */
+        JugadorSimulado() throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), puerto);
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(ESPERA_RESPUESTA_MS);
+            lector = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            escritor = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            replica = new Arbitro(new Tablero());
+            replica.colocarPiezasConfiguracionInicial();
+            legales = new ListaJugadas();
+        }
+
+        /**
+         * Envía una orden y espera la primera línea de respuesta.
+         *
+         * @param orden orden del protocolo.
+         * @return la respuesta.
+         * @throws IOException si falla la conexión o se cierra.
+         */
+        String pedir(String orden) throws IOException {
+            enviar(orden);
+            return leer();
+        }
+
+        /**
+         * Envía una orden sin esperar respuesta.
+         *
+         * @param orden orden del protocolo.
+         * @throws IOException si falla la conexión.
+         */
+        void enviar(String orden) throws IOException {
+            escritor.write(orden);
+            escritor.write('\n');
+            escritor.flush();
+        }
+
+        /**
+         * Lee una línea del servidor.
+         *
+         * @return la línea.
+         * @throws IOException si la conexión se cierra o no llega respuesta a tiempo.
+         */
+        String leer() throws IOException {
+            String linea = lector.readLine();
+            if (linea == null) {
+                throw new IOException("Conexión cerrada por el servidor");
+            }
+            return linea;
+        }
+
+        /**
+         * Juega hasta el final de la partida.
+         *
+         * @param empieza true si este jugador mueve primero.
+         * @throws IOException          si falla la conexión.
+         * @throws InterruptedException si se interrumpe la reflexión.
+         */
+        void jugar(boolean empieza) throws IOException, InterruptedException {
+            boolean miTurno = empieza;
+            while (true) {
+                if (miTurno) {
+                    GeneradorJugadas.generar(replica, legales);
+                    if (legales.estaVacia() || terminar) {
+                        enviar("SALIR");
+                        return;
+                    }
+                    String jugada = JugadaCompacta.aTexto(
+                            legales.consultar(ThreadLocalRandom.current().nextInt(legales.contar())));
+                    Thread.sleep(reflexion.generar(reflexionMediaMs));
+                    long inicio = System.nanoTime();
+                    String respuesta = pedir("JUGAR " + jugada);
+                    while (respuesta.startsWith("ERROR esperando") && !terminar) {
+                        // El rival aún no se ha sentado
+                        Thread.sleep(1);
+                        inicio = System.nanoTime();
+                        respuesta = pedir("JUGAR " + jugada);
+                    }
+                    if (respuesta.startsWith("ERROR esperando")) {
+                        enviar("SALIR");
+                        return;
+                    }
+                    if (!respuesta.startsWith("OK")) {
+                        errores.increment();
+                        return;
+                    }
+                    long latencia = System.nanoTime() - inicio;
+                    latencias.registrar(latencia);
+                    latenciasIntervalo.registrar(latencia);
+                    jugadas.increment();
+                    aplicar(jugada);
+                } else {
+                    String linea = leer();
+                    if (linea.startsWith("JUGADA ")) {
+                        aplicar(linea.substring("JUGADA ".length()));
+                    } else if (linea.startsWith("FIN")) {
+                        return;
+                    }
+                }
+                if (replica.estaFinalizadaPartida()) {
+                    // Se consume el aviso de fin de partida
+                    while (!leer().startsWith("FIN")) {
+                        // Líneas intermedias sin interés
+                    }
+                    return;
+                }
+                miTurno = !miTurno;
+            }
+        }
+
+        /**
+         * Aplica una jugada en la réplica local.
+         *
+         * @param texto jugada en notación "dd-dd".
+         */
+        private void aplicar(String texto) {
+            replica.empujar(JugadaCompacta.desdeTexto(texto, 0));
+            if (!replica.estaFinalizadaPartida()) {
+                replica.cambiarTurno();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
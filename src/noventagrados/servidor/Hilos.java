@@ -0,0 +1,38 @@
+package noventagrados.servidor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Utilidades para crear ejecutores con un hilo por tarea, como el de los
+ * jugadores simulados de {@link GeneradorCarga}.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+final class Hilos {
+
+    /** Oculta el constructor. */
+    private Hilos() {
+    }
+
+    /**
+     * Crea un ejecutor que lanza cada tarea en un hilo propio: un hilo virtual si
+     * la plataforma los ofrece (Java 21 o superior) y, si no, un hilo de una
+     * reserva de hilos demonio.
+     *
+     * @param nombre prefijo del nombre de los hilos de plataforma.
+     * @return el ejecutor.
+     */
+    static ExecutorService crearEjecutorPorTarea(String nombre) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(tarea -> {
+                Thread hilo = new Thread(tarea, nombre);
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package noventagrados.servidor;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import noventagrados.clasificacion.ServicioClasificacion;
+import noventagrados.util.OpcionesLinea;
+
+/**
+ * Servidor sin interfaz que aloja muchas partidas simultáneas y recibe las
+ * jugadas por un protocolo de líneas sobre TCP en la notación "dd-dd".
+ *
+ * Protocolo (una orden por línea):
+ * <ul>
+ * <li>{@code NUEVA [tamaño]}: crea una partida y juega con blancas. Respuesta
+ * {@code PARTIDA <id> BLANCO <tamaño>}.</li>
+ * <li>{@code UNIRSE <id>}: se une a la partida con negras. Respuesta
+ * {@code PARTIDA <id> NEGRO <tamaño>}.</li>
+ * <li>{@code JUGAR dd-dd}: respuesta {@code OK <número de jugada>} o
+ * {@code ILEGAL <motivo>}; el rival recibe {@code JUGADA dd-dd} y, si la partida
+ * termina, ambos reciben {@code FIN <BLANCO|NEGRO|EMPATE>}.</li>
+ * <li>{@code TABLERO}: respuesta {@code TABLERO <turno> <filas>}.</li>
+ * <li>{@code MIRAR <id>}: sigue la partida como espectador. Respuesta
+ * {@code MIRANDO <id>} y, a partir de ahí, marcos binarios precedidos de su
+ * longitud (entero de 4 bytes) con el formato de {@link DifusionEspectadores},
+ * hasta el marco de fin.</li>
+ * <li>{@code NOMBRE <nombre>}: identifica al jugador, antes de sentarse, para
+ * registrar sus resultados en la clasificación. Respuesta {@code NOMBRE <nombre>}.</li>
+ * <li>{@code CLASIFICACION [n]}: primeros n puestos de la clasificación (10 por
+ * defecto). Respuesta {@code CLASIFICACION <k>} seguida de posición, nombre y
+ * valoración de cada puesto.</li>
+ * <li>{@code SALIR}: cierra la conexión; si había partida en curso, el rival gana
+ * ({@code FIN <color> ABANDONO}).</li>
+ * </ul>
+ * Los errores de protocolo se responden con {@code ERROR <descripción>}. Un
+ * jugador solo puede estar sentado en una partida: {@code NUEVA} y
+ * {@code UNIRSE} se rechazan mientras lo esté.
+ *
+ * Todas las conexiones se atienden desde un único hilo con un selector de NIO,
+ * que acepta, lee las órdenes y escribe las respuestas sin bloquearse, de modo
+ * que una conexión no cuesta ningún hilo propio. Cada partida es un
+ * {@link ActorPartida} que se ejecuta en una reserva de hilos compartida; sus
+ * respuestas se encolan en la conexión y avisan al selector para que las envíe.
+ *
+ * Con un {@link ServicioClasificacion}, los resultados de las partidas entre
+ * jugadores identificados se registran en él. Desde la línea de órdenes se
+ * indica con {@code --clasificacion=FICHERO}: se carga si existe, se reajusta y
+ * guarda cada {@value #PERIODO_REAJUSTE_S} segundos y al terminar.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class ServidorPartidas implements AutoCloseable {
+    /** Puerto por defecto. */
+    public static final int PUERTO_POR_DEFECTO = 9090;
+
+    /** Segundos entre reajustes de la clasificación cuando se lanza desde la línea de órdenes. */
+    public static final long PERIODO_REAJUSTE_S = 60;
+
+    /** Opción con el puerto de escucha. */
+    private static final String OPCION_PUERTO = "--puerto";
+
+    /** Opción con el fichero de clasificación. */
+    private static final String OPCION_CLASIFICACION = "--clasificacion";
+
+    /** Uso desde la línea de órdenes. */
+    private static final String USO = "Uso: ServidorPartidas [--puerto=N] [--clasificacion=FICHERO]";
+
+    private final ServerSocketChannel canalServidor;
+    private final Selector selector;
+    private final Queue<ConexionJugador> avisadas;
+    private final CountDownLatch atencionTerminada;
+    private volatile Thread hiloSelector;
+    private final Map<Long, ActorPartida> partidas;
+    private final AtomicLong siguienteId;
+    private final ForkJoinPool ejecutorPartidas;
+    private final ScheduledExecutorService programador;
+    private final ServicioClasificacion clasificacion;
+
+    /**
+     * Crea el servidor escuchando en la interfaz local, sin clasificación.
+     *
+     * @param puerto puerto de escucha; 0 para uno libre cualquiera.
+     * @throws IOException si no se puede abrir el puerto.
+     */
+    public ServidorPartidas(int puerto) throws IOException {
+        this(puerto, null);
+    }
+
+    /**
+     * Crea el servidor escuchando en la interfaz local.
+     *
+     * @param puerto        puerto de escucha; 0 para uno libre cualquiera.
+     * @param clasificacion servicio donde se registran los resultados, o null.
+     * @throws IOException si no se puede abrir el puerto.
+     */
+    public ServidorPartidas(int puerto, ServicioClasificacion clasificacion) throws IOException {
+        this.canalServidor = ServerSocketChannel.open();
+        this.canalServidor.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto), 1024);
+        this.canalServidor.configureBlocking(false);
+        this.selector = Selector.open();
+        this.canalServidor.register(selector, SelectionKey.OP_ACCEPT);
+        this.avisadas = new ConcurrentLinkedQueue<>();
+        this.atencionTerminada = new CountDownLatch(1);
+        this.partidas = new ConcurrentHashMap<>();
+        this.siguienteId = new AtomicLong();
+        this.ejecutorPartidas = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        ScheduledThreadPoolExecutor temporizador = new ScheduledThreadPoolExecutor(1, tarea -> {
+            Thread hilo = new Thread(tarea, "difusion-espectadores");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        temporizador.setRemoveOnCancelPolicy(true);
+        this.programador = temporizador;
+        this.clasificacion = clasificacion;
+    }
+
+    /**
+     * Punto de entrada. Admite como opciones el puerto de escucha y el fichero
+     * de clasificación.
+     *
+     * @param args argumentos de entrada en línea de comandos
+     * @throws IOException si no se puede abrir el puerto o leer la clasificación.
+     */
+    public static void main(String[] args) throws IOException {
+        int puerto;
+        Path fichero;
+        try {
+            OpcionesLinea opciones = new OpcionesLinea(args, OPCION_PUERTO, OPCION_CLASIFICACION);
+            puerto = opciones.consultarEntero(OPCION_PUERTO, PUERTO_POR_DEFECTO);
+            if (puerto < 0 || puerto > 0xFFFF) {
+                throw new IllegalArgumentException("Puerto no válido: " + puerto);
+            }
+            if (!opciones.consultarArgumentos().isEmpty()) {
+                throw new IllegalArgumentException("Argumento no esperado: " + opciones.consultarArgumentos().get(0));
+            }
+            String clasificacion = opciones.consultarTexto(OPCION_CLASIFICACION, null);
+            fichero = clasificacion == null ? null : Paths.get(clasificacion);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USO);
+            return;
+        }
+        ServicioClasificacion clasificacion = null;
+        if (fichero != null) {
+            clasificacion = Files.exists(fichero) ? ServicioClasificacion.cargar(fichero)
+                    : new ServicioClasificacion();
+        }
+        try (ServidorPartidas servidor = new ServidorPartidas(puerto, clasificacion)) {
+            if (clasificacion != null) {
+                ServicioClasificacion servicio = clasificacion;
+                ScheduledThreadPoolExecutor reajustes = new ScheduledThreadPoolExecutor(1, tarea -> {
+                    Thread hilo = new Thread(tarea, "reajuste-clasificacion");
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+                Runnable reajustar = () -> {
+                    try {
+                        servicio.reajustar();
+                        servicio.guardar(fichero);
+                    } catch (IOException e) {
+                        System.err.println("Error guardando la clasificación: " + e.getMessage());
+                    }
+                };
+                reajustes.scheduleWithFixedDelay(reajustar, PERIODO_REAJUSTE_S, PERIODO_REAJUSTE_S, TimeUnit.SECONDS);
+                Runtime.getRuntime().addShutdownHook(new Thread(reajustar, "guardado-clasificacion"));
+            }
+            System.out.println("Servidor de Noventa Grados escuchando en el puerto " + servidor.consultarPuerto());
+            servidor.atender();
+        }
+    }
+
+    /**
+     * Atiende las conexiones desde el hilo actual hasta que se cierra el
+     * servidor; al terminar cierra todas las conexiones abiertas.
+     */
+    public void atender() {
+        hiloSelector = Thread.currentThread();
+        try {
+            while (canalServidor.isOpen()) {
+                ConexionJugador avisada;
+                while ((avisada = avisadas.poll()) != null) {
+                    atender(avisada, null);
+                }
+                selector.select();
+                Iterator<SelectionKey> claves = selector.selectedKeys().iterator();
+                while (claves.hasNext()) {
+                    SelectionKey clave = claves.next();
+                    claves.remove();
+                    if (!clave.isValid()) {
+                        continue;
+                    }
+                    if (clave.isAcceptable()) {
+                        aceptar();
+                    } else {
+                        atender((ConexionJugador) clave.attachment(), clave);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            if (canalServidor.isOpen()) {
+                System.err.println("Error en el selector: " + e.getMessage());
+            }
+        } catch (ClosedSelectorException e) {
+            // Se ha cerrado el servidor
+        } finally {
+            cerrarConexiones();
+            atencionTerminada.countDown();
+        }
+    }
+
+    /**
+     * Pide al hilo del selector que atienda una conexión. Puede invocarse desde
+     * cualquier hilo.
+     *
+     * @param conexion conexión con mensajes o cambios pendientes.
+     */
+    void avisar(ConexionJugador conexion) {
+        avisadas.offer(conexion);
+        // El propio selector recoge los avisos antes de volver a esperar
+        if (Thread.currentThread() != hiloSelector) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Acepta una conexión pendiente y la registra en el selector.
+     */
+    private void aceptar() {
+        try {
+            SocketChannel canal = canalServidor.accept();
+            if (canal == null) {
+                return;
+            }
+            canal.configureBlocking(false);
+            canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            new ConexionJugador(canal, this).registrar(selector);
+        } catch (IOException e) {
+            if (canalServidor.isOpen()) {
+                System.err.println("Error aceptando conexión: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Atiende una conexión preparada o avisada; un fallo del canal o de una
+     * orden cierra solo esa conexión.
+     *
+     * @param conexion la conexión.
+     * @param clave    clave preparada en el selector, o null si se atiende un aviso.
+     */
+    private void atender(ConexionJugador conexion, SelectionKey clave) {
+        try {
+            if (clave == null) {
+                conexion.atenderAviso();
+            } else if (clave.isReadable()) {
+                conexion.leer();
+            } else {
+                conexion.escribir();
+            }
+        } catch (IOException e) {
+            // El cliente ha cerrado la conexión
+            conexion.cerrar();
+        } catch (RuntimeException e) {
+            System.err.println("Error en una conexión: " + e);
+            conexion.cerrar();
+        }
+    }
+
+    /**
+     * Cierra las conexiones registradas en el selector y el propio selector.
+     */
+    private void cerrarConexiones() {
+        try {
+            for (SelectionKey clave : selector.keys()) {
+                if (clave.attachment() instanceof ConexionJugador conexion) {
+                    conexion.cerrar();
+                }
+            }
+            selector.close();
+        } catch (IOException | ClosedSelectorException e) {
+            // Ya estaba cerrado
+        }
+    }
+
+    /**
+     * Crea una partida nueva con la configuración inicial.
+     *
+     * @param tamano tamaño del tablero.
+     * @return la partida creada.
+     * @throws IllegalArgumentException si el tamaño no es válido.
+     */
+    public ActorPartida crearPartida(int tamano) {
+        long id = siguienteId.incrementAndGet();
+        ActorPartida partida = new ActorPartida(id, tamano, ejecutorPartidas, programador, () -> partidas.remove(id),
+                clasificacion);
+        partidas.put(id, partida);
+        return partida;
+    }
+
+    /**
+     * Busca una partida en curso.
+     *
+     * @param id identificador de la partida.
+     * @return la partida o null si no existe o ya ha terminado.
+     */
+    public ActorPartida buscarPartida(long id) {
+        return partidas.get(id);
+    }
+
+    /**
+     * Consulta el número de partidas en curso.
+     *
+     * @return el número de partidas.
+     */
+    public int contarPartidas() {
+        return partidas.size();
+    }
+
+    /**
+     * Consulta el servicio de clasificación del servidor.
+     *
+     * @return el servicio, o null si no registra resultados.
+     */
+    public ServicioClasificacion consultarClasificacion() {
+        return clasificacion;
+    }
+
+    /**
+     * Consulta el puerto en el que escucha el servidor.
+     *
+     * @return el puerto.
+     */
+    public int consultarPuerto() {
+        return canalServidor.socket().getLocalPort();
+    }
+
+    /**
+     * Deja de aceptar conexiones, espera a que el selector cierre las abiertas
+     * y detiene los ejecutores.
+     *
+     * @throws IOException si falla el cierre del canal.
+     */
+    @Override
+    public void close() throws IOException {
+        canalServidor.close();
+        Thread hilo = hiloSelector;
+        if (hilo == null) {
+            selector.close();
+        } else if (hilo != Thread.currentThread()) {
+            selector.wakeup();
+            try {
+                atencionTerminada.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        programador.shutdownNow();
+        ejecutorPartidas.shutdownNow();
+    }
+}
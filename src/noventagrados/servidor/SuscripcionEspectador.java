@@ -0,0 +1,111 @@
+package noventagrados.servidor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Suscripción de un espectador a la difusión de una partida.
+ *
+ * Recibe referencias a los marcos compartidos por todos los suscriptores, sin
+ * copiarlos. Su cola está acotada: si el espectador no consume a tiempo, se
+ * vacía y en el siguiente envío recibe una instantánea completa en lugar de los
+ * lotes de cambios perdidos. Cada entrega ejecuta un aviso para que el
+ * consumidor recoja los marcos con {@link #tomar()} sin esperar por ellos.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class SuscripcionEspectador {
+    /** Marco que indica el final de la difusión. */
+    static final byte[] FIN = { DifusionEspectadores.MARCO_FIN };
+
+    private final BlockingQueue<byte[]> cola;
+    private final Runnable aviso;
+    private volatile boolean resincronizar;
+    private volatile boolean cancelada;
+
+    /**
+     * Crea una suscripción que empieza pidiendo una instantánea.
+     *
+     * @param capacidad número máximo de marcos pendientes.
+     * @param aviso     acción que se ejecuta, en el hilo de la partida, tras cada entrega.
+     */
+    SuscripcionEspectador(int capacidad, Runnable aviso) {
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.aviso = aviso;
+        this.resincronizar = true;
+    }
+
+    /**
+     * Toma el siguiente marco sin esperar. Los marcos son compartidos y no deben modificarse.
+     *
+     * @return el siguiente marco, o null si no hay ninguno pendiente; {@link #FIN}
+     *         indica que la difusión ha terminado.
+     */
+    public byte[] tomar() {
+        return cola.poll();
+    }
+
+    /**
+     * Cancela la suscripción; la difusión dejará de entregarle marcos.
+     */
+    public void cancelar() {
+        cancelada = true;
+        cola.clear();
+    }
+
+    /**
+     * Consulta si la suscripción se ha cancelado.
+     *
+     * @return true si está cancelada.
+     */
+    boolean estaCancelada() {
+        return cancelada;
+    }
+
+    /**
+     * Consulta si la suscripción espera una instantánea.
+     *
+     * @return true si debe resincronizarse.
+     */
+    boolean necesitaInstantanea() {
+        return resincronizar;
+    }
+
+    /**
+     * Entrega un lote de cambios; si no cabe, descarta lo pendiente y pide instantánea.
+     *
+     * @param lote marco compartido.
+     */
+    void ofrecer(byte[] lote) {
+        if (cola.offer(lote)) {
+            aviso.run();
+        } else {
+            cola.clear();
+            resincronizar = true;
+        }
+    }
+
+    /**
+     * Sustituye lo pendiente por una instantánea.
+     *
+     * @param instantanea marco compartido con el estado completo.
+     */
+    void entregarInstantanea(byte[] instantanea) {
+        cola.clear();
+        cola.offer(instantanea);
+        resincronizar = false;
+        aviso.run();
+    }
+
+    /**
+     * Entrega el marco de fin; si la cola está llena, lo pendiente se descarta.
+     */
+    void finalizar() {
+        if (!cola.offer(FIN)) {
+            cola.clear();
+            cola.offer(FIN);
+        }
+        aviso.run();
+    }
+}
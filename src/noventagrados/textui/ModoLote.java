@@ -0,0 +1,283 @@
+package noventagrados.textui;
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import noventagrados.control.Arbitro;
+import noventagrados.control.MotivoIlegalidad;
+import noventagrados.control.ReproductorPartida;
+import noventagrados.modelo.JugadaCompacta;
+import noventagrados.modelo.Tablero;
+import noventagrados.util.Color;
+import noventagrados.util.OpcionesLinea;
+
+/**
+ * Reproducción por lotes de partidas grabadas, sin interacción ni salida por
+ * jugada, para usar el modo texto como oráculo en pruebas de regresión.
+ *
+ * Cada línea de la entrada es una partida: jugadas en notación "dd-dd"
+ * separadas por espacios, aplicadas desde la configuración inicial. Se ignoran
+ * las líneas vacías y las que empiezan por {@code #}. La entrada se lee por
+ * bloques de bytes y se interpreta sin crear cadenas por jugada.
+ *
+ * Por cada partida se escribe una línea con el número de partida, el resultado,
+ * el número de jugadas aplicadas y la posición final (filas separadas por '/',
+ * '-' vacía, mayúsculas blancas y minúsculas negras). Al final se escriben los
+ * totales y el tiempo empleado.
+ *
+ * Uso: {@code ModoLote [--tamano=N] [fichero ...]}; sin ficheros lee la entrada
+ * estándar. Los ficheros se leen uno tras otro como si estuvieran concatenados:
+ * si uno no termina en salto de línea, su última partida continúa en el siguiente.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @since 1.0
+ * @version 1.0
+ */
+public class ModoLote {
+
+	/** Opción de tamaño del tablero. */
+	private static final String OPCION_TAMANO = "--tamano";
+
+	/** Mensaje de uso de la línea de comandos. */
+	private static final String USO = "Uso: ModoLote [--tamano=N] [fichero ...]";
+
+	/** Tamaño del búfer de lectura. */
+	private static final int TAMANO_BUFER = 1 << 16;
+
+	/** Longitud máxima de una palabra; las más largas se consideran jugadas mal formadas. */
+	private static final int MAXIMO_PALABRA = 16;
+
+	/** Salida de resultados. */
+	private final PrintStream salida;
+
+	/** Tamaño del tablero. */
+	private final int tamano;
+
+	/** Búfer de lectura reutilizado. */
+	private final byte[] bufer;
+
+	/** Palabra en curso. */
+	private final char[] palabra;
+
+	/** Vista de la palabra para la notación, sin copiarla. */
+	private final CharBuffer vistaPalabra;
+
+	/** Caracteres de la palabra en curso. */
+	private int longitudPalabra;
+
+	/** Partida en curso, o null si la línea aún no tiene jugadas. */
+	private Arbitro arbitro;
+
+	/** Jugadas aplicadas en la partida en curso. */
+	private int jugadasPartida;
+
+	/** Error de la partida en curso, o null. */
+	private String error;
+
+	/** Si la línea en curso es un comentario. */
+	private boolean comentario;
+
+	/** Número de partidas leídas. */
+	private long partidas;
+
+	/** Número de jugadas aplicadas en total. */
+	private long jugadas;
+
+	/** Número de partidas con error. */
+	private long errores;
+
+	/** Partidas ganadas por cada color, indexadas por ordinal. */
+	private final long[] victorias;
+
+	/** Partidas terminadas sin ganador. */
+	private long empates;
+
+	/**
+	 * Crea un reproductor por lotes.
+	 *
+	 * @param salida flujo de salida de los resultados
+	 * @param tamano tamaño del tablero de las partidas
+	 */
+	public ModoLote(PrintStream salida, int tamano) {
+		this.salida = salida;
+		this.tamano = Tablero.comprobarTamano(tamano);
+		this.bufer = new byte[TAMANO_BUFER];
+		this.palabra = new char[MAXIMO_PALABRA];
+		this.vistaPalabra = CharBuffer.wrap(palabra);
+		this.victorias = new long[Color.values().length];
+	}
+
+	/**
+	 * Método raíz del modo por lotes.
+	 *
+	 * @param args opción de tamaño y ficheros de partidas
+	 * @throws IOException si falla la lectura de la entrada
+	 */
+	public static void main(String[] args) throws IOException {
+		int tamano;
+		List<String> ficheros;
+		try {
+			OpcionesLinea opciones = new OpcionesLinea(args, OPCION_TAMANO);
+			tamano = Tablero.comprobarTamano(opciones.consultarEntero(OPCION_TAMANO, Tablero.TAMANO_POR_DEFECTO));
+			ficheros = opciones.consultarArgumentos();
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USO);
+			return;
+		}
+		PrintStream salida = new PrintStream(new FileOutputStream(FileDescriptor.out), false, StandardCharsets.UTF_8);
+		ModoLote lote = new ModoLote(salida, tamano);
+		long inicio = System.nanoTime();
+		if (ficheros.isEmpty()) {
+			lote.procesar(System.in);
+		}
+		for (String fichero : ficheros) {
+			try (InputStream entrada = new FileInputStream(fichero)) {
+				lote.procesar(entrada);
+			}
+		}
+		lote.terminar();
+		lote.escribirResumen(System.nanoTime() - inicio);
+		salida.flush();
+	}
+
+	/**
+	 * Reproduce las partidas de una entrada. Si la entrada no termina en salto
+	 * de línea, su última partida queda pendiente y continúa en la siguiente
+	 * entrada; {@link #terminar()} la da por terminada.
+	 *
+	 * @param entrada flujo de partidas
+	 * @throws IOException si falla la lectura
+	 */
+	public void procesar(InputStream entrada) throws IOException {
+		int leidos;
+		while ((leidos = entrada.read(bufer)) > 0) {
+			for (int i = 0; i < leidos; i++) {
+				procesarByte(bufer[i]);
+			}
+		}
+	}
+
+	/**
+	 * Termina la partida pendiente de la última entrada, como si esta acabara
+	 * en salto de línea. Debe invocarse tras la última entrada.
+	 */
+	public void terminar() {
+		procesarByte((byte) '\n');
+	}
+
+	/**
+	 * Escribe los totales de todas las partidas procesadas.
+	 *
+	 * @param nanosegundos tiempo empleado
+	 */
+	public void escribirResumen(long nanosegundos) {
+		double segundos = nanosegundos / 1e9;
+		salida.printf("partidas %d jugadas %d errores %d%n", partidas, jugadas, errores);
+		salida.printf("victorias BLANCO %d NEGRO %d empates %d%n", victorias[Color.BLANCO.ordinal()],
+				victorias[Color.NEGRO.ordinal()], empates);
+		salida.printf("tiempo %.3f s, %.0f jugadas/s%n", segundos, segundos > 0 ? jugadas / segundos : 0.0);
+	}
+
+	/**
+	 * Avanza el análisis con un byte de la entrada.
+	 *
+	 * @param b byte leído
+	 */
+	private void procesarByte(byte b) {
+		if (b == '\n' || b == '\r') {
+			terminarPalabra();
+			terminarPartida();
+			comentario = false;
+		} else if (comentario) {
+			return;
+		} else if (b == ' ' || b == '\t') {
+			terminarPalabra();
+		} else if (b == '#' && arbitro == null && longitudPalabra == 0) {
+			comentario = true;
+		} else if (longitudPalabra < MAXIMO_PALABRA) {
+			palabra[longitudPalabra++] = (char) (b & 0xFF);
+		} else {
+			// Palabra demasiado larga: se marca como mal formada sin seguir acumulando
+			longitudPalabra = MAXIMO_PALABRA;
+		}
+	}
+
+	/**
+	 * Aplica la jugada de la palabra en curso a la partida.
+	 */
+	private void terminarPalabra() {
+		if (longitudPalabra == 0) {
+			return;
+		}
+		if (arbitro == null) {
+			arbitro = new Arbitro(new Tablero(tamano));
+			arbitro.colocarPiezasConfiguracionInicial();
+		}
+		if (error == null) {
+			aplicar();
+		}
+		longitudPalabra = 0;
+	}
+
+	/**
+	 * Valida y aplica la palabra en curso como jugada.
+	 */
+	private void aplicar() {
+		if (!ReproductorPartida.esJugada(vistaPalabra, 0, longitudPalabra, tamano)) {
+			error = "jugada " + (jugadasPartida + 1) + " mal formada " + new String(palabra, 0, longitudPalabra);
+			return;
+		}
+		int jugada = JugadaCompacta.desdeTexto(vistaPalabra, 0);
+		MotivoIlegalidad motivo = ReproductorPartida.jugar(arbitro, jugada);
+		if (motivo != null) {
+			error = "jugada " + (jugadasPartida + 1) + " ilegal " + JugadaCompacta.aTexto(jugada) + " " + motivo;
+			return;
+		}
+		jugadasPartida++;
+	}
+
+	/**
+	 * Escribe el resultado de la partida en curso, si la hay, y prepara la siguiente.
+	 */
+	private void terminarPartida() {
+		if (arbitro == null) {
+			return;
+		}
+		partidas++;
+		jugadas += jugadasPartida;
+		String resultado;
+		if (error != null) {
+			errores++;
+			resultado = "ERROR " + error;
+		} else if (arbitro.estaFinalizadaPartida()) {
+			Color ganador = arbitro.consultarTurnoGanador();
+			if (ganador != null) {
+				victorias[ganador.ordinal()]++;
+				resultado = ganador.toString();
+			} else {
+				empates++;
+				resultado = "EMPATE";
+			}
+		} else {
+			resultado = "EN_CURSO";
+		}
+		salida.print(partidas);
+		salida.print(' ');
+		salida.print(resultado);
+		salida.print(' ');
+		salida.print(jugadasPartida);
+		salida.print(' ');
+		salida.println(arbitro.codificarTablero());
+		arbitro = null;
+		jugadasPartida = 0;
+		error = null;
+	}
+}
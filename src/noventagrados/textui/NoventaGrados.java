@@ -1,300 +1,527 @@
-package noventagrados.textui;
-
-import java.util.Scanner;
-
-import noventagrados.control.Arbitro;
-import noventagrados.modelo.Celda;
-import noventagrados.modelo.Jugada;
-import noventagrados.modelo.Tablero;
-import noventagrados.util.Coordenada;
-
-/**
- * Noventa grados en modo texto.
- * 
- * Se abusa del uso del modificador static tanto en atributos como en métodos
- * para comprobar su similitud a variables globales y funciones globales de
- * otros lenguajes.
- * 
- * La programación en este código sigue más el paradigma de programación
- * estructurada en mayor medida que la orientación a objetos.
- * 
- * En algunos casos los métodos estáticos son meros envoltorios o "wrappers" de
- * invocaciones a métodos del árbitro.
- *
- * @author <a href="rmartico@ubu.es">Raúl Marticorena</a>
- * @author Miguel Cuevas Ruiz
- * @since 1.0
- * @version 1.0
- * @see noventagrados.modelo
- * @see noventagrados.control
- * @see noventagrados.util
- */
-public class NoventaGrados {
-
-	/** Tamaño en caracteres de una jugada. */
-	private static final int TAMAÑO_JUGADA = 5;
-
-	/** Posición en el texto de una jugada de la coordenada destino. */
-	private static final int INICIO_COORDENADA_DESTINO = 3;
-
-	/** Texto para interrumpir la partida. */
-	private static final String TEXTO_SALIR = "salir";
-
-	/** Tablero. */
-	private static Tablero tablero;
-
-	/** Árbitro. */
-	private static Arbitro arbitro;
-
-	/** Lector por teclado. */
-	private static Scanner scanner;
-
-	/** Oculta el constructor por defecto. */
-	private NoventaGrados() {
-	}
-
-	/**
-	 * Método raíz con el algoritmo principal en modo texto.
-	 * 
-	 * @param args argumentos de entrada en línea de comandos
-	 */
-	public static void main(String[] args) {
-        inicializarPartida();
-        mostrarMensajeBienvenida();
-        mostrarTablero();
-
-        while (true) {
-            String jugadaTexto = recogerTextoDeJugadaPorTeclado();
-
-            if (comprobarSalir(jugadaTexto)) {
-                finalizarPartida();
-                break;
-            }
-
-            if (!validarFormato(jugadaTexto)) {
-                mostrarErrorEnFormatoDeEntrada();
-                continue;
-            }
-
-            Jugada jugada = extraerJugada(jugadaTexto);
-
-            if (!esLegal(jugada)) {
-                mostrarErrorPorMovimientoIlegal(jugadaTexto);
-                continue;
-            }
-
-            realizarEmpujón(jugada);
-            mostrarTablero();
-
-            if (comprobarFinalizacionPartida()) {
-                mostrarGanador();
-                finalizarPartida();
-                break;
-            }
-
-            cambiarTurnoPartida();
-        }
-    }
-
-	/**
-	 * Inicializa el estado de los elementos de la partida.
-	 */
-	private static void inicializarPartida() {
-		// Inicializaciones
-		tablero = new Tablero();
-		arbitro = new Arbitro(tablero);
-		// Cargar piezas con la configuración inicial...
-		arbitro.colocarPiezasConfiguracionInicial();
-		// Abrir la lectura desde teclado...
-		scanner = new Scanner(System.in);
-	}
-
-	/**
-	 * Recoge el texto de la jugada por teclado.
-	 * 
-	 * @return jugada jugada en formato texto
-	 */
-	private static String recogerTextoDeJugadaPorTeclado() {
-		System.out.print("Introduce jugada turno con piezas de color " + arbitro.consultarTurno() + ": ");
-		return scanner.next();
-	}
-
-	/**
-	 * Comprueba si se quiere finalizar la partida por parte de los usuarios.
-	 * 
-	 * @param jugada jugada en formato texto
-	 * @return true si el usuario introduce salir, false en caso contrario
-	 */
-	private static boolean comprobarSalir(String jugada) {
-		return jugada.equalsIgnoreCase(TEXTO_SALIR);
-	}
-
-	/**
-	 * Valida la corrección del formato de la jugada. Solo comprueba la corrección
-	 * del formato de entrada en cuanto al tablero, no la validez de la jugada en
-	 * cuanto a las reglas del juego.
-	 * 
-	 * La jugada tiene que tener cuatro digitos separados por un guion.
-	 * 
-	 * Otra mejor solución alternativa es el uso de expresiones regulares (se verán
-	 * con más detalle en la asignatura de 3º Procesadores del Lenguaje).
-	 * 
-	 * @param textoJugada a validar
-	 * @return true si el formato de la jugada es correcta según las coordenadas
-	 *         disponibles del tablero
-	 */
-	private static boolean validarFormato(String textoJugada) {
-		// si la longitud es correcta y a la mitad hay un guion...
-		System.out.println(textoJugada.charAt(TAMAÑO_JUGADA / 2));
-		if (textoJugada.length() == TAMAÑO_JUGADA && textoJugada.charAt(TAMAÑO_JUGADA / 2) == '-') {
-			// acabar de validar dígitos en el resto de valores...
-			String origen = textoJugada.substring(0, INICIO_COORDENADA_DESTINO);
-			String destino = textoJugada.substring(INICIO_COORDENADA_DESTINO, TAMAÑO_JUGADA);
-			// comprobar si ambos textos son correctos
-			return esTextoCorrectoParaCoordenada(origen) && esTextoCorrectoParaCoordenada(destino);
-		}
-		return false;
-	}
-
-	/**
-	 * Comprueba que el texto de la coordenada son dos dígitos en el rango [0, 6].
-	 * 
-	 * @param textoCoordenada texto de la coordenada con dos caracteres
-	 * @return true si son dos dígitos entre [0, 6], false en caso contrario
-	 */
-	private static boolean esTextoCorrectoParaCoordenada(String textoCoordenada) {
-		char primerCaracter = textoCoordenada.charAt(0);
-		char segundoCaracter = textoCoordenada.charAt(1);
-		return (primerCaracter >= '0' && primerCaracter <= '6' && segundoCaracter >= '0' && segundoCaracter <= '6');
-	}
-
-	/**
-	 * Extrae la jugada a partir del texto introducido por teclado.
-	 * 
-	 * @param jugadaTexto texto con la jugada
-	 * @return jugada
-	 * @see #extraerCoordenada(String, int, int)
-	 */
-	private static Jugada extraerJugada(String jugadaTexto) {
-		Coordenada coordenadaOrigen = extraerCoordenada(jugadaTexto, 0, INICIO_COORDENADA_DESTINO - 1);
-		Coordenada coordenadaDestino = extraerCoordenada(jugadaTexto, INICIO_COORDENADA_DESTINO, TAMAÑO_JUGADA);
-		Celda origen = tablero.consultarCelda(coordenadaOrigen);
-		Celda destino = tablero.consultarCelda(coordenadaDestino);
-		return new Jugada(origen, destino);
-	}
-
-	/**
-	 * Extrae una coordenada a partir del texto de entrada y de las posiciones
-	 * [incio, fin) indicadas.
-	 * 
-	 * Dada una jugada en texto, extraerá la coordenada origen o destino, en función
-	 * de la posición de inicio y fin dada.
-	 * 
-	 * @param jugada texto en formato notación habitual (e.g. 2013)
-	 * @param inicio posición en el texto a partir del cual leer
-	 * @param fin    posición final - 1, hasta donde leer el texto
-	 * @return coordenada o null, si no es posible extraerla
-	 */
-	private static Coordenada extraerCoordenada(String jugada, int inicio, int fin) {
-		if (jugada.length() != TAMAÑO_JUGADA)
-			return null;
-		String textoExtraido = jugada.substring(inicio, fin);
-		int fila = Integer.parseInt(textoExtraido.substring(0, 1));
-		int columna = Integer.parseInt(textoExtraido.substring(1, 2));
-		return new Coordenada(fila, columna);
-	}
-
-	/**
-	 * Comprueba la legalidad de la jugada.
-	 * 
-	 * @param jugada jugada
-	 * @return true si es legal, false en caso contrario
-	 */
-	private static boolean esLegal(Jugada jugada) {
-		return arbitro.esMovimientoLegal(jugada);
-	}
-
-	/**
-	 * Realizar la jugada completando el movimiento y las capturas correspondientes.
-	 * 
-	 * @param jugada jugada
-	 */
-	private static void realizarEmpujón(Jugada jugada) {
-		arbitro.empujar(jugada);
-	}
-
-	/**
-	 * Cambia el turno de la partida.
-	 */
-	private static void cambiarTurnoPartida() {
-		arbitro.cambiarTurno();
-	}
-
-	/**
-	 * Comprueba si está finalizada la partida.
-	 * 
-	 * @return true si hay victoria de atacante o defensor, false en caso contrario
-	 */
-	private static boolean comprobarFinalizacionPartida() {
-		return arbitro.estaFinalizadaPartida();
-	}
-
-	/**
-	 * Finaliza la partida cerrando recursos abiertos como el teclado.
-	 */
-	private static void finalizarPartida() {
-		System.out.println("Partida finalizada.");
-		scanner.close();
-	}
-
-	/**
-	 * Muestra el mensaje de bienvenida con instrucciones para finalizar la partida.
-	 */
-	private static void mostrarMensajeBienvenida() {
-		System.out.println("Bienvenido al juego de Noventa Grados 1.0");
-		System.out.println(
-				"Introduzca sus jugadas con el formato dd-dd donde d es un dígito en el rango [0, 6] (por ejemplo 00-04 o 65-63).");
-		System.out.println("Para interrumpir la partida introduzca \"salir\".");
-		System.out.println("Disfrute de la partida...");
-	}
-
-	/**
-	 * Muestra la información de error en el formato de entrada, mostrando ejemplos.
-	 */
-	private static void mostrarErrorEnFormatoDeEntrada() {
-		System.out.println();
-		System.out.println("Error en el formato de entrada.");
-		System.out.println(
-				"Se requieren cuadro dígitos en parejas separados por un guion, por ejemplo 04-06 o 62-63, o bien introducir la cadena \"salir\" para finalizar la partida.");
-		System.out.println("Los números estarán siempre en el rango [0,6].");
-	}
-
-	/**
-	 * Informa de la ilegalidad de la jugada intentada.
-	 * 
-	 * @param textoJugada texto de la jugada introducido por teclado
-	 */
-	private static void mostrarErrorPorMovimientoIlegal(String textoJugada) {
-		System.out.printf("%nLa jugada %s es ilegal.%nRevise las reglas del juego.%n", textoJugada);
-	}
-
-	/**
-	 * Muestra el estado del tablero con sus piezas actuales en pantalla.
-	 */
-	private static void mostrarTablero() {
-		System.out.println();
-		System.out.println(tablero.aTexto());
-	}
-
-	/**
-	 * Muestra el turno ganador de la partida en pantalla.
-	 */
-	private static void mostrarGanador() {
-		if (arbitro.estaFinalizadaPartida() && arbitro.consultarTurnoGanador() != null) {
-			System.out.printf("%nHa ganado la partida el turno con piezas de color %s.%n",
-					arbitro.consultarTurnoGanador());
-		} else {
-			System.out.println("\nEmpate con ambas reinas empujadas fuera del tablero.");
-		}
-	}
-}
+package noventagrados.textui;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+
+import noventagrados.control.Arbitro;
+import noventagrados.modelo.Celda;
+import noventagrados.modelo.Jugada;
+import noventagrados.modelo.Tablero;
+import noventagrados.motor.Analisis;
+import noventagrados.motor.Buscador;
+import noventagrados.motor.InformeBusqueda;
+import noventagrados.motor.LimitesBusqueda;
+import noventagrados.motor.Reflexion;
+import noventagrados.util.Color;
+import noventagrados.util.Coordenada;
+
+/**
+ * Noventa grados en modo texto.
+ * 
+ * Se abusa del uso del modificador static tanto en atributos como en métodos
+ * para comprobar su similitud a variables globales y funciones globales de
+ * otros lenguajes.
+ * 
+ * La programación en este código sigue más el paradigma de programación
+ * estructurada en mayor medida que la orientación a objetos.
+ * 
+ * En algunos casos los métodos estáticos son meros envoltorios o "wrappers" de
+ * invocaciones a métodos del árbitro.
+ *
+ * @author <a href="rmartico@ubu.es">Raúl Marticorena</a>
+ * @author Miguel Cuevas Ruiz
+ * @since 1.0
+ * @version 1.0
+ * @see noventagrados.modelo
+ * @see noventagrados.control
+ * @see noventagrados.util
+ */
+public class NoventaGrados {
+
+	/** Tamaño en caracteres de una jugada. */
+	private static final int TAMAÑO_JUGADA = 5;
+
+	/** Posición en el texto de una jugada de la coordenada destino. */
+	private static final int INICIO_COORDENADA_DESTINO = 3;
+
+	/** Texto para interrumpir la partida. */
+	private static final String TEXTO_SALIR = "salir";
+
+	/** Texto para analizar la posición actual. */
+	private static final String TEXTO_ANALIZAR = "analizar";
+
+	/** Número de variantes que muestra el análisis. */
+	private static final int VARIANTES_ANALISIS = 3;
+
+	/** Opción de línea de comandos para reproducir partidas por lotes. */
+	private static final String OPCION_LOTE = "--lote";
+
+	/** Opción de línea de comandos para jugar contra el motor ({@code --motor[=COLOR]}). */
+	private static final String OPCION_MOTOR = "--motor";
+
+	/** Opción de línea de comandos con el tiempo por jugada del motor ({@code --tiempo=MS}). */
+	private static final String OPCION_TIEMPO = "--tiempo=";
+
+	/** Tiempo por jugada del motor por defecto, en milisegundos. */
+	private static final long TIEMPO_MOTOR_POR_DEFECTO_MS = 500;
+
+	/** Opción de línea de comandos para dibujar el tablero de forma incremental. */
+	private static final String OPCION_ANSI = "--ansi";
+
+	/** Forma de uso de la línea de comandos. */
+	private static final String USO = "Uso: NoventaGrados [tamaño] [--ansi] [--motor[=BLANCO|NEGRO]] [--tiempo=MS]"
+			+ " | --lote [--tamano=N] [fichero ...]";
+
+	/** Tablero. */
+	private static Tablero tablero;
+
+	/** Árbitro. */
+	private static Arbitro arbitro;
+
+	/** Lector por teclado. */
+	private static Scanner scanner;
+
+	/** Renderizador incremental, o null si se imprime el tablero completo. */
+	private static RenderizadorAnsi renderizador;
+
+	/** Color con el que juega el motor, o null si juegan dos personas. */
+	private static Color colorMotor;
+
+	/** Tiempo por jugada del motor, en milisegundos. */
+	private static long tiempoMotor;
+
+	/** Buscador del motor, cuya tabla de transposición se conserva durante la partida. */
+	private static Buscador buscador;
+
+	/** Reflexión del motor mientras la persona piensa su jugada. */
+	private static Reflexion reflexion;
+
+	/** Oculta el constructor por defecto. */
+	private NoventaGrados() {
+	}
+
+	/**
+	 * Método raíz con el algoritmo principal en modo texto.
+	 * 
+	 * Admite como argumento opcional el tamaño del tablero (por ejemplo 9, 11 o
+	 * 15). Sin argumentos se juega en el tablero clásico de 7x7. Con la opción
+	 * {@code --ansi} el tablero se dibuja fijo en la parte superior del terminal y
+	 * solo se redibujan las celdas que cambian.
+	 * 
+	 * Con {@code --motor[=BLANCO|NEGRO]} se juega contra el motor (por defecto
+	 * con negras), que reflexiona mientras se espera la jugada por teclado y
+	 * dispone de {@code --tiempo=MS} milisegundos por jugada.
+	 * 
+	 * Con {@code --lote} como primer argumento se reproducen partidas grabadas
+	 * sin interacción; el resto de argumentos se pasan a {@link ModoLote}.
+	 * 
+	 * @param args argumentos de entrada en línea de comandos
+	 * @throws IOException si falla la lectura de las partidas en el modo por lotes
+	 */
+	public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals(OPCION_LOTE)) {
+            ModoLote.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        int tamano;
+        try {
+            tamano = extraerTamano(args);
+            inicializarMotor(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USO);
+            return;
+        }
+        inicializarPartida(tamano, tieneOpcion(args, OPCION_ANSI));
+        mostrarMensajeBienvenida();
+        mostrarTablero();
+
+        while (true) {
+            String jugadaTexto = recogerTextoDeJugadaPorTeclado();
+
+            if (comprobarSalir(jugadaTexto)) {
+                finalizarPartida();
+                break;
+            }
+
+            if (jugadaTexto.equalsIgnoreCase(TEXTO_ANALIZAR)) {
+                analizarPosicion();
+                continue;
+            }
+
+            if (!validarFormato(jugadaTexto)) {
+                mostrarErrorEnFormatoDeEntrada();
+                continue;
+            }
+
+            Jugada jugada = extraerJugada(jugadaTexto);
+
+            if (!esLegal(jugada)) {
+                mostrarErrorPorMovimientoIlegal(jugadaTexto);
+                continue;
+            }
+
+            realizarEmpujón(jugada);
+            mostrarTablero();
+
+            if (comprobarFinalizacionPartida()) {
+                mostrarGanador();
+                finalizarPartida();
+                break;
+            }
+
+            cambiarTurnoPartida();
+        }
+    }
+
+	/**
+	 * Extrae el tamaño del tablero de los argumentos de línea de comandos.
+	 * 
+	 * @param args argumentos de entrada en línea de comandos
+	 * @return tamaño indicado o el tamaño por defecto si no se indica
+	 * @throws IllegalArgumentException si el tamaño no es un número o no es válido
+	 */
+	private static int extraerTamano(String[] args) {
+		for (String argumento : args) {
+			if (!argumento.startsWith("--")) {
+				try {
+					return Tablero.comprobarTamano(Integer.parseInt(argumento));
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Tamaño de tablero no válido: " + argumento, e);
+				}
+			}
+		}
+		return Tablero.TAMANO_POR_DEFECTO;
+	}
+
+	/**
+	 * Comprueba si se ha indicado una opción en la línea de comandos.
+	 * 
+	 * @param args   argumentos de entrada en línea de comandos
+	 * @param opcion opción buscada
+	 * @return true si está presente, false en caso contrario
+	 */
+	private static boolean tieneOpcion(String[] args, String opcion) {
+		for (String argumento : args) {
+			if (argumento.equals(opcion)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Inicializa el estado de los elementos de la partida.
+	 * 
+	 * @param tamano número de filas y columnas del tablero
+	 * @param ansi   true para dibujar el tablero de forma incremental
+	 */
+	private static void inicializarPartida(int tamano, boolean ansi) {
+		// Inicializaciones
+		tablero = new Tablero(tamano);
+		arbitro = new Arbitro(tablero);
+		// Cargar piezas con la configuración inicial...
+		arbitro.colocarPiezasConfiguracionInicial();
+		// Avisos de la partida en consola
+		arbitro.registrarOyente(new OyenteConsola());
+		if (ansi) {
+			// El tablero se fija en la parte superior antes de cualquier mensaje
+			renderizador = new RenderizadorAnsi(System.out, tamano);
+			renderizador.dibujar(tablero);
+		}
+		// Abrir la lectura desde teclado...
+		scanner = new Scanner(System.in);
+	}
+
+	/**
+	 * Prepara el motor si se ha pedido jugar contra él.
+	 * 
+	 * @param args argumentos de entrada en línea de comandos
+	 * @throws IllegalArgumentException si el color o el tiempo del motor no son válidos
+	 */
+	private static void inicializarMotor(String[] args) {
+		tiempoMotor = TIEMPO_MOTOR_POR_DEFECTO_MS;
+		for (String argumento : args) {
+			if (argumento.equals(OPCION_MOTOR)) {
+				colorMotor = Color.NEGRO;
+			} else if (argumento.startsWith(OPCION_MOTOR + "=")) {
+				colorMotor = Color.valueOf(argumento.substring(OPCION_MOTOR.length() + 1).toUpperCase());
+			} else if (argumento.startsWith(OPCION_TIEMPO)) {
+				tiempoMotor = Long.parseLong(argumento.substring(OPCION_TIEMPO.length()));
+			}
+		}
+		if (colorMotor != null) {
+			buscador = new Buscador();
+			reflexion = new Reflexion(buscador);
+		}
+	}
+
+	/**
+	 * Recoge el texto de la jugada por teclado o, si es el turno del motor, la
+	 * jugada calculada por él. Mientras se espera al teclado el motor reflexiona.
+	 * 
+	 * @return jugada jugada en formato texto
+	 */
+	private static String recogerTextoDeJugadaPorTeclado() {
+		if (colorMotor != null && arbitro.consultarTurno() == colorMotor) {
+			return calcularJugadaMotor();
+		}
+		if (reflexion != null) {
+			reflexion.iniciar(arbitro);
+		}
+		System.out.print("Introduce jugada turno con piezas de color " + arbitro.consultarTurno() + ": ");
+		String texto = scanner.next();
+		if (reflexion != null) {
+			reflexion.detener();
+		}
+		return texto;
+	}
+
+	/**
+	 * Busca la jugada del motor con el tiempo por jugada configurado.
+	 * 
+	 * @return jugada en formato texto, o el texto para salir si no tiene jugadas
+	 */
+	private static String calcularJugadaMotor() {
+		InformeBusqueda informe = buscador.buscar(arbitro, LimitesBusqueda.porTiempo(tiempoMotor), null);
+		Jugada jugada = informe.consultarMejorJugada();
+		if (jugada == null) {
+			System.out.printf("%nEl motor con piezas de color %s no tiene jugadas.%n", colorMotor);
+			return TEXTO_SALIR;
+		}
+		System.out.printf("%nEl motor con piezas de color %s juega %s (profundidad %d, %d nodos, %d ms).%n",
+				colorMotor, jugada.aTexto(), informe.profundidad(), informe.nodos(), informe.tiempoMs());
+		return jugada.aTexto();
+	}
+
+	/**
+	 * Comprueba si se quiere finalizar la partida por parte de los usuarios.
+	 * 
+	 * @param jugada jugada en formato texto
+	 * @return true si el usuario introduce salir, false en caso contrario
+	 */
+	private static boolean comprobarSalir(String jugada) {
+		return jugada.equalsIgnoreCase(TEXTO_SALIR);
+	}
+
+	/**
+	 * Analiza la posición actual mostrando las mejores variantes según se
+	 * refinan, hasta que se introduce cualquier texto.
+	 */
+	private static void analizarPosicion() {
+		System.out.printf("%nAnalizando. Introduzca cualquier texto para detener el análisis.%n");
+		Analisis analisis = arbitro.analizar(VARIANTES_ANALISIS, NoventaGrados::mostrarVariantes);
+		scanner.next();
+		analisis.detener();
+		System.out.println("Análisis detenido.");
+	}
+
+	/**
+	 * Muestra las variantes de una iteración del análisis.
+	 * 
+	 * @param variantes variantes de mejor a peor
+	 */
+	private static void mostrarVariantes(List<InformeBusqueda> variantes) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%nProfundidad %d (%d nodos, %d ms):%n", variantes.get(0).profundidad(),
+				variantes.get(variantes.size() - 1).nodos(), variantes.get(variantes.size() - 1).tiempoMs()));
+		for (int i = 0; i < variantes.size(); i++) {
+			InformeBusqueda variante = variantes.get(i);
+			sb.append(String.format("  %d. %+d:", i + 1, variante.puntuacion()));
+			for (Jugada jugada : variante.variante()) {
+				sb.append(' ').append(jugada.aTexto());
+			}
+			sb.append(System.lineSeparator());
+		}
+		System.out.print(sb);
+	}
+
+	/**
+	 * Valida la corrección del formato de la jugada. Solo comprueba la corrección
+	 * del formato de entrada en cuanto al tablero, no la validez de la jugada en
+	 * cuanto a las reglas del juego.
+	 * 
+	 * La jugada tiene que tener cuatro digitos separados por un guion.
+	 * 
+	 * Otra mejor solución alternativa es el uso de expresiones regulares (se verán
+	 * con más detalle en la asignatura de 3º Procesadores del Lenguaje).
+	 * 
+	 * @param textoJugada a validar
+	 * @return true si el formato de la jugada es correcta según las coordenadas
+	 *         disponibles del tablero
+	 */
+	private static boolean validarFormato(String textoJugada) {
+		// si la longitud es correcta y a la mitad hay un guion...
+		if (textoJugada.length() == TAMAÑO_JUGADA && textoJugada.charAt(TAMAÑO_JUGADA / 2) == '-') {
+			// acabar de validar dígitos en el resto de valores...
+			String origen = textoJugada.substring(0, INICIO_COORDENADA_DESTINO);
+			String destino = textoJugada.substring(INICIO_COORDENADA_DESTINO, TAMAÑO_JUGADA);
+			// comprobar si ambos textos son correctos
+			return esTextoCorrectoParaCoordenada(origen) && esTextoCorrectoParaCoordenada(destino);
+		}
+		return false;
+	}
+
+	/**
+	 * Comprueba que el texto de la coordenada son dos caracteres en el rango de
+	 * filas y columnas del tablero ([0, 6] en el tablero de 7x7).
+	 * 
+	 * @param textoCoordenada texto de la coordenada con dos caracteres
+	 * @return true si son dos caracteres en rango, false en caso contrario
+	 */
+	private static boolean esTextoCorrectoParaCoordenada(String textoCoordenada) {
+		int primerValor = Coordenada.desdeCaracter(textoCoordenada.charAt(0));
+		int segundoValor = Coordenada.desdeCaracter(textoCoordenada.charAt(1));
+		int tamano = tablero.consultarNumeroFilas();
+		return primerValor >= 0 && primerValor < tamano && segundoValor >= 0 && segundoValor < tamano;
+	}
+
+	/**
+	 * Extrae la jugada a partir del texto introducido por teclado.
+	 * 
+	 * @param jugadaTexto texto con la jugada
+	 * @return jugada
+	 * @see #extraerCoordenada(String, int, int)
+	 */
+	private static Jugada extraerJugada(String jugadaTexto) {
+		Coordenada coordenadaOrigen = extraerCoordenada(jugadaTexto, 0, INICIO_COORDENADA_DESTINO - 1);
+		Coordenada coordenadaDestino = extraerCoordenada(jugadaTexto, INICIO_COORDENADA_DESTINO, TAMAÑO_JUGADA);
+		Celda origen = tablero.consultarCelda(coordenadaOrigen);
+		Celda destino = tablero.consultarCelda(coordenadaDestino);
+		return new Jugada(origen, destino);
+	}
+
+	/**
+	 * Extrae una coordenada a partir del texto de entrada y de las posiciones
+	 * [incio, fin) indicadas.
+	 * 
+	 * Dada una jugada en texto, extraerá la coordenada origen o destino, en función
+	 * de la posición de inicio y fin dada.
+	 * 
+	 * @param jugada texto en formato notación habitual (e.g. 2013)
+	 * @param inicio posición en el texto a partir del cual leer
+	 * @param fin    posición final - 1, hasta donde leer el texto
+	 * @return coordenada o null, si no es posible extraerla
+	 */
+	private static Coordenada extraerCoordenada(String jugada, int inicio, int fin) {
+		if (jugada.length() != TAMAÑO_JUGADA)
+			return null;
+		int fila = Coordenada.desdeCaracter(jugada.charAt(inicio));
+		int columna = Coordenada.desdeCaracter(jugada.charAt(inicio + 1));
+		return new Coordenada(fila, columna);
+	}
+
+	/**
+	 * Comprueba la legalidad de la jugada.
+	 * 
+	 * @param jugada jugada
+	 * @return true si es legal, false en caso contrario
+	 */
+	private static boolean esLegal(Jugada jugada) {
+		return arbitro.esMovimientoLegal(jugada);
+	}
+
+	/**
+	 * Realizar la jugada completando el movimiento y las capturas correspondientes.
+	 * 
+	 * @param jugada jugada
+	 */
+	private static void realizarEmpujón(Jugada jugada) {
+		arbitro.empujar(jugada);
+	}
+
+	/**
+	 * Cambia el turno de la partida.
+	 */
+	private static void cambiarTurnoPartida() {
+		arbitro.cambiarTurno();
+	}
+
+	/**
+	 * Comprueba si está finalizada la partida.
+	 * 
+	 * @return true si hay victoria de atacante o defensor, false en caso contrario
+	 */
+	private static boolean comprobarFinalizacionPartida() {
+		return arbitro.estaFinalizadaPartida();
+	}
+
+	/**
+	 * Finaliza la partida cerrando recursos abiertos como el teclado.
+	 */
+	private static void finalizarPartida() {
+		System.out.println("Partida finalizada.");
+		if (renderizador != null) {
+			renderizador.cerrar();
+		}
+		scanner.close();
+	}
+
+	/**
+	 * Muestra el mensaje de bienvenida con instrucciones para finalizar la partida.
+	 */
+	private static void mostrarMensajeBienvenida() {
+		System.out.println("Bienvenido al juego de Noventa Grados 1.0");
+		System.out.printf(
+				"Introduzca sus jugadas con el formato dd-dd donde d es un dígito en el rango [0, %c] (por ejemplo 00-04 o 65-63).%n",
+				consultarUltimoCaracter());
+		System.out.println("Para interrumpir la partida introduzca \"salir\".");
+		System.out.println("Para analizar la posición introduzca \"analizar\".");
+		System.out.println("Disfrute de la partida...");
+	}
+
+	/**
+	 * Muestra la información de error en el formato de entrada, mostrando ejemplos.
+	 */
+	private static void mostrarErrorEnFormatoDeEntrada() {
+		System.out.println();
+		System.out.println("Error en el formato de entrada.");
+		System.out.println(
+				"Se requieren cuadro dígitos en parejas separados por un guion, por ejemplo 04-06 o 62-63, o bien introducir la cadena \"salir\" para finalizar la partida.");
+		System.out.printf("Los números estarán siempre en el rango [0,%c].%n", consultarUltimoCaracter());
+	}
+
+	/**
+	 * Consulta el carácter de la última fila o columna del tablero.
+	 * 
+	 * @return carácter de notación de la última fila ('6' en el tablero de 7x7)
+	 */
+	private static char consultarUltimoCaracter() {
+		return Coordenada.aCaracter(tablero.consultarNumeroFilas() - 1);
+	}
+
+	/**
+	 * Informa de la ilegalidad de la jugada intentada.
+	 * 
+	 * @param textoJugada texto de la jugada introducido por teclado
+	 */
+	private static void mostrarErrorPorMovimientoIlegal(String textoJugada) {
+		System.out.printf("%nLa jugada %s es ilegal.%nRevise las reglas del juego.%n", textoJugada);
+	}
+
+	/**
+	 * Muestra el estado del tablero con sus piezas actuales en pantalla.
+	 */
+	private static void mostrarTablero() {
+		if (renderizador != null) {
+			renderizador.dibujar(tablero);
+			return;
+		}
+		System.out.println();
+		System.out.println(tablero.aTexto());
+	}
+
+	/**
+	 * Muestra el turno ganador de la partida en pantalla.
+	 */
+	private static void mostrarGanador() {
+		if (arbitro.estaFinalizadaPartida() && arbitro.consultarTurnoGanador() != null) {
+			System.out.printf("%nHa ganado la partida el turno con piezas de color %s.%n",
+					arbitro.consultarTurnoGanador());
+		} else {
+			System.out.println("\nEmpate con ambas reinas empujadas fuera del tablero.");
+		}
+	}
+}
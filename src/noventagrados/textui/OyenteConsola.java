@@ -0,0 +1,27 @@
+package noventagrados.textui;
+
+import noventagrados.control.MotivoIlegalidad;
+import noventagrados.control.OyenteArbitro;
+import noventagrados.modelo.Jugada;
+import noventagrados.util.Color;
+
+/**
+ * Oyente del árbitro que muestra en consola los avisos de la partida en modo texto.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+class OyenteConsola implements OyenteArbitro {
+
+	@Override
+	public void alExpulsarReina(Color color) {
+		System.out.println("¡Victoria para el equipo " + (color == Color.BLANCO ? "Negro" : "Blanco") + "!");
+	}
+
+	@Override
+	public void alRechazarJugada(Jugada jugada, MotivoIlegalidad motivo) {
+		if (motivo == MotivoIlegalidad.FUERA_DE_TABLERO) {
+			System.out.println("Movimiento ilegal: " + motivo.consultarDescripcion() + ".");
+		}
+	}
+}
@@ -0,0 +1,418 @@
+package noventagrados.textui;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+import noventagrados.control.Arbitro;
+import noventagrados.modelo.Jugada;
+import noventagrados.modelo.Tablero;
+import noventagrados.motor.Buscador;
+import noventagrados.motor.InformeBusqueda;
+import noventagrados.motor.LimitesBusqueda;
+import noventagrados.motor.TablaTransposicionCompartida;
+import noventagrados.util.NotacionJugada;
+import noventagrados.util.OpcionesLinea;
+
+/**
+ * Frontal del motor para programas externos (bots e interfaces gráficas) por
+ * entrada y salida estándar, al estilo del protocolo UCI del ajedrez.
+ *
+ * Órdenes admitidas, una por línea:
+ * <ul>
+ * <li>{@code uci}: identificación del motor, termina con {@code uciok}.</li>
+ * <li>{@code isready}: responde {@code readyok}.</li>
+ * <li>{@code ucinewgame}: vuelve a la posición inicial.</li>
+ * <li>{@code position startpos [size N] [moves dd-dd ...]}: fija la posición
+ * inicial del tamaño indicado y le aplica las jugadas.</li>
+ * <li>{@code go [depth N] [nodes N] [movetime MS] [infinite]}: inicia una
+ * búsqueda en segundo plano. Emite una línea {@code info} por iteración y, al
+ * terminar, {@code bestmove dd-dd} (o {@code bestmove none}).</li>
+ * <li>{@code stop}: detiene la búsqueda en curso.</li>
+ * <li>{@code quit}: termina.</li>
+ * </ul>
+ *
+ * Las órdenes se leen en el hilo principal mientras la búsqueda continúa en su
+ * propio hilo, de modo que {@code stop} o {@code isready} se atienden sin esperar.
+ *
+ * Con {@code --tabla=FICHERO [--tamano=N] [--entradas=N]} la tabla de
+ * transposición vive en un fichero compartido con otros procesos del motor y
+ * conservado entre ejecuciones; en ese caso {@code ucinewgame} no la vacía y
+ * {@code position} solo admite el tamaño de tablero de la tabla.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @since 1.0
+ * @version 1.0
+ * @see noventagrados.motor.Buscador
+ */
+public class ProtocoloMotor {
+
+	/** Opción de línea de comandos con el fichero de la tabla compartida. */
+	private static final String OPCION_TABLA = "--tabla";
+
+	/** Opción de línea de comandos con el tamaño de tablero de la tabla compartida. */
+	private static final String OPCION_TAMANO = "--tamano";
+
+	/** Opción de línea de comandos con las entradas de una tabla compartida nueva. */
+	private static final String OPCION_ENTRADAS = "--entradas";
+
+	/** Mensaje de uso de la línea de comandos. */
+	private static final String USO = "Uso: ProtocoloMotor [--tabla=FICHERO [--tamano=N] [--entradas=N]]";
+
+	/** Entradas por defecto de una tabla compartida nueva (256 MiB). */
+	private static final int ENTRADAS_POR_DEFECTO = 1 << 24;
+
+	/** Salida compartida por el hilo de órdenes y el de búsqueda. */
+	private final PrintStream salida;
+
+	/** Buscador reutilizado entre búsquedas. */
+	private final Buscador buscador;
+
+	/** Si se vacía la tabla de transposición al empezar una partida. */
+	private final boolean limpiarTabla;
+
+	/** Único tamaño de tablero que admite la tabla de transposición, o 0 si admite cualquiera. */
+	private final int tamanoTabla;
+
+	/** Posición actual. */
+	private Arbitro arbitro;
+
+	/** Hilo de la búsqueda en curso, o null. */
+	private Thread hiloBusqueda;
+
+	/**
+	 * Crea el frontal escribiendo en la salida indicada.
+	 *
+	 * @param salida flujo de salida de las respuestas
+	 */
+	public ProtocoloMotor(PrintStream salida) {
+		this(salida, new Buscador(), true, 0);
+	}
+
+	/**
+	 * Crea el frontal con un buscador propio.
+	 *
+	 * @param salida       flujo de salida de las respuestas
+	 * @param buscador     buscador de las jugadas
+	 * @param limpiarTabla si {@code ucinewgame} vacía la tabla de transposición
+	 * @param tamanoTabla  único tamaño de tablero que admite la tabla de
+	 *                     transposición del buscador, o 0 si admite cualquiera
+	 */
+	public ProtocoloMotor(PrintStream salida, Buscador buscador, boolean limpiarTabla, int tamanoTabla) {
+		this.salida = salida;
+		this.buscador = buscador;
+		this.limpiarTabla = limpiarTabla;
+		this.tamanoTabla = tamanoTabla;
+		this.arbitro = crearPosicionInicial(tamanoTabla == 0 ? Tablero.TAMANO_POR_DEFECTO : tamanoTabla);
+	}
+
+	/**
+	 * Método raíz: atiende órdenes de la entrada estándar hasta {@code quit}.
+	 *
+	 * @param args opciones {@code --tabla=FICHERO}, {@code --tamano=N} y {@code --entradas=N}
+	 * @throws IOException si falla la lectura de la entrada o la apertura de la tabla
+	 */
+	public static void main(String[] args) throws IOException {
+		String fichero;
+		int tamano;
+		int entradas;
+		try {
+			OpcionesLinea opciones = new OpcionesLinea(args, OPCION_TABLA, OPCION_TAMANO, OPCION_ENTRADAS);
+			fichero = opciones.consultarTexto(OPCION_TABLA, null);
+			tamano = Tablero.comprobarTamano(opciones.consultarEntero(OPCION_TAMANO, Tablero.TAMANO_POR_DEFECTO));
+			entradas = opciones.consultarEntero(OPCION_ENTRADAS, ENTRADAS_POR_DEFECTO);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USO);
+			return;
+		}
+		PrintStream salida = new PrintStream(System.out, true, StandardCharsets.UTF_8);
+		if (fichero == null) {
+			atender(new ProtocoloMotor(salida));
+			return;
+		}
+		try (TablaTransposicionCompartida tabla = new TablaTransposicionCompartida(Paths.get(fichero), tamano,
+				entradas)) {
+			atender(new ProtocoloMotor(salida, new Buscador(tabla), false, tamano));
+		}
+	}
+
+	/**
+	 * Atiende órdenes de la entrada estándar hasta {@code quit} o su final.
+	 *
+	 * @param protocolo frontal que procesa las órdenes
+	 * @throws IOException si falla la lectura de la entrada
+	 */
+	private static void atender(ProtocoloMotor protocolo) throws IOException {
+		BufferedReader entrada = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+		String linea;
+		boolean seguir = true;
+		while (seguir && (linea = entrada.readLine()) != null) {
+			seguir = protocolo.procesar(linea);
+		}
+		protocolo.detenerBusqueda();
+	}
+
+	/**
+	 * Procesa una orden.
+	 *
+	 * @param linea línea recibida
+	 * @return false si la orden es {@code quit}, true en caso contrario
+	 */
+	public boolean procesar(String linea) {
+		int inicio = saltarEspacios(linea, 0);
+		int fin = finDePalabra(linea, inicio);
+		if (esPalabra(linea, inicio, fin, "uci")) {
+			escribir("id name Noventa Grados");
+			escribir("id author Miguel Cuevas Ruiz");
+			escribir("uciok");
+		} else if (esPalabra(linea, inicio, fin, "isready")) {
+			escribir("readyok");
+		} else if (esPalabra(linea, inicio, fin, "ucinewgame")) {
+			detenerBusqueda();
+			if (limpiarTabla) {
+				buscador.limpiarTabla();
+			}
+			arbitro = crearPosicionInicial(arbitro.consultarTablero().consultarNumeroFilas());
+		} else if (esPalabra(linea, inicio, fin, "position")) {
+			detenerBusqueda();
+			fijarPosicion(linea, fin);
+		} else if (esPalabra(linea, inicio, fin, "go")) {
+			detenerBusqueda();
+			iniciarBusqueda(leerLimites(linea, fin));
+		} else if (esPalabra(linea, inicio, fin, "stop")) {
+			detenerBusqueda();
+		} else if (esPalabra(linea, inicio, fin, "quit")) {
+			return false;
+		} else if (fin > inicio) {
+			escribir("info string orden desconocida");
+		}
+		return true;
+	}
+
+	/**
+	 * Interpreta {@code position startpos [size N] [moves ...]} a partir de la posición indicada.
+	 *
+	 * @param linea línea de la orden
+	 * @param desde posición tras la palabra {@code position}
+	 */
+	private void fijarPosicion(String linea, int desde) {
+		int tamano = tamanoTabla == 0 ? Tablero.TAMANO_POR_DEFECTO : tamanoTabla;
+		int inicio = saltarEspacios(linea, desde);
+		int fin = finDePalabra(linea, inicio);
+		while (fin > inicio && !esPalabra(linea, inicio, fin, "moves")) {
+			if (esPalabra(linea, inicio, fin, "size")) {
+				inicio = saltarEspacios(linea, fin);
+				fin = finDePalabra(linea, inicio);
+				tamano = (int) leerNumero(linea, inicio, fin);
+			}
+			inicio = saltarEspacios(linea, fin);
+			fin = finDePalabra(linea, inicio);
+		}
+		if (tamanoTabla != 0 && tamano != tamanoTabla) {
+			escribir("info string tamaño distinto del de la tabla de transposición");
+			return;
+		}
+		Arbitro nuevo;
+		try {
+			nuevo = crearPosicionInicial(tamano);
+		} catch (IllegalArgumentException e) {
+			escribir("info string tamaño no válido");
+			return;
+		}
+		inicio = saltarEspacios(linea, fin);
+		fin = finDePalabra(linea, inicio);
+		while (fin > inicio) {
+			if (fin - inicio != NotacionJugada.TAMANO_JUGADA || !NotacionJugada.esValida(linea, inicio, tamano)) {
+				escribir("info string jugada mal formada " + linea.substring(inicio, fin));
+				return;
+			}
+			Jugada jugada = nuevo.crearJugada(NotacionJugada.extraerOrigen(linea, inicio),
+					NotacionJugada.extraerDestino(linea, inicio));
+			if (nuevo.consultarMotivoIlegalidad(jugada) != null) {
+				escribir("info string jugada ilegal " + jugada.aTexto());
+				return;
+			}
+			nuevo.empujar(jugada);
+			nuevo.cambiarTurno();
+			inicio = saltarEspacios(linea, fin);
+			fin = finDePalabra(linea, inicio);
+		}
+		arbitro = nuevo;
+	}
+
+	/**
+	 * Interpreta los límites de {@code go}.
+	 *
+	 * @param linea línea de la orden
+	 * @param desde posición tras la palabra {@code go}
+	 * @return los límites de la búsqueda
+	 */
+	private LimitesBusqueda leerLimites(String linea, int desde) {
+		int profundidad = 0;
+		long nodos = 0;
+		long tiempo = 0;
+		int inicio = saltarEspacios(linea, desde);
+		int fin = finDePalabra(linea, inicio);
+		while (fin > inicio) {
+			int inicioValor = saltarEspacios(linea, fin);
+			int finValor = finDePalabra(linea, inicioValor);
+			if (esPalabra(linea, inicio, fin, "depth")) {
+				profundidad = (int) leerNumero(linea, inicioValor, finValor);
+				fin = finValor;
+			} else if (esPalabra(linea, inicio, fin, "nodes")) {
+				nodos = leerNumero(linea, inicioValor, finValor);
+				fin = finValor;
+			} else if (esPalabra(linea, inicio, fin, "movetime")) {
+				tiempo = leerNumero(linea, inicioValor, finValor);
+				fin = finValor;
+			}
+			inicio = saltarEspacios(linea, fin);
+			fin = finDePalabra(linea, inicio);
+		}
+		return new LimitesBusqueda(profundidad, nodos, tiempo);
+	}
+
+	/**
+	 * Lanza la búsqueda en un hilo propio sobre la posición actual.
+	 *
+	 * @param limites límites de la búsqueda
+	 */
+	private void iniciarBusqueda(LimitesBusqueda limites) {
+		Arbitro posicion = arbitro.clonar();
+		hiloBusqueda = new Thread(() -> {
+			InformeBusqueda resultado = buscador.buscar(posicion, limites, this::escribirInforme);
+			Jugada mejor = resultado.consultarMejorJugada();
+			escribir("bestmove " + (mejor != null ? mejor.aTexto() : "none"));
+		}, "busqueda-motor");
+		hiloBusqueda.setDaemon(true);
+		hiloBusqueda.start();
+	}
+
+	/**
+	 * Detiene la búsqueda en curso, si la hay, y espera a que emita su {@code bestmove}.
+	 */
+	private void detenerBusqueda() {
+		if (hiloBusqueda != null) {
+			try {
+				// Se repite por si el hilo aún no había empezado la búsqueda
+				while (hiloBusqueda.isAlive()) {
+					buscador.detener();
+					hiloBusqueda.join(10);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			hiloBusqueda = null;
+		}
+	}
+
+	/**
+	 * Escribe la línea {@code info} de una iteración completa.
+	 *
+	 * @param informe informe de la iteración
+	 */
+	private void escribirInforme(InformeBusqueda informe) {
+		StringBuilder sb = new StringBuilder(64);
+		sb.append("info depth ").append(informe.profundidad()).append(" score ");
+		if (informe.esVictoriaForzada()) {
+			int distancia = Buscador.VICTORIA - Math.abs(informe.puntuacion());
+			sb.append("mate ").append(informe.puntuacion() > 0 ? (distancia + 1) / 2 : -(distancia / 2));
+		} else {
+			sb.append("cp ").append(informe.puntuacion());
+		}
+		sb.append(" nodes ").append(informe.nodos()).append(" time ").append(informe.tiempoMs()).append(" pv");
+		for (Jugada jugada : informe.variante()) {
+			sb.append(' ').append(jugada.aTexto());
+		}
+		escribir(sb.toString());
+	}
+
+	/**
+	 * Escribe una línea de respuesta. Sincronizado porque escriben el hilo de
+	 * órdenes y el de búsqueda.
+	 *
+	 * @param linea texto de la línea
+	 */
+	private synchronized void escribir(String linea) {
+		salida.println(linea);
+	}
+
+	/**
+	 * Crea un árbitro con la configuración inicial.
+	 *
+	 * @param tamano tamaño del tablero
+	 * @return el árbitro
+	 */
+	private static Arbitro crearPosicionInicial(int tamano) {
+		Arbitro nuevo = new Arbitro(new Tablero(tamano));
+		nuevo.colocarPiezasConfiguracionInicial();
+		return nuevo;
+	}
+
+	/**
+	 * Avanza sobre los espacios.
+	 *
+	 * @param linea texto
+	 * @param desde posición inicial
+	 * @return primera posición que no es un espacio, o la longitud del texto
+	 */
+	private static int saltarEspacios(String linea, int desde) {
+		int i = desde;
+		while (i < linea.length() && Character.isWhitespace(linea.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Busca el final de la palabra que empieza en la posición indicada.
+	 *
+	 * @param linea texto
+	 * @param desde posición del primer carácter de la palabra
+	 * @return posición siguiente al último carácter de la palabra
+	 */
+	private static int finDePalabra(String linea, int desde) {
+		int i = desde;
+		while (i < linea.length() && !Character.isWhitespace(linea.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Compara la palabra [inicio, fin) con la indicada, sin crear subcadenas.
+	 *
+	 * @param linea   texto
+	 * @param inicio  inicio de la palabra
+	 * @param fin     fin de la palabra
+	 * @param palabra palabra esperada
+	 * @return true si coinciden
+	 */
+	private static boolean esPalabra(String linea, int inicio, int fin, String palabra) {
+		return fin - inicio == palabra.length() && linea.regionMatches(inicio, palabra, 0, palabra.length());
+	}
+
+	/**
+	 * Lee un número no negativo [inicio, fin) sin crear subcadenas.
+	 *
+	 * @param linea  texto
+	 * @param inicio inicio del número
+	 * @param fin    fin del número
+	 * @return el número, o 0 si no es válido
+	 */
+	private static long leerNumero(String linea, int inicio, int fin) {
+		long valor = 0;
+		for (int i = inicio; i < fin; i++) {
+			int digito = Character.digit(linea.charAt(i), 10);
+			if (digito < 0) {
+				return 0;
+			}
+			valor = valor * 10 + digito;
+		}
+		return valor;
+	}
+}
@@ -0,0 +1,226 @@
+package noventagrados.textui;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import noventagrados.modelo.Pieza;
+import noventagrados.modelo.Tablero;
+import noventagrados.util.Coordenada;
+
+/**
+ * Dibuja el tablero en un terminal compatible con ANSI redibujando solo las
+ * celdas que han cambiado desde el último fotograma.
+ *
+ * El tablero ocupa siempre las primeras líneas de la pantalla con la misma
+ * disposición que {@link Tablero#aTexto()}; el resto de la pantalla queda como
+ * región de desplazamiento para los mensajes y la entrada por teclado. Cada
+ * fotograma se compone en un búfer de bytes reutilizado y se escribe con una
+ * única escritura seguida de un único vaciado.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @since 1.0
+ * @version 1.0
+ */
+public class RenderizadorAnsi {
+
+	/** Carácter de escape que inicia las secuencias ANSI. */
+	private static final byte ESC = 0x1B;
+
+	/** Ancho en caracteres de cada celda, separador incluido. */
+	private static final int ANCHO_CELDA = 3;
+
+	/** Columna de pantalla (desde 1) de la primera celda, tras la etiqueta de fila. */
+	private static final int COLUMNA_INICIAL = 3;
+
+	/** Salida del terminal. */
+	private final OutputStream salida;
+
+	/** Tamaño del tablero dibujado. */
+	private final int tamano;
+
+	/** Dos caracteres por celda con lo que muestra ahora el terminal. */
+	private final byte[] mostrado;
+
+	/** Búfer del fotograma en curso, reutilizado entre fotogramas. */
+	private byte[] bufer;
+
+	/** Bytes ocupados del búfer. */
+	private int longitud;
+
+	/** Si ya se ha dibujado el marco completo. */
+	private boolean iniciado;
+
+	/**
+	 * Crea un renderizador para tableros del tamaño indicado.
+	 *
+	 * @param salida flujo de salida del terminal
+	 * @param tamano número de filas y columnas del tablero
+	 */
+	public RenderizadorAnsi(OutputStream salida, int tamano) {
+		this.salida = salida;
+		this.tamano = tamano;
+		this.mostrado = new byte[2 * tamano * tamano];
+		this.bufer = new byte[256];
+	}
+
+	/**
+	 * Dibuja un fotograma. El primero limpia la pantalla y dibuja el tablero
+	 * completo; los siguientes solo reescriben las celdas que han cambiado. El
+	 * cursor vuelve siempre a la posición en la que estaba.
+	 *
+	 * @param tablero tablero a dibujar, del tamaño del renderizador
+	 */
+	public void dibujar(Tablero tablero) {
+		longitud = 0;
+		if (!iniciado) {
+			dibujarMarco();
+		}
+		escape("7"); // guarda el cursor
+		for (int fila = 0; fila < tamano; fila++) {
+			for (int columna = 0; columna < tamano; columna++) {
+				dibujarCelda(tablero, fila, columna);
+			}
+		}
+		escape("8"); // restaura el cursor
+		iniciado = true;
+		volcar();
+	}
+
+	/**
+	 * Devuelve el terminal a su estado normal: elimina la región de
+	 * desplazamiento y coloca el cursor al final de la pantalla.
+	 */
+	public void cerrar() {
+		longitud = 0;
+		escape("[r");
+		escape("[999;1H");
+		anadir('\n');
+		volcar();
+	}
+
+	/**
+	 * Dibuja la pantalla inicial: limpia, escribe las etiquetas de filas y
+	 * columnas y deja como región de desplazamiento las líneas bajo el tablero.
+	 */
+	private void dibujarMarco() {
+		escape("[2J");
+		for (int fila = 0; fila < tamano; fila++) {
+			moverCursor(fila + 1, 1);
+			anadir(Coordenada.aCaracter(fila));
+		}
+		moverCursor(tamano + 1, 1);
+		for (int columna = 0; columna < tamano; columna++) {
+			anadir(' ');
+			anadir(' ');
+			anadir(Coordenada.aCaracter(columna));
+		}
+		// Los mensajes se desplazan por debajo del tablero sin moverlo
+		escape("[" + (tamano + 3) + "r");
+		moverCursor(tamano + 3, 1);
+		// Fuerza a dibujar todas las celdas en el primer fotograma
+		Arrays.fill(mostrado, (byte) 0);
+	}
+
+	/**
+	 * Añade al fotograma la celda indicada si ha cambiado.
+	 *
+	 * @param tablero tablero a dibujar
+	 * @param fila    fila de la celda
+	 * @param columna columna de la celda
+	 */
+	private void dibujarCelda(Tablero tablero, int fila, int columna) {
+		byte tipo = '-';
+		byte color = '-';
+		// Solo se clonan las celdas ocupadas
+		if (tablero.estaOcupada(fila, columna)) {
+			Pieza pieza = tablero.consultarCelda(new Coordenada(fila, columna)).consultarPieza();
+			tipo = (byte) pieza.consultarTipoPieza().toChar();
+			color = (byte) pieza.consultarColor().toChar();
+		}
+		int indice = 2 * (fila * tamano + columna);
+		if (mostrado[indice] != tipo || mostrado[indice + 1] != color) {
+			mostrado[indice] = tipo;
+			mostrado[indice + 1] = color;
+			moverCursor(fila + 1, COLUMNA_INICIAL + columna * ANCHO_CELDA);
+			anadir((char) tipo);
+			anadir((char) color);
+		}
+	}
+
+	/**
+	 * Añade la secuencia que mueve el cursor a la posición indicada (desde 1).
+	 *
+	 * @param linea   línea de pantalla
+	 * @param columna columna de pantalla
+	 */
+	private void moverCursor(int linea, int columna) {
+		asegurarEspacio(12);
+		bufer[longitud++] = ESC;
+		bufer[longitud++] = '[';
+		anadirNumero(linea);
+		bufer[longitud++] = ';';
+		anadirNumero(columna);
+		bufer[longitud++] = 'H';
+	}
+
+	/**
+	 * Añade una secuencia de escape.
+	 *
+	 * @param secuencia caracteres tras el escape
+	 */
+	private void escape(String secuencia) {
+		anadir((char) ESC);
+		byte[] bytes = secuencia.getBytes(StandardCharsets.US_ASCII);
+		asegurarEspacio(bytes.length);
+		System.arraycopy(bytes, 0, bufer, longitud, bytes.length);
+		longitud += bytes.length;
+	}
+
+	/**
+	 * Añade un número positivo en decimal sin crear cadenas.
+	 *
+	 * @param numero número a añadir
+	 */
+	private void anadirNumero(int numero) {
+		if (numero >= 10) {
+			anadirNumero(numero / 10);
+		}
+		bufer[longitud++] = (byte) ('0' + numero % 10);
+	}
+
+	/**
+	 * Añade un carácter ASCII.
+	 *
+	 * @param caracter carácter a añadir
+	 */
+	private void anadir(char caracter) {
+		asegurarEspacio(1);
+		bufer[longitud++] = (byte) caracter;
+	}
+
+	/**
+	 * Amplía el búfer si no caben los bytes indicados.
+	 *
+	 * @param bytes bytes que se van a añadir
+	 */
+	private void asegurarEspacio(int bytes) {
+		if (longitud + bytes > bufer.length) {
+			bufer = Arrays.copyOf(bufer, Math.max(bufer.length * 2, longitud + bytes));
+		}
+	}
+
+	/**
+	 * Escribe el fotograma con una sola escritura y vacía la salida.
+	 */
+	private void volcar() {
+		try {
+			salida.write(bufer, 0, longitud);
+			salida.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package noventagrados.util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.LongConsumer;
+
+/**
+ * Conjunto de enteros {@code long} guardado fuera del montículo, pensado para
+ * cientos de millones de claves de posición.
+ *
+ * No es seguro para varios hilos a la vez.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ * @see TablaHashLong
+ */
+public class ConjuntoLong extends TablaHashLong {
+
+    /**
+     * Crea un conjunto vacío en memoria directa.
+     *
+     * @param esperados número de claves que caben sin crecer.
+     * @throws IllegalArgumentException si es negativo.
+     */
+    public ConjuntoLong(long esperados) {
+        super(0, esperados);
+    }
+
+    /**
+     * Abre o crea un conjunto guardado en un fichero proyectado en memoria.
+     *
+     * @param esperados número de claves que caben sin crecer si el conjunto es nuevo.
+     * @param fichero   ruta del fichero.
+     * @throws IOException si no se puede proyectar o no contiene un conjunto.
+     */
+    public ConjuntoLong(long esperados, Path fichero) throws IOException {
+        super(0, esperados, fichero);
+    }
+
+    /**
+     * Añade una clave.
+     *
+     * @param clave la clave.
+     * @return true si no estaba ya en el conjunto.
+     */
+    public boolean añadir(long clave) {
+        return insertar(clave) < 0;
+    }
+
+    /**
+     * Comprueba si una clave está en el conjunto.
+     *
+     * @param clave la clave.
+     * @return true si está.
+     */
+    public boolean contiene(long clave) {
+        return buscar(clave) >= 0;
+    }
+
+    /**
+     * Elimina una clave.
+     *
+     * @param clave la clave.
+     * @return true si estaba en el conjunto.
+     */
+    public boolean eliminar(long clave) {
+        return quitar(clave);
+    }
+
+    /**
+     * Recorre todas las claves, en un orden sin significado.
+     *
+     * @param accion recibe cada clave.
+     */
+    public void recorrer(LongConsumer accion) {
+        recorrerRanuras(ranura -> accion.accept(leerClave(ranura)));
+    }
+}
@@ -1,22 +1,47 @@
-package noventagrados.util;
-
-/**
- * Representa una coordenada en un tablero con valores de fila y columna.
- * La clase es tipo Record por lo tanto es inmutable y se utiliza para almacenar la posición de una celda en el juego.
- * 
- * @author Miguel Cuevas Ruiz
- * @version 1.0
- */
-public record Coordenada(int fila, int columna) {
-
-    /**
-     * Devuelve la representación en formato texto de la coordenada.
-     * 
-     * @return una cadena que representa la coordenada en el formato "fila columna" (por ejemplo, "23").
-     */
-    public String aTexto() {
-        return String.format("%d%d", fila, columna);
-    }
-
-	
-}
+package noventagrados.util;
+
+/**
+ * Representa una coordenada en un tablero con valores de fila y columna.
+ * La clase es tipo Record por lo tanto es inmutable y se utiliza para almacenar la posición de una celda en el juego.
+ *
+ * Cada valor se escribe con un único carácter: los dígitos del 0 al 9 y, en tableros
+ * de más de diez filas, las letras mayúsculas a partir de la A (A = 10, B = 11...).
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 2.0
+ */
+public record Coordenada(int fila, int columna) {
+
+    /** Base usada para escribir cada valor de la coordenada en un carácter. */
+    private static final int BASE = 36;
+
+    /**
+     * Devuelve la representación en formato texto de la coordenada.
+     *
+     * @return una cadena que representa la coordenada en el formato "fila columna" (por ejemplo, "23").
+     */
+    public String aTexto() {
+        return new String(new char[] { aCaracter(fila), aCaracter(columna) });
+    }
+
+    /**
+     * Convierte un valor de fila o columna en su carácter de notación.
+     *
+     * @param valor valor en el rango [0, 35].
+     * @return el carácter que lo representa ('0'..'9', 'A'..'Z').
+     */
+    public static char aCaracter(int valor) {
+        return Character.toUpperCase(Character.forDigit(valor, BASE));
+    }
+
+    /**
+     * Convierte un carácter de notación en su valor de fila o columna.
+     *
+     * @param caracter carácter de la notación.
+     * @return el valor correspondiente o -1 si el carácter no es válido.
+     */
+    public static int desdeCaracter(char caracter) {
+        return Character.digit(caracter, BASE);
+    }
+
+}
@@ -0,0 +1,122 @@
+package noventagrados.util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Mapa de claves {@code long} a valores {@code int} guardado fuera del
+ * montículo, sin objetos por entrada. Cada entrada ocupa 12 bytes.
+ *
+ * No es seguro para varios hilos a la vez.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ * @see TablaHashLong
+ */
+public class MapaLongInt extends TablaHashLong {
+
+    /**
+     * Recibe las entradas de un recorrido del mapa.
+     */
+    @FunctionalInterface
+    public interface Consumidor {
+        /**
+         * Procesa una entrada.
+         *
+         * @param clave la clave.
+         * @param valor su valor.
+         */
+        void aceptar(long clave, int valor);
+    }
+
+    /**
+     * Crea un mapa vacío en memoria directa.
+     *
+     * @param esperados número de entradas que caben sin crecer.
+     * @throws IllegalArgumentException si es negativo.
+     */
+    public MapaLongInt(long esperados) {
+        super(Integer.BYTES, esperados);
+    }
+
+    /**
+     * Abre o crea un mapa guardado en un fichero proyectado en memoria.
+     *
+     * @param esperados número de entradas que caben sin crecer si el mapa es nuevo.
+     * @param fichero   ruta del fichero.
+     * @throws IOException si no se puede proyectar o no contiene un mapa de este tipo.
+     */
+    public MapaLongInt(long esperados, Path fichero) throws IOException {
+        super(Integer.BYTES, esperados, fichero);
+    }
+
+    /**
+     * Consulta el valor de una clave.
+     *
+     * @param clave      la clave.
+     * @param porDefecto valor si la clave no está.
+     * @return el valor de la clave, o el valor por defecto.
+     */
+    public int consultar(long clave, int porDefecto) {
+        long ranura = buscar(clave);
+        return ranura < 0 ? porDefecto : leerInt(ranura);
+    }
+
+    /**
+     * Comprueba si una clave está en el mapa.
+     *
+     * @param clave la clave.
+     * @return true si está.
+     */
+    public boolean contiene(long clave) {
+        return buscar(clave) >= 0;
+    }
+
+    /**
+     * Asocia un valor a una clave, sustituyendo el anterior si lo había.
+     *
+     * @param clave la clave.
+     * @param valor el valor.
+     */
+    public void colocar(long clave, int valor) {
+        long ranura = insertar(clave);
+        escribirInt(ranura < 0 ? ~ranura : ranura, valor);
+    }
+
+    /**
+     * Suma una cantidad al valor de una clave; si no estaba, parte de 0. Sirve
+     * para llevar cuentas por posición.
+     *
+     * @param clave      la clave.
+     * @param incremento cantidad a sumar.
+     * @return el valor resultante.
+     */
+    public int sumar(long clave, int incremento) {
+        long ranura = insertar(clave);
+        if (ranura < 0) {
+            ranura = ~ranura;
+        }
+        int valor = leerInt(ranura) + incremento;
+        escribirInt(ranura, valor);
+        return valor;
+    }
+
+    /**
+     * Elimina una clave y su valor.
+     *
+     * @param clave la clave.
+     * @return true si estaba en el mapa.
+     */
+    public boolean eliminar(long clave) {
+        return quitar(clave);
+    }
+
+    /**
+     * Recorre todas las entradas, en un orden sin significado.
+     *
+     * @param accion recibe cada clave con su valor.
+     */
+    public void recorrer(Consumidor accion) {
+        recorrerRanuras(ranura -> accion.aceptar(leerClave(ranura), leerInt(ranura)));
+    }
+}
@@ -0,0 +1,122 @@
+package noventagrados.util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Mapa de claves {@code long} a valores {@code long} guardado fuera del
+ * montículo, sin objetos por entrada. Cada entrada ocupa 16 bytes.
+ *
+ * No es seguro para varios hilos a la vez.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ * @see TablaHashLong
+ */
+public class MapaLongLong extends TablaHashLong {
+
+    /**
+     * Recibe las entradas de un recorrido del mapa.
+     */
+    @FunctionalInterface
+    public interface Consumidor {
+        /**
+         * Procesa una entrada.
+         *
+         * @param clave la clave.
+         * @param valor su valor.
+         */
+        void aceptar(long clave, long valor);
+    }
+
+    /**
+     * Crea un mapa vacío en memoria directa.
+     *
+     * @param esperados número de entradas que caben sin crecer.
+     * @throws IllegalArgumentException si es negativo.
+     */
+    public MapaLongLong(long esperados) {
+        super(Long.BYTES, esperados);
+    }
+
+    /**
+     * Abre o crea un mapa guardado en un fichero proyectado en memoria.
+     *
+     * @param esperados número de entradas que caben sin crecer si el mapa es nuevo.
+     * @param fichero   ruta del fichero.
+     * @throws IOException si no se puede proyectar o no contiene un mapa de este tipo.
+     */
+    public MapaLongLong(long esperados, Path fichero) throws IOException {
+        super(Long.BYTES, esperados, fichero);
+    }
+
+    /**
+     * Consulta el valor de una clave.
+     *
+     * @param clave      la clave.
+     * @param porDefecto valor si la clave no está.
+     * @return el valor de la clave, o el valor por defecto.
+     */
+    public long consultar(long clave, long porDefecto) {
+        long ranura = buscar(clave);
+        return ranura < 0 ? porDefecto : leerLong(ranura);
+    }
+
+    /**
+     * Comprueba si una clave está en el mapa.
+     *
+     * @param clave la clave.
+     * @return true si está.
+     */
+    public boolean contiene(long clave) {
+        return buscar(clave) >= 0;
+    }
+
+    /**
+     * Asocia un valor a una clave, sustituyendo el anterior si lo había.
+     *
+     * @param clave la clave.
+     * @param valor el valor.
+     */
+    public void colocar(long clave, long valor) {
+        long ranura = insertar(clave);
+        escribirLong(ranura < 0 ? ~ranura : ranura, valor);
+    }
+
+    /**
+     * Suma una cantidad al valor de una clave; si no estaba, parte de 0. Sirve
+     * para llevar cuentas por posición.
+     *
+     * @param clave      la clave.
+     * @param incremento cantidad a sumar.
+     * @return el valor resultante.
+     */
+    public long sumar(long clave, long incremento) {
+        long ranura = insertar(clave);
+        if (ranura < 0) {
+            ranura = ~ranura;
+        }
+        long valor = leerLong(ranura) + incremento;
+        escribirLong(ranura, valor);
+        return valor;
+    }
+
+    /**
+     * Elimina una clave y su valor.
+     *
+     * @param clave la clave.
+     * @return true si estaba en el mapa.
+     */
+    public boolean eliminar(long clave) {
+        return quitar(clave);
+    }
+
+    /**
+     * Recorre todas las entradas, en un orden sin significado.
+     *
+     * @param accion recibe cada clave con su valor.
+     */
+    public void recorrer(Consumidor accion) {
+        recorrerRanuras(ranura -> accion.aceptar(leerClave(ranura), leerLong(ranura)));
+    }
+}
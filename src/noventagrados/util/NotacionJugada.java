@@ -0,0 +1,89 @@
+package noventagrados.util;
+
+/**
+ * Lectura de jugadas escritas en la notación "dd-dd" (coordenada origen, guion,
+ * coordenada destino), compartida por los distintos frontales del juego.
+ *
+ * Los métodos trabajan sobre cualquier {@link CharSequence} y a partir de una
+ * posición, de forma que se pueden leer jugadas dentro de una línea más larga
+ * sin crear subcadenas.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public final class NotacionJugada {
+
+    /** Tamaño en caracteres de una jugada. */
+    public static final int TAMANO_JUGADA = 5;
+
+    /** Posición dentro de la jugada de la coordenada destino. */
+    public static final int INICIO_COORDENADA_DESTINO = 3;
+
+    /** Oculta el constructor. */
+    private NotacionJugada() {
+    }
+
+    /**
+     * Comprueba si a partir de la posición indicada hay una jugada bien formada
+     * para un tablero del tamaño dado.
+     *
+     * @param texto  texto que contiene la jugada.
+     * @param inicio posición del primer carácter de la jugada.
+     * @param tamano número de filas y columnas del tablero.
+     * @return true si el formato y el rango de las coordenadas son correctos.
+     */
+    public static boolean esValida(CharSequence texto, int inicio, int tamano) {
+        if (inicio < 0 || texto.length() - inicio < TAMANO_JUGADA || texto.charAt(inicio + 2) != '-') {
+            return false;
+        }
+        return enRango(texto.charAt(inicio), tamano) && enRango(texto.charAt(inicio + 1), tamano)
+                && enRango(texto.charAt(inicio + INICIO_COORDENADA_DESTINO), tamano)
+                && enRango(texto.charAt(inicio + INICIO_COORDENADA_DESTINO + 1), tamano);
+    }
+
+    /**
+     * Extrae la coordenada origen de una jugada ya validada.
+     *
+     * @param texto  texto que contiene la jugada.
+     * @param inicio posición del primer carácter de la jugada.
+     * @return la coordenada origen.
+     */
+    public static Coordenada extraerOrigen(CharSequence texto, int inicio) {
+        return extraerCoordenada(texto, inicio);
+    }
+
+    /**
+     * Extrae la coordenada destino de una jugada ya validada.
+     *
+     * @param texto  texto que contiene la jugada.
+     * @param inicio posición del primer carácter de la jugada.
+     * @return la coordenada destino.
+     */
+    public static Coordenada extraerDestino(CharSequence texto, int inicio) {
+        return extraerCoordenada(texto, inicio + INICIO_COORDENADA_DESTINO);
+    }
+
+    /**
+     * Extrae una coordenada de dos caracteres.
+     *
+     * @param texto  texto que contiene la coordenada.
+     * @param inicio posición del carácter de la fila.
+     * @return la coordenada.
+     */
+    private static Coordenada extraerCoordenada(CharSequence texto, int inicio) {
+        return new Coordenada(Coordenada.desdeCaracter(texto.charAt(inicio)),
+                Coordenada.desdeCaracter(texto.charAt(inicio + 1)));
+    }
+
+    /**
+     * Comprueba si un carácter representa un valor de fila o columna del tablero.
+     *
+     * @param caracter carácter a comprobar.
+     * @param tamano   número de filas y columnas del tablero.
+     * @return true si está en rango.
+     */
+    private static boolean enRango(char caracter, int tamano) {
+        int valor = Coordenada.desdeCaracter(caracter);
+        return valor >= 0 && valor < tamano;
+    }
+}
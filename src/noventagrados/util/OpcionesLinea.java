@@ -0,0 +1,119 @@
+package noventagrados.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opciones de la línea de órdenes de las herramientas del juego, con la forma
+ * {@code --nombre=valor}, seguidas o mezcladas con argumentos sin guiones
+ * (normalmente ficheros).
+ *
+ * Cada herramienta indica las opciones que admite; cualquier otra, o una
+ * opción sin valor, es un error. Una opción puede repetirse: los valores se
+ * conservan en orden y las consultas de un solo valor devuelven el último.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public final class OpcionesLinea {
+    private final Map<String, List<String>> valores;
+    private final List<String> argumentos;
+
+    /**
+     * Interpreta los argumentos de la línea de órdenes.
+     *
+     * @param args      argumentos recibidos por {@code main}.
+     * @param admitidas nombres de las opciones admitidas, con los guiones y sin
+     *                  el signo igual (por ejemplo {@code "--tamano"}).
+     * @throws IllegalArgumentException si hay una opción no admitida o sin valor.
+     */
+    public OpcionesLinea(String[] args, String... admitidas) {
+        this.valores = new LinkedHashMap<>();
+        this.argumentos = new ArrayList<>();
+        List<String> nombres = Arrays.asList(admitidas);
+        for (String argumento : args) {
+            if (!argumento.startsWith("--")) {
+                argumentos.add(argumento);
+                continue;
+            }
+            int igual = argumento.indexOf('=');
+            String nombre = igual < 0 ? argumento : argumento.substring(0, igual);
+            if (!nombres.contains(nombre)) {
+                throw new IllegalArgumentException("Opción desconocida: " + nombre);
+            }
+            if (igual < 0) {
+                throw new IllegalArgumentException("Falta el valor de " + nombre);
+            }
+            valores.computeIfAbsent(nombre, n -> new ArrayList<>()).add(argumento.substring(igual + 1));
+        }
+    }
+
+    /**
+     * Consulta el valor de una opción.
+     *
+     * @param nombre  nombre de la opción.
+     * @param defecto valor si no se ha indicado.
+     * @return el último valor indicado o el valor por defecto.
+     */
+    public String consultarTexto(String nombre, String defecto) {
+        List<String> lista = valores.get(nombre);
+        return lista == null ? defecto : lista.get(lista.size() - 1);
+    }
+
+    /**
+     * Consulta todos los valores de una opción repetible.
+     *
+     * @param nombre nombre de la opción.
+     * @return los valores en el orden en que se indicaron; vacía si no se indicó.
+     */
+    public List<String> consultarTextos(String nombre) {
+        return Collections.unmodifiableList(valores.getOrDefault(nombre, List.of()));
+    }
+
+    /**
+     * Consulta el valor entero de una opción.
+     *
+     * @param nombre  nombre de la opción.
+     * @param defecto valor si no se ha indicado.
+     * @return el último valor indicado o el valor por defecto.
+     * @throws IllegalArgumentException si el valor no es un entero.
+     */
+    public int consultarEntero(String nombre, int defecto) {
+        String valor = consultarTexto(nombre, null);
+        try {
+            return valor == null ? defecto : Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no válido para " + nombre + ": " + valor, e);
+        }
+    }
+
+    /**
+     * Consulta el valor entero largo de una opción.
+     *
+     * @param nombre  nombre de la opción.
+     * @param defecto valor si no se ha indicado.
+     * @return el último valor indicado o el valor por defecto.
+     * @throws IllegalArgumentException si el valor no es un entero.
+     */
+    public long consultarLargo(String nombre, long defecto) {
+        String valor = consultarTexto(nombre, null);
+        try {
+            return valor == null ? defecto : Long.parseLong(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no válido para " + nombre + ": " + valor, e);
+        }
+    }
+
+    /**
+     * Consulta los argumentos que no son opciones.
+     *
+     * @return los argumentos, en orden.
+     */
+    public List<String> consultarArgumentos() {
+        return Collections.unmodifiableList(argumentos);
+    }
+}
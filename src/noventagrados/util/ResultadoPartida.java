@@ -0,0 +1,36 @@
+package noventagrados.util;
+
+/**
+ * Códigos del resultado de una partida, comunes a los ficheros de posiciones
+ * y a la clasificación de jugadores.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public final class ResultadoPartida {
+    /** Resultado: ganan las negras. */
+    public static final int GANAN_NEGRAS = 0;
+
+    /** Resultado: tablas o partida sin terminar. */
+    public static final int TABLAS = 1;
+
+    /** Resultado: ganan las blancas. */
+    public static final int GANAN_BLANCAS = 2;
+
+    /** Oculta el constructor. */
+    private ResultadoPartida() {
+    }
+
+    /**
+     * Convierte el ganador de una partida en su código de resultado.
+     *
+     * @param ganador color ganador o null si no lo hay.
+     * @return el código de resultado.
+     */
+    public static int codificar(Color ganador) {
+        if (ganador == null) {
+            return TABLAS;
+        }
+        return ganador == Color.BLANCO ? GANAN_BLANCAS : GANAN_NEGRAS;
+    }
+}
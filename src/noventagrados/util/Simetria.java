@@ -0,0 +1,122 @@
+package noventagrados.util;
+
+/**
+ * Simetrías de la posición inicial que se usan para reducir cada posición a
+ * una representante canónica: las posiciones que se obtienen unas de otras
+ * con ellas son equivalentes para el jugador con el turno.
+ *
+ * Las reglas no distinguen direcciones ni colores, pero la posición inicial
+ * solo es invariante con la reflexión en la diagonal principal y con el giro
+ * de 180 grados intercambiando los colores (y con su composición, la reflexión
+ * en la antidiagonal intercambiando los colores). Las posiciones de una partida
+ * que se repiten por simetría lo hacen casi siempre con estas cuatro, por lo que
+ * no se usan el resto de giros y reflexiones.
+ *
+ * Cada simetría es su propia inversa: aplicarla dos veces deja la posición
+ * como estaba, y la misma transformación sirve para llevar una jugada a la
+ * posición canónica y para devolverla.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public enum Simetria {
+    /** Deja la posición como está. */
+    IDENTIDAD(false),
+
+    /** Reflexión en la diagonal principal: (fila, columna) pasa a (columna, fila). */
+    DIAGONAL(false),
+
+    /** Giro de 180 grados intercambiando los colores y el turno. */
+    GIRO_COLORES(true),
+
+    /** Reflexión en la antidiagonal intercambiando los colores y el turno. */
+    ANTIDIAGONAL_COLORES(true);
+
+    /** Si la simetría intercambia los colores. */
+    private final boolean intercambiaColores;
+
+    /**
+     * Constructor de cada simetría.
+     *
+     * @param intercambiaColores si intercambia los colores.
+     */
+    Simetria(boolean intercambiaColores) {
+        this.intercambiaColores = intercambiaColores;
+    }
+
+    /**
+     * Consulta si la simetría intercambia los colores de las piezas y el turno.
+     *
+     * @return true si los intercambia.
+     */
+    public boolean intercambiaColores() {
+        return intercambiaColores;
+    }
+
+    /**
+     * Transforma un color.
+     *
+     * @param color el color.
+     * @return el color transformado.
+     */
+    public Color transformar(Color color) {
+        return intercambiaColores ? color.consultarContrario() : color;
+    }
+
+    /**
+     * Calcula la fila transformada de una celda.
+     *
+     * @param fila    fila de la celda.
+     * @param columna columna de la celda.
+     * @param tamano  tamaño del tablero.
+     * @return la fila de la celda transformada.
+     */
+    public int transformarFila(int fila, int columna, int tamano) {
+        switch (this) {
+        case DIAGONAL:
+            return columna;
+        case GIRO_COLORES:
+            return tamano - 1 - fila;
+        case ANTIDIAGONAL_COLORES:
+            return tamano - 1 - columna;
+        default:
+            return fila;
+        }
+    }
+
+    /**
+     * Calcula la columna transformada de una celda.
+     *
+     * @param fila    fila de la celda.
+     * @param columna columna de la celda.
+     * @param tamano  tamaño del tablero.
+     * @return la columna de la celda transformada.
+     */
+    public int transformarColumna(int fila, int columna, int tamano) {
+        switch (this) {
+        case DIAGONAL:
+            return fila;
+        case GIRO_COLORES:
+            return tamano - 1 - columna;
+        case ANTIDIAGONAL_COLORES:
+            return tamano - 1 - fila;
+        default:
+            return columna;
+        }
+    }
+
+    /**
+     * Transforma una coordenada.
+     *
+     * @param coordenada la coordenada.
+     * @param tamano     tamaño del tablero.
+     * @return la coordenada transformada.
+     */
+    public Coordenada transformar(Coordenada coordenada, int tamano) {
+        if (this == IDENTIDAD) {
+            return coordenada;
+        }
+        return new Coordenada(transformarFila(coordenada.fila(), coordenada.columna(), tamano),
+                transformarColumna(coordenada.fila(), coordenada.columna(), tamano));
+    }
+}
@@ -0,0 +1,483 @@
+package noventagrados.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+
+/**
+ * Base de las tablas hash con claves {@code long} guardadas fuera del montículo
+ * ({@link ConjuntoLong}, {@link MapaLongLong} y {@link MapaLongInt}).
+ *
+ * Es una tabla de direccionamiento abierto con sondeo lineal. Cada ranura
+ * guarda la clave en 8 bytes seguida de su valor, si lo hay. La clave 0 marca
+ * una ranura libre, por lo que la entrada de la clave 0 ocupa una ranura extra
+ * al final de la tabla. Cuando la ocupación supera tres cuartos se duplica la
+ * capacidad y se reinsertan las entradas; al eliminar se desplazan hacia atrás
+ * las entradas siguientes, sin dejar marcas de borrado.
+ *
+ * Las ranuras se reparten en búferes de como mucho 1 GiB, de modo que la
+ * capacidad solo está limitada por la memoria. Pueden ser búferes directos,
+ * limitados por {@code -XX:MaxDirectMemorySize}, o la proyección en memoria de
+ * un fichero, que conserva la tabla entre ejecuciones y deja al sistema
+ * operativo decidir qué parte está en memoria. El fichero empieza con una
+ * cabecera de {@value #TAMANO_CABECERA} bytes (número mágico, ancho de ranura,
+ * capacidad, número de entradas y si está la clave 0) que se actualiza al
+ * crecer, al sincronizar y al cerrar la tabla. Al crecer, la tabla nueva se
+ * construye en un fichero auxiliar que se fuerza al disco antes de sustituir
+ * al original. Si el proceso termina sin cerrar la tabla, el fichero conserva
+ * el estado de la última sincronización.
+ *
+ * No es segura para varios hilos a la vez.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public abstract class TablaHashLong implements AutoCloseable {
+    /** Número mágico del fichero: "NGHASH01" en ASCII. */
+    private static final long MAGIA = 0x4E47484153483031L;
+
+    /** Bytes de la cabecera del fichero. */
+    private static final int TAMANO_CABECERA = 64;
+
+    /** Bytes máximos de cada búfer. */
+    private static final long BYTES_POR_SEGMENTO = 1L << 30;
+
+    /** Capacidad mínima. */
+    private static final long CAPACIDAD_MINIMA = 1 << 10;
+
+    private final int ancho;
+    private final int bitsSegmento;
+    private final Path fichero;
+    private FileChannel canal;
+    private ByteBuffer[] segmentos;
+    private long capacidad;
+    private long mascara;
+    private long elementos;
+    private boolean contieneCero;
+
+    /**
+     * Crea una tabla vacía en memoria directa.
+     *
+     * @param bytesValor bytes del valor de cada entrada.
+     * @param esperados  número de entradas que caben sin crecer.
+     */
+    TablaHashLong(int bytesValor, long esperados) {
+        this.ancho = Long.BYTES + bytesValor;
+        this.bitsSegmento = Long.numberOfTrailingZeros(Long.highestOneBit(BYTES_POR_SEGMENTO / ancho));
+        this.fichero = null;
+        reservar(calcularCapacidad(esperados));
+    }
+
+    /**
+     * Abre la tabla guardada en un fichero proyectado en memoria o, si el
+     * fichero no existe o está vacío, la crea vacía.
+     *
+     * @param bytesValor bytes del valor de cada entrada.
+     * @param esperados  número de entradas que caben sin crecer en una tabla nueva.
+     * @param fichero    ruta del fichero.
+     * @throws IOException si no se puede proyectar o no es una tabla del mismo tipo.
+     */
+    TablaHashLong(int bytesValor, long esperados, Path fichero) throws IOException {
+        this.ancho = Long.BYTES + bytesValor;
+        this.bitsSegmento = Long.numberOfTrailingZeros(Long.highestOneBit(BYTES_POR_SEGMENTO / ancho));
+        this.fichero = fichero;
+        FileChannel abierto = FileChannel.open(fichero, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (abierto.size() == 0) {
+                proyectar(abierto, calcularCapacidad(esperados));
+            } else {
+                ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+                while (cabecera.hasRemaining() && abierto.read(cabecera, cabecera.position()) >= 0) {
+                    // Lee la cabecera completa
+                }
+                cabecera.flip();
+                if (cabecera.remaining() < TAMANO_CABECERA || cabecera.getLong() != MAGIA
+                        || cabecera.getInt() != ancho) {
+                    throw new IOException("No es una tabla hash de este tipo: " + fichero);
+                }
+                cabecera.getInt();
+                long guardada = cabecera.getLong();
+                long guardados = cabecera.getLong();
+                boolean cero = cabecera.get() != 0;
+                // Las claves distintas de 0 deben dejar alguna ranura libre para que termine el sondeo
+                long distintosDeCero = guardados - (cero ? 1 : 0);
+                if (guardada < CAPACIDAD_MINIMA || Long.bitCount(guardada) != 1
+                        || abierto.size() < TAMANO_CABECERA + (guardada + 1) * ancho
+                        || distintosDeCero < 0 || distintosDeCero >= guardada) {
+                    throw new IOException("Tabla hash truncada o no válida: " + fichero);
+                }
+                // Se leen antes de proyectar, que reescribe la cabecera con el estado de la tabla
+                this.elementos = guardados;
+                this.contieneCero = cero;
+                proyectar(abierto, guardada);
+            }
+        } catch (IOException | RuntimeException e) {
+            abierto.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Consulta el número de entradas de la tabla.
+     *
+     * @return el número de entradas.
+     */
+    public long contarElementos() {
+        return elementos;
+    }
+
+    /**
+     * Consulta el número de ranuras reservadas, sin contar la de la clave 0.
+     *
+     * @return la capacidad.
+     */
+    public long consultarCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Si la tabla está en un fichero, fuerza al disco sus entradas y la
+     * cabecera con el número de entradas actual, de modo que pueda volver a
+     * abrirse en este estado aunque no llegue a cerrarse. En memoria directa no
+     * hace nada.
+     *
+     * @throws IOException si falla la escritura del fichero.
+     */
+    public void sincronizar() throws IOException {
+        if (canal != null) {
+            for (ByteBuffer segmento : segmentos) {
+                ((MappedByteBuffer) segmento).force();
+            }
+            escribirCabecera();
+            canal.force(true);
+        }
+    }
+
+    /**
+     * Cierra la tabla. Si está en un fichero, la sincroniza antes de cerrarlo;
+     * la memoria directa se libera cuando el recolector descarta los búferes.
+     *
+     * @throws IOException si falla la escritura del fichero.
+     */
+    @Override
+    public void close() throws IOException {
+        if (canal != null) {
+            sincronizar();
+            canal.close();
+            canal = null;
+        }
+        segmentos = new ByteBuffer[0];
+    }
+
+    /**
+     * Busca la ranura de una clave.
+     *
+     * @param clave la clave.
+     * @return el índice de su ranura, o -1 si no está.
+     */
+    long buscar(long clave) {
+        if (clave == 0) {
+            return contieneCero ? capacidad : -1;
+        }
+        long ranura = sondear(clave);
+        return leerClave(ranura) == clave ? ranura : -1;
+    }
+
+    /**
+     * Busca la ranura de una clave y la ocupa si no estaba. Las ranuras nuevas
+     * tienen el valor a cero.
+     *
+     * @param clave la clave.
+     * @return el índice de su ranura si ya estaba, o su complemento ({@code ~ranura}) si es nueva.
+     */
+    long insertar(long clave) {
+        if (clave == 0) {
+            if (contieneCero) {
+                return capacidad;
+            }
+            contieneCero = true;
+            elementos++;
+            return ~capacidad;
+        }
+        if (elementos + 1 > capacidad * 3 / 4) {
+            crecer();
+        }
+        long ranura = sondear(clave);
+        if (leerClave(ranura) == clave) {
+            return ranura;
+        }
+        segmento(ranura).putLong(desplazamiento(ranura), clave);
+        elementos++;
+        return ~ranura;
+    }
+
+    /**
+     * Elimina una clave y su valor.
+     *
+     * @param clave la clave.
+     * @return true si estaba en la tabla.
+     */
+    boolean quitar(long clave) {
+        long ranura = buscar(clave);
+        if (ranura < 0) {
+            return false;
+        }
+        elementos--;
+        if (clave == 0) {
+            contieneCero = false;
+            vaciar(capacidad);
+            return true;
+        }
+        // Desplaza hacia atrás las entradas que quedarían separadas de su ranura ideal
+        long hueco = ranura;
+        long siguiente = ranura;
+        while (true) {
+            siguiente = (siguiente + 1) & mascara;
+            long otra = leerClave(siguiente);
+            if (otra == 0) {
+                break;
+            }
+            long ideal = mezclar(otra) & mascara;
+            boolean entreHuecoYSiguiente = hueco <= siguiente ? ideal > hueco && ideal <= siguiente
+                    : ideal > hueco || ideal <= siguiente;
+            if (!entreHuecoYSiguiente) {
+                copiar(segmento(siguiente), desplazamiento(siguiente), hueco);
+                hueco = siguiente;
+            }
+        }
+        vaciar(hueco);
+        return true;
+    }
+
+    /**
+     * Recorre las ranuras ocupadas, en un orden sin significado.
+     *
+     * @param accion recibe el índice de cada ranura ocupada.
+     */
+    void recorrerRanuras(LongConsumer accion) {
+        for (long ranura = 0; ranura < capacidad; ranura++) {
+            if (leerClave(ranura) != 0) {
+                accion.accept(ranura);
+            }
+        }
+        if (contieneCero) {
+            accion.accept(capacidad);
+        }
+    }
+
+    /**
+     * Lee la clave de una ranura.
+     *
+     * @param ranura índice de la ranura.
+     * @return la clave, o 0 si está libre.
+     */
+    long leerClave(long ranura) {
+        return ranura == capacidad ? 0 : segmento(ranura).getLong(desplazamiento(ranura));
+    }
+
+    long leerLong(long ranura) {
+        return segmento(ranura).getLong(desplazamiento(ranura) + Long.BYTES);
+    }
+
+    void escribirLong(long ranura, long valor) {
+        segmento(ranura).putLong(desplazamiento(ranura) + Long.BYTES, valor);
+    }
+
+    int leerInt(long ranura) {
+        return segmento(ranura).getInt(desplazamiento(ranura) + Long.BYTES);
+    }
+
+    void escribirInt(long ranura, int valor) {
+        segmento(ranura).putInt(desplazamiento(ranura) + Long.BYTES, valor);
+    }
+
+    /**
+     * Busca la ranura de una clave distinta de 0: la que la contiene o la
+     * primera libre de su secuencia de sondeo.
+     *
+     * @param clave la clave.
+     * @return el índice de la ranura.
+     */
+    private long sondear(long clave) {
+        long ranura = mezclar(clave) & mascara;
+        long actual;
+        while ((actual = segmento(ranura).getLong(desplazamiento(ranura))) != 0 && actual != clave) {
+            ranura = (ranura + 1) & mascara;
+        }
+        return ranura;
+    }
+
+    /**
+     * Duplica la capacidad y reinserta todas las entradas.
+     */
+    private void crecer() {
+        ByteBuffer[] anteriores = segmentos;
+        long capacidadAnterior = capacidad;
+        FileChannel canalAnterior = canal;
+        Path auxiliar = null;
+        try {
+            if (fichero == null) {
+                reservar(capacidadAnterior << 1);
+            } else {
+                auxiliar = Paths.get(fichero + ".nuevo");
+                proyectar(FileChannel.open(auxiliar, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE), capacidadAnterior << 1);
+            }
+            for (long ranura = 0; ranura <= capacidadAnterior; ranura++) {
+                ByteBuffer origen = anteriores[(int) (ranura >>> bitsSegmento)];
+                int posicion = (int) (ranura & ((1L << bitsSegmento) - 1)) * ancho;
+                long clave = origen.getLong(posicion);
+                if (ranura == capacidadAnterior) {
+                    copiar(origen, posicion, capacidad);
+                } else if (clave != 0) {
+                    copiar(origen, posicion, sondear(clave));
+                }
+            }
+            if (auxiliar != null) {
+                sincronizar();
+                canalAnterior.close();
+                Files.move(auxiliar, fichero, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("No se puede ampliar la tabla hash " + fichero, e);
+        }
+    }
+
+    /**
+     * Reserva búferes directos vacíos para la capacidad indicada.
+     *
+     * @param capacidad número de ranuras, potencia de dos.
+     */
+    private void reservar(long capacidad) {
+        long ranuras = capacidad + 1;
+        long porSegmento = 1L << bitsSegmento;
+        ByteBuffer[] nuevos = new ByteBuffer[(int) ((ranuras + porSegmento - 1) / porSegmento)];
+        for (int i = 0; i < nuevos.length; i++) {
+            nuevos[i] = ByteBuffer.allocateDirect((int) (Math.min(porSegmento, ranuras - i * porSegmento) * ancho));
+        }
+        usar(nuevos, capacidad);
+    }
+
+    /**
+     * Proyecta en memoria un fichero vacío con la capacidad indicada, o uno ya
+     * existente con esa capacidad, y lo toma como almacenamiento de la tabla.
+     *
+     * @param abierto   canal del fichero.
+     * @param capacidad número de ranuras, potencia de dos.
+     * @throws IOException si falla la proyección.
+     */
+    private void proyectar(FileChannel abierto, long capacidad) throws IOException {
+        long ranuras = capacidad + 1;
+        long porSegmento = 1L << bitsSegmento;
+        ByteBuffer[] nuevos = new ByteBuffer[(int) ((ranuras + porSegmento - 1) / porSegmento)];
+        for (int i = 0; i < nuevos.length; i++) {
+            nuevos[i] = abierto.map(FileChannel.MapMode.READ_WRITE, TAMANO_CABECERA + i * porSegmento * ancho,
+                    Math.min(porSegmento, ranuras - i * porSegmento) * ancho);
+        }
+        this.canal = abierto;
+        usar(nuevos, capacidad);
+        escribirCabecera();
+    }
+
+    /**
+     * Toma unos búferes como almacenamiento de la tabla.
+     *
+     * @param nuevos    búferes con capacidad + 1 ranuras.
+     * @param capacidad número de ranuras, potencia de dos.
+     */
+    private void usar(ByteBuffer[] nuevos, long capacidad) {
+        this.segmentos = nuevos;
+        this.capacidad = capacidad;
+        this.mascara = capacidad - 1;
+    }
+
+    /**
+     * Escribe la cabecera del fichero con el estado actual de la tabla.
+     *
+     * @throws IOException si falla la escritura.
+     */
+    private void escribirCabecera() throws IOException {
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+        cabecera.putLong(MAGIA).putInt(ancho).putInt(0).putLong(capacidad).putLong(elementos)
+                .put((byte) (contieneCero ? 1 : 0));
+        cabecera.clear();
+        while (cabecera.hasRemaining()) {
+            canal.write(cabecera, cabecera.position());
+        }
+    }
+
+    /**
+     * Copia una ranura completa a otra ranura de la tabla.
+     *
+     * @param origen   búfer de la ranura de origen.
+     * @param posicion desplazamiento de la ranura de origen en su búfer.
+     * @param destino  índice de la ranura de destino.
+     */
+    private void copiar(ByteBuffer origen, int posicion, long destino) {
+        ByteBuffer segmento = segmento(destino);
+        int desplazamiento = desplazamiento(destino);
+        segmento.putLong(desplazamiento, origen.getLong(posicion));
+        for (int i = Long.BYTES; i < ancho; i += Integer.BYTES) {
+            segmento.putInt(desplazamiento + i, origen.getInt(posicion + i));
+        }
+    }
+
+    /**
+     * Deja una ranura libre y con el valor a cero.
+     *
+     * @param ranura índice de la ranura.
+     */
+    private void vaciar(long ranura) {
+        ByteBuffer segmento = segmento(ranura);
+        int desplazamiento = desplazamiento(ranura);
+        segmento.putLong(desplazamiento, 0);
+        for (int i = Long.BYTES; i < ancho; i += Integer.BYTES) {
+            segmento.putInt(desplazamiento + i, 0);
+        }
+    }
+
+    private ByteBuffer segmento(long ranura) {
+        return segmentos[(int) (ranura >>> bitsSegmento)];
+    }
+
+    private int desplazamiento(long ranura) {
+        return (int) (ranura & ((1L << bitsSegmento) - 1)) * ancho;
+    }
+
+    /**
+     * Calcula la capacidad inicial para un número de entradas.
+     *
+     * @param esperados número de entradas esperado.
+     * @return la menor potencia de dos en la que caben sin crecer.
+     * @throws IllegalArgumentException si es negativo.
+     */
+    private static long calcularCapacidad(long esperados) {
+        if (esperados < 0) {
+            throw new IllegalArgumentException("Número de entradas no válido: " + esperados);
+        }
+        long capacidad = CAPACIDAD_MINIMA;
+        while (capacidad * 3 / 4 < esperados) {
+            capacidad <<= 1;
+        }
+        return capacidad;
+    }
+
+    /**
+     * Mezcla los bits de una clave para repartir también claves poco aleatorias.
+     *
+     * @param clave la clave.
+     * @return la clave mezclada.
+     */
+    private static long mezclar(long clave) {
+        long h = clave * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
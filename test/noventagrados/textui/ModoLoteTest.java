@@ -0,0 +1,97 @@
+package noventagrados.textui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import noventagrados.modelo.Tablero;
+
+/**
+ * Pruebas de la reproducción por lotes de partidas.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class ModoLoteTest {
+
+	/** Resultado de la partida "20-24 46-56" desde la configuración inicial. */
+	private static final String PARTIDA_BLANCO = "1 BLANCO 2 RPPP---/P------/----P--/P-----p/-------/------p/---pppp";
+
+	private ByteArrayOutputStream bytes;
+	private ModoLote lote;
+
+	/**
+	 * Crea un reproductor que escribe en memoria.
+	 */
+	@BeforeEach
+	void crearLote() {
+		bytes = new ByteArrayOutputStream();
+		lote = new ModoLote(new PrintStream(bytes, true, StandardCharsets.UTF_8), Tablero.TAMANO_POR_DEFECTO);
+	}
+
+	/**
+	 * Una partida partida a mitad de jugada entre dos entradas se reproduce como
+	 * una sola.
+	 *
+	 * @throws IOException no se produce con entradas en memoria
+	 */
+	@Test
+	void partidaRepartidaEntreDosEntradas() throws IOException {
+		lote.procesar(entrada("20-24 4"));
+		assertEquals("", salida());
+		lote.procesar(entrada("6-56\n"));
+		lote.terminar();
+		assertEquals(PARTIDA_BLANCO + "\n", salida());
+	}
+
+	/**
+	 * La partida pendiente al final de la última entrada se cierra con terminar.
+	 *
+	 * @throws IOException no se produce con entradas en memoria
+	 */
+	@Test
+	void terminarCierraLaUltimaPartidaSinSaltoDeLinea() throws IOException {
+		lote.procesar(entrada("# comentario\n20-24 46-56"));
+		assertEquals("", salida());
+		lote.terminar();
+		assertEquals(PARTIDA_BLANCO + "\n", salida());
+	}
+
+	/**
+	 * Terminar sin partida pendiente no escribe nada.
+	 *
+	 * @throws IOException no se produce con entradas en memoria
+	 */
+	@Test
+	void terminarSinPartidaPendienteNoEscribe() throws IOException {
+		lote.procesar(entrada("20-24 46-56\n"));
+		lote.terminar();
+		assertEquals(PARTIDA_BLANCO + "\n", salida());
+	}
+
+	/**
+	 * Crea una entrada con el texto indicado.
+	 *
+	 * @param texto contenido de la entrada
+	 * @return la entrada
+	 */
+	private static ByteArrayInputStream entrada(String texto) {
+		return new ByteArrayInputStream(texto.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Consulta lo escrito hasta el momento, con saltos de línea normalizados.
+	 *
+	 * @return la salida
+	 */
+	private String salida() {
+		return bytes.toString(StandardCharsets.UTF_8).replace(System.lineSeparator(), "\n");
+	}
+}
@@ -0,0 +1,160 @@
+package noventagrados.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de la persistencia en fichero de las tablas hash fuera del montículo.
+ *
+ * @author Miguel Cuevas Ruiz
+ * @version 1.0
+ */
+public class TablaHashLongTest {
+
+    /** Posición del número de entradas en la cabecera del fichero. */
+    private static final int POSICION_ELEMENTOS = 24;
+
+    private Path directorio;
+    private Path fichero;
+    private List<TablaHashLong> abiertas;
+
+    /**
+     * Prepara un directorio temporal para el fichero de la tabla.
+     *
+     * @throws IOException si no se puede crear.
+     */
+    @BeforeEach
+    void crearDirectorio() throws IOException {
+        directorio = Files.createTempDirectory("tabla-hash");
+        fichero = directorio.resolve("conjunto.bin");
+        abiertas = new ArrayList<>();
+    }
+
+    /**
+     * Cierra las tablas abiertas y borra el directorio temporal.
+     *
+     * @throws IOException si no se pueden borrar los ficheros.
+     */
+    @AfterEach
+    void borrarDirectorio() throws IOException {
+        for (TablaHashLong tabla : abiertas) {
+            tabla.close();
+        }
+        try (var ficheros = Files.list(directorio)) {
+            for (Path restante : (Iterable<Path>) ficheros::iterator) {
+                Files.delete(restante);
+            }
+        }
+        Files.delete(directorio);
+    }
+
+    /**
+     * Abrir una tabla guardada no debe borrar de la cabecera su número de
+     * entradas aunque la tabla abierta no llegue a cerrarse.
+     *
+     * @throws IOException si falla el fichero.
+     */
+    @Test
+    void reabrirSinCerrarConservaLasEntradas() throws IOException {
+        try (ConjuntoLong creado = new ConjuntoLong(100, fichero)) {
+            for (long clave = 0; clave < 100; clave++) {
+                creado.añadir(clave);
+            }
+        }
+        ConjuntoLong primera = abrir();
+        assertEquals(100L, primera.contarElementos());
+
+        ConjuntoLong segunda = abrir();
+        assertEquals(100L, segunda.contarElementos());
+        for (long clave = 0; clave < 100; clave++) {
+            assertTrue(segunda.contiene(clave), "falta la clave " + clave);
+        }
+    }
+
+    /**
+     * Una tabla sincronizada puede reabrirse aunque no se cierre.
+     *
+     * @throws IOException si falla el fichero.
+     */
+    @Test
+    void sincronizarGuardaElNumeroDeEntradas() throws IOException {
+        ConjuntoLong tabla = abrir();
+        for (long clave = 1; clave <= 50; clave++) {
+            tabla.añadir(clave);
+        }
+        tabla.añadir(0);
+        tabla.sincronizar();
+
+        ConjuntoLong reabierta = abrir();
+        assertEquals(51L, reabierta.contarElementos());
+        assertTrue(reabierta.contiene(0));
+        assertTrue(reabierta.contiene(50));
+    }
+
+    /**
+     * Al crecer, el fichero nuevo se guarda con la capacidad y las entradas que
+     * tenía la tabla en ese momento.
+     *
+     * @throws IOException si falla el fichero.
+     */
+    @Test
+    void crecerGuardaLaCabecera() throws IOException {
+        ConjuntoLong tabla = abrir();
+        long capacidad = tabla.consultarCapacidad();
+        long umbral = capacidad * 3 / 4;
+        for (long clave = 1; clave <= umbral + 1; clave++) {
+            tabla.añadir(clave);
+        }
+        assertEquals(capacidad * 2, tabla.consultarCapacidad());
+
+        ConjuntoLong reabierta = abrir();
+        assertEquals(capacidad * 2, reabierta.consultarCapacidad());
+        assertEquals(umbral, reabierta.contarElementos());
+        for (long clave = 1; clave <= umbral; clave++) {
+            assertTrue(reabierta.contiene(clave), "falta la clave " + clave);
+        }
+    }
+
+    /**
+     * Se rechaza una cabecera con más entradas que ranuras.
+     *
+     * @throws IOException si falla el fichero.
+     */
+    @Test
+    void rechazaMasEntradasQueRanuras() throws IOException {
+        long capacidad;
+        try (ConjuntoLong creado = new ConjuntoLong(10, fichero)) {
+            capacidad = creado.consultarCapacidad();
+        }
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(Long.BYTES).putLong(0, capacidad), POSICION_ELEMENTOS);
+        }
+        assertThrows(IOException.class, () -> new ConjuntoLong(10, fichero));
+    }
+
+    /**
+     * Abre la tabla del fichero de la prueba y la registra para cerrarla al final.
+     *
+     * @return la tabla.
+     * @throws IOException si falla el fichero.
+     */
+    private ConjuntoLong abrir() throws IOException {
+        ConjuntoLong tabla = new ConjuntoLong(100, fichero);
+        abiertas.add(tabla);
+        return tabla;
+    }
+}